@@ -0,0 +1,53 @@
+package com.observable.list;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Base class of the observable lists that are not backed by an ArrayList. It
+ * holds the listeners of the list and offers the same registration and
+ * notification methods as {@link ObservableList}, through
+ * {@link RegistryObservable}: the subclasses only have to implement the
+ * storage of the elements and call
+ * {@link #notifyAllListeners(ModifiedListEvent)} when the list is modified.
+ * 
+ * @param <T>
+ *            type of the objects contained in the list
+ */
+public abstract class AbstractObservableList<T> extends AbstractList<T> implements RegistryObservable {
+
+	/**
+	 * registry of the listeners of the list
+	 */
+	private final ListenerRegistry listeners = new ListenerRegistry();
+
+	/**
+	 * @return the registry of the listeners of the list
+	 */
+	@Override
+	public final ListenerRegistry listenerRegistry() {
+		return listeners;
+	}
+
+	/**
+	 * Method to get a copy of the list along with the sequence number of the
+	 * last event dispatched.
+	 * 
+	 * @return the snapshot of the list
+	 */
+	public ListSnapshot<T> snapshot() {
+		long sequence = getSequence();
+		return new ListSnapshot<>(sequence, Collections.unmodifiableList(new ArrayList<>(this)));
+	}
+
+	/**
+	 * @return the list given to the listeners along with the events, the list
+	 *         itself by default
+	 */
+	@Override
+	public List<?> eventSource() {
+		return this;
+	}
+}
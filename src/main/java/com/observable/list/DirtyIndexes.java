@@ -0,0 +1,156 @@
+package com.observable.list;
+
+import java.util.Arrays;
+
+import com.observable.list.enums.ActionType;
+
+/**
+ * Sorted set of the indexes of the elements of an {@link ObservableList}
+ * marked dirty and not notified yet. The indexes are recorded when the
+ * elements are marked and follow the modifications of the list, so that
+ * flushing the updates doesn't need to scan the list: each modification
+ * costs a pass over the marked indexes, and nothing when none is marked.
+ *
+ * The indexes are adjusted from the events of the list, which are all
+ * indexed, the additions and removals of an iterator giving the index of
+ * each element: an addition shifts the indexes after it, a removal drops the
+ * indexes of the elements removed and shifts the following ones, and a
+ * permutation moves the indexes of its range. A replaced element is not
+ * dirty anymore, as its replacement is notified by its own events.
+ */
+final class DirtyIndexes {
+
+	private int[] indexes = new int[8];
+	private int size;
+
+	/**
+	 * @return true if no index is marked
+	 */
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Method to mark an index, marking it twice has no effect
+	 *
+	 * @param index
+	 *            index of the element whose content has changed
+	 */
+	void mark(int index) {
+		int position = Arrays.binarySearch(indexes, 0, size, index);
+		if (position >= 0) {
+			return;
+		}
+		position = -position - 1;
+		if (size == indexes.length) {
+			indexes = Arrays.copyOf(indexes, size * 2);
+		}
+		System.arraycopy(indexes, position, indexes, position + 1, size - position);
+		indexes[position] = index;
+		size++;
+	}
+
+	/**
+	 * @param index
+	 *            index of an element
+	 * @return true if the index is marked
+	 */
+	boolean contains(int index) {
+		return Arrays.binarySearch(indexes, 0, size, index) >= 0;
+	}
+
+	/**
+	 * Method to get the marked indexes and unmark them
+	 *
+	 * @return the marked indexes, in increasing order
+	 */
+	int[] drain() {
+		int[] drained = Arrays.copyOf(indexes, size);
+		size = 0;
+		return drained;
+	}
+
+	/**
+	 * Method to adjust the marked indexes after a modification of the list.
+	 * The events without index can't be located and leave the indexes as
+	 * they are.
+	 *
+	 * @param event
+	 *            event of the modification, already applied to the list
+	 */
+	void apply(ModifiedListEvent event) {
+		if (size == 0) {
+			return;
+		}
+		if (event.index == ModifiedListEvent.NO_INDEX) {
+			// the elements of an iterator are located by their own index
+			if (event.indices != null && event.type != ActionType.UPDATE) {
+				for (ModifiedListEvent run : event.runs()) {
+					apply(run);
+				}
+			}
+			return;
+		}
+		switch (event.type) {
+		case ADD:
+			shift(event.index, event.elements.size());
+			break;
+		case REMOVE:
+			remove(event.index, event.elements.size());
+			break;
+		case ROLL:
+			remove(0, event.evicted.size());
+			shift(event.index, event.elements.size());
+			break;
+		case PERMUTATION:
+			permute(event.index, event.permutation);
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Method to shift the indexes from a given index after an addition.
+	 */
+	private void shift(int index, int count) {
+		for (int ind = firstFrom(index); ind < size; ind++) {
+			indexes[ind] += count;
+		}
+	}
+
+	/**
+	 * Method to drop the indexes of a removed range and shift the following
+	 * ones.
+	 */
+	private void remove(int index, int count) {
+		int kept = firstFrom(index);
+		for (int ind = kept; ind < size; ind++) {
+			if (indexes[ind] >= index + count) {
+				indexes[kept++] = indexes[ind] - count;
+			}
+		}
+		size = kept;
+	}
+
+	/**
+	 * Method to move the indexes of a permuted range to their new position.
+	 */
+	private void permute(int index, int[] permutation) {
+		int from = firstFrom(index);
+		int to = firstFrom(index + permutation.length);
+		for (int ind = from; ind < to; ind++) {
+			indexes[ind] = index + permutation[indexes[ind] - index];
+		}
+		Arrays.sort(indexes, from, to);
+	}
+
+	/**
+	 * @return the position of the first marked index greater than or equal
+	 *         to the given index
+	 */
+	private int firstFrom(int index) {
+		int position = Arrays.binarySearch(indexes, 0, size, index);
+		return position >= 0 ? position : -position - 1;
+	}
+}
@@ -0,0 +1,146 @@
+package com.observable.list;
+
+import static com.observable.list.enums.ActionType.PERMUTATION;
+import static com.observable.list.enums.ActionType.ROLL;
+import static com.observable.list.enums.ActionType.UPDATE;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.observable.list.enums.ActionType;
+import com.observable.list.intf.ElementCodec;
+
+/**
+ * Binary format of the events written outside of the heap, the elements of
+ * the events being converted with an {@link ElementCodec}. An encoded event
+ * holds its sequence numbers, type and index, the lengths of its permutation,
+ * elements and evicted elements, followed by their content, each element
+ * being preceded by its length.
+ * 
+ * @param <T>
+ *            type of the elements of the events
+ */
+final class EventCodec<T> {
+
+	/**
+	 * length given to a null element
+	 */
+	private static final int NULL_ELEMENT = -1;
+
+	private final ElementCodec<T> codec;
+
+	EventCodec(ElementCodec<T> codec) {
+		this.codec = codec;
+	}
+
+	/**
+	 * @param event
+	 *            event to encode
+	 * @return the bytes representing the event
+	 */
+	byte[] encode(ModifiedListEvent event) {
+		List<byte[]> elements = encodeAll(event.elements);
+		List<byte[]> evicted = encodeAll(event.evicted);
+		// the indexes of an update, or of the elements of an iterator, take
+		// the place of the permutation
+		int[] positions = event.permutation != null ? event.permutation : event.indices;
+		int permutationLength = positions != null ? positions.length : -1;
+		int length = 8 + 8 + 1 + 4 * 4 + 4 * Math.max(permutationLength, 0);
+		for (byte[] bytes : elements) {
+			length += 4 + (bytes != null ? bytes.length : 0);
+		}
+		for (byte[] bytes : evicted) {
+			length += 4 + (bytes != null ? bytes.length : 0);
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		buffer.putLong(event.getSequence());
+		buffer.putLong(event.getGlobalSequence());
+		buffer.put((byte) event.type.ordinal());
+		buffer.putInt(event.index);
+		buffer.putInt(permutationLength);
+		buffer.putInt(elements.size());
+		buffer.putInt(evicted.size());
+		for (int ind = 0; ind < permutationLength; ind++) {
+			buffer.putInt(positions[ind]);
+		}
+		putAll(buffer, elements);
+		putAll(buffer, evicted);
+		return buffer.array();
+	}
+
+	/**
+	 * @param buffer
+	 *            bytes given by {@link #encode(ModifiedListEvent)}, read from
+	 *            the current position of the buffer
+	 * @return the event represented by the bytes, with its sequence numbers
+	 */
+	ModifiedListEvent decode(ByteBuffer buffer) {
+		long sequence = buffer.getLong();
+		long globalSequence = buffer.getLong();
+		ActionType type = ActionType.values()[buffer.get()];
+		int index = buffer.getInt();
+		int permutationLength = buffer.getInt();
+		int elementCount = buffer.getInt();
+		int evictedCount = buffer.getInt();
+		int[] permutation = new int[Math.max(permutationLength, 0)];
+		for (int ind = 0; ind < permutation.length; ind++) {
+			permutation[ind] = buffer.getInt();
+		}
+		List<T> elements = decodeAll(buffer, elementCount);
+		List<T> evicted = decodeAll(buffer, evictedCount);
+
+		ModifiedListEvent event;
+		if (type == PERMUTATION) {
+			event = new ModifiedListEvent(index, permutation);
+		} else if (type == ROLL) {
+			event = new ModifiedListEvent(index, elements, evicted);
+		} else if (type == UPDATE && permutationLength >= 0) {
+			event = new ModifiedListEvent(permutation, elements);
+		} else if (permutationLength >= 0) {
+			event = new ModifiedListEvent(type, permutation, elements);
+		} else {
+			event = new ModifiedListEvent(type, index, elements);
+		}
+		event.setSequence(sequence);
+		event.setGlobalSequence(globalSequence);
+		return event;
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<byte[]> encodeAll(Collection<?> elements) {
+		List<byte[]> encoded = new ArrayList<>(elements.size());
+		for (Object element : elements) {
+			encoded.add(element != null ? codec.encode((T) element) : null);
+		}
+		return encoded;
+	}
+
+	private static void putAll(ByteBuffer buffer, List<byte[]> elements) {
+		for (byte[] bytes : elements) {
+			if (bytes == null) {
+				buffer.putInt(NULL_ELEMENT);
+			} else {
+				buffer.putInt(bytes.length);
+				buffer.put(bytes);
+			}
+		}
+	}
+
+	private List<T> decodeAll(ByteBuffer buffer, int count) {
+		List<T> elements = new ArrayList<>(count);
+		for (int ind = 0; ind < count; ind++) {
+			int length = buffer.getInt();
+			if (length == NULL_ELEMENT) {
+				elements.add(null);
+			} else {
+				byte[] bytes = new byte[length];
+				buffer.get(bytes);
+				elements.add(codec.decode(bytes));
+			}
+		}
+		return elements;
+	}
+}
@@ -0,0 +1,138 @@
+package com.observable.list;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+
+/**
+ * Layout of the ring file shared by an {@link EventRingPublisher} and its
+ * {@link EventRingConsumer}s. The file starts with a header, each of its
+ * positions being on its own cache line, followed by the data area where the
+ * events are written as records, one after the other, wrapping at the end of
+ * the area.
+ * 
+ * The positions are counted in bytes since the creation of the ring and only
+ * increase, the offset of a position in the data area being the position
+ * modulo the capacity. The publisher moves the claim position to the end of a
+ * record before writing it, and the published position once it is written: a
+ * consumer reading a record checks after the read that the claim position
+ * hasn't gone past the record plus the capacity, otherwise the record may
+ * have been overwritten while it was read. This is the sequence lock of the
+ * ring, no lock being shared between the processes.
+ * 
+ * A record is made of an int giving the length of its payload, an unused int,
+ * and the payload, an event encoded by {@link EventCodec}, padded to a
+ * multiple of 8 bytes. A record that doesn't fit before the end of the data
+ * area is written at its beginning, the space left being skipped: a length of
+ * {@link #PADDING} marks it when there is room for a record header.
+ * 
+ * The accesses to the mapped memory are plain accesses, ordered with the
+ * fences of sun.misc.Unsafe, called through method handles. If this class
+ * can't be accessed, a write to a volatile field is used instead, which is a
+ * full fence on x86 only: on other processors, such as aarch64, the ring is
+ * then not safe to share between processes.
+ */
+final class EventRing {
+
+	static final int MAGIC = 0x4f4c5231;
+
+	static final int MAGIC_OFFSET = 0;
+	static final int CAPACITY_OFFSET = 4;
+	static final int CLAIM_OFFSET = 64;
+	static final int PUBLISHED_OFFSET = 128;
+	static final int HEADER_SIZE = 192;
+
+	static final int RECORD_HEADER_SIZE = 8;
+	static final int PADDING = -1;
+
+	/**
+	 * fences of sun.misc.Unsafe, null if it can't be accessed
+	 */
+	private static final MethodHandle LOAD_FENCE;
+	private static final MethodHandle STORE_FENCE;
+	private static final MethodHandle FULL_FENCE;
+
+	static {
+		MethodHandle loadFence = null;
+		MethodHandle storeFence = null;
+		MethodHandle fullFence = null;
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Field field = unsafeClass.getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+			Object unsafe = field.get(null);
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			MethodType type = MethodType.methodType(void.class);
+			loadFence = lookup.findVirtual(unsafeClass, "loadFence", type).bindTo(unsafe);
+			storeFence = lookup.findVirtual(unsafeClass, "storeFence", type).bindTo(unsafe);
+			fullFence = lookup.findVirtual(unsafeClass, "fullFence", type).bindTo(unsafe);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			// the volatile field is used instead, see the class comment
+			loadFence = null;
+			storeFence = null;
+			fullFence = null;
+		}
+		LOAD_FENCE = loadFence;
+		STORE_FENCE = storeFence;
+		FULL_FENCE = fullFence;
+	}
+
+	/**
+	 * field written to order the accesses to the mapped memory when the
+	 * fences of sun.misc.Unsafe can't be accessed, a volatile write being
+	 * compiled as a full fence by HotSpot on x86 only
+	 */
+	private static volatile int fence;
+
+	private EventRing() {
+	}
+
+	/**
+	 * Method to write a position once the accesses preceding it are visible,
+	 * and before the writes following it.
+	 */
+	static void putOrdered(ByteBuffer buffer, int offset, long position) {
+		fence(STORE_FENCE);
+		buffer.putLong(offset, position);
+		fence(STORE_FENCE);
+	}
+
+	/**
+	 * Method to read a position before the accesses following it.
+	 */
+	static long getAcquire(ByteBuffer buffer, int offset) {
+		long position = buffer.getLong(offset);
+		fence(LOAD_FENCE);
+		return position;
+	}
+
+	/**
+	 * Method to order all the accesses preceding it with all the accesses
+	 * following it.
+	 */
+	static void fullFence() {
+		fence(FULL_FENCE);
+	}
+
+	private static void fence(MethodHandle unsafeFence) {
+		if (unsafeFence == null) {
+			fence = fence + 1;
+			return;
+		}
+		try {
+			unsafeFence.invokeExact();
+		} catch (Throwable e) {
+			// the fences don't throw any exception
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * @return the size of a record with the given payload, padding included
+	 */
+	static int recordSize(int payloadLength) {
+		return (RECORD_HEADER_SIZE + payloadLength + 7) & ~7;
+	}
+}
@@ -0,0 +1,92 @@
+package com.observable.list;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded buffer keeping the last events dispatched by a list, so that a
+ * listener registering late can catch up with the events it has missed. Once
+ * the buffer is full, the oldest event is overwritten by the new one.
+ * 
+ * The buffer is not synchronized, it is guarded by the lock of the registry
+ * owning it.
+ */
+final class EventRingBuffer {
+
+	/**
+	 * Message of the exception thrown when events are not available anymore
+	 */
+	private final static String EVENTS_LOST_EXCEPTION = "Events not available anymore after sequence ";
+
+	/**
+	 * Message of the exception thrown when a sequence number has not been
+	 * reached yet
+	 */
+	private final static String UNKNOWN_SEQUENCE_EXCEPTION = "Unknown sequence ";
+
+	private final ModifiedListEvent[] events;
+
+	/**
+	 * index in the array of the oldest event
+	 */
+	private int head;
+
+	/**
+	 * number of events in the buffer
+	 */
+	private int count;
+
+	/**
+	 * @param capacity
+	 *            maximum number of events kept in the buffer
+	 */
+	EventRingBuffer(int capacity) {
+		events = new ModifiedListEvent[capacity];
+	}
+
+	/**
+	 * Method to add an event to the buffer, overwriting the oldest one if the
+	 * buffer is full.
+	 * 
+	 * @param event
+	 *            event to add, its sequence number must have been set
+	 */
+	void add(ModifiedListEvent event) {
+		if (count < events.length) {
+			events[(head + count) % events.length] = event;
+			count++;
+		} else {
+			events[head] = event;
+			head = (head + 1) % events.length;
+		}
+	}
+
+	/**
+	 * Method to get the events that have been dispatched after the one with
+	 * the sequence number given in parameter.
+	 * 
+	 * @param sequence
+	 *            sequence number of the last event already known
+	 * @param lastSequence
+	 *            sequence number of the last event dispatched
+	 * @return the events following the given sequence number, in order
+	 * @throws IllegalArgumentException
+	 *             if no event has been dispatched with this sequence number
+	 * @throws IllegalStateException
+	 *             if some of these events have already been overwritten
+	 */
+	List<ModifiedListEvent> eventsAfter(long sequence, long lastSequence) {
+		long missing = lastSequence - sequence;
+		if (missing < 0) {
+			throw new IllegalArgumentException(UNKNOWN_SEQUENCE_EXCEPTION + sequence);
+		}
+		if (missing > count) {
+			throw new IllegalStateException(EVENTS_LOST_EXCEPTION + sequence);
+		}
+		List<ModifiedListEvent> result = new ArrayList<>((int) missing);
+		for (int ind = count - (int) missing; ind < count; ind++) {
+			result.add(events[(head + ind) % events.length]);
+		}
+		return result;
+	}
+}
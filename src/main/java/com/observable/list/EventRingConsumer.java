@@ -0,0 +1,272 @@
+package com.observable.list;
+
+import static com.observable.list.EventRing.CAPACITY_OFFSET;
+import static com.observable.list.EventRing.CLAIM_OFFSET;
+import static com.observable.list.EventRing.HEADER_SIZE;
+import static com.observable.list.EventRing.MAGIC;
+import static com.observable.list.EventRing.MAGIC_OFFSET;
+import static com.observable.list.EventRing.PADDING;
+import static com.observable.list.EventRing.PUBLISHED_OFFSET;
+import static com.observable.list.EventRing.RECORD_HEADER_SIZE;
+import static com.observable.list.ModifiedListEvent.NO_INDEX;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import com.observable.list.enums.ActionType;
+import com.observable.list.enums.WaitStrategy;
+import com.observable.list.intf.ElementCodec;
+
+/**
+ * Reader of a ring file written by an {@link EventRingPublisher}, applying the
+ * events read to a local {@link ObservableList}, which notifies its own
+ * listeners. A consumer starts at the events published after its creation, so
+ * the local list must hold the same elements as the list of the publisher at
+ * that time, typically by loading a snapshot of it.
+ * 
+ * The events are read by {@link #poll()}, which never blocks, or by
+ * {@link #poll(WaitStrategy, long, TimeUnit)}, which waits for the next event
+ * according to a {@link WaitStrategy}. The consumer is not thread-safe: a
+ * single thread polls it.
+ * 
+ * The events are applied at their index. An addition or a removal without
+ * index can't be located when the list holds duplicates, so rather than
+ * guessing, the consumer fails on such an event as it does when it is
+ * lapped.
+ * 
+ * @param <T>
+ *            type of the objects contained in the list
+ */
+public class EventRingConsumer<T> implements AutoCloseable {
+
+	private final static String NOT_A_RING_EXCEPTION = "Not an event ring: ";
+	private final static String LAPPED_EXCEPTION = "Consumer lapped by the publisher, events lost after position ";
+	private final static String CORRUPTED_RECORD_EXCEPTION = "Corrupted record at position ";
+	private final static String UNINDEXED_EVENT_EXCEPTION = "Event without index, it can't be applied exactly: ";
+
+	private final FileChannel channel;
+	private final MappedByteBuffer buffer;
+	private final EventCodec<T> codec;
+	private final ObservableList<T> target;
+
+	/**
+	 * size of the data area of the ring
+	 */
+	private final int capacity;
+
+	/**
+	 * position of the next record to read
+	 */
+	private long position;
+
+	/**
+	 * sequence of the last event applied
+	 */
+	private long sequence;
+
+	/**
+	 * Constructor of a consumer reading the events published from now on.
+	 * 
+	 * @param file
+	 *            ring file written by the publisher
+	 * @param codec
+	 *            codec converting the bytes back to elements
+	 * @param target
+	 *            list to which the events are applied
+	 * @throws IOException
+	 *             if the file can't be mapped or is not a ring file
+	 */
+	public EventRingConsumer(Path file, ElementCodec<T> codec, ObservableList<T> target) throws IOException {
+		Objects.requireNonNull(file);
+		Objects.requireNonNull(codec);
+		Objects.requireNonNull(target);
+		this.codec = new EventCodec<>(codec);
+		this.target = target;
+		this.channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			if (channel.size() < HEADER_SIZE) {
+				throw new IOException(NOT_A_RING_EXCEPTION + file);
+			}
+			MappedByteBuffer header = channel.map(MapMode.READ_ONLY, 0, HEADER_SIZE);
+			if (header.getInt(MAGIC_OFFSET) != MAGIC) {
+				throw new IOException(NOT_A_RING_EXCEPTION + file);
+			}
+			EventRing.fullFence();
+			this.capacity = header.getInt(CAPACITY_OFFSET);
+			this.buffer = channel.map(MapMode.READ_ONLY, 0, HEADER_SIZE + capacity);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+		this.position = EventRing.getAcquire(buffer, PUBLISHED_OFFSET);
+	}
+
+	/**
+	 * @return the list to which the events are applied
+	 */
+	public ObservableList<T> getTarget() {
+		return target;
+	}
+
+	/**
+	 * @return the sequence of the last event applied, 0 if none has been
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * @return the position of the next record to read
+	 */
+	public long getPosition() {
+		return position;
+	}
+
+	/**
+	 * Method to apply the events published since the last call, without
+	 * waiting.
+	 * 
+	 * @return the number of events applied
+	 * @throws IllegalStateException
+	 *             if the publisher has overwritten events not read yet, or if
+	 *             an event can't be applied exactly, the local list must then
+	 *             be loaded again
+	 */
+	public int poll() {
+		int applied = 0;
+		long published = EventRing.getAcquire(buffer, PUBLISHED_OFFSET);
+		while (position < published) {
+			if (published - position > capacity) {
+				throw new IllegalStateException(LAPPED_EXCEPTION + position);
+			}
+			int offset = (int) (position % capacity);
+			int remaining = capacity - offset;
+			if (remaining < RECORD_HEADER_SIZE) {
+				position += remaining;
+				continue;
+			}
+			int length = buffer.getInt(HEADER_SIZE + offset);
+			if (length == PADDING) {
+				checkNotOverwritten();
+				position += remaining;
+				continue;
+			}
+			if (length < 0 || EventRing.recordSize(length) > remaining) {
+				checkNotOverwritten();
+				throw new IllegalStateException(CORRUPTED_RECORD_EXCEPTION + position);
+			}
+			byte[] payload = new byte[length];
+			ByteBuffer data = buffer.duplicate();
+			data.position(HEADER_SIZE + offset + RECORD_HEADER_SIZE);
+			data.get(payload);
+			checkNotOverwritten();
+			position += EventRing.recordSize(length);
+			apply(codec.decode(ByteBuffer.wrap(payload)));
+			applied++;
+		}
+		return applied;
+	}
+
+	/**
+	 * Method to apply the events published since the last call, waiting for
+	 * at least one event to be published.
+	 * 
+	 * @param strategy
+	 *            way of waiting between two checks
+	 * @param timeout
+	 *            maximum time to wait
+	 * @param unit
+	 *            unit of the timeout
+	 * @return the number of events applied, 0 if the timeout has elapsed
+	 * @throws IllegalStateException
+	 *             if the publisher has overwritten events not read yet
+	 */
+	public int poll(WaitStrategy strategy, long timeout, TimeUnit unit) {
+		Objects.requireNonNull(strategy);
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		int applied = poll();
+		while (applied == 0 && System.nanoTime() - deadline < 0) {
+			strategy.idle();
+			applied = poll();
+		}
+		return applied;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Method checking that the record just read hasn't been overwritten while
+	 * it was read, which happens if the publisher has claimed a position
+	 * beyond the record plus the capacity.
+	 */
+	private void checkNotOverwritten() {
+		EventRing.fullFence();
+		long claimed = buffer.getLong(CLAIM_OFFSET);
+		if (claimed - capacity > position) {
+			throw new IllegalStateException(LAPPED_EXCEPTION + position);
+		}
+	}
+
+	/**
+	 * Method applying an event to the local list.
+	 */
+	@SuppressWarnings("unchecked")
+	private void apply(ModifiedListEvent event) {
+		if (event.indices != null && event.type != ActionType.UPDATE) {
+			// the elements of an iterator are applied run by run
+			for (ModifiedListEvent run : event.runs()) {
+				apply(run);
+			}
+			sequence = event.getSequence();
+			return;
+		}
+		int index = event.index;
+		List<T> elements = new ArrayList<>((Collection<T>) event.elements);
+		if (index == NO_INDEX && (event.type == ActionType.ADD || event.type == ActionType.REMOVE)) {
+			throw new IllegalStateException(UNINDEXED_EVENT_EXCEPTION + event.getSequence());
+		}
+		switch (event.type) {
+		case ADD:
+			target.addAll(index, elements);
+			break;
+		case REMOVE:
+			target.subList(index, index + elements.size()).clear();
+			break;
+		case PERMUTATION:
+			int[] fullPermutation = new int[target.size()];
+			for (int ind = 0; ind < fullPermutation.length; ind++) {
+				fullPermutation[ind] = ind;
+			}
+			for (int ind = 0; ind < event.permutation.length; ind++) {
+				fullPermutation[index + ind] = index + event.permutation[ind];
+			}
+			target.reorder(fullPermutation);
+			break;
+		case ROLL:
+			target.subList(0, event.evicted.size()).clear();
+			target.addAll(elements);
+			break;
+		case UPDATE:
+			if (event.indices != null) {
+				target.replaceInPlace(event.indices, elements);
+			}
+			break;
+		default:
+			break;
+		}
+		sequence = event.getSequence();
+	}
+}
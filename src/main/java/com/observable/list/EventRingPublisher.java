@@ -0,0 +1,146 @@
+package com.observable.list;
+
+import static com.observable.list.EventRing.CAPACITY_OFFSET;
+import static com.observable.list.EventRing.CLAIM_OFFSET;
+import static com.observable.list.EventRing.HEADER_SIZE;
+import static com.observable.list.EventRing.MAGIC;
+import static com.observable.list.EventRing.MAGIC_OFFSET;
+import static com.observable.list.EventRing.PADDING;
+import static com.observable.list.EventRing.PUBLISHED_OFFSET;
+import static com.observable.list.EventRing.RECORD_HEADER_SIZE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Objects;
+
+import com.observable.list.intf.ElementCodec;
+import com.observable.list.intf.ListListener;
+
+/**
+ * Listener writing the events of a list into a ring file mapped in memory, so
+ * that {@link EventRingConsumer}s running in other processes of the same host
+ * can apply them to their own copy of the list. Publishing an event is a copy
+ * into the shared memory: no system call is made and the consumers don't need
+ * to acknowledge the events.
+ * 
+ * The ring has a single publisher and any number of consumers. It has a fixed
+ * capacity: the publisher never waits for the consumers, so a consumer that
+ * is late by more than the capacity has lost events, which it detects on its
+ * next read. The elements of the events are encoded with an
+ * {@link ElementCodec}, and an event must fit in the ring.
+ * 
+ * @param <T>
+ *            type of the objects contained in the list
+ */
+public class EventRingPublisher<T> implements ListListener<ModifiedListEvent>, AutoCloseable {
+
+	private final static String INVALID_CAPACITY_EXCEPTION = "Invalid capacity: ";
+	private final static String EVENT_TOO_LARGE_EXCEPTION = "Event too large for the ring: ";
+
+	private final FileChannel channel;
+	private final MappedByteBuffer buffer;
+	private final EventCodec<T> codec;
+
+	/**
+	 * size of the data area of the ring
+	 */
+	private final int capacity;
+
+	/**
+	 * position at which the next record is written
+	 */
+	private long position;
+
+	/**
+	 * Constructor of a publisher, the file is created or truncated.
+	 * 
+	 * @param file
+	 *            ring file shared with the consumers
+	 * @param capacity
+	 *            size in bytes of the data area of the ring, a multiple of 8
+	 * @param codec
+	 *            codec converting the elements to bytes
+	 * @throws IOException
+	 *             if the file can't be created or mapped
+	 */
+	public EventRingPublisher(Path file, int capacity, ElementCodec<T> codec) throws IOException {
+		Objects.requireNonNull(file);
+		Objects.requireNonNull(codec);
+		if (capacity <= 0 || capacity % 8 != 0 || capacity > Integer.MAX_VALUE - HEADER_SIZE) {
+			throw new IllegalArgumentException(INVALID_CAPACITY_EXCEPTION + capacity);
+		}
+		this.capacity = capacity;
+		this.codec = new EventCodec<>(codec);
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		this.buffer = channel.map(MapMode.READ_WRITE, 0, HEADER_SIZE + capacity);
+		buffer.putInt(CAPACITY_OFFSET, capacity);
+		EventRing.putOrdered(buffer, CLAIM_OFFSET, 0);
+		EventRing.putOrdered(buffer, PUBLISHED_OFFSET, 0);
+		// the magic number is written last, the consumers wait for it
+		EventRing.fullFence();
+		buffer.putInt(MAGIC_OFFSET, MAGIC);
+	}
+
+	/**
+	 * @return the size in bytes of the data area of the ring
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return the number of bytes written in the ring since its creation
+	 */
+	public synchronized long getPosition() {
+		return position;
+	}
+
+	/**
+	 * Method writing the event in the ring.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the encoded event is larger than the ring
+	 */
+	@Override
+	public synchronized void update(List<?> list, ModifiedListEvent event) {
+		byte[] payload = codec.encode(event);
+		int recordSize = EventRing.recordSize(payload.length);
+		if (recordSize > capacity) {
+			throw new IllegalArgumentException(EVENT_TOO_LARGE_EXCEPTION + recordSize);
+		}
+
+		int offset = (int) (position % capacity);
+		int remaining = capacity - offset;
+		long start = recordSize > remaining ? position + remaining : position;
+		EventRing.putOrdered(buffer, CLAIM_OFFSET, start + recordSize);
+		if (start != position && remaining >= RECORD_HEADER_SIZE) {
+			buffer.putInt(HEADER_SIZE + offset, PADDING);
+		}
+
+		int recordOffset = HEADER_SIZE + (int) (start % capacity);
+		buffer.putInt(recordOffset, payload.length);
+		buffer.putInt(recordOffset + 4, 0);
+		ByteBuffer data = buffer.duplicate();
+		data.position(recordOffset + RECORD_HEADER_SIZE);
+		data.put(payload);
+
+		position = start + recordSize;
+		EventRing.putOrdered(buffer, PUBLISHED_OFFSET, position);
+	}
+
+	/**
+	 * Method to close the file, the consumers can still read the events
+	 * already published.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		channel.close();
+	}
+}
@@ -0,0 +1,351 @@
+package com.observable.list;
+
+import static com.observable.list.enums.ActionType.ADD;
+import static com.observable.list.enums.ActionType.REMOVE;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Observable list whose elements expire after a time to live. The expiry of
+ * the elements is tracked in a hierarchical {@link TimerWheel}, so that
+ * finding the expired elements doesn't require to scan the list: the wheel
+ * moves forward each time {@link #tick()} is called, typically by a scheduled
+ * task, and the elements expired since the previous call are removed from the
+ * list. The listeners receive a remove event per run of contiguous elements
+ * expired, with the index of the run.
+ * 
+ * The elements are stored in an {@link OrderStatisticTree} rather than in an
+ * array: each expired element is removed through its node in a logarithmic
+ * time, without scanning or compacting the list, so a tick costs a time
+ * proportional to the number of elements expired. Reading an element at an
+ * index also costs a logarithmic time.
+ * 
+ * The time is read from a {@link Clock} that can be given to the constructor,
+ * and is rounded up to the duration of a tick: an element expires at the
+ * first tick following its time to live. Until then it stays in the list.
+ * 
+ * @param <T>
+ *            type of the objects contained in the list
+ */
+public class ExpiringObservableList<T> extends AbstractObservableList<T> {
+
+	private final static String INVALID_DURATION_EXCEPTION = "Invalid duration: ";
+
+	/**
+	 * Element of the list along with its expiry
+	 */
+	private static final class Entry<T> extends TimerWheel.Node {
+		private final T element;
+		// node of the entry in the tree of the entries
+		private OrderStatisticTree.Node<Entry<T>> position;
+
+		private Entry(T element) {
+			this.element = element;
+		}
+	}
+
+	/**
+	 * entries of the list, in order
+	 */
+	private final OrderStatisticTree<Entry<T>> entries = new OrderStatisticTree<>();
+
+	/**
+	 * wheel scheduling the expiry of the entries
+	 */
+	private final TimerWheel wheel = new TimerWheel();
+
+	/**
+	 * default time to live of the elements
+	 */
+	private final Duration timeToLive;
+
+	/**
+	 * duration of a tick of the wheel, in milliseconds
+	 */
+	private final long tickMillis;
+
+	/**
+	 * clock giving the current time
+	 */
+	private final Clock clock;
+
+	/**
+	 * time at which the wheel started, in milliseconds
+	 */
+	private final long startMillis;
+
+	/**
+	 * Constructor of an empty list using the system clock
+	 * 
+	 * @param timeToLive
+	 *            default time to live of the elements
+	 * @param tickDuration
+	 *            duration of a tick, the precision of the expiry
+	 */
+	public ExpiringObservableList(Duration timeToLive, Duration tickDuration) {
+		this(timeToLive, tickDuration, Clock.systemUTC());
+	}
+
+	/**
+	 * Constructor of an empty list
+	 * 
+	 * @param timeToLive
+	 *            default time to live of the elements
+	 * @param tickDuration
+	 *            duration of a tick, the precision of the expiry
+	 * @param clock
+	 *            clock giving the current time
+	 */
+	public ExpiringObservableList(Duration timeToLive, Duration tickDuration, Clock clock) {
+		checkDuration(timeToLive);
+		checkDuration(tickDuration);
+		Objects.requireNonNull(clock);
+		if (tickDuration.toMillis() == 0) {
+			throw new IllegalArgumentException(INVALID_DURATION_EXCEPTION + tickDuration);
+		}
+		this.timeToLive = timeToLive;
+		this.tickMillis = tickDuration.toMillis();
+		this.clock = clock;
+		this.startMillis = clock.millis();
+	}
+
+	/**
+	 * @return the default time to live of the elements
+	 */
+	public Duration getTimeToLive() {
+		return timeToLive;
+	}
+
+	@Override
+	public T get(int index) {
+		return entries.get(index).element;
+	}
+
+	@Override
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Method to add an element at the end of the list with the default time
+	 * to live. It notifies the listeners accordingly.
+	 */
+	@Override
+	public boolean add(T element) {
+		add(size(), element, timeToLive);
+		return true;
+	}
+
+	/**
+	 * Method to add an element at the end of the list with its own time to
+	 * live. It notifies the listeners accordingly.
+	 * 
+	 * @param element
+	 *            element to add
+	 * @param elementTimeToLive
+	 *            time to live of the element
+	 */
+	public void add(T element, Duration elementTimeToLive) {
+		add(size(), element, elementTimeToLive);
+	}
+
+	/**
+	 * Method to add an element to the list at the given index with the default
+	 * time to live. It notifies the listeners accordingly.
+	 */
+	@Override
+	public void add(int index, T element) {
+		add(index, element, timeToLive);
+	}
+
+	/**
+	 * Method to add several elements at the end of the list with the default
+	 * time to live. It notifies the listeners accordingly.
+	 */
+	@Override
+	public boolean addAll(Collection<? extends T> elements) {
+		return addAll(size(), elements);
+	}
+
+	/**
+	 * Method to add several elements to the list from a given index with the
+	 * default time to live. It notifies the listeners accordingly.
+	 */
+	@Override
+	public boolean addAll(int index, Collection<? extends T> elements) {
+		if (index < 0 || index > size()) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+		}
+		if (elements.isEmpty()) {
+			return false;
+		}
+		long deadline = deadline(timeToLive);
+		List<Entry<T>> added = new ArrayList<>(elements.size());
+		List<T> addedElements = new ArrayList<>(elements.size());
+		for (T element : elements) {
+			added.add(schedule(element, deadline));
+			addedElements.add(element);
+		}
+		insert(index, added);
+		modCount++;
+		notifyAllListeners(new ModifiedListEvent(ADD, index, addedElements));
+		return true;
+	}
+
+	/**
+	 * This method replaces an element in the list, so a remove event and an add
+	 * event are sent to the listeners. The new element gets the default time
+	 * to live.
+	 */
+	@Override
+	public T set(int index, T element) {
+		Entry<T> oldEntry = entries.get(index);
+		wheel.cancel(oldEntry);
+		Entry<T> entry = schedule(element, deadline(timeToLive));
+		entry.position = entries.set(index, entry);
+		notifyAllListeners(new ModifiedListEvent(REMOVE, index, oldEntry.element));
+		notifyAllListeners(new ModifiedListEvent(ADD, index, element));
+		return oldEntry.element;
+	}
+
+	/**
+	 * Method to remove the element at the given index. It notifies the
+	 * listeners accordingly.
+	 */
+	@Override
+	public T remove(int index) {
+		Entry<T> entry = entries.get(index);
+		entries.remove(entry.position);
+		wheel.cancel(entry);
+		modCount++;
+		notifyAllListeners(new ModifiedListEvent(REMOVE, index, entry.element));
+		return entry.element;
+	}
+
+	/**
+	 * Method to remove all the elements between two indexes. It notifies the
+	 * listeners accordingly, the method clear() relies on it.
+	 */
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		if (fromIndex == toIndex) {
+			return;
+		}
+		List<Entry<T>> range = entries.removeRange(fromIndex, toIndex);
+		List<T> removed = new ArrayList<>(range.size());
+		for (Entry<T> entry : range) {
+			wheel.cancel(entry);
+			removed.add(entry.element);
+		}
+		modCount++;
+		notifyAllListeners(new ModifiedListEvent(REMOVE, fromIndex, removed));
+	}
+
+	/**
+	 * Method to move the timer wheel to the current time and remove the
+	 * elements that have expired. Each expired element is removed through
+	 * its node, and the listeners receive a remove event for each run of
+	 * contiguous elements expired, each run being at its index once the
+	 * previous runs have been removed.
+	 * 
+	 * @return the number of elements removed
+	 */
+	public int tick() {
+		long currentTick = Math.max(wheel.getCurrentTick(), (clock.millis() - startMillis) / tickMillis);
+		List<Entry<T>> expired = new ArrayList<>();
+		wheel.advanceTo(currentTick, node -> {
+			@SuppressWarnings("unchecked")
+			Entry<T> entry = (Entry<T>) node;
+			expired.add(entry);
+		});
+		if (expired.isEmpty()) {
+			return 0;
+		}
+
+		// the index of each entry in the high bits, its position in the
+		// expired entries in the low bits, sorted by index
+		long[] order = new long[expired.size()];
+		for (int ind = 0; ind < order.length; ind++) {
+			order[ind] = (long) entries.indexOf(expired.get(ind).position) << 32 | ind;
+		}
+		Arrays.sort(order);
+		List<ModifiedListEvent> events = new ArrayList<>();
+		List<T> run = null;
+		int previousIndex = -2;
+		for (int ind = 0; ind < order.length; ind++) {
+			int index = (int) (order[ind] >>> 32);
+			Entry<T> entry = expired.get((int) order[ind]);
+			if (index != previousIndex + 1) {
+				run = new ArrayList<>();
+				events.add(new ModifiedListEvent(REMOVE, index - ind, run));
+			}
+			run.add(entry.element);
+			previousIndex = index;
+		}
+		for (Entry<T> entry : expired) {
+			entries.remove(entry.position);
+		}
+		modCount++;
+		for (ModifiedListEvent event : events) {
+			notifyAllListeners(event);
+		}
+		return expired.size();
+	}
+
+	/**
+	 * Method inserting an element and scheduling its expiry.
+	 */
+	private void add(int index, T element, Duration elementTimeToLive) {
+		checkDuration(elementTimeToLive);
+		if (index < 0 || index > size()) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+		}
+		insert(index, Collections.singletonList(schedule(element, deadline(elementTimeToLive))));
+		modCount++;
+		notifyAllListeners(new ModifiedListEvent(ADD, index, element));
+	}
+
+	/**
+	 * Method inserting entries in the tree, each one keeping its node.
+	 */
+	private void insert(int index, List<Entry<T>> added) {
+		List<OrderStatisticTree.Node<Entry<T>>> nodes = entries.addAll(index, added);
+		for (OrderStatisticTree.Node<Entry<T>> node : nodes) {
+			node.getValue().position = node;
+		}
+	}
+
+	/**
+	 * @return a new entry for the element, scheduled in the wheel
+	 */
+	private Entry<T> schedule(T element, long deadline) {
+		Entry<T> entry = new Entry<>(element);
+		entry.deadline = deadline;
+		wheel.schedule(entry);
+		return entry;
+	}
+
+	/**
+	 * @return the tick at which an element added now with the given time to
+	 *         live expires
+	 */
+	private long deadline(Duration elementTimeToLive) {
+		long expiryMillis = clock.millis() - startMillis + elementTimeToLive.toMillis();
+		long deadline = (expiryMillis + tickMillis - 1) / tickMillis;
+		return Math.max(deadline, wheel.getCurrentTick() + 1);
+	}
+
+	private static void checkDuration(Duration duration) {
+		Objects.requireNonNull(duration);
+		if (duration.isNegative() || duration.isZero()) {
+			throw new IllegalArgumentException(INVALID_DURATION_EXCEPTION + duration);
+		}
+	}
+}
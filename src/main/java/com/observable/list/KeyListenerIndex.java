@@ -0,0 +1,209 @@
+package com.observable.list;
+
+import static com.observable.list.ModifiedListEvent.NO_INDEX;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.observable.list.enums.ActionType;
+import com.observable.list.intf.ListListener;
+import com.observable.list.intf.Subscription;
+
+/**
+ * Index of the listeners watching the elements of a list having a given key,
+ * the key of an element being computed by a key extractor. The listeners are
+ * kept in a hash map from the key to the listeners, one map per key
+ * extractor, so dispatching an event costs a lookup per element of the event
+ * and per key extractor, whatever the number of listeners.
+ * 
+ * Each listener receives an event restricted to the elements having its key,
+ * which keeps the sequence numbers of the original event. The index of the
+ * restricted event is the index of its element when it has a single one, the
+ * index of the original event when no element was left out, and
+ * {@link ModifiedListEvent#NO_INDEX} otherwise. The restricted updates keep
+ * the index of each of their elements. The permutations are not sent
+ * to the listeners, as they don't carry any element.
+ * 
+ * All the methods are synchronized on the index, and the listeners are
+ * notified while holding the lock, as the sequential dispatch of the
+ * {@link ListenerRegistry} does.
+ */
+final class KeyListenerIndex {
+
+	private final static String NULL_LISTENER_EXCEPTION = "Null Listener";
+
+	private final static String NULL_KEY_EXTRACTOR_EXCEPTION = "Null key extractor";
+
+	/**
+	 * Listener registered for a key, which is also its subscription handle
+	 */
+	private final class Entry implements Subscription {
+
+		private final ListListener<ModifiedListEvent> listener;
+		private final Function<Object, ?> keyExtractor;
+		private final Object key;
+		private boolean active = true;
+
+		private Entry(ListListener<ModifiedListEvent> listener, Function<Object, ?> keyExtractor, Object key) {
+			this.listener = listener;
+			this.keyExtractor = keyExtractor;
+			this.key = key;
+		}
+
+		@Override
+		public boolean isActive() {
+			synchronized (KeyListenerIndex.this) {
+				return active;
+			}
+		}
+
+		@Override
+		public void close() {
+			synchronized (KeyListenerIndex.this) {
+				if (!active) {
+					return;
+				}
+				active = false;
+				size--;
+				Map<Object, List<Entry>> byKey = entries.get(keyExtractor);
+				List<Entry> sameKey = byKey.get(key);
+				sameKey.remove(this);
+				if (sameKey.isEmpty()) {
+					byKey.remove(key);
+					if (byKey.isEmpty()) {
+						entries.remove(keyExtractor);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * listeners by key, for each key extractor
+	 */
+	private final Map<Function<Object, ?>, Map<Object, List<Entry>>> entries = new IdentityHashMap<>();
+	private int size;
+
+	/**
+	 * Method to add a listener for the elements having a key
+	 * 
+	 * @param keyExtractor
+	 *            function computing the key of an element
+	 * @param key
+	 *            key of the elements watched by the listener
+	 * @param listener
+	 *            listener notified of the additions and removals of the
+	 *            elements having the key
+	 * @return the subscription handle of the listener
+	 */
+	@SuppressWarnings("unchecked")
+	synchronized Subscription add(Function<?, ?> keyExtractor, Object key,
+			ListListener<ModifiedListEvent> listener) {
+		if (keyExtractor == null) {
+			throw new NullPointerException(NULL_KEY_EXTRACTOR_EXCEPTION);
+		}
+		if (listener == null) {
+			throw new NullPointerException(NULL_LISTENER_EXCEPTION);
+		}
+		Function<Object, ?> extractor = (Function<Object, ?>) keyExtractor;
+		Entry entry = new Entry(listener, extractor, key);
+		entries.computeIfAbsent(extractor, ignored -> new HashMap<>()).computeIfAbsent(key,
+				ignored -> new ArrayList<>(1)).add(entry);
+		size++;
+		return entry;
+	}
+
+	/**
+	 * @return the number of listeners registered for a key
+	 */
+	synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Method to notify the listeners watching the keys of the elements of an
+	 * event, each one with the event restricted to its elements.
+	 * 
+	 * @param source
+	 *            list on which the event has occurred
+	 * @param event
+	 *            event to dispatch, already stamped with its sequence numbers
+	 */
+	synchronized void dispatch(List<?> source, ModifiedListEvent event) {
+		if (entries.isEmpty() || event.permutation != null) {
+			return;
+		}
+		Map<Entry, Collection<Object>> elements = new LinkedHashMap<>();
+		Map<Entry, Collection<Object>> evicted = new LinkedHashMap<>();
+		Map<Entry, List<Integer>> positions = new HashMap<>();
+		for (Map.Entry<Function<Object, ?>, Map<Object, List<Entry>>> byKey : entries.entrySet()) {
+			int position = 0;
+			for (Object element : event.elements) {
+				List<Entry> sameKey = byKey.getValue().get(byKey.getKey().apply(element));
+				if (sameKey != null) {
+					for (Entry entry : sameKey) {
+						elements.computeIfAbsent(entry, ignored -> new ArrayList<>(1)).add(element);
+						positions.computeIfAbsent(entry, ignored -> new ArrayList<>(1)).add(position);
+					}
+				}
+				position++;
+			}
+			for (Object element : event.evicted) {
+				List<Entry> sameKey = byKey.getValue().get(byKey.getKey().apply(element));
+				if (sameKey != null) {
+					for (Entry entry : sameKey) {
+						evicted.computeIfAbsent(entry, ignored -> new ArrayList<>(1)).add(element);
+						elements.computeIfAbsent(entry, ignored -> new ArrayList<>(0));
+					}
+				}
+			}
+		}
+		for (Map.Entry<Entry, Collection<Object>> matched : elements.entrySet()) {
+			Entry entry = matched.getKey();
+			// a listener notified before may have closed this subscription
+			if (entry.active) {
+				entry.listener.update(source,
+						restrict(event, matched.getValue(), evicted.get(entry), positions.get(entry)));
+			}
+		}
+	}
+
+	/**
+	 * @return the event restricted to some of its elements, with the sequence
+	 *         numbers of the event
+	 */
+	private static ModifiedListEvent restrict(ModifiedListEvent event, Collection<Object> elements,
+			Collection<Object> evicted, List<Integer> positions) {
+		int index;
+		if (event.index == NO_INDEX || elements.size() == event.elements.size()) {
+			index = event.index;
+		} else if (elements.size() == 1) {
+			index = event.index + positions.get(0);
+		} else {
+			index = NO_INDEX;
+		}
+		ModifiedListEvent restricted;
+		if (event.indices != null) {
+			int[] indices = new int[positions.size()];
+			for (int ind = 0; ind < indices.length; ind++) {
+				indices[ind] = event.indices[positions.get(ind)];
+			}
+			restricted = event.type == ActionType.UPDATE ? new ModifiedListEvent(indices, elements)
+					: new ModifiedListEvent(event.type, indices, elements);
+		} else if (event.type == ActionType.ROLL) {
+			restricted = new ModifiedListEvent(index, elements,
+					evicted != null ? evicted : new ArrayList<>(0));
+		} else {
+			restricted = new ModifiedListEvent(event.type, index, elements);
+		}
+		restricted.setSequence(event.getSequence());
+		restricted.setGlobalSequence(event.getGlobalSequence());
+		return restricted;
+	}
+}
@@ -0,0 +1,199 @@
+package com.observable.list;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Tool class computing the differences between two lists with the Myers
+ * algorithm. The differences are given as hunks: ranges of elements of the old
+ * list replaced by ranges of elements of the new list, everything outside the
+ * hunks being unchanged.
+ * 
+ * The elements are matched by key, the key being the element itself by
+ * default. Two elements with the same key but which are not equal are
+ * reported as replaced. The common prefix and suffix of the lists are skipped
+ * before running the algorithm, the keys are compared through their hash
+ * codes first, and the lists are replaced as a whole when they don't share
+ * any key or when they are too different for the diff to be worth it.
+ */
+final class ListDiff {
+
+	/**
+	 * maximum number of edits searched by the algorithm before giving up and
+	 * replacing the remaining range as a whole
+	 */
+	static final int MAX_EDITS = 1024;
+
+	private ListDiff() {
+	}
+
+	/**
+	 * Method computing the differences between two lists.
+	 * 
+	 * @param oldList
+	 *            list before the modification
+	 * @param newList
+	 *            list after the modification
+	 * @param keyExtractor
+	 *            function giving the key used to match the elements, null to
+	 *            match the elements by equality
+	 * @return the hunks in increasing order, each hunk being an array
+	 *         {oldStart, oldEnd, newStart, newEnd} (the ends being exclusive)
+	 */
+	static List<int[]> diff(List<?> oldList, List<?> newList, Function<Object, ?> keyExtractor) {
+		int oldEnd = oldList.size();
+		int newEnd = newList.size();
+		int start = 0;
+		while (start < oldEnd && start < newEnd && Objects.equals(oldList.get(start), newList.get(start))) {
+			start++;
+		}
+		while (oldEnd > start && newEnd > start
+				&& Objects.equals(oldList.get(oldEnd - 1), newList.get(newEnd - 1))) {
+			oldEnd--;
+			newEnd--;
+		}
+		if (start == oldEnd && start == newEnd) {
+			return Collections.emptyList();
+		}
+		if (start == oldEnd || start == newEnd) {
+			return Collections.singletonList(new int[] { start, oldEnd, start, newEnd });
+		}
+
+		Object[] oldKeys = keys(oldList, start, oldEnd, keyExtractor);
+		Object[] newKeys = keys(newList, start, newEnd, keyExtractor);
+		if (disjoint(oldKeys, newKeys)) {
+			return Collections.singletonList(new int[] { start, oldEnd, start, newEnd });
+		}
+		int[] oldHashes = hashes(oldKeys);
+		int[] newHashes = hashes(newKeys);
+
+		List<int[]> matches = matches(oldKeys, oldHashes, newKeys, newHashes);
+		if (matches == null) {
+			return Collections.singletonList(new int[] { start, oldEnd, start, newEnd });
+		}
+
+		// the gaps between the matched elements are the hunks; the elements
+		// matched by key but not equal are kept in the gaps
+		List<int[]> hunks = new ArrayList<>();
+		int oldIndex = 0;
+		int newIndex = 0;
+		for (int ind = matches.size() - 1; ind >= -1; ind--) {
+			int oldMatch = ind >= 0 ? matches.get(ind)[0] : oldKeys.length;
+			int newMatch = ind >= 0 ? matches.get(ind)[1] : newKeys.length;
+			if (ind >= 0 && keyExtractor != null
+					&& !Objects.equals(oldList.get(start + oldMatch), newList.get(start + newMatch))) {
+				continue;
+			}
+			if (oldIndex < oldMatch || newIndex < newMatch) {
+				hunks.add(new int[] { start + oldIndex, start + oldMatch, start + newIndex, start + newMatch });
+			}
+			oldIndex = oldMatch + 1;
+			newIndex = newMatch + 1;
+		}
+		return hunks;
+	}
+
+	/**
+	 * Myers algorithm: it finds the shortest edit script between the two
+	 * arrays of keys and returns the pairs of matched indexes.
+	 * 
+	 * @return the matched pairs {oldIndex, newIndex} in decreasing order, or
+	 *         null if the number of edits exceeds {@link #MAX_EDITS}
+	 */
+	private static List<int[]> matches(Object[] oldKeys, int[] oldHashes, Object[] newKeys, int[] newHashes) {
+		int n = oldKeys.length;
+		int m = newKeys.length;
+		int max = Math.min(n + m, MAX_EDITS);
+		int offset = max + 1;
+		// furthest x reached on each diagonal k = x - y
+		int[] v = new int[2 * max + 3];
+		// state of v before each step d, restricted to the diagonals -d..d
+		List<int[]> trace = new ArrayList<>();
+
+		int edits = -1;
+		search: for (int d = 0; d <= max; d++) {
+			trace.add(Arrays.copyOfRange(v, offset - d, offset + d + 1));
+			for (int k = -d; k <= d; k += 2) {
+				int x;
+				if (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])) {
+					x = v[offset + k + 1];
+				} else {
+					x = v[offset + k - 1] + 1;
+				}
+				int y = x - k;
+				while (x < n && y < m && oldHashes[x] == newHashes[y]
+						&& Objects.equals(oldKeys[x], newKeys[y])) {
+					x++;
+					y++;
+				}
+				v[offset + k] = x;
+				if (x >= n && y >= m) {
+					edits = d;
+					break search;
+				}
+			}
+		}
+		if (edits < 0) {
+			return null;
+		}
+
+		List<int[]> matches = new ArrayList<>();
+		int x = n;
+		int y = m;
+		for (int d = edits; d > 0; d--) {
+			int[] previous = trace.get(d);
+			int k = x - y;
+			int previousK;
+			if (k == -d || (k != d && previous[k - 1 + d] < previous[k + 1 + d])) {
+				previousK = k + 1;
+			} else {
+				previousK = k - 1;
+			}
+			int previousX = previous[previousK + d];
+			int previousY = previousX - previousK;
+			while (x > previousX && y > previousY) {
+				matches.add(new int[] { --x, --y });
+			}
+			x = previousX;
+			y = previousY;
+		}
+		while (x > 0 && y > 0) {
+			matches.add(new int[] { --x, --y });
+		}
+		return matches;
+	}
+
+	private static Object[] keys(List<?> list, int fromIndex, int toIndex, Function<Object, ?> keyExtractor) {
+		Object[] keys = new Object[toIndex - fromIndex];
+		for (int ind = fromIndex; ind < toIndex; ind++) {
+			Object element = list.get(ind);
+			keys[ind - fromIndex] = keyExtractor != null ? keyExtractor.apply(element) : element;
+		}
+		return keys;
+	}
+
+	private static int[] hashes(Object[] keys) {
+		int[] hashes = new int[keys.length];
+		for (int ind = 0; ind < keys.length; ind++) {
+			hashes[ind] = Objects.hashCode(keys[ind]);
+		}
+		return hashes;
+	}
+
+	private static boolean disjoint(Object[] oldKeys, Object[] newKeys) {
+		Set<Object> keySet = new HashSet<>();
+		Collections.addAll(keySet, oldKeys);
+		for (Object key : newKeys) {
+			if (keySet.contains(key)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,31 @@
+package com.observable.list;
+
+import java.util.List;
+
+/**
+ * Copy of the content of a list along with the sequence number of the last
+ * event dispatched by the list when the copy was made. A listener can start
+ * from the snapshot and apply the events following this sequence number.
+ * 
+ * @param <T>
+ *            type of the objects contained in the list
+ */
+public class ListSnapshot<T> {
+	// sequence number of the last event reflected in the elements
+	public final long sequence;
+	// content of the list, it can't be modified
+	public final List<T> elements;
+
+	/**
+	 * Simple constructor
+	 * 
+	 * @param sequence
+	 *            sequence number of the last event reflected in the elements
+	 * @param elements
+	 *            content of the list
+	 */
+	public ListSnapshot(long sequence, List<T> elements) {
+		this.sequence = sequence;
+		this.elements = elements;
+	}
+}
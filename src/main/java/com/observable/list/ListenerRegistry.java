@@ -0,0 +1,812 @@
+package com.observable.list;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import com.observable.list.intf.ListListener;
+import com.observable.list.intf.Subscription;
+import com.observable.list.intf.ThreadConfinedListener;
+
+/**
+ * Registry holding the listeners of an observable collection and dispatching
+ * the events to them. Listeners can be held strongly or weakly: weakly held
+ * listeners that have been garbage collected are removed from the registry
+ * during the next dispatch, thanks to a reference queue.
+ * 
+ * The listeners are kept in a dense array, each registration knowing its slot
+ * in the array: a registration is removed in constant time by moving the last
+ * listener of the array into its slot, and the dispatch iterates over the
+ * array without allocating. The strongly held listeners are also indexed in a
+ * hash map, so that unregistering a listener doesn't scan the array. As a
+ * consequence, the listeners are notified in their registration order only
+ * as long as no listener has been removed. The registrations removed during
+ * a sequential dispatch are only marked, and are compacted once the dispatch
+ * is done.
+ * 
+ * All the methods are synchronized on the registry itself, so registering and
+ * unregistering listeners while a sequential dispatch is running is not
+ * possible. Above a configurable number of listeners, the dispatch can be
+ * split across a fork/join pool: in that case the listeners are copied before
+ * the dispatch and the lock is not held while they are notified.
+ * 
+ * Each event dispatched is stamped with a sequence number, and the last events
+ * can be kept in a bounded buffer to be replayed to late listeners.
+ * 
+ * Events can also be delivered asynchronously in an executor: the deliveries
+ * to a listener are chained, so that each listener still receives the events
+ * in order, and a synchronous dispatch waits for the asynchronous deliveries
+ * in progress before notifying the listeners. It waits without holding the
+ * lock of the registry, so that the listeners being delivered can still call
+ * the registry, and dispatches only once no delivery is left in progress.
+ */
+final class ListenerRegistry {
+
+	/**
+	 * Message of the exception thrown when events are requested while they
+	 * are not kept
+	 */
+	private final static String REPLAY_DISABLED_EXCEPTION = "Replay of the events is not enabled";
+
+	/**
+	 * Null listener exception message
+	 */
+	private final static String NULL_LISTENER_EXCEPTION = "Null Listener";
+
+	/**
+	 * Null pool exception message
+	 */
+	private final static String NULL_POOL_EXCEPTION = "Null Pool";
+
+	/**
+	 * Invalid threshold exception message
+	 */
+	private final static String INVALID_THRESHOLD_EXCEPTION = "Invalid threshold: ";
+
+	/**
+	 * Invalid capacity exception message
+	 */
+	private final static String INVALID_CAPACITY_EXCEPTION = "Invalid capacity: ";
+
+	private final static int INITIAL_CAPACITY = 8;
+
+	/**
+	 * entry left in the slot of a registration removed during a dispatch
+	 */
+	private final static ListListener<ModifiedListEvent> REMOVED_ENTRY = (list, event) -> {
+	};
+
+	/**
+	 * registered listeners, from 0 to count, weak registrations are stored as
+	 * {@link WeakListListener} entries
+	 */
+	private ListListener<ModifiedListEvent>[] entries = newEntries(INITIAL_CAPACITY);
+
+	/**
+	 * registration of each entry, at the same slot
+	 */
+	private Registration[] registrations = new Registration[INITIAL_CAPACITY];
+
+	private int count;
+
+	/**
+	 * first registration of each strongly held listener, the other
+	 * registrations of an equal listener being chained to it
+	 */
+	private final Map<ListListener<ModifiedListEvent>, Registration> strongRegistrations = new HashMap<>();
+
+	private int weakCount;
+
+	/**
+	 * number of sequential dispatches in progress, the listeners calling the
+	 * list back
+	 */
+	private int dispatchDepth;
+
+	/**
+	 * registrations removed during a sequential dispatch, their slots being
+	 * released once the dispatch is done
+	 */
+	private final List<Registration> deferredRemovals = new ArrayList<>();
+
+	/**
+	 * queue receiving the references of the weakly held listeners that have
+	 * been garbage collected
+	 */
+	private final ReferenceQueue<ListListener<ModifiedListEvent>> staleListeners = new ReferenceQueue<>();
+
+	/**
+	 * sequence number of the last event dispatched
+	 */
+	private long lastSequence;
+
+	/**
+	 * buffer of the last events dispatched, null if the events are not kept
+	 */
+	private EventRingBuffer replayBuffer;
+
+	/**
+	 * pool used for the parallel dispatch, null if the dispatch is sequential
+	 */
+	private ForkJoinPool dispatchPool;
+
+	/**
+	 * minimum number of listeners for the dispatch to be parallel
+	 */
+	private int parallelThreshold;
+
+	/**
+	 * last asynchronous delivery of each entry, removed once it is complete.
+	 * It has its own lock, so that a delivery completing doesn't wait for a
+	 * dispatch waiting for it.
+	 */
+	private final Map<ListListener<ModifiedListEvent>, CompletableFuture<Void>> pendingDeliveries = Collections
+			.synchronizedMap(new IdentityHashMap<>());
+
+	/**
+	 * Method to enable the parallel dispatch of the events.
+	 * 
+	 * @param pool
+	 *            pool in which the listeners will be notified
+	 * @param threshold
+	 *            minimum number of listeners for the dispatch to be parallel
+	 */
+	synchronized void enableParallelDispatch(ForkJoinPool pool, int threshold) {
+		if (pool == null) {
+			throw new NullPointerException(NULL_POOL_EXCEPTION);
+		}
+		if (threshold < 1) {
+			throw new IllegalArgumentException(INVALID_THRESHOLD_EXCEPTION + threshold);
+		}
+		dispatchPool = pool;
+		parallelThreshold = threshold;
+	}
+
+	/**
+	 * Method to go back to a sequential dispatch of the events.
+	 */
+	synchronized void disableParallelDispatch() {
+		dispatchPool = null;
+	}
+
+	/**
+	 * Method to register a listener that will be strongly held by the registry
+	 * 
+	 * @param listener
+	 *            listener to register
+	 * @return the subscription handle of the registration
+	 */
+	synchronized Subscription add(ListListener<ModifiedListEvent> listener) {
+		checkListener(listener);
+		Registration registration = new Registration(listener);
+		insert(registration);
+		Registration first = strongRegistrations.putIfAbsent(listener, registration);
+		if (first != null) {
+			while (first.nextSameListener != null) {
+				first = first.nextSameListener;
+			}
+			first.nextSameListener = registration;
+		}
+		return registration;
+	}
+
+	/**
+	 * Method to register a listener that will be weakly held by the registry:
+	 * it will be removed automatically once it is not reachable anymore.
+	 * 
+	 * @param listener
+	 *            listener to register
+	 * @return the subscription handle of the registration
+	 */
+	synchronized Subscription addWeak(ListListener<ModifiedListEvent> listener) {
+		checkListener(listener);
+		WeakListListener entry = new WeakListListener(listener, staleListeners);
+		entry.registration = new Registration(entry);
+		insert(entry.registration);
+		weakCount++;
+		return entry.registration;
+	}
+
+	/**
+	 * Method to register a listener after having sent it the events
+	 * dispatched since the sequence number given in parameter. No event can be
+	 * dispatched between the replay and the registration, so the listener
+	 * receives each event exactly once.
+	 * 
+	 * @param sequence
+	 *            sequence number of the last event known by the listener
+	 * @param listener
+	 *            listener to register
+	 * @param source
+	 *            list given to the listener with the replayed events
+	 * @return the subscription handle of the registration
+	 */
+	synchronized Subscription addFrom(long sequence, ListListener<ModifiedListEvent> listener, List<?> source) {
+		checkListener(listener);
+		for (ModifiedListEvent event : eventsAfter(sequence)) {
+			listener.update(source, event);
+		}
+		return add(listener);
+	}
+
+	/**
+	 * @return the sequence number of the last event dispatched, 0 if no event
+	 *         has been dispatched
+	 */
+	synchronized long getLastSequence() {
+		return lastSequence;
+	}
+
+	/**
+	 * Method to keep the last events dispatched so they can be replayed. The
+	 * events already kept are discarded.
+	 * 
+	 * @param capacity
+	 *            maximum number of events kept
+	 */
+	synchronized void enableReplay(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException(INVALID_CAPACITY_EXCEPTION + capacity);
+		}
+		replayBuffer = new EventRingBuffer(capacity);
+	}
+
+	/**
+	 * Method to stop keeping the last events dispatched.
+	 */
+	synchronized void disableReplay() {
+		replayBuffer = null;
+	}
+
+	/**
+	 * @param sequence
+	 *            sequence number of the last event already known
+	 * @return the events dispatched after the given sequence number, in order
+	 * @throws IllegalStateException
+	 *             if these events are not available anymore
+	 */
+	synchronized List<ModifiedListEvent> eventsAfter(long sequence) {
+		if (replayBuffer == null) {
+			if (sequence != lastSequence) {
+				throw new IllegalStateException(REPLAY_DISABLED_EXCEPTION);
+			}
+			return Collections.emptyList();
+		}
+		return replayBuffer.eventsAfter(sequence, lastSequence);
+	}
+
+	/**
+	 * Method to remove the first registration of a listener, whether it has
+	 * been registered strongly or weakly.
+	 * 
+	 * @param listener
+	 *            listener to remove
+	 */
+	synchronized void remove(ListListener<ModifiedListEvent> listener) {
+		checkListener(listener);
+		Registration registration = strongRegistrations.get(listener);
+		if (registration != null) {
+			removeRegistration(registration);
+			return;
+		}
+		// the weakly held listeners are not indexed, not to be kept reachable
+		for (int ind = 0; weakCount > 0 && ind < count; ind++) {
+			ListListener<ModifiedListEvent> entry = entries[ind];
+			if (entry instanceof WeakListListener && listener.equals(((WeakListListener) entry).get())) {
+				removeRegistration(registrations[ind]);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return the number of listeners currently registered, the garbage
+	 *         collected listeners are not counted
+	 */
+	synchronized int size() {
+		expungeStaleListeners();
+		return count - deferredRemovals.size();
+	}
+
+	/**
+	 * Method to send an event to all the registered listeners. If the parallel
+	 * dispatch is enabled and enough listeners are registered, the listeners
+	 * are notified in the pool. In any case the method returns once all the
+	 * listeners have been notified.
+	 * 
+	 * The asynchronous deliveries in progress are awaited first, so that each
+	 * listener receives the events in order. A dispatch nested in another
+	 * one, from a listener modifying the list, doesn't wait for them: the
+	 * thread holds the lock of the registry, which the listeners being
+	 * delivered may need, and waiting would deadlock.
+	 * 
+	 * @param source
+	 *            list on which the event has occurred
+	 * @param event
+	 *            event to send
+	 */
+	void dispatch(List<?> source, ModifiedListEvent event) {
+		ListListener<?>[] snapshot;
+		ForkJoinPool pool;
+		// a nested dispatch already holds the lock
+		boolean nested = Thread.holdsLock(this);
+		while (true) {
+			// the deliveries are awaited outside the lock, which the listeners
+			// being delivered may need
+			if (!nested) {
+				awaitPendingDeliveries();
+			}
+			synchronized (this) {
+				if (!nested && hasPendingDeliveries()) {
+					// deliveries started while waiting, they are awaited too
+					continue;
+				}
+				event.setSequence(++lastSequence);
+				if (replayBuffer != null) {
+					replayBuffer.add(event);
+				}
+				expungeStaleListeners();
+				if (dispatchPool == null || size() < parallelThreshold) {
+					// the listeners registered during the dispatch are not
+					// notified
+					int end = count;
+					dispatchDepth++;
+					try {
+						for (int ind = 0; ind < end; ind++) {
+							entries[ind].update(source, event);
+						}
+					} finally {
+						if (--dispatchDepth == 0) {
+							releaseDeferredRemovals();
+						}
+					}
+					return;
+				}
+				snapshot = Arrays.copyOf(entries, count);
+				pool = dispatchPool;
+			}
+			break;
+		}
+		dispatchInParallel(pool, snapshot, source, event);
+	}
+
+	/**
+	 * Method to send events to all the registered listeners asynchronously.
+	 * The events are stamped with their sequence numbers before the method
+	 * returns, and each listener is notified of all the events in the
+	 * executor, after the events previously sent to it asynchronously.
+	 * 
+	 * @param source
+	 *            list on which the events have occurred
+	 * @param events
+	 *            events to send, in order
+	 * @param executor
+	 *            executor in which the listeners are notified
+	 * @return a future completed once every listener has been notified of
+	 *         every event. If listeners have failed, it is completed with the
+	 *         first failure, the other ones being suppressed exceptions of it
+	 */
+	synchronized CompletableFuture<Void> dispatchAsync(List<?> source, List<ModifiedListEvent> events,
+			Executor executor) {
+		for (ModifiedListEvent event : events) {
+			event.setSequence(++lastSequence);
+			if (replayBuffer != null) {
+				replayBuffer.add(event);
+			}
+		}
+		expungeStaleListeners();
+		if (events.isEmpty() || size() == 0) {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		List<CompletableFuture<Void>> deliveries = new ArrayList<>(count);
+		for (int ind = 0; ind < count; ind++) {
+			ListListener<ModifiedListEvent> listener = entries[ind];
+			if (listener == REMOVED_ENTRY) {
+				continue;
+			}
+			CompletableFuture<Void> previous = pendingDeliveries.get(listener);
+			if (previous == null) {
+				previous = CompletableFuture.completedFuture(null);
+			}
+			// a failure of the previous delivery doesn't prevent this one
+			CompletableFuture<Void> delivery = previous.handle((result, failure) -> null)
+					.thenRunAsync(() -> deliver(listener, source, events), executor);
+			pendingDeliveries.put(listener, delivery);
+			delivery.whenComplete((result, failure) -> pendingDeliveries.remove(listener, delivery));
+			deliveries.add(delivery);
+		}
+
+		CompletableFuture<Void> completion = new CompletableFuture<>();
+		CompletableFuture.allOf(deliveries.toArray(new CompletableFuture<?>[deliveries.size()]))
+				.whenComplete((result, ignored) -> {
+					Throwable failure = null;
+					for (CompletableFuture<Void> delivery : deliveries) {
+						try {
+							delivery.join();
+						} catch (CompletionException e) {
+							if (failure == null) {
+								failure = e.getCause();
+							} else {
+								failure.addSuppressed(e.getCause());
+							}
+						}
+					}
+					if (failure == null) {
+						completion.complete(null);
+					} else {
+						completion.completeExceptionally(failure);
+					}
+				});
+		return completion;
+	}
+
+	/**
+	 * Method to notify a listener of several events, all the events being
+	 * sent even if the listener fails on some of them.
+	 */
+	private static void deliver(ListListener<?> listener, List<?> source, List<ModifiedListEvent> events) {
+		RuntimeException failure = null;
+		for (ModifiedListEvent event : events) {
+			try {
+				notifyListener(listener, source, event);
+			} catch (RuntimeException e) {
+				if (failure == null) {
+					failure = e;
+				} else {
+					failure.addSuppressed(e);
+				}
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Method waiting for the asynchronous deliveries in progress, so that the
+	 * listeners receive the events in order. It is called without holding the
+	 * lock of the registry. The failures of the deliveries are reported by
+	 * their own futures.
+	 */
+	private void awaitPendingDeliveries() {
+		List<CompletableFuture<Void>> deliveries;
+		synchronized (pendingDeliveries) {
+			if (pendingDeliveries.isEmpty()) {
+				return;
+			}
+			deliveries = new ArrayList<>(pendingDeliveries.values());
+		}
+		for (CompletableFuture<Void> delivery : deliveries) {
+			try {
+				delivery.join();
+			} catch (CompletionException e) {
+				// reported to the caller of the asynchronous dispatch
+			}
+		}
+	}
+
+	/**
+	 * @return true if an asynchronous delivery is still in progress
+	 */
+	private boolean hasPendingDeliveries() {
+		synchronized (pendingDeliveries) {
+			for (CompletableFuture<Void> delivery : pendingDeliveries.values()) {
+				if (!delivery.isDone()) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Method to notify a snapshot of the listeners in parallel. The thread
+	 * confined listeners are notified in order on the calling thread while the
+	 * other ones are notified in the pool. The method returns once all the
+	 * listeners have been notified.
+	 * 
+	 * @param pool
+	 *            pool in which the listeners will be notified
+	 * @param snapshot
+	 *            listeners to notify
+	 * @param source
+	 *            list on which the event has occurred
+	 * @param event
+	 *            event to send
+	 */
+	private static void dispatchInParallel(ForkJoinPool pool, ListListener<?>[] snapshot, List<?> source,
+			ModifiedListEvent event) {
+		// the thread confined listeners are put at the beginning of the array,
+		// keeping their order in the registry
+		ListListener<?>[] ordered = new ListListener<?>[snapshot.length];
+		int confined = 0;
+		for (ListListener<?> listener : snapshot) {
+			if (listener != REMOVED_ENTRY && isThreadConfined(listener)) {
+				ordered[confined++] = listener;
+			}
+		}
+		int others = confined;
+		for (ListListener<?> listener : snapshot) {
+			if (listener != REMOVED_ENTRY && !isThreadConfined(listener)) {
+				ordered[others++] = listener;
+			}
+		}
+		ordered = Arrays.copyOf(ordered, others);
+
+		int granularity = Math.max(1, (snapshot.length - confined) / (pool.getParallelism() * 4));
+		ForkJoinTask<Void> task = pool.submit(new DispatchTask(ordered, confined, ordered.length, granularity,
+				source, event));
+		RuntimeException failure = null;
+		try {
+			for (int ind = 0; ind < confined; ind++) {
+				notifyListener(ordered[ind], source, event);
+			}
+		} catch (RuntimeException e) {
+			failure = e;
+		}
+		try {
+			task.join();
+		} catch (RuntimeException e) {
+			if (failure == null) {
+				failure = e;
+			} else {
+				failure.addSuppressed(e);
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * @param listener
+	 *            entry of the registry
+	 * @return true if the listener of the entry must be notified on the thread
+	 *         performing the modification
+	 */
+	private static boolean isThreadConfined(ListListener<?> listener) {
+		if (listener instanceof WeakListListener) {
+			return ((WeakListListener) listener).get() instanceof ThreadConfinedListener;
+		}
+		return listener instanceof ThreadConfinedListener;
+	}
+
+	/**
+	 * Method to notify an entry coming from a snapshot of the registry.
+	 */
+	@SuppressWarnings("unchecked")
+	private static void notifyListener(ListListener<?> listener, List<?> source, ModifiedListEvent event) {
+		((ListListener<ModifiedListEvent>) listener).update(source, event);
+	}
+
+	/**
+	 * Method to check that a listener given to the registry is not null
+	 * 
+	 * @param listener
+	 *            listener to check
+	 */
+	private static void checkListener(ListListener<ModifiedListEvent> listener) {
+		if (listener == null) {
+			throw new NullPointerException(NULL_LISTENER_EXCEPTION);
+		}
+	}
+
+	/**
+	 * Method to remove the entries of the weakly held listeners that have been
+	 * garbage collected.
+	 */
+	private void expungeStaleListeners() {
+		Reference<? extends ListListener<ModifiedListEvent>> reference;
+		while ((reference = staleListeners.poll()) != null) {
+			removeRegistration(((WeakListListener) reference).registration);
+		}
+	}
+
+	/**
+	 * Method to put a registration in the slot following the last one.
+	 */
+	private void insert(Registration registration) {
+		if (count == entries.length) {
+			entries = Arrays.copyOf(entries, count * 2);
+			registrations = Arrays.copyOf(registrations, count * 2);
+		}
+		entries[count] = registration.entry;
+		registrations[count] = registration;
+		registration.slot = count++;
+	}
+
+	/**
+	 * Method to remove a registration from the registry. Its slot is taken by
+	 * the last registration, or released at the end of the dispatch if a
+	 * dispatch is in progress.
+	 * 
+	 * @param registration
+	 *            registration to remove, nothing is done if it has already
+	 *            been removed
+	 */
+	private void removeRegistration(Registration registration) {
+		int slot = registration.slot;
+		if (slot < 0 || entries[slot] == REMOVED_ENTRY) {
+			return;
+		}
+		if (registration.entry instanceof WeakListListener) {
+			weakCount--;
+		} else {
+			unchain(registration);
+		}
+		if (dispatchDepth > 0) {
+			entries[slot] = REMOVED_ENTRY;
+			deferredRemovals.add(registration);
+			return;
+		}
+		releaseSlot(registration);
+	}
+
+	/**
+	 * Method to release the slots of the registrations removed during a
+	 * dispatch.
+	 */
+	private void releaseDeferredRemovals() {
+		for (Registration registration : deferredRemovals) {
+			releaseSlot(registration);
+		}
+		deferredRemovals.clear();
+	}
+
+	private void releaseSlot(Registration registration) {
+		int slot = registration.slot;
+		int last = --count;
+		entries[slot] = entries[last];
+		registrations[slot] = registrations[last];
+		registrations[slot].slot = slot;
+		entries[last] = null;
+		registrations[last] = null;
+		registration.slot = -1;
+	}
+
+	/**
+	 * Method to remove a registration of a strongly held listener from the
+	 * chain of the registrations of the listeners equal to it.
+	 */
+	private void unchain(Registration registration) {
+		Registration first = strongRegistrations.get(registration.entry);
+		if (first == registration) {
+			if (registration.nextSameListener == null) {
+				strongRegistrations.remove(registration.entry);
+			} else {
+				strongRegistrations.put(registration.entry, registration.nextSameListener);
+			}
+			return;
+		}
+		while (first.nextSameListener != registration) {
+			first = first.nextSameListener;
+		}
+		first.nextSameListener = registration.nextSameListener;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ListListener<ModifiedListEvent>[] newEntries(int capacity) {
+		return (ListListener<ModifiedListEvent>[]) new ListListener<?>[capacity];
+	}
+
+	/**
+	 * Task notifying a range of listeners, it is split in two until the range
+	 * is smaller than the granularity.
+	 */
+	private static final class DispatchTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final ListListener<?>[] listeners;
+		private final int from;
+		private final int to;
+		private final int granularity;
+		private final List<?> source;
+		private final ModifiedListEvent event;
+
+		DispatchTask(ListListener<?>[] listeners, int from, int to, int granularity, List<?> source,
+				ModifiedListEvent event) {
+			this.listeners = listeners;
+			this.from = from;
+			this.to = to;
+			this.granularity = granularity;
+			this.source = source;
+			this.event = event;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= granularity) {
+				for (int ind = from; ind < to; ind++) {
+					notifyListener(listeners[ind], source, event);
+				}
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new DispatchTask(listeners, from, middle, granularity, source, event),
+					new DispatchTask(listeners, middle, to, granularity, source, event));
+		}
+	}
+
+	/**
+	 * Entry of the registry for a weakly held listener. The events are
+	 * forwarded to the listener as long as it has not been garbage collected.
+	 */
+	private static final class WeakListListener extends WeakReference<ListListener<ModifiedListEvent>>
+			implements ListListener<ModifiedListEvent> {
+
+		/**
+		 * registration of the entry, to remove it once the listener has been
+		 * garbage collected
+		 */
+		private Registration registration;
+
+		WeakListListener(ListListener<ModifiedListEvent> listener,
+				ReferenceQueue<ListListener<ModifiedListEvent>> queue) {
+			super(listener, queue);
+		}
+
+		@Override
+		public void update(List<?> list, ModifiedListEvent event) {
+			ListListener<ModifiedListEvent> listener = get();
+			if (listener != null) {
+				listener.update(list, event);
+			}
+		}
+	}
+
+	/**
+	 * Subscription handle of one entry of the registry, knowing the slot of
+	 * the entry
+	 */
+	private final class Registration implements Subscription {
+
+		private final ListListener<ModifiedListEvent> entry;
+
+		/**
+		 * slot of the entry in the registry, -1 once it has been removed
+		 */
+		private int slot = -1;
+
+		/**
+		 * next registration of a listener equal to the one of this
+		 * registration
+		 */
+		private Registration nextSameListener;
+
+		Registration(ListListener<ModifiedListEvent> entry) {
+			this.entry = entry;
+		}
+
+		@Override
+		public boolean isActive() {
+			synchronized (ListenerRegistry.this) {
+				if (entry instanceof WeakListListener && ((WeakListListener) entry).get() == null) {
+					return false;
+				}
+				return slot >= 0 && entries[slot] == entry;
+			}
+		}
+
+		@Override
+		public void close() {
+			synchronized (ListenerRegistry.this) {
+				removeRegistration(this);
+			}
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package com.observable.list;
+
+/**
+ * Budget of memory shared by several queued listeners, typically all the
+ * queued listeners of a list, limiting the estimated size of the events they
+ * keep on the heap altogether.
+ * 
+ * @see QueuedListListener
+ */
+public final class MemoryBudget {
+
+	private final static String INVALID_LIMIT_EXCEPTION = "Invalid limit: ";
+
+	private final long limit;
+
+	/**
+	 * estimated size of the events currently held
+	 */
+	private long used;
+
+	/**
+	 * Constructor of a budget
+	 * 
+	 * @param limit
+	 *            maximum estimated size in bytes of the events held
+	 */
+	public MemoryBudget(long limit) {
+		if (limit <= 0) {
+			throw new IllegalArgumentException(INVALID_LIMIT_EXCEPTION + limit);
+		}
+		this.limit = limit;
+	}
+
+	/**
+	 * @return the maximum estimated size in bytes of the events held
+	 */
+	public long getLimit() {
+		return limit;
+	}
+
+	/**
+	 * @return the estimated size in bytes of the events currently held
+	 */
+	public synchronized long getUsed() {
+		return used;
+	}
+
+	/**
+	 * Method to reserve memory for an event if the budget allows it.
+	 * 
+	 * @param bytes
+	 *            estimated size of the event
+	 * @return true if the memory has been reserved
+	 */
+	synchronized boolean tryReserve(long bytes) {
+		if (used + bytes > limit) {
+			return false;
+		}
+		used += bytes;
+		return true;
+	}
+
+	/**
+	 * Method to reserve memory for an event even if the budget is exceeded.
+	 * 
+	 * @param bytes
+	 *            estimated size of the event
+	 */
+	synchronized void reserve(long bytes) {
+		used += bytes;
+	}
+
+	/**
+	 * Method to give back the memory reserved for an event.
+	 * 
+	 * @param bytes
+	 *            estimated size of the event
+	 */
+	synchronized void release(long bytes) {
+		used -= bytes;
+	}
+}
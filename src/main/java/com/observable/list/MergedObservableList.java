@@ -0,0 +1,170 @@
+package com.observable.list;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+import com.observable.list.enums.ActionType;
+import com.observable.list.intf.ListListener;
+import com.observable.list.intf.Observable;
+
+/**
+ * Read-only observable view concatenating several observable lists. The view
+ * listens to each source list and forwards its events to its own listeners,
+ * the indexes of the events being translated into the index space of the
+ * view: an event of a source list is shifted by the sizes of the source lists
+ * preceding it, and a roll event is split into a remove event and an add
+ * event since the evicted elements are not at the beginning of the view. The
+ * events of all the source lists are forwarded one at a time, so the
+ * listeners of the view are never notified concurrently even if the source
+ * lists are modified from different threads.
+ * 
+ * The offset of a source list is computed from the sizes of the preceding
+ * source lists as seen by the listeners of the view, each size following the
+ * events forwarded for its list, and not from their current sizes: a source
+ * list modified concurrently, or whose event is dispatched after the
+ * modification, such as the removals of an iterator, has not necessarily
+ * notified its new size yet.
+ * 
+ * The view must be closed once it is not needed anymore, so that it stops
+ * listening to the source lists.
+ * 
+ * @param <T>
+ *            type of the objects contained in the view
+ */
+public class MergedObservableList<T> extends AbstractObservableList<T> implements RandomAccess, AutoCloseable {
+
+	private final static String NOT_OBSERVABLE_EXCEPTION = "Source list not observable: ";
+
+	/**
+	 * lists concatenated by the view
+	 */
+	private final List<List<? extends T>> sources;
+
+	/**
+	 * listener registered on each source list, in the same order
+	 */
+	private final List<ListListener<ModifiedListEvent>> forwarders;
+
+	/**
+	 * size of each source list once the events forwarded for it are applied,
+	 * in the same order
+	 */
+	private final int[] forwardedSizes;
+
+	/**
+	 * Constructor of a view concatenating the lists given in parameter, in
+	 * order.
+	 * 
+	 * @param sources
+	 *            lists concatenated by the view, each one implementing
+	 *            Observable&lt;ModifiedListEvent&gt;
+	 * @throws IllegalArgumentException
+	 *             if a list is not observable
+	 */
+	@SuppressWarnings("unchecked")
+	public MergedObservableList(List<? extends List<? extends T>> sources) {
+		for (List<? extends T> source : sources) {
+			if (!(source instanceof Observable)) {
+				throw new IllegalArgumentException(NOT_OBSERVABLE_EXCEPTION + source);
+			}
+		}
+		this.sources = Collections.unmodifiableList(new ArrayList<>(sources));
+		this.forwarders = new ArrayList<>(sources.size());
+		this.forwardedSizes = new int[this.sources.size()];
+		for (int ind = 0; ind < this.sources.size(); ind++) {
+			int sourceIndex = ind;
+			forwardedSizes[ind] = this.sources.get(ind).size();
+			ListListener<ModifiedListEvent> forwarder = (list, event) -> forward(sourceIndex, event);
+			forwarders.add(forwarder);
+			((Observable<ModifiedListEvent>) this.sources.get(ind)).register(forwarder);
+		}
+	}
+
+	/**
+	 * @return the lists concatenated by the view
+	 */
+	public List<List<? extends T>> getSources() {
+		return sources;
+	}
+
+	@Override
+	public T get(int index) {
+		if (index >= 0) {
+			int offset = 0;
+			for (List<? extends T> source : sources) {
+				int sourceSize = source.size();
+				if (index < offset + sourceSize) {
+					return source.get(index - offset);
+				}
+				offset += sourceSize;
+			}
+		}
+		throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+	}
+
+	@Override
+	public int size() {
+		int size = 0;
+		for (List<? extends T> source : sources) {
+			size += source.size();
+		}
+		return size;
+	}
+
+	/**
+	 * Method to stop listening to the source lists. The listeners of the view
+	 * are not notified anymore.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void close() {
+		for (int ind = 0; ind < sources.size(); ind++) {
+			((Observable<ModifiedListEvent>) sources.get(ind)).unregister(forwarders.get(ind));
+		}
+	}
+
+	/**
+	 * Method to translate an event of a source list into the index space of
+	 * the view and to notify the listeners of the view. The offset of the
+	 * source list is the sum of the forwarded sizes of the lists preceding it.
+	 * 
+	 * @param sourceIndex
+	 *            index of the source list
+	 * @param event
+	 *            event dispatched by the source list
+	 */
+	private synchronized void forward(int sourceIndex, ModifiedListEvent event) {
+		int offset = 0;
+		for (int ind = 0; ind < sourceIndex; ind++) {
+			offset += forwardedSizes[ind];
+		}
+		if (event.type == ActionType.ADD) {
+			forwardedSizes[sourceIndex] += event.elements.size();
+		} else if (event.type == ActionType.REMOVE) {
+			forwardedSizes[sourceIndex] -= event.elements.size();
+		} else if (event.type == ActionType.ROLL) {
+			forwardedSizes[sourceIndex] += event.elements.size() - event.evicted.size();
+		}
+		if (event.type == ActionType.PERMUTATION) {
+			notifyAllListeners(new ModifiedListEvent(event.index + offset, event.permutation));
+		} else if (event.indices != null) {
+			int[] indices = new int[event.indices.length];
+			for (int ind = 0; ind < indices.length; ind++) {
+				indices[ind] = event.indices[ind] + offset;
+			}
+			notifyAllListeners(event.type == ActionType.UPDATE ? new ModifiedListEvent(indices, event.elements)
+					: new ModifiedListEvent(event.type, indices, event.elements));
+		} else if (event.type == ActionType.ROLL) {
+			// the evicted elements are at the beginning of the source list,
+			// not of the view
+			notifyAllListeners(new ModifiedListEvent(ActionType.REMOVE, offset, event.evicted));
+			notifyAllListeners(new ModifiedListEvent(ActionType.ADD, event.index + offset, event.elements));
+		} else {
+			int index = event.index == ModifiedListEvent.NO_INDEX ? ModifiedListEvent.NO_INDEX
+					: event.index + offset;
+			notifyAllListeners(new ModifiedListEvent(event.type, index, event.elements));
+		}
+	}
+}
@@ -3,8 +3,10 @@ package com.observable.list;
 import com.observable.list.enums.ActionType;
 import com.observable.list.intf.CustomEvent;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 /**
  * Class for the event that can open on a list. It defines the action that has
@@ -15,10 +17,37 @@ import java.util.Collections;
  * @see CustomEvent
  */
 public class ModifiedListEvent implements CustomEvent {
+	// index given when the elements of the event are not contiguous in the list
+	public static final int NO_INDEX = -1;
+
 	// type of action performed in the event
 	public final ActionType type;
-	// elements added or removed in the event
+	// elements added, removed or updated in the event
 	public final Collection<?> elements;
+	// index of the first element of the event in the list: index at which the
+	// elements have been added, or at which they were before being removed.
+	// It is NO_INDEX if the elements are not contiguous in the list
+	public final int index;
+	// for a permutation, new position of the element found at each old
+	// position, the positions being relative to the index of the event:
+	// permutation[oldIndex - index] == newIndex - index. It is null for the
+	// other actions
+	public final int[] permutation;
+	// for an update, and for an addition or a removal of elements scattered
+	// in the list, index of each element of the event in the list, in
+	// increasing order: index of an element once added, or before being
+	// removed. It is null for the other actions
+	public final int[] indices;
+	// for a roll, elements evicted from the beginning of the list, the
+	// elements of the event being the ones added at its end. It is empty for
+	// the other actions
+	public final Collection<?> evicted;
+	// sequence number given by the list when the event is dispatched, 0 as
+	// long as the event has not been dispatched
+	private long sequence;
+	// sequence number shared by a group of lists, such as the shards of a
+	// ShardedObservableList, 0 if the list doesn't belong to such a group
+	private long globalSequence;
 
 	/**
 	 * Simple constructor for a single element
@@ -29,7 +58,21 @@ public class ModifiedListEvent implements CustomEvent {
 	 *            the element used in the event
 	 */
 	public ModifiedListEvent(ActionType type, Object element) {
-		this(type, Collections.singletonList(element));
+		this(type, NO_INDEX, Collections.singletonList(element));
+	}
+
+	/**
+	 * Constructor for a single element at a known index
+	 * 
+	 * @param type
+	 *            the action type performed by the event
+	 * @param index
+	 *            the index of the element in the list
+	 * @param element
+	 *            the element used in the event
+	 */
+	public ModifiedListEvent(ActionType type, int index, Object element) {
+		this(type, index, Collections.singletonList(element));
 	}
 
 	/**
@@ -41,7 +84,199 @@ public class ModifiedListEvent implements CustomEvent {
 	 *            the elements used in the event
 	 */
 	public ModifiedListEvent(ActionType type, Collection<?> elements) {
+		this(type, NO_INDEX, elements);
+	}
+
+	/**
+	 * Constructor for multiple contiguous elements
+	 * 
+	 * @param type
+	 *            the action type performed by the event
+	 * @param index
+	 *            the index of the first element in the list
+	 * @param elements
+	 *            the elements used in the event
+	 */
+	public ModifiedListEvent(ActionType type, int index, Collection<?> elements) {
 		this.type = type;
+		this.index = index;
+		this.elements = elements;
+		this.permutation = null;
+		this.indices = type == ActionType.UPDATE && index != NO_INDEX ? contiguous(index, elements.size()) : null;
+		this.evicted = Collections.emptyList();
+	}
+
+	/**
+	 * Constructor for a permutation of the elements of the list. No element is
+	 * added or removed, so the elements of the event are empty.
+	 * 
+	 * @param permutation
+	 *            new index of the element found at each old index
+	 */
+	public ModifiedListEvent(int[] permutation) {
+		this(0, permutation);
+	}
+
+	/**
+	 * Constructor for a permutation of a range of the list.
+	 * 
+	 * @param index
+	 *            the index of the first element of the range
+	 * @param permutation
+	 *            new position in the range of the element found at each old
+	 *            position in the range
+	 */
+	public ModifiedListEvent(int index, int[] permutation) {
+		this.type = ActionType.PERMUTATION;
+		this.index = index;
+		this.elements = Collections.emptyList();
+		this.permutation = permutation;
+		this.indices = null;
+		this.evicted = Collections.emptyList();
+	}
+
+	/**
+	 * Constructor for a roll of a bounded list: elements are added at its end
+	 * and its oldest elements are evicted.
+	 * 
+	 * @param index
+	 *            the index of the first element added, once the elements have
+	 *            been evicted
+	 * @param elements
+	 *            the elements added
+	 * @param evicted
+	 *            the elements evicted from the beginning of the list
+	 */
+	public ModifiedListEvent(int index, Collection<?> elements, Collection<?> evicted) {
+		this.type = ActionType.ROLL;
+		this.index = index;
 		this.elements = elements;
+		this.permutation = null;
+		this.indices = null;
+		this.evicted = evicted;
+	}
+
+	/**
+	 * Constructor for an update of elements modified in place: the elements
+	 * are still in the list, at the same index, but their content has
+	 * changed.
+	 * 
+	 * @param indices
+	 *            the index of each element in the list, in increasing order
+	 * @param elements
+	 *            the elements updated, in the order of their indexes
+	 */
+	public ModifiedListEvent(int[] indices, Collection<?> elements) {
+		this.type = ActionType.UPDATE;
+		this.index = indices.length > 0 ? indices[0] : NO_INDEX;
+		this.elements = elements;
+		this.permutation = null;
+		this.indices = indices;
+		this.evicted = Collections.emptyList();
+	}
+
+	/**
+	 * Constructor for an addition or a removal of elements which are not
+	 * necessarily contiguous in the list, such as the modifications performed
+	 * by an iterator. The index of the event is the index of the first
+	 * element if the elements are contiguous, NO_INDEX otherwise.
+	 * 
+	 * @param type
+	 *            ADD or REMOVE
+	 * @param indices
+	 *            the index of each element in the list, in increasing order:
+	 *            its index once added, or its index before being removed
+	 * @param elements
+	 *            the elements added or removed, in the order of their indexes
+	 */
+	public ModifiedListEvent(ActionType type, int[] indices, Collection<?> elements) {
+		this.type = type;
+		this.index = indices.length > 0 && indices[indices.length - 1] - indices[0] == indices.length - 1
+				? indices[0] : NO_INDEX;
+		this.elements = elements;
+		this.permutation = null;
+		this.indices = indices;
+		this.evicted = Collections.emptyList();
+	}
+
+	/**
+	 * Method to split an addition or a removal of scattered elements into
+	 * events of contiguous elements, in an order in which they can be applied
+	 * one after the other: the removals from the last one, each one at its
+	 * index before the removal, and the additions from the first one, each
+	 * one at its index once added. The other events are returned as they
+	 * are.
+	 * 
+	 * @return the events of contiguous elements equivalent to the event
+	 */
+	List<ModifiedListEvent> runs() {
+		if (indices == null || (type != ActionType.ADD && type != ActionType.REMOVE)) {
+			return Collections.singletonList(this);
+		}
+		List<?> allElements = new ArrayList<>(elements);
+		List<ModifiedListEvent> runs = new ArrayList<>();
+		int start = 0;
+		for (int ind = 1; ind <= indices.length; ind++) {
+			if (ind == indices.length || indices[ind] != indices[ind - 1] + 1) {
+				runs.add(new ModifiedListEvent(type, indices[start], allElements.subList(start, ind)));
+				start = ind;
+			}
+		}
+		if (type == ActionType.REMOVE) {
+			Collections.reverse(runs);
+		}
+		return runs;
+	}
+
+	/**
+	 * @return the sequence number of the event: the events dispatched by a
+	 *         list are numbered from 1, each event having the number of the
+	 *         previous one plus one. It is 0 if the event has not been
+	 *         dispatched yet.
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * Method called by the list when the event is dispatched
+	 * 
+	 * @param sequence
+	 *            sequence number of the event
+	 */
+	void setSequence(long sequence) {
+		this.sequence = sequence;
+	}
+
+	/**
+	 * @return the sequence number of the event among the events of a group of
+	 *         lists sharing a global sequence, 0 if the list doesn't belong to
+	 *         such a group
+	 * @see ShardedObservableList
+	 */
+	public long getGlobalSequence() {
+		return globalSequence;
+	}
+
+	/**
+	 * Method called by a group of lists sharing a global sequence when the
+	 * event is dispatched
+	 * 
+	 * @param globalSequence
+	 *            global sequence number of the event
+	 */
+	void setGlobalSequence(long globalSequence) {
+		this.globalSequence = globalSequence;
+	}
+
+	/**
+	 * @return the indexes from index to index + count - 1
+	 */
+	private static int[] contiguous(int index, int count) {
+		int[] indices = new int[count];
+		for (int ind = 0; ind < count; ind++) {
+			indices[ind] = index + ind;
+		}
+		return indices;
 	}
 }
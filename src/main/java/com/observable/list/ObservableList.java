@@ -3,16 +3,33 @@ package com.observable.list;
 import static com.observable.list.enums.ActionType.ADD;
 import static com.observable.list.enums.ActionType.REMOVE;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.observable.list.intf.ListListener;
 import com.observable.list.intf.Observable;
+import com.observable.list.intf.RangeSubscription;
+import com.observable.list.intf.Subscription;
+import com.observable.list.intf.ThreadConfinedListener;
 
 /**
  * This class is an extension of the ArrayList class. The difference is that it
@@ -28,18 +45,95 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<Modifi
 	private static final long serialVersionUID = 1L;
 
 	/**
-	 * list of listeners: synchronized list is used here to avoid registering
-	 * and unregistering listeners while iterating on the listeners. As the
-	 * standard ArrayList implementation is not synchronized a synchronized list
-	 * is used here.
+	 * registry of the listeners: it is synchronized to avoid registering and
+	 * unregistering listeners while iterating on the listeners. It is
+	 * transient as the listeners are not part of the content of the list, a
+	 * deserialized list starts without any listener.
 	 */
-	private final List<ListListener<ModifiedListEvent>> listeners = Collections
-			.synchronizedList(new ArrayList<ListListener<ModifiedListEvent>>());
+	private transient ListenerRegistry listeners = new ListenerRegistry();
 
 	/**
-	 * Null listener exception message
+	 * listeners registered for a range of indexes, only notified of the
+	 * modifications touching their range
 	 */
-	private final static String NULL_LISTENER_EXCEPTION = "Null Listener";
+	private transient RangeListenerTree rangeListeners = new RangeListenerTree();
+
+	/**
+	 * listeners registered for a key, only notified of the additions and
+	 * removals of the elements having their key
+	 */
+	private transient KeyListenerIndex keyListeners = new KeyListenerIndex();
+
+	/**
+	 * Invalid permutation exception message
+	 */
+	private final static String INVALID_PERMUTATION_EXCEPTION = "Invalid permutation: ";
+
+	/**
+	 * Null pool exception message
+	 */
+	private final static String NULL_POOL_EXCEPTION = "Null Pool";
+
+	/**
+	 * Invalid threshold exception message
+	 */
+	private final static String INVALID_THRESHOLD_EXCEPTION = "Invalid threshold: ";
+
+	/**
+	 * Null executor exception message
+	 */
+	private final static String NULL_EXECUTOR_EXCEPTION = "Null Executor";
+
+	/**
+	 * key extractor of the listeners watching an element
+	 */
+	private final static Function<Object, Object> IDENTITY = element -> element;
+
+	/**
+	 * pool evaluating the predicates and operators of the bulk operations,
+	 * null if they are evaluated sequentially
+	 */
+	private transient ForkJoinPool bulkPool;
+
+	/**
+	 * minimum size of the list for the bulk operations to be parallel
+	 */
+	private transient int bulkThreshold;
+
+	/**
+	 * executor notifying the listeners of the asynchronous modifications, null
+	 * for the common pool
+	 */
+	private transient Executor asyncExecutor;
+
+	/**
+	 * events of the asynchronous batch in progress, null if there is none
+	 */
+	private transient List<ModifiedListEvent> asyncEvents;
+
+	/**
+	 * completion of the asynchronous batch in progress, null if there is none
+	 */
+	private transient CompletableFuture<Void> asyncBatch;
+
+	/**
+	 * indexes of the elements whose content has changed since the last flush
+	 * of the updates, created on the first mark
+	 */
+	private transient DirtyIndexes dirtyIndexes;
+
+	/**
+	 * test telling if the content of an element has changed, null if only
+	 * the marked elements are updated
+	 */
+	private transient Predicate<? super T> dirtyCheck;
+
+	/**
+	 * iterator whose modifications have been applied to the list but not
+	 * notified yet, its gap being possibly left in the backing array, null if
+	 * there is none
+	 */
+	private transient ObservableListIterator<?> pendingIterator;
 
 	/**
 	 * Simple method to register a listener
@@ -49,10 +143,149 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<Modifi
 	 */
 	@Override
 	public void register(ListListener<ModifiedListEvent> listener) {
-		if (listener == null) {
-			throw new NullPointerException(NULL_LISTENER_EXCEPTION);
-		}
-		listeners.add(listener);
+		subscribe(listener);
+	}
+
+	/**
+	 * Method to register a listener and get a handle on the registration.
+	 * Closing the handle unregisters the listener, so the registration can be
+	 * scoped with a try-with-resources block.
+	 * 
+	 * @param listener
+	 *            to be added to the Observable List
+	 * @return the subscription handle of the listener
+	 */
+	public Subscription subscribe(ListListener<ModifiedListEvent> listener) {
+		flushPendingIterator();
+		return listeners.add(listener);
+	}
+
+	/**
+	 * Method to register a listener only interested in a range of indexes of
+	 * the list, for instance the window of a large list displayed by a
+	 * viewport. The listener is only notified of the modifications touching
+	 * its range, and the range follows the elements it covers: it is shifted
+	 * by the additions and removals before it, and grows or shrinks with the
+	 * additions and removals inside it. The range can be moved with
+	 * {@link RangeSubscription#moveTo(int, int)}.
+	 * 
+	 * The listeners are kept in an interval tree, so the cost of a
+	 * modification depends on the number of listeners whose range it touches
+	 * rather than on the number of ranges. The bulk operations, such as
+	 * removeIf() or replaceAll(), send an event per run of contiguous elements
+	 * modified, so they shift the ranges like the other modifications. The
+	 * events are sent whole, they are not restricted to the
+	 * range of the listener. The range listeners are always notified on the
+	 * thread modifying the list, at the end of the batch for the
+	 * asynchronous modifications.
+	 * 
+	 * @param fromIndex
+	 *            index of the first element of the range, inclusive
+	 * @param toIndex
+	 *            index following the last element of the range, exclusive;
+	 *            the range may go beyond the end of the list
+	 * @param listener
+	 *            to be added to the Observable List
+	 * @return the subscription handle of the listener
+	 * @throws IllegalArgumentException
+	 *             if fromIndex is negative or greater than toIndex
+	 */
+	public RangeSubscription register(int fromIndex, int toIndex, ListListener<ModifiedListEvent> listener) {
+		flushPendingIterator();
+		return rangeListeners.add(fromIndex, toIndex, listener);
+	}
+
+	/**
+	 * Method to register a listener watching the elements equal to a given
+	 * element.
+	 * 
+	 * @param element
+	 *            element watched by the listener
+	 * @param listener
+	 *            to be added to the Observable List
+	 * @return the subscription handle of the listener
+	 * @see #registerKey(Function, Object, ListListener)
+	 */
+	public Subscription registerElement(Object element, ListListener<ModifiedListEvent> listener) {
+		flushPendingIterator();
+		return keyListeners.add(IDENTITY, element, listener);
+	}
+
+	/**
+	 * Method to register a listener watching the elements having a given key,
+	 * for instance the entity having a given identifier. The listener is only
+	 * notified of the additions, removals, rolls and updates of elements
+	 * having the key, with an event restricted to these elements: its index is the index
+	 * of the element when there is a single one left, and
+	 * {@link ModifiedListEvent#NO_INDEX} when the elements are not contiguous
+	 * anymore. The restricted event keeps the sequence number of the original
+	 * one. The permutations are not sent to the listeners registered for a
+	 * key. As the range listeners, they are always notified on the thread
+	 * modifying the list.
+	 * 
+	 * The listeners are kept in a hash map from the key to the listeners, for
+	 * each key extractor: a modification costs a lookup per element modified
+	 * and per key extractor, whatever the number of listeners. The listeners
+	 * should share the same key extractor instance, for instance a method
+	 * reference kept in a constant, as a map is created per key extractor.
+	 * 
+	 * @param keyExtractor
+	 *            function computing the key of an element, it must be
+	 *            consistent with the equals() and hashCode() methods of the
+	 *            keys
+	 * @param key
+	 *            key of the elements watched by the listener
+	 * @param listener
+	 *            to be added to the Observable List
+	 * @return the subscription handle of the listener
+	 */
+	public <K> Subscription registerKey(Function<? super T, ? extends K> keyExtractor, K key,
+			ListListener<ModifiedListEvent> listener) {
+		flushPendingIterator();
+		return keyListeners.add(keyExtractor, key, listener);
+	}
+
+	/**
+	 * Method to register a listener that is only weakly referenced by the list.
+	 * The list doesn't prevent the listener from being garbage collected: once
+	 * collected, it is removed from the list during the next notification, so
+	 * a listener that is never unregistered doesn't leak.
+	 * 
+	 * Note that a listener defined as a lambda or an anonymous class only
+	 * referenced by the list will be collected almost immediately: the caller
+	 * should keep a reference on the listener as long as it is needed.
+	 * 
+	 * @param listener
+	 *            to be added to the Observable List
+	 * @return the subscription handle of the listener
+	 */
+	public Subscription registerWeak(ListListener<ModifiedListEvent> listener) {
+		flushPendingIterator();
+		return listeners.addWeak(listener);
+	}
+
+	/**
+	 * Method to register a listener that already knows the content of the
+	 * list up to a given sequence number, for instance from a
+	 * {@link ListSnapshot}. The events dispatched after this sequence number
+	 * are first replayed to the listener, then the listener is registered. No
+	 * event is missed or received twice in between.
+	 * 
+	 * The replayed events are taken from the replay buffer, see
+	 * {@link #enableReplay(int)}. The list given to the listener with the
+	 * replayed events is the list in its current state.
+	 * 
+	 * @param sequence
+	 *            sequence number of the last event known by the listener
+	 * @param listener
+	 *            to be added to the Observable List
+	 * @return the subscription handle of the listener
+	 * @throws IllegalStateException
+	 *             if some of the events to replay are not available anymore
+	 */
+	public Subscription subscribeFrom(long sequence, ListListener<ModifiedListEvent> listener) {
+		flushPendingIterator();
+		return listeners.addFrom(sequence, listener, this);
 	}
 
 	/**
@@ -63,17 +296,132 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<Modifi
 	 */
 	@Override
 	public void unregister(ListListener<ModifiedListEvent> listener) {
-		if (listener == null) {
-			throw new NullPointerException(NULL_LISTENER_EXCEPTION);
-		}
 		listeners.remove(listener);
 	}
 
 	/**
-	 * @return the number of listeners currently registered in the list
+	 * @return the number of listeners currently registered in the list, the
+	 *         listeners registered for a range or a key included
 	 */
 	public int getNumberListeners() {
-		return listeners.size();
+		return listeners.size() + rangeListeners.size() + keyListeners.size();
+	}
+
+	/**
+	 * Method to notify the listeners in parallel when the list has a large
+	 * number of listeners. Once the number of listeners reaches the threshold,
+	 * the listeners are split across the pool; the modification of the list
+	 * still returns only once all the listeners have been notified. Listeners
+	 * implementing {@link ThreadConfinedListener} are always notified in order
+	 * on the thread modifying the list.
+	 * 
+	 * @param pool
+	 *            pool in which the listeners will be notified
+	 * @param threshold
+	 *            minimum number of listeners for the dispatch to be parallel
+	 */
+	public void enableParallelDispatch(ForkJoinPool pool, int threshold) {
+		listeners.enableParallelDispatch(pool, threshold);
+	}
+
+	/**
+	 * Method to go back to the default behavior, where the listeners are
+	 * notified one after the other on the thread modifying the list.
+	 */
+	public void disableParallelDispatch() {
+		listeners.disableParallelDispatch();
+	}
+
+	/**
+	 * Method to evaluate the predicates and operators of removeIf, retainAll
+	 * and replaceAll in parallel when the list is large. The list is still
+	 * modified in a single pass on the calling thread once every element has
+	 * been evaluated, and the events are the same as with a sequential
+	 * evaluation: the predicates and operators must therefore be thread-safe
+	 * and free of side effects on the list.
+	 * 
+	 * @param pool
+	 *            pool in which the predicates and operators are evaluated
+	 * @param threshold
+	 *            minimum size of the list for the evaluation to be parallel
+	 */
+	public void enableParallelBulkOperations(ForkJoinPool pool, int threshold) {
+		if (pool == null) {
+			throw new NullPointerException(NULL_POOL_EXCEPTION);
+		}
+		if (threshold < 1) {
+			throw new IllegalArgumentException(INVALID_THRESHOLD_EXCEPTION + threshold);
+		}
+		bulkPool = pool;
+		bulkThreshold = threshold;
+	}
+
+	/**
+	 * Method to go back to a sequential evaluation of the predicates and
+	 * operators of the bulk operations.
+	 */
+	public void disableParallelBulkOperations() {
+		bulkPool = null;
+	}
+
+	/**
+	 * @return the sequence number of the last event dispatched by the list, 0
+	 *         if no event has been dispatched yet. Each event dispatched is
+	 *         stamped with the next number. The modifications of an
+	 *         iterator not notified yet are notified first, so that the
+	 *         number accounts for them.
+	 * @see ModifiedListEvent#getSequence()
+	 */
+	public long getSequence() {
+		flushPendingIterator();
+		return listeners.getLastSequence();
+	}
+
+	/**
+	 * Method to get a copy of the list along with the sequence number of the
+	 * last event dispatched. As for any other read of the list, it must not
+	 * run concurrently with a modification of the list.
+	 * 
+	 * @return the snapshot of the list
+	 */
+	public ListSnapshot<T> snapshot() {
+		long sequence = getSequence();
+		return new ListSnapshot<>(sequence, Collections.unmodifiableList(new ArrayList<>(this)));
+	}
+
+	/**
+	 * Method to keep the last events dispatched by the list in a bounded
+	 * buffer, so that they can be replayed to a listener registering late.
+	 * The events already kept are discarded.
+	 * 
+	 * @param capacity
+	 *            maximum number of events kept, the oldest events are
+	 *            discarded first
+	 */
+	public void enableReplay(int capacity) {
+		listeners.enableReplay(capacity);
+	}
+
+	/**
+	 * Method to stop keeping the last events dispatched by the list.
+	 */
+	public void disableReplay() {
+		listeners.disableReplay();
+	}
+
+	/**
+	 * Method to get the events dispatched after a given sequence number, taken
+	 * from the replay buffer.
+	 * 
+	 * @param sequence
+	 *            sequence number of the last event already known
+	 * @return the events dispatched after the given sequence number, in order
+	 * @throws IllegalStateException
+	 *             if some of these events are not available anymore
+	 * @see #enableReplay(int)
+	 */
+	public List<ModifiedListEvent> getEventsAfter(long sequence) {
+		return listeners.eventsAfter(sequence);
 	}
 
 	/**
@@ -86,15 +434,117 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<Modifi
 	 */
 	@Override
 	public void notifyAllListeners(ModifiedListEvent event) {
+		// the modifications of an iterator are notified before the next ones
+		flushPendingIterator();
+		if (dirtyIndexes != null) {
+			dirtyIndexes.apply(event);
+		}
+		if (asyncEvents != null) {
+			asyncEvents.add(event);
+		} else {
+			listeners.dispatch(this, event);
+			rangeListeners.dispatch(this, event);
+			keyListeners.dispatch(this, event);
+		}
+	}
+
+	/**
+	 * Method to set the executor in which the listeners are notified of the
+	 * asynchronous modifications, the common fork/join pool being used by
+	 * default.
+	 * 
+	 * @param executor
+	 *            executor notifying the listeners
+	 */
+	public void setAsyncExecutor(Executor executor) {
+		if (executor == null) {
+			throw new NullPointerException(NULL_EXECUTOR_EXCEPTION);
+		}
+		asyncExecutor = executor;
+	}
+
+	/**
+	 * Method to add one element to the list, the listeners being notified
+	 * asynchronously.
+	 * 
+	 * @param element
+	 *            element to add
+	 * @return a future completed once every listener has been notified
+	 * @see #batchAsync(Consumer)
+	 */
+	public CompletableFuture<Void> addAsync(T element) {
+		return batchAsync(list -> list.add(element));
+	}
 
-		// from the official java API for synchronized list:
-		// it is imperative that the user manually synchronize the list when
-		// iterating over it.
-		synchronized (listeners) {
-			for (ListListener<ModifiedListEvent> listener : listeners) {
-				listener.update(this, event);
+	/**
+	 * Method to remove the first occurrence of an element from the list, the
+	 * listeners being notified asynchronously.
+	 * 
+	 * @param element
+	 *            element to remove
+	 * @return a future completed once every listener has been notified, it
+	 *         is already completed if the element is not in the list
+	 * @see #batchAsync(Consumer)
+	 */
+	public CompletableFuture<Void> removeAsync(Object element) {
+		return batchAsync(list -> list.remove(element));
+	}
+
+	/**
+	 * Method to perform several modifications of the list, the listeners
+	 * being notified asynchronously. The list is modified on the calling
+	 * thread before the method returns, and the events are stamped with their
+	 * sequence numbers, but they are sent to the listeners in the executor
+	 * set by {@link #setAsyncExecutor(Executor)}. Each listener still
+	 * receives the events in order, after the events of the previous
+	 * asynchronous modifications, and the modifications notified
+	 * synchronously wait for the asynchronous notifications in progress.
+	 * Since the list may have been modified again when a listener is
+	 * notified, the listeners must rely on the content of the events rather
+	 * than on the list.
+	 * 
+	 * Modifications performed inside the batch are part of it, including the
+	 * ones of nested batches, which return the future of the outer batch.
+	 * 
+	 * @param modifications
+	 *            modifications to perform on the list
+	 * @return a future completed once every listener has returned from the
+	 *         notification of every event of the batch. If listeners have
+	 *         failed, it is completed with the first failure, the other ones
+	 *         being suppressed exceptions of it
+	 */
+	public CompletableFuture<Void> batchAsync(Consumer<? super ObservableList<T>> modifications) {
+		Objects.requireNonNull(modifications);
+		if (asyncBatch != null) {
+			modifications.accept(this);
+			return asyncBatch;
+		}
+		CompletableFuture<Void> batch = new CompletableFuture<>();
+		asyncEvents = new ArrayList<>();
+		asyncBatch = batch;
+		try {
+			modifications.accept(this);
+		} finally {
+			// the modifications performed before a failure are notified
+			flushPendingIterator();
+			List<ModifiedListEvent> events = asyncEvents;
+			asyncEvents = null;
+			asyncBatch = null;
+			Executor executor = asyncExecutor != null ? asyncExecutor : ForkJoinPool.commonPool();
+			listeners.dispatchAsync(this, events, executor).whenComplete((result, failure) -> {
+				if (failure == null) {
+					batch.complete(null);
+				} else {
+					batch.completeExceptionally(failure);
+				}
+			});
+			// the ranges must follow the modifications in order
+			for (ModifiedListEvent event : events) {
+				rangeListeners.dispatch(this, event);
+				keyListeners.dispatch(this, event);
 			}
 		}
+		return batch;
 	}
 
 	/**
@@ -103,9 +553,10 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<Modifi
 	 */
 	@Override
 	public boolean add(T element) {
+		flushPendingIterator();
 		boolean result = super.add(element);
 		if (result) {
-			notifyAllListeners(new ModifiedListEvent(ADD, element));
+			notifyAllListeners(new ModifiedListEvent(ADD, size() - 1, element));
 			return true;
 		}
 		return false;
@@ -117,8 +568,9 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<Modifi
 	 */
 	@Override
 	public void add(int index, T element) {
+		flushPendingIterator();
 		super.add(index, element);
-		notifyAllListeners(new ModifiedListEvent(ADD, element));
+		notifyAllListeners(new ModifiedListEvent(ADD, index, element));
 	}
 
 	/**
@@ -127,9 +579,11 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<Modifi
 	 */
 	@Override
 	public boolean addAll(Collection<? extends T> elements) {
+		flushPendingIterator();
+		int index = size();
 		boolean result = super.addAll(elements);
 		if (result) {
-			notifyAllListeners(new ModifiedListEvent(ADD, elements));
+			notifyAllListeners(new ModifiedListEvent(ADD, index, elements));
 			return true;
 		}
 
@@ -142,25 +596,115 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<Modifi
 	 */
 	@Override
 	public boolean addAll(int index, Collection<? extends T> elements) {
+		flushPendingIterator();
 		boolean result = super.addAll(index, elements);
 		if (result) {
-			notifyAllListeners(new ModifiedListEvent(ADD, elements));
+			notifyAllListeners(new ModifiedListEvent(ADD, index, elements));
 			return true;
 		}
 		return false;
 	}
 
+	/**
+	 * Method to create a list holding the elements of a stream, see
+	 * {@link #loadAll(Stream, boolean)}.
+	 * 
+	 * @param elements
+	 *            stream of the elements of the list
+	 * @return the new list
+	 */
+	public static <T> ObservableList<T> of(Stream<? extends T> elements) {
+		ObservableList<T> list = new ObservableList<>();
+		list.loadAll(elements, false);
+		return list;
+	}
+
+	/**
+	 * Method to add the elements of a stream at the end of the list. The
+	 * listeners receive a single add event.
+	 * 
+	 * @param elements
+	 *            stream of the elements to add
+	 * @return true if the list has been modified
+	 * @see #loadAll(Stream, boolean)
+	 */
+	public boolean loadAll(Stream<? extends T> elements) {
+		return loadAll(elements, true);
+	}
+
+	/**
+	 * Method to add the elements of a stream at the end of the list. The
+	 * backing array is grown once when the size of the stream is known. A
+	 * parallel stream is collected in parallel in an array, which is then
+	 * copied at once at the end of the list. Loading without notification is
+	 * meant for the initial load of a list: the listeners don't receive any
+	 * event, and the sequence number of the list is not incremented.
+	 * 
+	 * @param elements
+	 *            stream of the elements to add
+	 * @param notify
+	 *            false to load the elements without notifying the listeners
+	 * @return true if the list has been modified
+	 */
+	public boolean loadAll(Stream<? extends T> elements, boolean notify) {
+		flushPendingIterator();
+		int index = size();
+		if (elements.isParallel()) {
+			Object[] array = elements.toArray();
+			if (array.length == 0) {
+				return false;
+			}
+			@SuppressWarnings("unchecked")
+			List<T> loaded = (List<T>) Arrays.asList(array);
+			super.addAll(loaded);
+			if (notify) {
+				notifyAllListeners(new ModifiedListEvent(ADD, index, loaded));
+			}
+			return true;
+		}
+		return loadAll(elements.spliterator(), notify);
+	}
+
+	/**
+	 * Method to add the elements of a spliterator at the end of the list,
+	 * sequentially.
+	 * 
+	 * @param elements
+	 *            spliterator on the elements to add
+	 * @param notify
+	 *            false to load the elements without notifying the listeners
+	 * @return true if the list has been modified
+	 * @see #loadAll(Stream, boolean)
+	 */
+	public boolean loadAll(Spliterator<? extends T> elements, boolean notify) {
+		flushPendingIterator();
+		int index = size();
+		long expectedSize = elements.getExactSizeIfKnown();
+		if (expectedSize > 0 && index + expectedSize <= Integer.MAX_VALUE) {
+			ensureCapacity(index + (int) expectedSize);
+		}
+		elements.forEachRemaining(super::add);
+		if (size() == index) {
+			return false;
+		}
+		if (notify) {
+			notifyAllListeners(new ModifiedListEvent(ADD, index, new ArrayList<>(super.subList(index, size()))));
+		}
+		return true;
+	}
+
 	/**
 	 * Method to clear the list. All the elements will be removed. It notifies
 	 * the listeners accordingly.
 	 */
 	@Override
 	public void clear() {
+		flushPendingIterator();
 		List<T> elementsToRemove = new ArrayList<>();
 		elementsToRemove.addAll(this);
 		super.clear();
 		if (!elementsToRemove.isEmpty()) {
-			notifyAllListeners(new ModifiedListEvent(REMOVE, elementsToRemove));
+			notifyAllListeners(new ModifiedListEvent(REMOVE, 0, elementsToRemove));
 		}
 	}
 
@@ -170,8 +714,9 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<Modifi
 	 */
 	@Override
 	public T remove(int ind) {
+		flushPendingIterator();
 		T elementRemoved = super.remove(ind);
-		notifyAllListeners(new ModifiedListEvent(REMOVE, elementRemoved));
+		notifyAllListeners(new ModifiedListEvent(REMOVE, ind, elementRemoved));
 		return elementRemoved;
 	}
 
@@ -181,30 +726,31 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<Modifi
 	 */
 	@Override
 	public boolean remove(Object element) {
-		boolean result = super.remove(element);
-		if (result) {
-			notifyAllListeners(new ModifiedListEvent(REMOVE, element));
+		flushPendingIterator();
+		int index = indexOf(element);
+		if (index >= 0) {
+			super.remove(index);
+			notifyAllListeners(new ModifiedListEvent(REMOVE, index, element));
 			return true;
 		}
 		return false;
 	}
 
 	/**
-	 * Method to remove several elements in the list. As there can be some
-	 * elements that don't exist in the list, a check should be performed before
-	 * to properly populate the notification. It notifies the listeners
-	 * accordingly.
+	 * Method to remove all the occurrences of several elements in the list.
+	 * The list is compacted in one pass, and the listeners receive a remove
+	 * event for each run of contiguous elements removed, with the index of
+	 * the run, so every occurrence removed is notified.
 	 */
 	@Override
 	public boolean removeAll(Collection<?> elements) {
-		List<Object> elementsToRemove = elements.stream().filter((Predicate<Object>) this::contains).collect(Collectors.toList());
-		boolean result = super.removeAll(elements);
-		if (result && !elementsToRemove.isEmpty()) {
-			notifyAllListeners(new ModifiedListEvent(REMOVE, elementsToRemove));
-			return true;
+		Objects.requireNonNull(elements);
+		int size = size();
+		boolean[] removedMask = new boolean[size];
+		for (int ind = 0; ind < size; ind++) {
+			removedMask[ind] = elements.contains(get(ind));
 		}
-
-		return false;
+		return removeMasked(0, removedMask) > 0;
 	}
 
 	/**
@@ -214,84 +760,822 @@ public class ObservableList<T> extends ArrayList<T> implements Observable<Modifi
 	 */
 	@Override
 	public T set(int index, T element) {
+		flushPendingIterator();
 		T oldValue = super.set(index, element);
-		notifyAllListeners(new ModifiedListEvent(REMOVE, oldValue));
-		notifyAllListeners(new ModifiedListEvent(ADD, element));
+		notifyAllListeners(new ModifiedListEvent(REMOVE, index, oldValue));
+		notifyAllListeners(new ModifiedListEvent(ADD, index, element));
 
 		return oldValue;
 	}
 
+	/**
+	 * Method to signal that the content of an element of the list has changed.
+	 * The element is only marked: the listeners receive a single update event
+	 * for all the elements marked when {@link #flushUpdates()} is called. An
+	 * element can mark itself, as long as it does it on the thread modifying
+	 * the list.
+	 * 
+	 * The element is looked up by identity when it is marked, the search
+	 * stopping at its first occurrence, and its index is recorded. The search
+	 * takes a time linear in the size of the list, so marking many elements
+	 * this way takes a quadratic time: use {@link #markDirtyAt(int)} when the
+	 * index is known, or {@link #setDirtyCheck(Predicate)} when the elements
+	 * can tell that they have changed, which costs a single pass per flush.
+	 * An element which is not in the list is ignored.
+	 * 
+	 * @param element
+	 *            element whose content has changed
+	 */
+	public void markDirty(Object element) {
+		int size = size();
+		for (int ind = 0; ind < size; ind++) {
+			if (super.get(ind) == element) {
+				markDirtyAt(ind);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Method to signal that the content of the element at an index has
+	 * changed, see {@link #markDirty(Object)}. The index follows the
+	 * modifications of the list until the flush: it is shifted by the
+	 * additions and removals before it, and dropped if the element is removed
+	 * or replaced.
+	 * 
+	 * @param index
+	 *            index of the element whose content has changed
+	 */
+	public void markDirtyAt(int index) {
+		if (index < 0 || index >= size()) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+		}
+		// the modifications of an iterator must be accounted for first
+		flushPendingIterator();
+		if (dirtyIndexes == null) {
+			dirtyIndexes = new DirtyIndexes();
+		}
+		dirtyIndexes.mark(index);
+	}
+
+	/**
+	 * Method to set a test telling if the content of an element has changed,
+	 * typically by reading and resetting a flag or a version of the element.
+	 * The test is applied to every element of the list at each flush, and the
+	 * elements passing it are updated along with the marked ones.
+	 * 
+	 * @param dirtyCheck
+	 *            test of the elements, null to only update the marked
+	 *            elements
+	 */
+	public void setDirtyCheck(Predicate<? super T> dirtyCheck) {
+		this.dirtyCheck = dirtyCheck;
+	}
+
+	/**
+	 * Method to notify the listeners of the elements whose content has
+	 * changed since the previous flush: the elements marked dirty and the ones
+	 * passing the dirty check. The listeners receive a single update event
+	 * with the elements and their indexes, in increasing order, and can
+	 * re-evaluate just these elements. Without dirty check, the flush only
+	 * visits the marked indexes; with a dirty check, it is a single pass over
+	 * the list.
+	 * 
+	 * @return true if an update event has been sent
+	 */
+	public boolean flushUpdates() {
+		flushPendingIterator();
+		int[] marked = dirtyIndexes != null ? dirtyIndexes.drain() : new int[0];
+		if (dirtyCheck == null) {
+			if (marked.length == 0) {
+				return false;
+			}
+			List<T> updated = new ArrayList<>(marked.length);
+			for (int index : marked) {
+				updated.add(super.get(index));
+			}
+			notifyAllListeners(new ModifiedListEvent(marked, updated));
+			return true;
+		}
+		int[] indices = new int[Math.min(Math.max(marked.length, 10), size())];
+		List<T> updated = new ArrayList<>(indices.length);
+		int nextMarked = 0;
+		for (int ind = 0; ind < size(); ind++) {
+			T element = super.get(ind);
+			// the check is always applied, as it may reset the element
+			boolean changed = dirtyCheck.test(element);
+			if (nextMarked < marked.length && marked[nextMarked] == ind) {
+				changed = true;
+				nextMarked++;
+			}
+			if (changed) {
+				if (updated.size() == indices.length) {
+					indices = Arrays.copyOf(indices, indices.length * 2);
+				}
+				indices[updated.size()] = ind;
+				updated.add(element);
+			}
+		}
+		if (updated.isEmpty()) {
+			return false;
+		}
+		notifyAllListeners(new ModifiedListEvent(Arrays.copyOf(indices, updated.size()), updated));
+		return true;
+	}
+
+	/**
+	 * Method to replace elements without removing them, the listeners
+	 * receiving an update event. It is used to apply an update event to a
+	 * copy of a list.
+	 * 
+	 * @param indices
+	 *            index of each element to replace, in increasing order
+	 * @param elements
+	 *            new elements, in the order of their indexes
+	 */
+	void replaceInPlace(int[] indices, List<? extends T> elements) {
+		flushPendingIterator();
+		for (int ind = 0; ind < indices.length; ind++) {
+			super.set(indices[ind], elements.get(ind));
+		}
+		notifyAllListeners(new ModifiedListEvent(indices.clone(), new ArrayList<>(elements)));
+	}
+
 	/**
 	 * Method to remove all the elements in the list between two indexes. It
 	 * notifies the listeners accordingly.
 	 */
 	@Override
 	protected void removeRange(int fromIndex, int toIndex) {
+		flushPendingIterator();
 		List<T> rangeElements = new ArrayList<>(super.subList(fromIndex, toIndex));
 		super.removeRange(fromIndex, toIndex);
-		notifyAllListeners(new ModifiedListEvent(REMOVE, rangeElements));
+		notifyAllListeners(new ModifiedListEvent(REMOVE, fromIndex, rangeElements));
+	}
+
+	/**
+	 * Method to replace the content of the list with the elements given in
+	 * parameter. Instead of removing every element and adding the new ones,
+	 * the differences between the current content and the new one are
+	 * computed, and the listeners receive a remove event and an add event for
+	 * each modified range only, with the index of the range. The list is
+	 * modified in one pass before the events are sent, so the listeners see
+	 * the final content of the list, as with {@link #set(int, Object)}.
+	 * 
+	 * @param elements
+	 *            new content of the list
+	 * @return true if the list has been modified
+	 */
+	public boolean setAll(Collection<? extends T> elements) {
+		return setAll(elements, null);
+	}
+
+	/**
+	 * Method to replace the content of the list with the elements given in
+	 * parameter, the elements being matched by key: an element whose key is
+	 * kept but which is not equal to its new version is reported as replaced,
+	 * while the elements around it are reported as unchanged.
+	 * 
+	 * @param elements
+	 *            new content of the list
+	 * @param keyExtractor
+	 *            function giving the key of an element, null to match the
+	 *            elements by equality
+	 * @return true if the list has been modified
+	 * @see #setAll(Collection)
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean setAll(Collection<? extends T> elements, Function<? super T, ?> keyExtractor) {
+		flushPendingIterator();
+		List<? extends T> newElements = elements instanceof List && elements instanceof RandomAccess
+				? (List<? extends T>) elements : new ArrayList<>(elements);
+		List<int[]> hunks = ListDiff.diff(this, newElements, (Function<Object, ?>) keyExtractor);
+		if (hunks.isEmpty()) {
+			return false;
+		}
+
+		// the hunks are notified in order, so each one starts at its index in
+		// the new content of the list
+		List<ModifiedListEvent> events = new ArrayList<>(2 * hunks.size());
+		for (int[] hunk : hunks) {
+			if (hunk[0] < hunk[1]) {
+				events.add(new ModifiedListEvent(REMOVE, hunk[2], new ArrayList<>(super.subList(hunk[0], hunk[1]))));
+			}
+			if (hunk[2] < hunk[3]) {
+				events.add(new ModifiedListEvent(ADD, hunk[2], new ArrayList<>(newElements.subList(hunk[2], hunk[3]))));
+			}
+		}
+		int[] first = hunks.get(0);
+		int[] last = hunks.get(hunks.size() - 1);
+		replaceRangeSilently(first[0], last[1], newElements.subList(first[2], last[3]));
+
+		for (ModifiedListEvent event : events) {
+			notifyAllListeners(event);
+		}
+		return true;
 	}
 
 	/**
 	 * Method to remove all the elements in the list that match the predicate
-	 * given in parameter. It notifies the listeners accordingly.
+	 * given in parameter. The predicate is evaluated once per element, in
+	 * parallel if enabled, then the list is compacted in one pass. The
+	 * listeners receive a remove event for each run of contiguous elements
+	 * removed, with the index of the run.
 	 * 
 	 * Please note that this method is only available from Java8.
+	 * 
+	 * @see #enableParallelBulkOperations(ForkJoinPool, int)
 	 */
 	@Override
 	public boolean removeIf(Predicate<? super T> filter) {
-		List<T> elementsToRemove = this.stream().filter(filter::test).collect(Collectors.toList());
-		boolean result = super.removeIf(filter);
+		Objects.requireNonNull(filter);
+		int size = size();
+		boolean[] removedMask = new boolean[size];
+		forEachIndex(size, ind -> removedMask[ind] = filter.test(get(ind)));
+		return removeMasked(0, removedMask) > 0;
+	}
 
-		if (result && !elementsToRemove.isEmpty()) {
-			notifyAllListeners(new ModifiedListEvent(REMOVE, elementsToRemove));
-			return true;
+	/**
+	 * Tool method to remove the elements of a range flagged in a mask,
+	 * compacting the range in one pass. The runs of contiguous elements
+	 * removed are then notified in order, each one at its index once the
+	 * previous runs have been removed, so that applying the events one after
+	 * the other gives the new content of the list. It is also used by the sub
+	 * lists.
+	 * 
+	 * @param fromIndex
+	 *            index of the first element of the range
+	 * @param removedMask
+	 *            true for each index of the range whose element is removed
+	 * @return the number of elements removed
+	 */
+	int removeMasked(int fromIndex, boolean[] removedMask) {
+		flushPendingIterator();
+		int toIndex = fromIndex + removedMask.length;
+		List<ModifiedListEvent> events = new ArrayList<>();
+		List<T> run = null;
+		int kept = fromIndex;
+		for (int ind = fromIndex; ind < toIndex; ind++) {
+			T element = get(ind);
+			if (removedMask[ind - fromIndex]) {
+				if (run == null) {
+					run = new ArrayList<>();
+					events.add(new ModifiedListEvent(REMOVE, kept, run));
+				}
+				run.add(element);
+			} else {
+				run = null;
+				if (kept != ind) {
+					super.set(kept, element);
+				}
+				kept++;
+			}
 		}
-
-		return false;
+		if (events.isEmpty()) {
+			return 0;
+		}
+		super.removeRange(kept, toIndex);
+		for (ModifiedListEvent event : events) {
+			notifyAllListeners(event);
+		}
+		return toIndex - kept;
 	}
 
 	/**
 	 * Method to replace all the elements in the list with the operator given in
-	 * parameter. It notifies the listeners accordingly. Two notifications
-	 * should be sent here since data are replaced, so one notifications for
-	 * removal and one for addition.
+	 * parameter. The operator is applied once per element, in parallel if
+	 * enabled. It notifies the listeners accordingly: for each run of
+	 * contiguous elements replaced by different ones, a remove event and an
+	 * add event are sent at the index of the run.
 	 * 
 	 * Please note that this method is only available from Java8.
+	 * 
+	 * @see #enableParallelBulkOperations(ForkJoinPool, int)
 	 */
 	@Override
 	public void replaceAll(UnaryOperator<T> operator) {
-		List<T> removedElements = new ArrayList<>();
-		List<T> addedElements = new ArrayList<>();
-		// the check is performed on each item in the list to know if it will be
-		// replaced or not
-		for (T item : this) {
-			T modifiedItem = operator.apply(item);
-			if (!item.equals(modifiedItem)) {
-				removedElements.add(item);
-				addedElements.add(modifiedItem);
+		Objects.requireNonNull(operator);
+		int size = size();
+		Object[] modifiedElements = new Object[size];
+		forEachIndex(size, ind -> modifiedElements[ind] = operator.apply(get(ind)));
+		replaceElements(0, modifiedElements);
+	}
+
+	/**
+	 * Tool method to replace the elements of a range by new ones. The runs of
+	 * contiguous elements replaced by different ones are notified with a
+	 * remove event and an add event at the index of the run. It is also used
+	 * by the sub lists.
+	 * 
+	 * @param fromIndex
+	 *            index of the first element of the range
+	 * @param modifiedElements
+	 *            new element of each index of the range
+	 */
+	void replaceElements(int fromIndex, Object[] modifiedElements) {
+		flushPendingIterator();
+		List<ModifiedListEvent> events = new ArrayList<>();
+		List<T> removedRun = null;
+		List<T> addedRun = null;
+		for (int ind = fromIndex; ind < fromIndex + modifiedElements.length; ind++) {
+			T item = get(ind);
+			@SuppressWarnings("unchecked")
+			T modifiedItem = (T) modifiedElements[ind - fromIndex];
+			if (Objects.equals(item, modifiedItem)) {
+				removedRun = null;
+			} else {
+				if (removedRun == null) {
+					removedRun = new ArrayList<>();
+					addedRun = new ArrayList<>();
+					events.add(new ModifiedListEvent(REMOVE, ind, removedRun));
+					events.add(new ModifiedListEvent(ADD, ind, addedRun));
+				}
+				removedRun.add(item);
+				addedRun.add(modifiedItem);
+				super.set(ind, modifiedItem);
 			}
 		}
-		super.replaceAll(operator);
-		if (!removedElements.isEmpty()) {
-			notifyAllListeners(new ModifiedListEvent(REMOVE, removedElements));
-		}
-		if (!addedElements.isEmpty()) {
-			notifyAllListeners(new ModifiedListEvent(ADD, addedElements));
+		modCount++;
+		for (ModifiedListEvent event : events) {
+			notifyAllListeners(event);
 		}
 	}
 
 	/**
 	 * Method to retain elements in the list that are only present in the list
 	 * given in parameter, all the other elements will be removed from the list.
-	 * The listeners will be notified accordingly.
+	 * The listeners will be notified accordingly, once the list is modified.
+	 * 
+	 * @see #removeIf(Predicate)
 	 */
 	@Override
 	public boolean retainAll(Collection<?> c) {
-		List<T> removedElements = this.stream().filter(item -> !c.contains(item)).collect(Collectors.toList());
-		if (!removedElements.isEmpty()) {
-			notifyAllListeners(new ModifiedListEvent(REMOVE, removedElements));
+		Objects.requireNonNull(c);
+		return removeIf(item -> !c.contains(item));
+	}
+
+	/**
+	 * Method to run an action for each index of the list, in the pool of the
+	 * bulk operations if the list is large enough.
+	 * 
+	 * @param size
+	 *            number of indexes
+	 * @param action
+	 *            action to run for each index
+	 */
+	private void forEachIndex(int size, IntConsumer action) {
+		ForkJoinPool pool = bulkPool;
+		if (pool == null || size < bulkThreshold) {
+			for (int ind = 0; ind < size; ind++) {
+				action.accept(ind);
+			}
+			return;
+		}
+		int granularity = Math.max(1, size / (pool.getParallelism() * 4));
+		pool.invoke(new BulkTask(action, 0, size, granularity));
+	}
+
+	/**
+	 * Method to sort the list with the comparator given in parameter (natural
+	 * ordering if it is null). The sort is stable. The listeners are notified
+	 * with a single permutation event giving the new index of each element, so
+	 * they can move their entries instead of rebuilding them. No notification
+	 * is sent if the order of the elements doesn't change.
+	 */
+	@Override
+	public void sort(Comparator<? super T> c) {
+		sortRange(0, size(), c);
+	}
+
+	/**
+	 * Method to sort a range of the list and notify the listeners with a
+	 * single permutation event.
+	 * 
+	 * @param fromIndex
+	 *            index of the first element to sort
+	 * @param toIndex
+	 *            index of the end of the range to sort (exclusive)
+	 * @param c
+	 *            comparator used to sort the elements, natural ordering if it
+	 *            is null
+	 */
+	@SuppressWarnings("unchecked")
+	void sortRange(int fromIndex, int toIndex, Comparator<? super T> c) {
+		flushPendingIterator();
+		// only the range is copied, the positions being relative to its start
+		Object[] elements = super.subList(fromIndex, toIndex).toArray();
+		Comparator<Object> comparator = c != null ? (Comparator<Object>) c
+				: (first, second) -> ((Comparable<Object>) first).compareTo(second);
+		Integer[] order = new Integer[elements.length];
+		for (int ind = 0; ind < order.length; ind++) {
+			order[ind] = ind;
+		}
+		// order[newPosition] == oldPosition, the sort of the positions is
+		// stable
+		Arrays.sort(order, (first, second) -> comparator.compare(elements[first], elements[second]));
+		modCount++;
+
+		int[] permutation = new int[elements.length];
+		for (int ind = 0; ind < order.length; ind++) {
+			permutation[order[ind]] = ind;
+		}
+		applyPermutation(elements, fromIndex, permutation);
+	}
+
+	/**
+	 * Method to reorder the elements of the list. The element found at the
+	 * index i is moved to the index permutation[i]. The listeners are notified
+	 * with a single permutation event, no notification is sent if the
+	 * permutation doesn't move any element.
+	 * 
+	 * @param permutation
+	 *            new index of the element found at each index, it must
+	 *            contain each index of the list exactly once
+	 * @throws IllegalArgumentException
+	 *             if the array is not a permutation of the indexes of the list
+	 */
+	public void reorder(int[] permutation) {
+		flushPendingIterator();
+		if (permutation.length != size()) {
+			throw new IllegalArgumentException(INVALID_PERMUTATION_EXCEPTION + Arrays.toString(permutation));
+		}
+		boolean[] used = new boolean[permutation.length];
+		for (int newIndex : permutation) {
+			if (newIndex < 0 || newIndex >= permutation.length || used[newIndex]) {
+				throw new IllegalArgumentException(INVALID_PERMUTATION_EXCEPTION + Arrays.toString(permutation));
+			}
+			used[newIndex] = true;
+		}
+		modCount++;
+		applyPermutation(toArray(), 0, permutation.clone());
+	}
+
+	/**
+	 * Tool method to move the elements of a range of the list to their new
+	 * index and notify the listeners if at least one element has moved.
+	 * 
+	 * @param elements
+	 *            elements of the range before the permutation
+	 * @param fromIndex
+	 *            index of the first element of the range
+	 * @param permutation
+	 *            new position in the range of each element of the range, it is
+	 *            given to the listeners
+	 */
+	@SuppressWarnings("unchecked")
+	private void applyPermutation(Object[] elements, int fromIndex, int[] permutation) {
+		boolean moved = false;
+		for (int ind = 0; ind < permutation.length; ind++) {
+			if (permutation[ind] != ind) {
+				super.set(fromIndex + permutation[ind], (T) elements[ind]);
+				moved = true;
+			}
+		}
+		if (moved) {
+			notifyAllListeners(new ModifiedListEvent(fromIndex, permutation));
+		}
+	}
+
+	/**
+	 * Method to get an iterator on the list. The elements removed through the
+	 * iterator are removed from the list immediately, the list being
+	 * compacted in place, and all the removals are notified in a single
+	 * event.
+	 * 
+	 * The event is dispatched when the iteration reaches its end, when the
+	 * iterator is closed, or at the latest before the next modification of
+	 * the list, the next registration of a listener or the next call to
+	 * {@link #getSequence()}. An iteration left with a break doesn't reach its
+	 * end: the listeners don't see its removals until one of these points, so
+	 * such an iteration should close the iterator, for instance with a
+	 * try-with-resources block.
+	 * 
+	 * @see ObservableListIterator
+	 */
+	@Override
+	public ObservableListIterator<T> iterator() {
+		return listIterator(0);
+	}
+
+	/**
+	 * Method to get a list iterator on the list. The modifications performed
+	 * through the iterator are applied to the list immediately, and they are
+	 * notified in a single remove event and a single add event, when the
+	 * events of {@link #iterator()} are.
+	 * 
+	 * @see ObservableListIterator
+	 */
+	@Override
+	public ObservableListIterator<T> listIterator() {
+		return listIterator(0);
+	}
+
+	/**
+	 * Method to get a list iterator on the list starting at the index given in
+	 * parameter.
+	 * 
+	 * @see ObservableListIterator
+	 */
+	@Override
+	public ObservableListIterator<T> listIterator(int index) {
+		if (index < 0 || index > size()) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+		}
+		return new ObservableListIterator<>(this, 0, size(), index, null);
+	}
+
+	/**
+	 * Method to get a view on a range of the list. The modifications performed
+	 * through the view are notified to the listeners of the list, the bulk
+	 * operations of the view being notified in a single event.
+	 */
+	@Override
+	public List<T> subList(int fromIndex, int toIndex) {
+		checkSubListRange(fromIndex, toIndex, size());
+		return new ObservableSubList<>(this, null, fromIndex, toIndex - fromIndex);
+	}
+
+	/**
+	 * Tool method to check the range of a sub list.
+	 * 
+	 * @param fromIndex
+	 *            index of the first element of the sub list
+	 * @param toIndex
+	 *            index of the end of the sub list (exclusive)
+	 * @param size
+	 *            size of the list on which the sub list is created
+	 */
+	static void checkSubListRange(int fromIndex, int toIndex, int size) {
+		if (fromIndex < 0) {
+			throw new IndexOutOfBoundsException("fromIndex = " + fromIndex);
+		}
+		if (toIndex > size) {
+			throw new IndexOutOfBoundsException("toIndex = " + toIndex);
+		}
+		if (fromIndex > toIndex) {
+			throw new IllegalArgumentException("fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+		}
+	}
+
+	/**
+	 * @return the number of elements in the list. As the other reads of the
+	 *         list, it closes first the gap left in the backing array by an
+	 *         iterator, see {@link ObservableListIterator}.
+	 */
+	@Override
+	public int size() {
+		closePendingGap();
+		return super.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	@Override
+	public T get(int index) {
+		closePendingGap();
+		return super.get(index);
+	}
+
+	@Override
+	public int indexOf(Object element) {
+		closePendingGap();
+		return super.indexOf(element);
+	}
+
+	@Override
+	public int lastIndexOf(Object element) {
+		closePendingGap();
+		return super.lastIndexOf(element);
+	}
+
+	@Override
+	public boolean contains(Object element) {
+		return indexOf(element) >= 0;
+	}
+
+	@Override
+	public Object[] toArray() {
+		closePendingGap();
+		return super.toArray();
+	}
+
+	@Override
+	public <E> E[] toArray(E[] array) {
+		closePendingGap();
+		return super.toArray(array);
+	}
+
+	@Override
+	public void forEach(Consumer<? super T> action) {
+		closePendingGap();
+		super.forEach(action);
+	}
+
+	@Override
+	public Spliterator<T> spliterator() {
+		closePendingGap();
+		return super.spliterator();
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		closePendingGap();
+		return super.equals(other);
+	}
+
+	@Override
+	public int hashCode() {
+		closePendingGap();
+		return super.hashCode();
+	}
+
+	/**
+	 * Method to copy the list. The copy holds the same elements, without the
+	 * gap of an iterator, and shares the listeners of the list.
+	 */
+	@Override
+	public Object clone() {
+		closePendingGap();
+		ObservableList<?> copy = (ObservableList<?>) super.clone();
+		copy.pendingIterator = null;
+		return copy;
+	}
+
+	/**
+	 * Method called when the list is serialized: the gap of an iterator is
+	 * closed so that the ArrayList class writes the elements only.
+	 * 
+	 * @return the list itself
+	 */
+	protected Object writeReplace() {
+		closePendingGap();
+		return this;
+	}
+
+	/**
+	 * Method to replace a range of the list without notifying the listeners.
+	 * It is used by the sub lists, which notify the listeners once all their
+	 * modifications have been applied.
+	 * 
+	 * @param fromIndex
+	 *            index of the first element to replace
+	 * @param toIndex
+	 *            index of the end of the range to replace (exclusive)
+	 * @param elements
+	 *            new elements of the range
+	 */
+	void replaceRangeSilently(int fromIndex, int toIndex, Collection<? extends T> elements) {
+		super.removeRange(fromIndex, toIndex);
+		super.addAll(fromIndex, elements);
+	}
+
+	/**
+	 * @return the element at a position of the backing array, used by the
+	 *         iterators which move the elements across their gap
+	 */
+	T getAt(int position) {
+		return super.get(position);
+	}
+
+	/**
+	 * Method to replace the element at a position of the backing array
+	 * without notifying the listeners, used by the iterators.
+	 */
+	T setAt(int position, T element) {
+		return super.set(position, element);
+	}
+
+	/**
+	 * @return the number of positions used in the backing array, counting
+	 *         the gap of the pending iterator if any
+	 */
+	int backingSize() {
+		return super.size();
+	}
+
+	/**
+	 * Method to insert free positions in the backing array, used by an
+	 * iterator to open its gap. The modification count is left as it is, the
+	 * iterator counting its own modifications.
+	 */
+	void insertGap(int position, int length) {
+		int expectedModCount = modCount;
+		super.addAll(position, Collections.nCopies(length, null));
+		modCount = expectedModCount;
+	}
+
+	/**
+	 * Method to remove the free positions of the gap of an iterator from the
+	 * backing array. The modification count is left as it is, so that the
+	 * other views of the list stay valid.
+	 */
+	void removeGap(int fromPosition, int toPosition) {
+		int expectedModCount = modCount;
+		super.removeRange(fromPosition, toPosition);
+		modCount = expectedModCount;
+	}
+
+	/**
+	 * Method called by an iterator for each structural modification it
+	 * performs.
+	 */
+	void incrementModCount() {
+		modCount++;
+	}
+
+	/**
+	 * Method called by an iterator starting modifications that it will notify
+	 * later. The modifications of the previous iterator, if any, are notified
+	 * first so that the events stay in order.
+	 * 
+	 * @param iterator
+	 *            iterator whose modifications are not notified yet
+	 */
+	void setPendingIterator(ObservableListIterator<?> iterator) {
+		if (pendingIterator != iterator) {
+			flushPendingIterator();
+			pendingIterator = iterator;
+		}
+	}
+
+	/**
+	 * Method to notify the modifications of the pending iterator, if any. It
+	 * is called before the list is modified and before any other event is
+	 * dispatched, so that the listeners never miss a modification already
+	 * applied to the list.
+	 */
+	void flushPendingIterator() {
+		ObservableListIterator<?> iterator = pendingIterator;
+		if (iterator != null) {
+			pendingIterator = null;
+			iterator.notifyModifications();
+		}
+	}
+
+	/**
+	 * Method to close the gap left in the backing array by the pending
+	 * iterator, if any, without notifying its modifications. It is called
+	 * before any read of the list other than through the iterator.
+	 */
+	void closePendingGap() {
+		ObservableListIterator<?> iterator = pendingIterator;
+		if (iterator != null) {
+			iterator.closeGap();
+		}
+	}
+
+	/**
+	 * @return the number of structural modifications of the list, used by the
+	 *         iterators and the sub lists to detect concurrent modifications
+	 */
+	int getModCount() {
+		return modCount;
+	}
+
+	/**
+	 * Method called when the list is deserialized: the content is restored by
+	 * the ArrayList class and an empty registry of listeners is created.
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		listeners = new ListenerRegistry();
+		rangeListeners = new RangeListenerTree();
+		keyListeners = new KeyListenerIndex();
+	}
+
+	/**
+	 * Task running an action for a range of indexes, the range being split in
+	 * two until it is smaller than the granularity.
+	 */
+	private static final class BulkTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final IntConsumer action;
+		private final int from;
+		private final int to;
+		private final int granularity;
+
+		BulkTask(IntConsumer action, int from, int to, int granularity) {
+			this.action = action;
+			this.from = from;
+			this.to = to;
+			this.granularity = granularity;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= granularity) {
+				for (int ind = from; ind < to; ind++) {
+					action.accept(ind);
+				}
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new BulkTask(action, from, middle, granularity), new BulkTask(action, middle, to, granularity));
 		}
-		return super.retainAll(c);
 	}
 }
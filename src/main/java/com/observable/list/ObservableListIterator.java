@@ -0,0 +1,459 @@
+package com.observable.list;
+
+import static com.observable.list.enums.ActionType.ADD;
+import static com.observable.list.enums.ActionType.REMOVE;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+import com.observable.list.enums.ActionType;
+
+/**
+ * List iterator of an {@link ObservableList} (or of a range of it) that
+ * compacts the list in place and coalesces the notifications of the
+ * modifications performed while iterating.
+ *
+ * Each removal, replacement or addition is visible through the iterator
+ * immediately, but the list is not shifted for each of them: as with
+ * ArrayList.removeIf, the elements are moved once. The iterator keeps a gap
+ * in the backing array at its cursor, a removal widening the gap and an
+ * addition filling it, and the elements kept are moved across the gap as the
+ * iterator goes. The gap is closed by the next access to the list other than
+ * through the iterator, so a loop removing or adding elements as it goes
+ * takes a linear time instead of a quadratic one.
+ *
+ * The modifications are notified together, once per compaction: the
+ * listeners receive a single remove event for all the elements removed or
+ * replaced, followed by a single add event for all the elements added or
+ * replacing another one. When the elements are not contiguous, the events
+ * have no index and give the index of each element instead, see
+ * {@link ModifiedListEvent#indices}.
+ *
+ * The notification is sent when the iteration reaches the end of the range,
+ * when the iterator is closed, and in any case before the list is modified,
+ * dispatches any other event, registers a listener or gives its sequence
+ * number. An iteration stopped before the end of the range leaves the list up
+ * to date, but its modifications are only notified at one of these points:
+ * closing the iterator, for instance with a try-with-resources block,
+ * notifies them right away.
+ *
+ * @param <T>
+ *            type of the objects contained in the list
+ */
+public final class ObservableListIterator<T> implements ListIterator<T>, AutoCloseable {
+
+	/**
+	 * minimal number of free positions opened in the backing array when an
+	 * element is added and the gap is closed
+	 */
+	private static final int MIN_GAP = 16;
+
+	/**
+	 * list on which the iteration is performed
+	 */
+	private final ObservableList<T> list;
+
+	/**
+	 * index in the list of the first element of the iterated range
+	 */
+	private final int rangeStart;
+
+	/**
+	 * index in the list of the end of the iterated range (exclusive), not
+	 * counting the gap
+	 */
+	private int rangeEnd;
+
+	/**
+	 * position in the backing array of the beginning of the gap, which is
+	 * also the index in the list of the next element to read
+	 */
+	private int cursor;
+
+	/**
+	 * position in the backing array of the end of the gap (exclusive), where
+	 * the next element to read is found. The gap is empty when it equals the
+	 * cursor.
+	 */
+	private int gapEnd;
+
+	/**
+	 * index in the list of the last element returned by next or previous, -1
+	 * if there is no such element
+	 */
+	private int lastReturned = -1;
+
+	/**
+	 * for each position of the range in the backing array, index of its
+	 * element in the list before the modifications not notified yet, or -1 if
+	 * the element has been added by the iterator. It is null as long as there
+	 * is no modification to notify.
+	 */
+	private int[] origins;
+
+	/**
+	 * index of each element removed or replaced, in the list before the
+	 * modifications not notified yet, and the elements themselves
+	 */
+	private int[] removedIndices = new int[8];
+	private List<T> removed = new ArrayList<>();
+
+	/**
+	 * number of elements added by the modifications not notified yet and
+	 * still in the list
+	 */
+	private int addedCount;
+
+	/**
+	 * lowest index in the list modified since the last notification
+	 */
+	private int firstModified;
+
+	/**
+	 * callback receiving the variation of the size of the range each time the
+	 * list is structurally modified by the iterator
+	 */
+	private final IntConsumer sizeListener;
+
+	private int expectedModCount;
+
+	/**
+	 * Constructor of an iterator on a range of the list
+	 *
+	 * @param list
+	 *            list on which the iteration is performed
+	 * @param rangeStart
+	 *            index of the first element of the range
+	 * @param rangeEnd
+	 *            index of the end of the range (exclusive)
+	 * @param cursor
+	 *            index of the first element returned by next
+	 * @param sizeListener
+	 *            callback receiving the variation of the size of the range
+	 */
+	ObservableListIterator(ObservableList<T> list, int rangeStart, int rangeEnd, int cursor,
+			IntConsumer sizeListener) {
+		// the gap of another iterator must not be seen as elements
+		list.closePendingGap();
+		this.list = list;
+		this.rangeStart = rangeStart;
+		this.rangeEnd = rangeEnd;
+		this.cursor = cursor;
+		this.gapEnd = cursor;
+		this.sizeListener = sizeListener;
+		this.expectedModCount = list.getModCount();
+	}
+
+	/**
+	 * Method to know if there are more elements when traversing the list
+	 * forward. When the end of the range is reached, the modifications are
+	 * notified.
+	 */
+	@Override
+	public boolean hasNext() {
+		if (cursor < rangeEnd) {
+			return true;
+		}
+		flush();
+		return false;
+	}
+
+	@Override
+	public T next() {
+		checkForComodification();
+		if (cursor >= rangeEnd) {
+			throw new NoSuchElementException();
+		}
+		T element = list.getAt(gapEnd);
+		if (gapEnd > cursor) {
+			// the element is moved before the gap
+			list.setAt(cursor, element);
+			if (origins != null) {
+				origins[cursor - rangeStart] = origins[gapEnd - rangeStart];
+			}
+		}
+		lastReturned = cursor++;
+		gapEnd++;
+		return element;
+	}
+
+	@Override
+	public boolean hasPrevious() {
+		return cursor > rangeStart;
+	}
+
+	@Override
+	public T previous() {
+		checkForComodification();
+		if (cursor <= rangeStart) {
+			throw new NoSuchElementException();
+		}
+		T element = list.getAt(--cursor);
+		gapEnd--;
+		if (gapEnd > cursor) {
+			// the element is moved after the gap
+			list.setAt(gapEnd, element);
+			if (origins != null) {
+				origins[gapEnd - rangeStart] = origins[cursor - rangeStart];
+			}
+		}
+		lastReturned = cursor;
+		return element;
+	}
+
+	@Override
+	public int nextIndex() {
+		return cursor - rangeStart;
+	}
+
+	@Override
+	public int previousIndex() {
+		return nextIndex() - 1;
+	}
+
+	/**
+	 * Method to remove the last element returned. The element is dropped in
+	 * the gap, so the removal takes a constant time, and it is notified with
+	 * the other modifications.
+	 */
+	@Override
+	public void remove() {
+		if (lastReturned < 0) {
+			throw new IllegalStateException();
+		}
+		checkForComodification();
+		startModification(lastReturned);
+		int position = position(lastReturned);
+		T element = list.getAt(position);
+		list.setAt(position, null);
+		int origin = origins[position - rangeStart];
+		if (origin >= 0) {
+			addRemoved(origin, element);
+		} else {
+			addedCount--;
+		}
+		if (lastReturned < cursor) {
+			cursor--;
+		} else {
+			gapEnd++;
+		}
+		lastReturned = -1;
+		structurallyModified(-1);
+	}
+
+	/**
+	 * Method to replace the last element returned. The replacement is
+	 * notified as the removal of the old element and the addition of the new
+	 * one, with the other modifications.
+	 */
+	@Override
+	public void set(T element) {
+		if (lastReturned < 0) {
+			throw new IllegalStateException();
+		}
+		checkForComodification();
+		startModification(lastReturned);
+		int position = position(lastReturned);
+		T oldElement = list.setAt(position, element);
+		int origin = origins[position - rangeStart];
+		if (origin >= 0) {
+			addRemoved(origin, oldElement);
+			origins[position - rangeStart] = -1;
+			addedCount++;
+		}
+	}
+
+	/**
+	 * Method to insert an element before the next element. The element is
+	 * written in the gap, a new gap being opened if it is empty, and it is
+	 * notified with the other modifications.
+	 */
+	@Override
+	public void add(T element) {
+		checkForComodification();
+		startModification(cursor);
+		if (gapEnd == cursor) {
+			openGap();
+		}
+		list.setAt(cursor, element);
+		origins[cursor - rangeStart] = -1;
+		addedCount++;
+		cursor++;
+		lastReturned = -1;
+		structurallyModified(1);
+	}
+
+	/**
+	 * Method to notify the modifications right away, when an iteration is
+	 * stopped before the end of the range.
+	 */
+	@Override
+	public void close() {
+		flush();
+	}
+
+	/**
+	 * Method to remove the gap from the backing array, called by the list
+	 * before any access other than through the iterator. The modifications
+	 * are not notified, and the iteration can go on.
+	 */
+	void closeGap() {
+		if (gapEnd > cursor) {
+			list.removeGap(cursor, gapEnd);
+			if (origins != null) {
+				System.arraycopy(origins, gapEnd - rangeStart, origins, cursor - rangeStart, rangeEnd - cursor);
+			}
+			gapEnd = cursor;
+		}
+	}
+
+	/**
+	 * Method to notify the listeners of the modifications, called by the list
+	 * once they can't be extended anymore: the gap is closed, then a remove
+	 * event and an add event are sent for all the elements removed and added
+	 * since the last notification.
+	 */
+	void notifyModifications() {
+		closeGap();
+		if (origins == null) {
+			return;
+		}
+		int[] indices = Arrays.copyOf(removedIndices, removed.size());
+		List<T> removedElements = removed;
+		if (!isSorted(indices)) {
+			// elements removed while iterating backward
+			Integer[] order = new Integer[indices.length];
+			for (int ind = 0; ind < order.length; ind++) {
+				order[ind] = ind;
+			}
+			Arrays.sort(order, (first, second) -> Integer.compare(removedIndices[first], removedIndices[second]));
+			removedElements = new ArrayList<>(order.length);
+			for (int ind = 0; ind < order.length; ind++) {
+				indices[ind] = removedIndices[order[ind]];
+				removedElements.add(removed.get(order[ind]));
+			}
+		}
+		int[] addedIndices = new int[addedCount];
+		List<T> added = new ArrayList<>(addedCount);
+		for (int index = firstModified; added.size() < addedCount; index++) {
+			if (origins[index - rangeStart] < 0) {
+				addedIndices[added.size()] = index;
+				added.add(list.getAt(index));
+			}
+		}
+		origins = null;
+		removed = new ArrayList<>();
+		addedCount = 0;
+		if (!removedElements.isEmpty()) {
+			list.notifyAllListeners(event(REMOVE, indices, removedElements));
+		}
+		if (!added.isEmpty()) {
+			list.notifyAllListeners(event(ADD, addedIndices, added));
+		}
+	}
+
+	/**
+	 * @return the index in the backing array of the element at an index of
+	 *         the list, the elements after the cursor being after the gap
+	 */
+	private int position(int index) {
+		return index < cursor ? index : index + gapEnd - cursor;
+	}
+
+	/**
+	 * Method called before a modification at an index of the list: the
+	 * origin of each element of the range is recorded on the first
+	 * modification since the last notification.
+	 */
+	private void startModification(int index) {
+		if (origins == null) {
+			list.setPendingIterator(this);
+			// there is no gap before the first modification
+			origins = new int[rangeEnd - rangeStart];
+			for (int ind = 0; ind < origins.length; ind++) {
+				origins[ind] = rangeStart + ind;
+			}
+			firstModified = index;
+		}
+		firstModified = Math.min(firstModified, index);
+	}
+
+	/**
+	 * Method to open a gap at the cursor, large enough for the next additions
+	 * to take a constant amortized time.
+	 */
+	private void openGap() {
+		int length = Math.max(MIN_GAP, list.backingSize() >> 3);
+		list.insertGap(cursor, length);
+		int rangeLength = rangeEnd - rangeStart;
+		if (origins.length < rangeLength + length) {
+			origins = Arrays.copyOf(origins, rangeLength + length);
+		}
+		System.arraycopy(origins, cursor - rangeStart, origins, cursor - rangeStart + length, rangeEnd - cursor);
+		gapEnd = cursor + length;
+	}
+
+	private void addRemoved(int index, T element) {
+		int count = removed.size();
+		if (count == removedIndices.length) {
+			removedIndices = Arrays.copyOf(removedIndices, count * 2);
+		}
+		removedIndices[count] = index;
+		removed.add(element);
+	}
+
+	/**
+	 * @return the event of the elements at the given indexes, with the index
+	 *         of the first one if they are contiguous
+	 */
+	private static ModifiedListEvent event(ActionType type, int[] indices, List<?> elements) {
+		if (indices[indices.length - 1] - indices[0] == indices.length - 1) {
+			return new ModifiedListEvent(type, indices[0], elements);
+		}
+		return new ModifiedListEvent(type, indices, elements);
+	}
+
+	private static boolean isSorted(int[] indices) {
+		for (int ind = 1; ind < indices.length; ind++) {
+			if (indices[ind] < indices[ind - 1]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Method to notify the modifications in progress, if any.
+	 */
+	private void flush() {
+		if (origins != null) {
+			list.flushPendingIterator();
+		}
+	}
+
+	/**
+	 * Method called once the iterator has structurally modified the list.
+	 *
+	 * @param sizeVariation
+	 *            variation of the size of the iterated range
+	 */
+	private void structurallyModified(int sizeVariation) {
+		rangeEnd += sizeVariation;
+		list.incrementModCount();
+		expectedModCount = list.getModCount();
+		if (sizeListener != null) {
+			sizeListener.accept(sizeVariation);
+		}
+	}
+
+	private void checkForComodification() {
+		if (list.getModCount() != expectedModCount) {
+			throw new ConcurrentModificationException();
+		}
+	}
+}
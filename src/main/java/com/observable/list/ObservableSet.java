@@ -0,0 +1,296 @@
+package com.observable.list;
+
+import static com.observable.list.enums.ActionType.ADD;
+import static com.observable.list.enums.ActionType.REMOVE;
+
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Observable set backed by a {@link LinkedHashSet}: adding, removing and
+ * looking for an element take a constant time, and the elements are iterated
+ * in their insertion order. The set accepts the same listeners as the
+ * observable lists and sends them the same events: adding an element already
+ * present does nothing and sends no event.
+ * 
+ * The listeners receive a read-only list view of the set, in insertion order.
+ * Its methods contains and size take a constant time, but accessing an element
+ * by its index iterates over the set, so the view should be iterated rather
+ * than accessed by index.
+ * 
+ * The elements added are always at the end of the insertion order, so the add
+ * events give the index of the first element added. The remove events don't
+ * give any index.
+ * 
+ * @param <T>
+ *            type of the objects contained in the set
+ */
+public class ObservableSet<T> extends AbstractSet<T> implements RegistryObservable {
+
+	/**
+	 * elements of the set
+	 */
+	private final LinkedHashSet<T> elements;
+
+	/**
+	 * list view of the set given to the listeners
+	 */
+	private final List<T> listView = new ListView();
+
+	/**
+	 * registry of the listeners of the set
+	 */
+	private final ListenerRegistry listeners = new ListenerRegistry();
+
+	/**
+	 * Constructor of an empty set
+	 */
+	public ObservableSet() {
+		elements = new LinkedHashSet<>();
+	}
+
+	/**
+	 * Constructor of a set containing the elements given in parameter, no
+	 * notification is sent.
+	 * 
+	 * @param elements
+	 *            initial elements of the set
+	 */
+	public ObservableSet(Collection<? extends T> elements) {
+		this.elements = new LinkedHashSet<>(elements);
+	}
+
+	/**
+	 * @return the registry of the listeners of the set
+	 */
+	@Override
+	public final ListenerRegistry listenerRegistry() {
+		return listeners;
+	}
+
+	/**
+	 * @return the list view of the set, given to the listeners along with the
+	 *         events
+	 */
+	@Override
+	public List<?> eventSource() {
+		return listView;
+	}
+
+	/**
+	 * @return a read-only list view of the set, in insertion order
+	 */
+	public List<T> asList() {
+		return listView;
+	}
+
+	@Override
+	public int size() {
+		return elements.size();
+	}
+
+	@Override
+	public boolean contains(Object element) {
+		return elements.contains(element);
+	}
+
+	/**
+	 * Method to add an element to the set. The listeners are notified only if
+	 * the element was not already in the set.
+	 */
+	@Override
+	public boolean add(T element) {
+		if (!elements.add(element)) {
+			return false;
+		}
+		notifyAllListeners(new ModifiedListEvent(ADD, elements.size() - 1, element));
+		return true;
+	}
+
+	/**
+	 * Method to add several elements to the set. The listeners receive a single
+	 * event with the elements that were not already in the set.
+	 */
+	@Override
+	public boolean addAll(Collection<? extends T> elementsToAdd) {
+		int index = elements.size();
+		List<T> added = new ArrayList<>();
+		for (T element : elementsToAdd) {
+			if (elements.add(element)) {
+				added.add(element);
+			}
+		}
+		if (added.isEmpty()) {
+			return false;
+		}
+		notifyAllListeners(new ModifiedListEvent(ADD, index, added));
+		return true;
+	}
+
+	/**
+	 * Method to remove an element from the set. The listeners are notified only
+	 * if the element was in the set.
+	 */
+	@Override
+	public boolean remove(Object element) {
+		if (!elements.remove(element)) {
+			return false;
+		}
+		notifyAllListeners(new ModifiedListEvent(REMOVE, element));
+		return true;
+	}
+
+	/**
+	 * Method to remove several elements from the set. The listeners receive a
+	 * single event with the elements that were in the set.
+	 */
+	@Override
+	public boolean removeAll(Collection<?> elementsToRemove) {
+		Objects.requireNonNull(elementsToRemove);
+		List<Object> removed = new ArrayList<>();
+		for (Object element : elementsToRemove) {
+			if (elements.remove(element)) {
+				removed.add(element);
+			}
+		}
+		if (removed.isEmpty()) {
+			return false;
+		}
+		notifyAllListeners(new ModifiedListEvent(REMOVE, removed));
+		return true;
+	}
+
+	/**
+	 * Method to keep only the elements contained in the collection given in
+	 * parameter. The listeners receive a single event with the elements
+	 * removed.
+	 */
+	@Override
+	public boolean retainAll(Collection<?> elementsToKeep) {
+		Objects.requireNonNull(elementsToKeep);
+		return removeIf(element -> !elementsToKeep.contains(element));
+	}
+
+	/**
+	 * Method to remove the elements matching the predicate. The listeners
+	 * receive a single event with the elements removed.
+	 */
+	@Override
+	public boolean removeIf(Predicate<? super T> filter) {
+		Objects.requireNonNull(filter);
+		List<T> removed = new ArrayList<>();
+		Iterator<T> iter = elements.iterator();
+		while (iter.hasNext()) {
+			T element = iter.next();
+			if (filter.test(element)) {
+				iter.remove();
+				removed.add(element);
+			}
+		}
+		if (removed.isEmpty()) {
+			return false;
+		}
+		notifyAllListeners(new ModifiedListEvent(REMOVE, removed));
+		return true;
+	}
+
+	/**
+	 * Method to remove all the elements of the set. The listeners receive a
+	 * single event with all the elements, starting at index 0.
+	 */
+	@Override
+	public void clear() {
+		if (elements.isEmpty()) {
+			return;
+		}
+		List<T> removed = new ArrayList<>(elements);
+		elements.clear();
+		notifyAllListeners(new ModifiedListEvent(REMOVE, 0, removed));
+	}
+
+	/**
+	 * @return an iterator on the set in insertion order, the listeners are
+	 *         notified of each element removed through it
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		Iterator<T> iter = elements.iterator();
+		return new Iterator<T>() {
+
+			private T lastReturned;
+
+			@Override
+			public boolean hasNext() {
+				return iter.hasNext();
+			}
+
+			@Override
+			public T next() {
+				lastReturned = iter.next();
+				return lastReturned;
+			}
+
+			@Override
+			public void remove() {
+				iter.remove();
+				notifyAllListeners(new ModifiedListEvent(REMOVE, lastReturned));
+			}
+		};
+	}
+
+	/**
+	 * Read-only list view of the set given to the listeners.
+	 */
+	private final class ListView extends AbstractList<T> {
+
+		@Override
+		public T get(int index) {
+			if (index < 0 || index >= elements.size()) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + elements.size());
+			}
+			Iterator<T> iter = elements.iterator();
+			for (int ind = 0; ind < index; ind++) {
+				iter.next();
+			}
+			return iter.next();
+		}
+
+		@Override
+		public int size() {
+			return elements.size();
+		}
+
+		@Override
+		public boolean contains(Object element) {
+			return elements.contains(element);
+		}
+
+		@Override
+		public int indexOf(Object element) {
+			if (!elements.contains(element)) {
+				return -1;
+			}
+			int index = 0;
+			for (T current : elements) {
+				if (Objects.equals(current, element)) {
+					return index;
+				}
+				index++;
+			}
+			return -1;
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			return Collections.unmodifiableSet(elements).iterator();
+		}
+	}
+}
@@ -0,0 +1,223 @@
+package com.observable.list;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * View on a range of an {@link ObservableList}. The modifications performed
+ * through the view are notified to the listeners of the list. The bulk
+ * operations (removeIf, removeAll, retainAll, replaceAll, clear) are applied
+ * to the range in one pass and the listeners receive an event for each run
+ * of contiguous elements modified, at the index of the run, instead of one
+ * event per element.
+ * 
+ * As for the sub lists of ArrayList, the view becomes invalid if the list is
+ * structurally modified other than through the view.
+ * 
+ * @param <T>
+ *            type of the objects contained in the list
+ */
+class ObservableSubList<T> extends AbstractList<T> implements RandomAccess {
+
+	private final ObservableList<T> root;
+	private final ObservableSubList<T> parent;
+	private final int offset;
+	private int size;
+	private int expectedModCount;
+
+	/**
+	 * Constructor of the view
+	 * 
+	 * @param root
+	 *            list on which the view is defined
+	 * @param parent
+	 *            view from which this view has been created, null if it has
+	 *            been created from the list itself
+	 * @param offset
+	 *            index in the list of the first element of the view
+	 * @param size
+	 *            number of elements in the view
+	 */
+	ObservableSubList(ObservableList<T> root, ObservableSubList<T> parent, int offset, int size) {
+		this.root = root;
+		this.parent = parent;
+		this.offset = offset;
+		this.size = size;
+		this.expectedModCount = root.getModCount();
+	}
+
+	@Override
+	public T get(int index) {
+		checkIndex(index);
+		checkForComodification();
+		return root.get(offset + index);
+	}
+
+	@Override
+	public int size() {
+		checkForComodification();
+		return size;
+	}
+
+	@Override
+	public T set(int index, T element) {
+		checkIndex(index);
+		checkForComodification();
+		return root.set(offset + index, element);
+	}
+
+	@Override
+	public void add(int index, T element) {
+		checkPositionIndex(index);
+		checkForComodification();
+		root.add(offset + index, element);
+		updateSize(1);
+	}
+
+	@Override
+	public T remove(int index) {
+		checkIndex(index);
+		checkForComodification();
+		T element = root.remove(offset + index);
+		updateSize(-1);
+		return element;
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends T> elements) {
+		return addAll(size, elements);
+	}
+
+	@Override
+	public boolean addAll(int index, Collection<? extends T> elements) {
+		checkPositionIndex(index);
+		checkForComodification();
+		int added = elements.size();
+		if (added == 0) {
+			return false;
+		}
+		root.addAll(offset + index, elements);
+		updateSize(added);
+		return true;
+	}
+
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		checkForComodification();
+		if (fromIndex == toIndex) {
+			return;
+		}
+		root.removeRange(offset + fromIndex, offset + toIndex);
+		updateSize(fromIndex - toIndex);
+	}
+
+	@Override
+	public boolean removeIf(Predicate<? super T> filter) {
+		Objects.requireNonNull(filter);
+		checkForComodification();
+		boolean[] removedMask = new boolean[size];
+		for (int ind = 0; ind < size; ind++) {
+			removedMask[ind] = filter.test(root.get(offset + ind));
+		}
+		int removed = root.removeMasked(offset, removedMask);
+		if (removed == 0) {
+			return false;
+		}
+		updateSize(-removed);
+		return true;
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> elements) {
+		Objects.requireNonNull(elements);
+		return removeIf(elements::contains);
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> elements) {
+		Objects.requireNonNull(elements);
+		return removeIf(element -> !elements.contains(element));
+	}
+
+	@Override
+	public void replaceAll(UnaryOperator<T> operator) {
+		Objects.requireNonNull(operator);
+		checkForComodification();
+		Object[] modifiedElements = new Object[size];
+		for (int ind = 0; ind < size; ind++) {
+			modifiedElements[ind] = operator.apply(root.get(offset + ind));
+		}
+		root.replaceElements(offset, modifiedElements);
+		updateSize(0);
+	}
+
+	@Override
+	public void sort(Comparator<? super T> c) {
+		checkForComodification();
+		root.sortRange(offset, offset + size, c);
+		updateSize(0);
+	}
+
+	@Override
+	public ObservableListIterator<T> iterator() {
+		return listIterator(0);
+	}
+
+	@Override
+	public ObservableListIterator<T> listIterator() {
+		return listIterator(0);
+	}
+
+	@Override
+	public ObservableListIterator<T> listIterator(int index) {
+		checkPositionIndex(index);
+		checkForComodification();
+		return new ObservableListIterator<>(root, offset, offset + size, offset + index, this::updateSize);
+	}
+
+	@Override
+	public List<T> subList(int fromIndex, int toIndex) {
+		ObservableList.checkSubListRange(fromIndex, toIndex, size);
+		return new ObservableSubList<>(root, this, offset + fromIndex, toIndex - fromIndex);
+	}
+
+	/**
+	 * Method called once the list has been structurally modified through this
+	 * view, or through a view created from this view.
+	 * 
+	 * @param sizeVariation
+	 *            variation of the size of the view
+	 */
+	private void updateSize(int sizeVariation) {
+		size += sizeVariation;
+		expectedModCount = root.getModCount();
+		if (parent != null) {
+			parent.updateSize(sizeVariation);
+		}
+	}
+
+	private void checkForComodification() {
+		if (root.getModCount() != expectedModCount) {
+			throw new ConcurrentModificationException();
+		}
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	private void checkPositionIndex(int index) {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+}
@@ -0,0 +1,244 @@
+package com.observable.list;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Sequence of values stored in a treap ordered by position, each node keeping
+ * the number of nodes of its subtree. Reading, inserting or removing a value
+ * at an index costs a logarithmic time, and a node knows its index through
+ * its parent pointers: a value can be removed through its node without
+ * searching for it. It is the storage of the {@link ExpiringObservableList},
+ * whose expired entries are removed this way.
+ *
+ * @param <E>
+ *            type of the values
+ */
+final class OrderStatisticTree<E> {
+
+	/**
+	 * Node holding a value, which is its handle in the tree
+	 */
+	static final class Node<E> {
+		private E value;
+		private final int priority;
+		private Node<E> left;
+		private Node<E> right;
+		private Node<E> parent;
+		private int count = 1;
+
+		private Node(E value, int priority) {
+			this.value = value;
+			this.priority = priority;
+		}
+
+		E getValue() {
+			return value;
+		}
+	}
+
+	private final Random random = new Random();
+	private Node<E> root;
+
+	/**
+	 * results of the last split: the nodes before the split index and the
+	 * other ones
+	 */
+	private Node<E> splitLeft;
+	private Node<E> splitRight;
+
+	/**
+	 * @return the number of values
+	 */
+	int size() {
+		return count(root);
+	}
+
+	/**
+	 * @return the value at an index, which must be valid
+	 */
+	E get(int index) {
+		return nodeAt(index).value;
+	}
+
+	/**
+	 * Method to replace the value at an index, which must be valid
+	 *
+	 * @return the node of the index, now holding the new value
+	 */
+	Node<E> set(int index, E value) {
+		Node<E> node = nodeAt(index);
+		node.value = value;
+		return node;
+	}
+
+	/**
+	 * Method to insert values at an index, which must be valid
+	 *
+	 * @return the nodes of the values inserted, in order
+	 */
+	List<Node<E>> addAll(int index, Collection<? extends E> values) {
+		List<Node<E>> nodes = new ArrayList<>(values.size());
+		Node<E> inserted = null;
+		for (E value : values) {
+			Node<E> node = new Node<>(value, random.nextInt());
+			nodes.add(node);
+			inserted = merge(inserted, node);
+		}
+		split(root, index);
+		Node<E> right = splitRight;
+		root = merge(merge(splitLeft, inserted), right);
+		if (root != null) {
+			root.parent = null;
+		}
+		return nodes;
+	}
+
+	/**
+	 * Method to remove the values of a range of indexes, which must be valid
+	 *
+	 * @return the values removed, in order
+	 */
+	List<E> removeRange(int fromIndex, int toIndex) {
+		split(root, toIndex);
+		Node<E> right = splitRight;
+		split(splitLeft, fromIndex);
+		Node<E> removed = splitRight;
+		root = merge(splitLeft, right);
+		if (root != null) {
+			root.parent = null;
+		}
+		List<E> values = new ArrayList<>(toIndex - fromIndex);
+		collect(removed, values);
+		return values;
+	}
+
+	/**
+	 * Method to remove a node from the tree
+	 *
+	 * @param node
+	 *            node of the tree
+	 */
+	void remove(Node<E> node) {
+		Node<E> merged = merge(node.left, node.right);
+		Node<E> parent = node.parent;
+		if (merged != null) {
+			merged.parent = parent;
+		}
+		if (parent == null) {
+			root = merged;
+		} else if (parent.left == node) {
+			parent.left = merged;
+		} else {
+			parent.right = merged;
+		}
+		for (Node<E> ancestor = parent; ancestor != null; ancestor = ancestor.parent) {
+			update(ancestor);
+		}
+		node.left = null;
+		node.right = null;
+		node.parent = null;
+		node.count = 1;
+	}
+
+	/**
+	 * @return the index of a node of the tree
+	 */
+	int indexOf(Node<E> node) {
+		int index = count(node.left);
+		for (Node<E> current = node; current.parent != null; current = current.parent) {
+			if (current.parent.right == current) {
+				index += count(current.parent.left) + 1;
+			}
+		}
+		return index;
+	}
+
+	private Node<E> nodeAt(int index) {
+		Node<E> node = root;
+		while (true) {
+			int leftCount = count(node.left);
+			if (index < leftCount) {
+				node = node.left;
+			} else if (index == leftCount) {
+				return node;
+			} else {
+				index -= leftCount + 1;
+				node = node.right;
+			}
+		}
+	}
+
+	/**
+	 * Method to split a subtree in the nodes of its first count positions,
+	 * stored in splitLeft, and the other ones, stored in splitRight.
+	 */
+	private void split(Node<E> node, int count) {
+		if (node == null) {
+			splitLeft = null;
+			splitRight = null;
+			return;
+		}
+		node.parent = null;
+		if (count(node.left) < count) {
+			split(node.right, count - count(node.left) - 1);
+			node.right = splitLeft;
+			if (splitLeft != null) {
+				splitLeft.parent = node;
+			}
+			update(node);
+			splitLeft = node;
+		} else {
+			split(node.left, count);
+			node.left = splitRight;
+			if (splitRight != null) {
+				splitRight.parent = node;
+			}
+			update(node);
+			splitRight = node;
+		}
+	}
+
+	/**
+	 * @return the subtree holding the nodes of first followed by the nodes of
+	 *         second, its parent pointer being left to the caller
+	 */
+	private Node<E> merge(Node<E> first, Node<E> second) {
+		if (first == null) {
+			return second;
+		}
+		if (second == null) {
+			return first;
+		}
+		if (first.priority > second.priority) {
+			Node<E> right = merge(first.right, second);
+			first.right = right;
+			right.parent = first;
+			update(first);
+			return first;
+		}
+		Node<E> left = merge(first, second.left);
+		second.left = left;
+		left.parent = second;
+		update(second);
+		return second;
+	}
+
+	private void collect(Node<E> node, List<E> values) {
+		if (node != null) {
+			collect(node.left, values);
+			values.add(node.value);
+			collect(node.right, values);
+		}
+	}
+
+	private static void update(Node<?> node) {
+		node.count = 1 + count(node.left) + count(node.right);
+	}
+
+	private static int count(Node<?> node) {
+		return node == null ? 0 : node.count;
+	}
+}
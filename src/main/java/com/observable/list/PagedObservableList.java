@@ -0,0 +1,642 @@
+package com.observable.list;
+
+import static com.observable.list.enums.ActionType.ADD;
+import static com.observable.list.enums.ActionType.REMOVE;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import com.observable.list.intf.ElementCodec;
+
+/**
+ * Observable list storing its elements in a memory-mapped file instead of the
+ * heap. The elements are grouped in pages of a bounded number of elements,
+ * each page being encoded with an {@link ElementCodec} and written in the
+ * file. Only a bounded number of pages are kept decoded on the heap, in a
+ * least recently used cache: a page evicted from the cache is written back to
+ * the file if it has been modified. The heap used by the list is therefore
+ * bounded by the size of the cache, plus a small descriptor per page.
+ * 
+ * The list notifies its listeners as {@link ObservableList} does. The file is
+ * a swap area owned by the list: it is truncated when the list is created and
+ * deleted when the list is closed. A page rewritten with a larger size is
+ * moved to the end of the file, {@link #getWastedBytes()} giving the space
+ * left behind. Once the wasted space exceeds the space used by the pages, the
+ * pages are moved back to the start of the file, one at a time, and the
+ * space following them is reused: the file doesn't grow beyond twice the
+ * space needed by the elements, plus the slack kept for the pages to grow.
+ * 
+ * Two adjacent pages are merged as soon as their elements fit in a single
+ * page, so that removing elements doesn't leave underfull pages behind: the
+ * number of pages stays below twice the number of full pages needed. Adding
+ * several elements at once fills the pages directly, without splitting them
+ * one element at a time.
+ * 
+ * @param <T>
+ *            type of the objects contained in the list
+ */
+public class PagedObservableList<T> extends AbstractObservableList<T> implements RandomAccess, AutoCloseable {
+
+	private final static String INVALID_PAGE_SIZE_EXCEPTION = "Invalid page size: ";
+	private final static String INVALID_CACHE_SIZE_EXCEPTION = "Invalid cache size: ";
+
+	/**
+	 * size of the regions of the file mapped in memory
+	 */
+	private static final int SEGMENT_SIZE = 16 << 20;
+
+	/**
+	 * Descriptor of a page, kept on the heap for every page
+	 */
+	private static final class Page {
+		// number of elements in the page
+		private int size;
+		// index in the list of the first element of the page
+		private int start;
+		// location of the page in the file, segment is -1 if the page has
+		// never been written
+		private int segment = -1;
+		private int position;
+		private int capacity;
+		// number of bytes written in the file
+		private int length;
+		// true if the decoded page has been modified since it was written
+		private boolean dirty;
+	}
+
+	/**
+	 * file storing the pages
+	 */
+	private final Path file;
+	private final FileChannel channel;
+
+	/**
+	 * regions of the file mapped in memory, in order
+	 */
+	private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+	/**
+	 * segment holding the free space and position of the free space in it,
+	 * the following segments being free as well
+	 */
+	private int segmentIndex;
+	private int segmentPosition;
+
+	/**
+	 * number of bytes of the file reserved for the pages
+	 */
+	private long allocatedBytes;
+
+	/**
+	 * number of bytes of the file not used anymore
+	 */
+	private long wastedBytes;
+
+	private final ElementCodec<T> codec;
+	private final int elementsPerPage;
+
+	/**
+	 * pages of the list, in order
+	 */
+	private final List<Page> pages = new ArrayList<>();
+
+	/**
+	 * index of the first page whose start is not up to date
+	 */
+	private int firstInvalidStart;
+
+	/**
+	 * decoded pages, in access order
+	 */
+	private final LinkedHashMap<Page, List<T>> cache;
+
+	private int size;
+
+	/**
+	 * Constructor of an empty list
+	 * 
+	 * @param file
+	 *            file storing the elements, it is created or truncated
+	 * @param codec
+	 *            codec converting the elements to bytes
+	 * @param elementsPerPage
+	 *            maximum number of elements in a page
+	 * @param cachedPages
+	 *            maximum number of pages kept decoded on the heap
+	 * @throws IOException
+	 *             if the file cannot be opened
+	 */
+	public PagedObservableList(Path file, ElementCodec<T> codec, int elementsPerPage, int cachedPages)
+			throws IOException {
+		Objects.requireNonNull(codec);
+		if (elementsPerPage <= 0) {
+			throw new IllegalArgumentException(INVALID_PAGE_SIZE_EXCEPTION + elementsPerPage);
+		}
+		if (cachedPages <= 0) {
+			throw new IllegalArgumentException(INVALID_CACHE_SIZE_EXCEPTION + cachedPages);
+		}
+		this.file = file;
+		this.codec = codec;
+		this.elementsPerPage = elementsPerPage;
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		this.cache = new LinkedHashMap<Page, List<T>>(cachedPages + 1, 1f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Page, List<T>> eldest) {
+				if (size() > cachedPages) {
+					writeBack(eldest.getKey(), eldest.getValue());
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * @return the number of bytes of the file not used anymore
+	 */
+	public long getWastedBytes() {
+		return wastedBytes;
+	}
+
+	/**
+	 * @return the number of pages of the list
+	 */
+	int getPageCount() {
+		return pages.size();
+	}
+
+	@Override
+	public T get(int index) {
+		checkIndex(index);
+		Page page = pages.get(pageIndexOf(index));
+		return load(page).get(index - page.start);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Method to add one element to the list at the given index. It notifies the
+	 * listeners accordingly.
+	 */
+	@Override
+	public void add(int index, T element) {
+		checkPositionIndex(index);
+		insert(index, element);
+		modCount++;
+		compactIfWasteful();
+		notifyAllListeners(new ModifiedListEvent(ADD, index, element));
+	}
+
+	/**
+	 * Method to add several elements at the end of the list. It notifies the
+	 * listeners accordingly.
+	 */
+	@Override
+	public boolean addAll(Collection<? extends T> elements) {
+		return addAll(size, elements);
+	}
+
+	/**
+	 * Method to add several elements to the list from a given index. The
+	 * elements are inserted in a single pass, filling the page of the index
+	 * and new pages. It notifies the listeners accordingly.
+	 */
+	@Override
+	public boolean addAll(int index, Collection<? extends T> elements) {
+		checkPositionIndex(index);
+		if (elements.isEmpty()) {
+			return false;
+		}
+		List<T> added = new ArrayList<>(elements);
+		insertAll(index, added);
+		modCount++;
+		compactIfWasteful();
+		notifyAllListeners(new ModifiedListEvent(ADD, index, added));
+		return true;
+	}
+
+	/**
+	 * This method replaces an element in the list, so a remove event and an add
+	 * event are sent to the listeners.
+	 */
+	@Override
+	public T set(int index, T element) {
+		checkIndex(index);
+		Page page = pages.get(pageIndexOf(index));
+		T oldValue = load(page).set(index - page.start, element);
+		page.dirty = true;
+		compactIfWasteful();
+		notifyAllListeners(new ModifiedListEvent(REMOVE, index, oldValue));
+		notifyAllListeners(new ModifiedListEvent(ADD, index, element));
+		return oldValue;
+	}
+
+	/**
+	 * Method to remove the element at the given index. It notifies the
+	 * listeners accordingly.
+	 */
+	@Override
+	public T remove(int index) {
+		checkIndex(index);
+		List<T> removed = removeSilently(index, index + 1);
+		modCount++;
+		compactIfWasteful();
+		notifyAllListeners(new ModifiedListEvent(REMOVE, index, removed));
+		return removed.get(0);
+	}
+
+	/**
+	 * Method to remove all the elements between two indexes. It notifies the
+	 * listeners accordingly, the method clear() relies on it.
+	 */
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		ObservableList.checkSubListRange(fromIndex, toIndex, size);
+		if (fromIndex == toIndex) {
+			return;
+		}
+		List<T> removed = removeSilently(fromIndex, toIndex);
+		modCount++;
+		compactIfWasteful();
+		notifyAllListeners(new ModifiedListEvent(REMOVE, fromIndex, removed));
+	}
+
+	/**
+	 * Method to write the modified pages kept in the cache to the file.
+	 */
+	public void flush() {
+		for (Map.Entry<Page, List<T>> entry : cache.entrySet()) {
+			writeBack(entry.getKey(), entry.getValue());
+		}
+		compactIfWasteful();
+		for (MappedByteBuffer segment : segments) {
+			segment.force();
+		}
+	}
+
+	/**
+	 * Method to release the file, which is deleted. The list cannot be used
+	 * anymore.
+	 * 
+	 * The segments of the file mapped in memory are dropped, but Java offers
+	 * no way to unmap them explicitly: the mappings are released once the
+	 * buffers are garbage collected, and the address space and the file
+	 * stay reserved until then. On POSIX systems the file is removed from
+	 * its directory right away; on Windows a file still mapped can't be
+	 * deleted, and this method throws an IOException in that case.
+	 */
+	@Override
+	public void close() throws IOException {
+		cache.clear();
+		segments.clear();
+		channel.close();
+		Files.deleteIfExists(file);
+	}
+
+	/**
+	 * Method inserting an element without notifying the listeners. Adding at
+	 * the end of a full page starts a new page, adding in the middle of a full
+	 * page splits it in two.
+	 */
+	private void insert(int index, T element) {
+		Page last = pages.isEmpty() ? null : pages.get(pages.size() - 1);
+		if (last == null || (index == size && last.size >= elementsPerPage)) {
+			Page page = new Page();
+			page.start = size;
+			page.size = 1;
+			page.dirty = true;
+			pages.add(page);
+			firstInvalidStart = Math.min(firstInvalidStart, pages.size());
+			size++;
+			List<T> elements = new ArrayList<>();
+			elements.add(element);
+			cache.put(page, elements);
+			return;
+		}
+		int pageIndex = index == size ? pages.size() - 1 : pageIndexOf(index);
+		ensureStarts();
+		Page page = pages.get(pageIndex);
+		List<T> elements = load(page);
+		elements.add(index - page.start, element);
+		page.size++;
+		page.dirty = true;
+		size++;
+		firstInvalidStart = Math.min(firstInvalidStart, pageIndex + 1);
+		if (page.size > elementsPerPage) {
+			// the page is modified completely before the new page is cached,
+			// since caching it may evict the page
+			List<T> secondHalf = elements.subList(page.size / 2, page.size);
+			List<T> newElements = new ArrayList<>(secondHalf);
+			secondHalf.clear();
+			Page newPage = new Page();
+			newPage.size = newElements.size();
+			newPage.dirty = true;
+			page.size = elements.size();
+			pages.add(pageIndex + 1, newPage);
+			cache.put(newPage, newElements);
+		}
+	}
+
+	/**
+	 * Method inserting several elements without notifying the listeners. The
+	 * elements following the index in its page are moved after the elements
+	 * inserted, the page is filled up to its maximum size and the other
+	 * elements are stored in new pages.
+	 */
+	private void insertAll(int index, List<T> added) {
+		Page last = pages.isEmpty() ? null : pages.get(pages.size() - 1);
+		int pageIndex = pages.size() - 1;
+		List<T> remaining = added;
+		if (last != null && (index < size || last.size < elementsPerPage)) {
+			pageIndex = index == size ? pages.size() - 1 : pageIndexOf(index);
+			ensureStarts();
+			Page page = pages.get(pageIndex);
+			List<T> elements = load(page);
+			List<T> following = elements.subList(index - page.start, page.size);
+			remaining = new ArrayList<>(added.size() + following.size());
+			remaining.addAll(added);
+			remaining.addAll(following);
+			following.clear();
+			int count = Math.min(remaining.size(), elementsPerPage - elements.size());
+			elements.addAll(remaining.subList(0, count));
+			remaining = remaining.subList(count, remaining.size());
+			page.size = elements.size();
+			page.dirty = true;
+		}
+		firstInvalidStart = Math.min(firstInvalidStart, pageIndex + 1);
+		// the page is modified completely before the new pages are cached,
+		// since caching them may evict the page
+		List<Page> newPages = new ArrayList<>();
+		for (int from = 0; from < remaining.size(); from += elementsPerPage) {
+			List<T> newElements = new ArrayList<>(
+					remaining.subList(from, Math.min(from + elementsPerPage, remaining.size())));
+			Page newPage = new Page();
+			newPage.size = newElements.size();
+			newPage.dirty = true;
+			newPages.add(newPage);
+			cache.put(newPage, newElements);
+		}
+		pages.addAll(pageIndex + 1, newPages);
+		size += added.size();
+		// the last page filled may now fit with the following one
+		mergeAround(pageIndex + newPages.size());
+	}
+
+	/**
+	 * Method removing a range of elements without notifying the listeners.
+	 * 
+	 * @return the elements removed
+	 */
+	private List<T> removeSilently(int fromIndex, int toIndex) {
+		List<T> removed = new ArrayList<>(toIndex - fromIndex);
+		int pageIndex = pageIndexOf(fromIndex);
+		int firstPage = pageIndex;
+		int offset = fromIndex - pages.get(pageIndex).start;
+		int remaining = toIndex - fromIndex;
+		while (remaining > 0) {
+			Page page = pages.get(pageIndex);
+			List<T> elements = load(page);
+			int count = Math.min(remaining, page.size - offset);
+			List<T> range = elements.subList(offset, offset + count);
+			removed.addAll(range);
+			range.clear();
+			page.size -= count;
+			page.dirty = true;
+			remaining -= count;
+			if (page.size == 0) {
+				pages.remove(pageIndex);
+				cache.remove(page);
+				wastedBytes += page.capacity;
+			} else {
+				pageIndex++;
+			}
+			offset = 0;
+		}
+		size -= removed.size();
+		// the first page may have been removed
+		firstInvalidStart = Math.min(firstInvalidStart, firstPage);
+		// the pages around the range removed have shrunk and are now
+		// adjacent
+		mergeAround(firstPage);
+		return removed;
+	}
+
+	/**
+	 * Method merging the pages around the given page with their neighbours
+	 * while the elements of two adjacent pages fit in a single page.
+	 */
+	private void mergeAround(int pageIndex) {
+		int ind = Math.max(pageIndex - 1, 0);
+		while (ind < pages.size() - 1 && ind <= pageIndex + 1) {
+			Page page = pages.get(ind);
+			Page next = pages.get(ind + 1);
+			if (page.size + next.size > elementsPerPage) {
+				ind++;
+				continue;
+			}
+			// the elements of the next page are copied first, since loading
+			// the page may evict the next one
+			List<T> nextElements = new ArrayList<>(load(next));
+			List<T> elements = load(page);
+			elements.addAll(nextElements);
+			page.size = elements.size();
+			page.dirty = true;
+			pages.remove(ind + 1);
+			cache.remove(next);
+			wastedBytes += next.capacity;
+			firstInvalidStart = Math.min(firstInvalidStart, ind + 1);
+		}
+	}
+
+	/**
+	 * @return the index of the page containing the element at the given index
+	 */
+	private int pageIndexOf(int index) {
+		ensureStarts();
+		int low = 0;
+		int high = pages.size() - 1;
+		while (low < high) {
+			int middle = (low + high + 1) >>> 1;
+			if (pages.get(middle).start <= index) {
+				low = middle;
+			} else {
+				high = middle - 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Method updating the start of the pages following a modification.
+	 */
+	private void ensureStarts() {
+		if (firstInvalidStart == 0 && !pages.isEmpty()) {
+			pages.get(0).start = 0;
+		}
+		for (int ind = Math.max(firstInvalidStart, 1); ind < pages.size(); ind++) {
+			Page previous = pages.get(ind - 1);
+			pages.get(ind).start = previous.start + previous.size;
+		}
+		firstInvalidStart = pages.size();
+	}
+
+	/**
+	 * @return the decoded elements of the page, read from the file if the page
+	 *         is not in the cache
+	 */
+	private List<T> load(Page page) {
+		List<T> elements = cache.get(page);
+		if (elements == null) {
+			elements = new ArrayList<>(page.size + 1);
+			ByteBuffer buffer = segments.get(page.segment).duplicate();
+			buffer.position(page.position);
+			int count = buffer.getInt();
+			for (int ind = 0; ind < count; ind++) {
+				byte[] bytes = new byte[buffer.getInt()];
+				buffer.get(bytes);
+				elements.add(codec.decode(bytes));
+			}
+			cache.put(page, elements);
+		}
+		return elements;
+	}
+
+	/**
+	 * Method writing a page to the file if it has been modified. The page is
+	 * written in place if it fits, else it is moved to the end of the file.
+	 */
+	private void writeBack(Page page, List<T> elements) {
+		if (!page.dirty) {
+			return;
+		}
+		byte[][] encoded = new byte[elements.size()][];
+		int length = Integer.BYTES;
+		for (int ind = 0; ind < encoded.length; ind++) {
+			encoded[ind] = codec.encode(elements.get(ind));
+			length += Integer.BYTES + encoded[ind].length;
+		}
+		if (page.segment < 0 || length > page.capacity) {
+			wastedBytes += page.capacity;
+			// some room is kept for the page to grow in place
+			allocate(page, length + length / 2);
+		}
+		page.length = length;
+		ByteBuffer buffer = segments.get(page.segment).duplicate();
+		buffer.position(page.position);
+		buffer.putInt(encoded.length);
+		for (byte[] bytes : encoded) {
+			buffer.putInt(bytes.length);
+			buffer.put(bytes);
+		}
+		page.dirty = false;
+	}
+
+	/**
+	 * Method reserving space for a page after the space used, a new segment
+	 * being mapped if the free segments are full.
+	 */
+	private void allocate(Page page, int capacity) {
+		while (segmentIndex < segments.size() && segmentPosition + capacity > segments.get(segmentIndex).capacity()) {
+			segmentIndex++;
+			segmentPosition = 0;
+		}
+		if (segmentIndex == segments.size()) {
+			try {
+				long fileSize = 0;
+				for (MappedByteBuffer segment : segments) {
+					fileSize += segment.capacity();
+				}
+				segments.add(channel.map(MapMode.READ_WRITE, fileSize, Math.max(SEGMENT_SIZE, capacity)));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		page.segment = segmentIndex;
+		page.position = segmentPosition;
+		page.capacity = capacity;
+		segmentPosition += capacity;
+		allocatedBytes += capacity;
+	}
+
+	/**
+	 * Method moving the pages back to the start of the file once the space
+	 * wasted exceeds the space used. The pages are moved in the order of their
+	 * location, each one before its current location, so that a page never
+	 * overwrites a page not moved yet. The space following the last page is
+	 * then reused by the next allocations.
+	 */
+	private void compactIfWasteful() {
+		if (wastedBytes <= allocatedBytes - wastedBytes) {
+			return;
+		}
+		List<Page> written = new ArrayList<>();
+		for (Page page : pages) {
+			if (page.segment >= 0) {
+				written.add(page);
+			}
+		}
+		written.sort((first, second) -> first.segment != second.segment
+				? Integer.compare(first.segment, second.segment)
+				: Integer.compare(first.position, second.position));
+		int targetSegment = 0;
+		int targetPosition = 0;
+		long used = 0;
+		for (Page page : written) {
+			int capacity = Math.min(page.capacity, page.length + page.length / 2);
+			while (targetPosition + capacity > segments.get(targetSegment).capacity()) {
+				targetSegment++;
+				targetPosition = 0;
+			}
+			if (targetSegment != page.segment || targetPosition != page.position) {
+				byte[] bytes = new byte[page.length];
+				ByteBuffer source = segments.get(page.segment).duplicate();
+				source.position(page.position);
+				source.get(bytes);
+				ByteBuffer target = segments.get(targetSegment).duplicate();
+				target.position(targetPosition);
+				target.put(bytes);
+			}
+			page.segment = targetSegment;
+			page.position = targetPosition;
+			page.capacity = capacity;
+			targetPosition += capacity;
+			used += capacity;
+		}
+		segmentIndex = targetSegment;
+		segmentPosition = targetPosition;
+		allocatedBytes = used;
+		wastedBytes = 0;
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	private void checkPositionIndex(int index) {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+}
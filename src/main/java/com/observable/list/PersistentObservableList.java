@@ -0,0 +1,344 @@
+package com.observable.list;
+
+import static com.observable.list.enums.ActionType.ADD;
+import static com.observable.list.enums.ActionType.REMOVE;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Observable list backed by a {@link PersistentVector}. Each modification
+ * produces a new immutable version of the list, and the listeners receive this
+ * version instead of the live list: they can keep it or read it from another
+ * thread without copying it. The elements given in the events are immutable
+ * views on the versions as well.
+ * 
+ * The modifications are synchronized on the list, and the current version can
+ * be read at any time from any thread with {@link #getVersion()}. The
+ * iterators of the list iterate on the version that was current when they
+ * were created, so they never throw a ConcurrentModificationException; they
+ * don't support the removal of elements, {@link #removeIf(Predicate)} should
+ * be used instead.
+ * 
+ * @param <T>
+ *            type of the objects contained in the list
+ */
+public class PersistentObservableList<T> extends AbstractObservableList<T> implements RandomAccess {
+
+	/**
+	 * current version of the list
+	 */
+	private volatile PersistentVector<T> current;
+
+	/**
+	 * Constructor of an empty list
+	 */
+	public PersistentObservableList() {
+		current = PersistentVector.empty();
+	}
+
+	/**
+	 * Constructor of a list containing the elements given in parameter, no
+	 * notification is sent.
+	 * 
+	 * @param elements
+	 *            initial elements of the list
+	 */
+	public PersistentObservableList(Collection<? extends T> elements) {
+		current = PersistentVector.of(elements);
+	}
+
+	/**
+	 * @return the current version of the list, it will never be modified
+	 */
+	public PersistentVector<T> getVersion() {
+		return current;
+	}
+
+	/**
+	 * Method to get the current version of the list along with the sequence
+	 * number of the last event dispatched. No copy is performed.
+	 */
+	@Override
+	public synchronized ListSnapshot<T> snapshot() {
+		return new ListSnapshot<>(getSequence(), current);
+	}
+
+	/**
+	 * The listeners receive the version of the list produced by the
+	 * modification.
+	 */
+	@Override
+	public List<?> eventSource() {
+		return current;
+	}
+
+	@Override
+	public T get(int index) {
+		return current.get(index);
+	}
+
+	@Override
+	public int size() {
+		return current.size();
+	}
+
+	/**
+	 * Method to add one element at the end of the list. It notifies the
+	 * listeners accordingly.
+	 */
+	@Override
+	public synchronized boolean add(T element) {
+		current = current.plus(element);
+		modCount++;
+		notifyAllListeners(new ModifiedListEvent(ADD, current.size() - 1, element));
+		return true;
+	}
+
+	/**
+	 * Method to add one element to the list at the given index. It notifies the
+	 * listeners accordingly.
+	 */
+	@Override
+	public synchronized void add(int index, T element) {
+		current = current.insert(index, element);
+		modCount++;
+		notifyAllListeners(new ModifiedListEvent(ADD, index, element));
+	}
+
+	/**
+	 * Method to add several elements at the end of the list. It notifies the
+	 * listeners accordingly.
+	 */
+	@Override
+	public synchronized boolean addAll(Collection<? extends T> elements) {
+		return addAll(size(), elements);
+	}
+
+	/**
+	 * Method to add several elements to the list from a given index. It
+	 * notifies the listeners accordingly.
+	 */
+	@Override
+	public synchronized boolean addAll(int index, Collection<? extends T> elements) {
+		if (elements.isEmpty()) {
+			return false;
+		}
+		int oldSize = current.size();
+		current = current.insertAll(index, elements);
+		modCount++;
+		notifyAllListeners(new ModifiedListEvent(ADD, index,
+				current.subList(index, index + current.size() - oldSize)));
+		return true;
+	}
+
+	/**
+	 * This method replaces an element in the list, so a remove event and an add
+	 * event are sent to the listeners.
+	 */
+	@Override
+	public synchronized T set(int index, T element) {
+		T oldValue = current.get(index);
+		current = current.with(index, element);
+		notifyAllListeners(new ModifiedListEvent(REMOVE, index, oldValue));
+		notifyAllListeners(new ModifiedListEvent(ADD, index, element));
+		return oldValue;
+	}
+
+	/**
+	 * Method to remove the element at the given index. It notifies the
+	 * listeners accordingly.
+	 */
+	@Override
+	public synchronized T remove(int index) {
+		T oldValue = current.get(index);
+		current = current.removeAt(index);
+		modCount++;
+		notifyAllListeners(new ModifiedListEvent(REMOVE, index, oldValue));
+		return oldValue;
+	}
+
+	/**
+	 * Method to remove the first occurrence of an element. It notifies the
+	 * listeners accordingly.
+	 */
+	@Override
+	public synchronized boolean remove(Object element) {
+		int index = current.indexOf(element);
+		if (index < 0) {
+			return false;
+		}
+		remove(index);
+		return true;
+	}
+
+	/**
+	 * Method to remove all the elements between two indexes. It notifies the
+	 * listeners accordingly, the method clear() relies on it.
+	 */
+	@Override
+	protected synchronized void removeRange(int fromIndex, int toIndex) {
+		if (fromIndex == toIndex) {
+			return;
+		}
+		PersistentVector<T> oldVersion = current;
+		current = oldVersion.withoutRange(fromIndex, toIndex);
+		modCount++;
+		notifyAllListeners(new ModifiedListEvent(REMOVE, fromIndex, oldVersion.subList(fromIndex, toIndex)));
+	}
+
+	/**
+	 * Method to remove all the elements matching the predicate. The new
+	 * version is built in one pass, then the listeners receive a remove event
+	 * for each run of contiguous elements removed, at its index once the
+	 * previous runs have been removed, as with
+	 * {@link ObservableList#removeIf(Predicate)}.
+	 */
+	@Override
+	public synchronized boolean removeIf(Predicate<? super T> filter) {
+		Objects.requireNonNull(filter);
+		PersistentVector<T> oldVersion = current;
+		List<T> kept = new ArrayList<>(oldVersion.size());
+		List<ModifiedListEvent> events = new ArrayList<>();
+		int runStart = -1;
+		int ind = 0;
+		for (T element : oldVersion) {
+			if (filter.test(element)) {
+				if (runStart < 0) {
+					runStart = ind;
+				}
+			} else {
+				if (runStart >= 0) {
+					events.add(new ModifiedListEvent(REMOVE, kept.size(), oldVersion.subList(runStart, ind)));
+					runStart = -1;
+				}
+				kept.add(element);
+			}
+			ind++;
+		}
+		if (runStart >= 0) {
+			events.add(new ModifiedListEvent(REMOVE, kept.size(), oldVersion.subList(runStart, ind)));
+		}
+		if (events.isEmpty()) {
+			return false;
+		}
+		current = PersistentVector.of(kept);
+		modCount++;
+		for (ModifiedListEvent event : events) {
+			notifyAllListeners(event);
+		}
+		return true;
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> elements) {
+		Objects.requireNonNull(elements);
+		return removeIf(elements::contains);
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> elements) {
+		Objects.requireNonNull(elements);
+		return removeIf(element -> !elements.contains(element));
+	}
+
+	/**
+	 * Method to replace all the elements with the operator given in parameter.
+	 * For each run of contiguous elements replaced by different ones, the
+	 * listeners receive a remove event and an add event at the index of the
+	 * run, as with {@link ObservableList#replaceAll(UnaryOperator)}.
+	 */
+	@Override
+	public synchronized void replaceAll(UnaryOperator<T> operator) {
+		Objects.requireNonNull(operator);
+		PersistentVector<T> oldVersion = current;
+		List<T> replaced = new ArrayList<>(oldVersion.size());
+		// start and end of each run of replaced elements
+		List<int[]> runs = new ArrayList<>();
+		int runStart = -1;
+		for (T element : oldVersion) {
+			T modifiedElement = operator.apply(element);
+			if (Objects.equals(element, modifiedElement)) {
+				if (runStart >= 0) {
+					runs.add(new int[] { runStart, replaced.size() });
+					runStart = -1;
+				}
+			} else if (runStart < 0) {
+				runStart = replaced.size();
+			}
+			replaced.add(modifiedElement);
+		}
+		if (runStart >= 0) {
+			runs.add(new int[] { runStart, replaced.size() });
+		}
+		if (runs.isEmpty()) {
+			return;
+		}
+		current = PersistentVector.of(replaced);
+		PersistentVector<T> newVersion = current;
+		for (int[] run : runs) {
+			notifyAllListeners(new ModifiedListEvent(REMOVE, run[0], oldVersion.subList(run[0], run[1])));
+			notifyAllListeners(new ModifiedListEvent(ADD, run[0], newVersion.subList(run[0], run[1])));
+		}
+	}
+
+	/**
+	 * Method to sort the list. The sort is stable and the listeners are
+	 * notified with a single permutation event.
+	 * 
+	 * @see ObservableList#sort(Comparator)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public synchronized void sort(Comparator<? super T> c) {
+		Object[] elements = current.toArray();
+		Comparator<Object> comparator = c != null ? (Comparator<Object>) c
+				: (first, second) -> ((Comparable<Object>) first).compareTo(second);
+		Integer[] order = new Integer[elements.length];
+		for (int ind = 0; ind < order.length; ind++) {
+			order[ind] = ind;
+		}
+		Arrays.sort(order, (first, second) -> comparator.compare(elements[first], elements[second]));
+
+		int[] permutation = new int[elements.length];
+		List<T> sorted = new ArrayList<>(elements.length);
+		boolean moved = false;
+		for (int ind = 0; ind < order.length; ind++) {
+			permutation[order[ind]] = ind;
+			sorted.add((T) elements[order[ind]]);
+			moved |= order[ind] != ind;
+		}
+		modCount++;
+		if (moved) {
+			current = PersistentVector.of(sorted);
+			notifyAllListeners(new ModifiedListEvent(permutation));
+		}
+	}
+
+	/**
+	 * @return an iterator on the current version of the list, it doesn't
+	 *         support the removal of elements
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return current.iterator();
+	}
+
+	/**
+	 * @return a list iterator on the current version of the list, it doesn't
+	 *         support the modification of the list
+	 */
+	@Override
+	public ListIterator<T> listIterator(int index) {
+		return current.listIterator(index);
+	}
+}
@@ -0,0 +1,331 @@
+package com.observable.list;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list implemented as a persistent vector: a 32-way trie holding the
+ * elements by blocks of 32, plus a tail block for the last elements. Each
+ * modification returns a new vector sharing most of its structure with the
+ * original one, which is never modified. Keeping a reference on a vector is
+ * therefore free, and the vector can be read from any thread.
+ * 
+ * Reading an element, replacing an element, adding an element at the end and
+ * removing elements at the end take O(log32(n)). Inserting or removing
+ * elements in the middle keeps the beginning of the vector in O(log32(n)) and
+ * copies the elements following the modified index.
+ * 
+ * The methods of the List interface modifying the list throw an
+ * UnsupportedOperationException, the modified copies are obtained with the
+ * methods of this class (plus, with, insert, removeAt, withoutRange...).
+ * 
+ * @param <T>
+ *            type of the objects contained in the vector
+ */
+public final class PersistentVector<T> extends AbstractList<T> implements RandomAccess {
+
+	private static final int BITS = 5;
+	private static final int WIDTH = 1 << BITS;
+	private static final int MASK = WIDTH - 1;
+
+	private static final Object[] EMPTY_NODE = new Object[WIDTH];
+	private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, BITS, EMPTY_NODE, new Object[0]);
+
+	// number of elements in the vector
+	private final int size;
+	// number of bits used by the levels under the root
+	private final int shift;
+	// root of the trie, it holds the elements before the tail
+	private final Object[] root;
+	// last elements of the vector, between 1 and 32 elements if not empty
+	private final Object[] tail;
+
+	private PersistentVector(int size, int shift, Object[] root, Object[] tail) {
+		this.size = size;
+		this.shift = shift;
+		this.root = root;
+		this.tail = tail;
+	}
+
+	/**
+	 * @return the empty vector
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> PersistentVector<T> empty() {
+		return (PersistentVector<T>) EMPTY;
+	}
+
+	/**
+	 * @param elements
+	 *            elements of the vector
+	 * @return a vector containing the elements given in parameter, in the
+	 *         order of their iterator
+	 */
+	public static <T> PersistentVector<T> of(Iterable<? extends T> elements) {
+		return PersistentVector.<T> empty().plusAll(elements);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T get(int index) {
+		checkIndex(index);
+		return (T) leafFor(index)[index & MASK];
+	}
+
+	/**
+	 * @param element
+	 *            element to add at the end of the vector
+	 * @return a new vector with the element added at the end
+	 */
+	public PersistentVector<T> plus(T element) {
+		int tailLength = size - tailOffset();
+		if (tailLength < WIDTH) {
+			Object[] newTail = Arrays.copyOf(tail, tailLength + 1);
+			newTail[tailLength] = element;
+			return new PersistentVector<>(size + 1, shift, root, newTail);
+		}
+		// the tail is full: it is pushed in the trie
+		Object[] newRoot;
+		int newShift = shift;
+		if ((size >>> BITS) > (1 << shift)) {
+			// the trie is full: a new level is added
+			newRoot = new Object[WIDTH];
+			newRoot[0] = root;
+			newRoot[1] = newPath(shift, tail);
+			newShift += BITS;
+		} else {
+			newRoot = pushTail(shift, root, tail);
+		}
+		return new PersistentVector<>(size + 1, newShift, newRoot, new Object[] { element });
+	}
+
+	/**
+	 * @param elements
+	 *            elements to add at the end of the vector
+	 * @return a new vector with the elements added at the end, in the order of
+	 *         their iterator
+	 */
+	public PersistentVector<T> plusAll(Iterable<? extends T> elements) {
+		PersistentVector<T> result = this;
+		Iterator<? extends T> iter = elements.iterator();
+		while (iter.hasNext()) {
+			int tailLength = result.size - result.tailOffset();
+			if (tailLength == WIDTH) {
+				result = result.plus(iter.next());
+				continue;
+			}
+			// the tail is filled directly instead of being copied for each
+			// element
+			Object[] newTail = Arrays.copyOf(result.tail, WIDTH);
+			int length = tailLength;
+			while (length < WIDTH && iter.hasNext()) {
+				newTail[length++] = iter.next();
+			}
+			result = new PersistentVector<>(result.size + length - tailLength, result.shift, result.root,
+					length == WIDTH ? newTail : Arrays.copyOf(newTail, length));
+		}
+		return result;
+	}
+
+	/**
+	 * @param index
+	 *            index of the element to replace
+	 * @param element
+	 *            new element
+	 * @return a new vector with the element replaced
+	 */
+	public PersistentVector<T> with(int index, T element) {
+		checkIndex(index);
+		if (index >= tailOffset()) {
+			Object[] newTail = tail.clone();
+			newTail[index & MASK] = element;
+			return new PersistentVector<>(size, shift, root, newTail);
+		}
+		return new PersistentVector<>(size, shift, assoc(shift, root, index, element), tail);
+	}
+
+	/**
+	 * @param index
+	 *            index at which the element is inserted
+	 * @param element
+	 *            element to insert
+	 * @return a new vector with the element inserted
+	 */
+	public PersistentVector<T> insert(int index, T element) {
+		checkPositionIndex(index);
+		if (index == size) {
+			return plus(element);
+		}
+		return take(index).plus(element).plusAll(subList(index, size));
+	}
+
+	/**
+	 * @param index
+	 *            index at which the elements are inserted
+	 * @param elements
+	 *            elements to insert
+	 * @return a new vector with the elements inserted, in the order of their
+	 *         iterator
+	 */
+	public PersistentVector<T> insertAll(int index, Collection<? extends T> elements) {
+		checkPositionIndex(index);
+		if (index == size) {
+			return plusAll(elements);
+		}
+		return take(index).plusAll(elements).plusAll(subList(index, size));
+	}
+
+	/**
+	 * @param index
+	 *            index of the element to remove
+	 * @return a new vector without the element
+	 */
+	public PersistentVector<T> removeAt(int index) {
+		checkIndex(index);
+		return withoutRange(index, index + 1);
+	}
+
+	/**
+	 * @param fromIndex
+	 *            index of the first element to remove
+	 * @param toIndex
+	 *            index of the end of the range to remove (exclusive)
+	 * @return a new vector without the elements of the range
+	 */
+	public PersistentVector<T> withoutRange(int fromIndex, int toIndex) {
+		ObservableList.checkSubListRange(fromIndex, toIndex, size);
+		if (toIndex == size) {
+			return take(fromIndex);
+		}
+		return take(fromIndex).plusAll(subList(toIndex, size));
+	}
+
+	/**
+	 * @param length
+	 *            number of elements to keep
+	 * @return a new vector with the first elements of this vector
+	 */
+	public PersistentVector<T> take(int length) {
+		checkPositionIndex(length);
+		if (length == size) {
+			return this;
+		}
+		if (length == 0) {
+			return empty();
+		}
+		int tailOffset = tailOffset();
+		if (length > tailOffset) {
+			return new PersistentVector<>(length, shift, root, Arrays.copyOf(tail, length - tailOffset));
+		}
+		// the block containing the last element kept becomes the tail
+		int newTailOffset = ((length - 1) >>> BITS) << BITS;
+		Object[] newTail = Arrays.copyOf(leafFor(length - 1), length - newTailOffset);
+		if (newTailOffset == 0) {
+			return new PersistentVector<>(length, BITS, EMPTY_NODE, newTail);
+		}
+		Object[] newRoot = trim(shift, root, newTailOffset);
+		int newShift = shift;
+		while (newShift > BITS && ((newTailOffset - 1) >>> newShift) == 0) {
+			newRoot = (Object[]) newRoot[0];
+			newShift -= BITS;
+		}
+		return new PersistentVector<>(length, newShift, newRoot, newTail);
+	}
+
+	/**
+	 * @return index of the first element of the tail
+	 */
+	private int tailOffset() {
+		return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+	}
+
+	/**
+	 * @return the block of 32 elements containing the index
+	 */
+	private Object[] leafFor(int index) {
+		if (index >= tailOffset()) {
+			return tail;
+		}
+		Object[] node = root;
+		for (int level = shift; level > 0; level -= BITS) {
+			node = (Object[]) node[(index >>> level) & MASK];
+		}
+		return node;
+	}
+
+	/**
+	 * @return a copy of the node with the tail added as its last leaf
+	 */
+	private Object[] pushTail(int level, Object[] parent, Object[] tailNode) {
+		int subIndex = ((size - 1) >>> level) & MASK;
+		Object[] result = parent.clone();
+		Object[] nodeToInsert;
+		if (level == BITS) {
+			nodeToInsert = tailNode;
+		} else {
+			Object[] child = (Object[]) parent[subIndex];
+			nodeToInsert = child != null ? pushTail(level - BITS, child, tailNode)
+					: newPath(level - BITS, tailNode);
+		}
+		result[subIndex] = nodeToInsert;
+		return result;
+	}
+
+	/**
+	 * @return a branch of nodes leading to the leaf
+	 */
+	private static Object[] newPath(int level, Object[] leaf) {
+		if (level == 0) {
+			return leaf;
+		}
+		Object[] result = new Object[WIDTH];
+		result[0] = newPath(level - BITS, leaf);
+		return result;
+	}
+
+	/**
+	 * @return a copy of the node with the element replaced
+	 */
+	private static Object[] assoc(int level, Object[] node, int index, Object element) {
+		Object[] result = node.clone();
+		if (level == 0) {
+			result[index & MASK] = element;
+		} else {
+			int subIndex = (index >>> level) & MASK;
+			result[subIndex] = assoc(level - BITS, (Object[]) node[subIndex], index, element);
+		}
+		return result;
+	}
+
+	/**
+	 * @return a copy of the node keeping only its first elements, the number
+	 *         of elements kept being a multiple of 32
+	 */
+	private static Object[] trim(int level, Object[] node, int length) {
+		int subIndex = ((length - 1) >>> level) & MASK;
+		Object[] result = new Object[WIDTH];
+		System.arraycopy(node, 0, result, 0, subIndex);
+		result[subIndex] = level == BITS ? node[subIndex] : trim(level - BITS, (Object[]) node[subIndex], length);
+		return result;
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	private void checkPositionIndex(int index) {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+}
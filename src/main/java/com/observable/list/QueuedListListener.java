@@ -0,0 +1,499 @@
+package com.observable.list;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+import com.observable.list.enums.OverflowPolicy;
+import com.observable.list.intf.ElementCodec;
+import com.observable.list.intf.ListListener;
+
+/**
+ * Listener putting the events in a queue and notifying another listener from
+ * a dedicated thread, so that a slow listener doesn't slow down the thread
+ * modifying the list. The events waiting in the queue are limited by a memory
+ * budget, based on an estimation of their size: the budget of the listener,
+ * and optionally a {@link MemoryBudget} shared with the other queued
+ * listeners of the list.
+ * 
+ * When an event doesn't fit in the budgets, the {@link OverflowPolicy}
+ * applies: either the thread modifying the list waits until enough events
+ * have been processed, or the event is encoded with an {@link ElementCodec}
+ * and written to a temporary file. Once an event has been spilled, the
+ * following ones are spilled too until the file has been read back, so the
+ * listener still receives the events in order. A burst of large events
+ * therefore turns into disk accesses instead of filling the heap.
+ * 
+ * The events read back from the file are copies of the events dispatched by
+ * the list, with the same sequence numbers. The failures of the listener are
+ * counted and don't stop the processing of the queue.
+ * 
+ * @param <T>
+ *            type of the objects contained in the list
+ */
+public class QueuedListListener<T> implements ListListener<ModifiedListEvent>, AutoCloseable {
+
+	private final static String INVALID_LIMIT_EXCEPTION = "Invalid limit: ";
+	private final static String NULL_CODEC_EXCEPTION = "Null Codec, required to spill the events";
+	private final static String CLOSED_EXCEPTION = "Listener closed";
+
+	/**
+	 * estimated size of an event without its elements
+	 */
+	private static final long EVENT_OVERHEAD = 64;
+
+	/**
+	 * estimated size of a reference to an element
+	 */
+	private static final long REFERENCE_SIZE = 8;
+
+	/**
+	 * estimated size of an element when no estimation is given
+	 */
+	private static final long DEFAULT_ELEMENT_SIZE = 32;
+
+	/**
+	 * number of elements of an event whose size is estimated, the size of
+	 * the other elements being extrapolated
+	 */
+	private static final int SAMPLE_SIZE = 64;
+
+	/**
+	 * maximum time a blocked thread waits before checking the shared budget
+	 * again, since it is not notified when other listeners release memory
+	 */
+	private static final long BLOCK_WAIT_MILLIS = 10;
+
+	/**
+	 * Event waiting in memory
+	 */
+	private static final class Entry {
+		private final List<?> source;
+		private final ModifiedListEvent event;
+		private final long size;
+
+		private Entry(List<?> source, ModifiedListEvent event, long size) {
+			this.source = source;
+			this.event = event;
+			this.size = size;
+		}
+	}
+
+	private final ListListener<ModifiedListEvent> delegate;
+	private final long maxPendingBytes;
+	private final MemoryBudget listBudget;
+	private final OverflowPolicy policy;
+	private final EventCodec<T> codec;
+	private final ToLongFunction<Object> elementSize;
+	private final Thread worker;
+
+	/**
+	 * events waiting in memory, all of them older than the spilled ones
+	 */
+	private final ArrayDeque<Entry> queue = new ArrayDeque<>();
+
+	/**
+	 * estimated size of the events waiting in memory
+	 */
+	private long pendingBytes;
+
+	/**
+	 * sources of the events spilled and not read back yet, in order
+	 */
+	private final ArrayDeque<List<?>> spilledSources = new ArrayDeque<>();
+
+	/**
+	 * file holding the spilled events, created on the first spill and
+	 * truncated each time all of its events have been read back
+	 */
+	private FileChannel spillChannel;
+	private long spillWritePosition;
+	private long spillReadPosition;
+
+	/**
+	 * total number of events spilled
+	 */
+	private long spilledTotal;
+
+	private long failureCount;
+	private boolean delivering;
+	private boolean closed;
+
+	/**
+	 * Constructor of a listener spilling the events to disk beyond its own
+	 * budget, the size of each element being estimated to a constant.
+	 * 
+	 * @param delegate
+	 *            listener notified from the queue
+	 * @param maxPendingBytes
+	 *            maximum estimated size of the events kept in memory
+	 * @param codec
+	 *            codec converting the elements to bytes
+	 */
+	public QueuedListListener(ListListener<ModifiedListEvent> delegate, long maxPendingBytes, ElementCodec<T> codec) {
+		this(delegate, maxPendingBytes, null, OverflowPolicy.SPILL_TO_DISK, codec, element -> DEFAULT_ELEMENT_SIZE);
+	}
+
+	/**
+	 * Constructor of a listener
+	 * 
+	 * @param delegate
+	 *            listener notified from the queue
+	 * @param maxPendingBytes
+	 *            maximum estimated size of the events kept in memory
+	 * @param listBudget
+	 *            budget shared with the other queued listeners of the list,
+	 *            null if there is none
+	 * @param policy
+	 *            what to do with the events that don't fit in the budgets
+	 * @param codec
+	 *            codec converting the elements to bytes, it is only required
+	 *            to spill the events to disk
+	 * @param elementSize
+	 *            estimation of the size in bytes of an element
+	 */
+	public QueuedListListener(ListListener<ModifiedListEvent> delegate, long maxPendingBytes, MemoryBudget listBudget,
+			OverflowPolicy policy, ElementCodec<T> codec, ToLongFunction<Object> elementSize) {
+		Objects.requireNonNull(delegate);
+		Objects.requireNonNull(policy);
+		Objects.requireNonNull(elementSize);
+		if (maxPendingBytes <= 0) {
+			throw new IllegalArgumentException(INVALID_LIMIT_EXCEPTION + maxPendingBytes);
+		}
+		if (policy == OverflowPolicy.SPILL_TO_DISK && codec == null) {
+			throw new NullPointerException(NULL_CODEC_EXCEPTION);
+		}
+		this.delegate = delegate;
+		this.maxPendingBytes = maxPendingBytes;
+		this.listBudget = listBudget;
+		this.policy = policy;
+		this.codec = codec != null ? new EventCodec<>(codec) : null;
+		this.elementSize = elementSize;
+		this.worker = new Thread(this::processQueue, "QueuedListListener");
+		worker.setDaemon(true);
+		worker.start();
+	}
+
+	/**
+	 * Method putting the event in the queue, or in the spill file if it
+	 * doesn't fit in the budgets.
+	 * 
+	 * @throws IllegalStateException
+	 *             if the listener is closed
+	 * @throws UncheckedIOException
+	 *             if the event can't be written to the spill file
+	 */
+	@Override
+	public void update(List<?> list, ModifiedListEvent event) {
+		long size = estimateSize(event);
+		synchronized (this) {
+			if (closed) {
+				throw new IllegalStateException(CLOSED_EXCEPTION);
+			}
+			if (spilledSources.isEmpty() && tryReserve(size)) {
+				enqueue(list, event, size);
+				return;
+			}
+			if (policy == OverflowPolicy.BLOCK) {
+				awaitMemory(size);
+				enqueue(list, event, size);
+				return;
+			}
+			spill(list, event);
+		}
+	}
+
+	/**
+	 * @return the estimated size in bytes of the events waiting in memory
+	 */
+	public synchronized long getPendingBytes() {
+		return pendingBytes;
+	}
+
+	/**
+	 * @return the number of events not processed yet, in memory or on disk,
+	 *         including the event being processed
+	 */
+	public synchronized int getPendingCount() {
+		return queue.size() + spilledSources.size() + (delivering ? 1 : 0);
+	}
+
+	/**
+	 * @return the total number of events that have been spilled to disk
+	 */
+	public synchronized long getSpilledCount() {
+		return spilledTotal;
+	}
+
+	/**
+	 * @return the number of events on which the listener has failed
+	 */
+	public synchronized long getFailureCount() {
+		return failureCount;
+	}
+
+	/**
+	 * Method waiting until the listener has processed all the events
+	 * received.
+	 * 
+	 * @param timeout
+	 *            maximum time to wait
+	 * @param unit
+	 *            unit of the timeout
+	 * @return true if all the events have been processed, false if the
+	 *         timeout has elapsed before
+	 * @throws InterruptedException
+	 *             if the thread is interrupted while waiting
+	 */
+	public synchronized boolean awaitEmpty(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		while (!queue.isEmpty() || !spilledSources.isEmpty() || delivering) {
+			long remaining = deadline - System.nanoTime();
+			if (remaining <= 0) {
+				return false;
+			}
+			TimeUnit.NANOSECONDS.timedWait(this, remaining);
+		}
+		return true;
+	}
+
+	/**
+	 * Method to stop the listener once the events already received have been
+	 * processed. The spill file is deleted.
+	 */
+	@Override
+	public void close() throws IOException {
+		synchronized (this) {
+			closed = true;
+			notifyAll();
+		}
+		try {
+			worker.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		synchronized (this) {
+			if (spillChannel != null) {
+				spillChannel.close();
+			}
+		}
+	}
+
+	/**
+	 * Method reserving memory in the budgets for an event, it must be called
+	 * with the lock held.
+	 */
+	private boolean tryReserve(long size) {
+		if (pendingBytes + size > maxPendingBytes) {
+			return false;
+		}
+		if (listBudget != null && !listBudget.tryReserve(size)) {
+			return false;
+		}
+		pendingBytes += size;
+		return true;
+	}
+
+	/**
+	 * Method waiting until an event fits in the budgets. An event is always
+	 * accepted when the queue is empty, even if it is larger than the
+	 * budgets, so that it doesn't wait forever.
+	 */
+	private void awaitMemory(long size) {
+		while (!tryReserve(size)) {
+			if (queue.isEmpty() && !delivering) {
+				pendingBytes += size;
+				if (listBudget != null) {
+					listBudget.reserve(size);
+				}
+				return;
+			}
+			try {
+				wait(BLOCK_WAIT_MILLIS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	private void enqueue(List<?> list, ModifiedListEvent event, long size) {
+		queue.add(new Entry(list, event, size));
+		notifyAll();
+	}
+
+	/**
+	 * Method writing an event at the end of the spill file, it must be
+	 * called with the lock held.
+	 */
+	private void spill(List<?> list, ModifiedListEvent event) {
+		try {
+			if (spillChannel == null) {
+				Path file = Files.createTempFile("events", ".spill");
+				spillChannel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+						StandardOpenOption.DELETE_ON_CLOSE);
+			}
+			byte[] encoded = codec.encode(event);
+			ByteBuffer record = ByteBuffer.allocate(4 + encoded.length);
+			record.putInt(encoded.length);
+			record.put(encoded);
+			record.flip();
+			while (record.hasRemaining()) {
+				spillWritePosition += spillChannel.write(record, spillWritePosition);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		spilledSources.add(list);
+		spilledTotal++;
+		notifyAll();
+	}
+
+	/**
+	 * Method run by the worker thread, notifying the listener of the events
+	 * of the queue, then of the spilled events, until the listener is closed.
+	 */
+	private void processQueue() {
+		while (true) {
+			List<?> source;
+			ModifiedListEvent event = null;
+			long readPosition;
+			synchronized (this) {
+				while (queue.isEmpty() && spilledSources.isEmpty() && !closed) {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+				if (queue.isEmpty() && spilledSources.isEmpty()) {
+					return;
+				}
+				delivering = true;
+				if (!queue.isEmpty()) {
+					Entry entry = queue.poll();
+					release(entry.size);
+					source = entry.source;
+					event = entry.event;
+				} else {
+					source = spilledSources.peek();
+				}
+				readPosition = spillReadPosition;
+			}
+
+			if (event == null) {
+				// the spilled events are only written after the read position
+				// and the file is only truncated by this thread
+				ByteBuffer record = readSpilled(readPosition);
+				event = codec.decode(record);
+				synchronized (this) {
+					spillReadPosition += 4 + record.capacity();
+					spilledSources.poll();
+					if (spilledSources.isEmpty()) {
+						truncateSpillFile();
+					}
+				}
+			}
+
+			boolean failed = false;
+			try {
+				delegate.update(source, event);
+			} catch (RuntimeException e) {
+				failed = true;
+			}
+			synchronized (this) {
+				if (failed) {
+					failureCount++;
+				}
+				delivering = false;
+				notifyAll();
+			}
+		}
+	}
+
+	private void release(long size) {
+		pendingBytes -= size;
+		if (listBudget != null) {
+			listBudget.release(size);
+		}
+		notifyAll();
+	}
+
+	/**
+	 * @return the encoded event written at the given position of the spill
+	 *         file
+	 */
+	private ByteBuffer readSpilled(long position) {
+		try {
+			ByteBuffer length = ByteBuffer.allocate(4);
+			readFully(length, position);
+			ByteBuffer record = ByteBuffer.allocate(length.getInt(0));
+			readFully(record, position + 4);
+			record.flip();
+			return record;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void readFully(ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (spillChannel.read(buffer, position + buffer.position()) < 0) {
+				throw new IOException("Unexpected end of the spill file");
+			}
+		}
+	}
+
+	private void truncateSpillFile() {
+		try {
+			spillChannel.truncate(0);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		spillReadPosition = 0;
+		spillWritePosition = 0;
+	}
+
+	/**
+	 * @return the estimated size of an event in memory
+	 */
+	private long estimateSize(ModifiedListEvent event) {
+		long size = EVENT_OVERHEAD + estimateSize(event.elements) + estimateSize(event.evicted);
+		if (event.permutation != null) {
+			size += 4L * event.permutation.length;
+		}
+		if (event.indices != null) {
+			size += 4L * event.indices.length;
+		}
+		return size;
+	}
+
+	/**
+	 * @return the estimated size of the elements, extrapolated from the size
+	 *         of the first ones
+	 */
+	private long estimateSize(Collection<?> elements) {
+		if (elements.isEmpty()) {
+			return 0;
+		}
+		long sampledSize = 0;
+		int sampled = 0;
+		for (Object element : elements) {
+			sampledSize += REFERENCE_SIZE + elementSize.applyAsLong(element);
+			if (++sampled == SAMPLE_SIZE) {
+				break;
+			}
+		}
+		return sampledSize / sampled * elements.size();
+	}
+}
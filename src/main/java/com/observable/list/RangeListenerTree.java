@@ -0,0 +1,507 @@
+package com.observable.list;
+
+import static com.observable.list.ModifiedListEvent.NO_INDEX;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.observable.list.enums.ActionType;
+import com.observable.list.intf.ListListener;
+import com.observable.list.intf.RangeSubscription;
+
+/**
+ * Interval tree holding the listeners registered for a range of indexes of a
+ * list, and dispatching each event only to the listeners whose range it
+ * touches.
+ * 
+ * The tree is a treap ordered by the start of the ranges, each node keeping
+ * the highest end of its subtree so that the ranges overlapping an interval
+ * are found without visiting the other ones. When elements are added or
+ * removed, the ranges following the modification are all shifted by the same
+ * amount: the shift is applied to the root of their subtree and pushed down
+ * lazily, so the cost of a dispatch depends on the number of listeners
+ * notified and on the logarithm of the number of ranges, not on the number
+ * of ranges.
+ * 
+ * The ranges follow the elements they cover:
+ * <ul>
+ * <li>an addition before the start of a range, or at its start, shifts it;
+ * an addition strictly inside a range grows it and notifies its listener;</li>
+ * <li>a removal of elements before a range shifts it; a removal of elements
+ * of the range shrinks it and notifies its listener;</li>
+ * <li>a permutation notifies the listeners of the ranges it overlaps;</li>
+ * <li>an update notifies the listeners of the ranges containing one of its
+ * indexes;</li>
+ * <li>a roll is handled as the removal of the evicted elements followed by
+ * the addition of the new ones;</li>
+ * <li>an event without index can't be located: every listener is notified
+ * and the ranges are left as they are. The list and its iterators and sub
+ * lists never send such events, bulk operations included, they only come
+ * from events sent to the list from outside.</li>
+ * </ul>
+ * 
+ * All the methods are synchronized on the tree, and the listeners are
+ * notified while holding the lock, as the sequential dispatch of the
+ * {@link ListenerRegistry} does.
+ */
+final class RangeListenerTree {
+
+	private final static String NULL_LISTENER_EXCEPTION = "Null Listener";
+
+	private final static String INVALID_RANGE_EXCEPTION = "Invalid range: ";
+
+	private final static String CLOSED_SUBSCRIPTION_EXCEPTION = "Closed subscription";
+
+	/**
+	 * Node of the treap, which is also the subscription handle of its
+	 * listener. The start, end and highest end of a node are up to date once
+	 * the shifts pending on its ancestors have been pushed down to it.
+	 */
+	private final class Node implements RangeSubscription {
+
+		private final ListListener<ModifiedListEvent> listener;
+		private final int priority;
+		private int start;
+		private int end;
+		private int maxEnd;
+		/**
+		 * shift to apply to the children of the node
+		 */
+		private int shift;
+		private Node left;
+		private Node right;
+		private Node parent;
+		private boolean active = true;
+		/**
+		 * true once the node is among the nodes to notify of the current event
+		 */
+		private boolean touched;
+
+		private Node(ListListener<ModifiedListEvent> listener, int start, int end) {
+			this.listener = listener;
+			this.priority = random.nextInt();
+			this.start = start;
+			this.end = end;
+			this.maxEnd = end;
+		}
+
+		@Override
+		public boolean isActive() {
+			synchronized (RangeListenerTree.this) {
+				return active;
+			}
+		}
+
+		@Override
+		public void close() {
+			synchronized (RangeListenerTree.this) {
+				if (active) {
+					active = false;
+					detach(this);
+					size--;
+				}
+			}
+		}
+
+		@Override
+		public int getFromIndex() {
+			synchronized (RangeListenerTree.this) {
+				resolve(this);
+				return start;
+			}
+		}
+
+		@Override
+		public int getToIndex() {
+			synchronized (RangeListenerTree.this) {
+				resolve(this);
+				return end;
+			}
+		}
+
+		@Override
+		public void moveTo(int fromIndex, int toIndex) {
+			checkRange(fromIndex, toIndex);
+			synchronized (RangeListenerTree.this) {
+				if (!active) {
+					throw new IllegalStateException(CLOSED_SUBSCRIPTION_EXCEPTION);
+				}
+				detach(this);
+				start = fromIndex;
+				end = toIndex;
+				attach(this);
+			}
+		}
+	}
+
+	private final Random random = new Random();
+	private Node root;
+	private int size;
+
+	/**
+	 * Method to add a listener for a range of indexes
+	 * 
+	 * @param fromIndex
+	 *            index of the first element of the range, inclusive
+	 * @param toIndex
+	 *            index following the last element of the range, exclusive
+	 * @param listener
+	 *            listener notified of the modifications touching the range
+	 * @return the subscription handle of the listener
+	 */
+	synchronized RangeSubscription add(int fromIndex, int toIndex, ListListener<ModifiedListEvent> listener) {
+		if (listener == null) {
+			throw new NullPointerException(NULL_LISTENER_EXCEPTION);
+		}
+		checkRange(fromIndex, toIndex);
+		Node node = new Node(listener, fromIndex, toIndex);
+		attach(node);
+		size++;
+		return node;
+	}
+
+	/**
+	 * @return the number of listeners registered for a range
+	 */
+	synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Method to update the ranges after a modification of the list and to
+	 * notify the listeners whose range is touched by the modification.
+	 * 
+	 * @param source
+	 *            list on which the event has occurred
+	 * @param event
+	 *            event of the modification, already applied to the list
+	 */
+	synchronized void dispatch(List<?> source, ModifiedListEvent event) {
+		if (root == null) {
+			return;
+		}
+		List<Node> touched = new ArrayList<>();
+		if (event.index == NO_INDEX && event.indices != null && event.type != ActionType.UPDATE) {
+			// the elements of an iterator move the ranges run by run
+			for (ModifiedListEvent run : event.runs()) {
+				follow(run, touched);
+			}
+		} else {
+			follow(event, touched);
+		}
+		for (Node node : touched) {
+			node.touched = false;
+		}
+		for (Node node : touched) {
+			// a listener notified before may have closed this subscription
+			if (node.active) {
+				node.listener.update(source, event);
+			}
+		}
+	}
+
+	/**
+	 * Method to update the ranges after a modification of the list and to
+	 * collect the listeners whose range is touched by the modification.
+	 */
+	private void follow(ModifiedListEvent event, List<Node> touched) {
+		if (event.index == NO_INDEX) {
+			collect(root, Integer.MIN_VALUE, Integer.MAX_VALUE, touched);
+		} else {
+			switch (event.type) {
+			case ADD:
+				insertRange(event.index, event.elements.size(), touched);
+				break;
+			case REMOVE:
+				removeRange(event.index, event.elements.size(), touched);
+				break;
+			case PERMUTATION:
+				collect(root, event.index, event.index + event.permutation.length, touched);
+				break;
+			case UPDATE:
+				collectUpdated(event.indices, touched);
+				break;
+			case ROLL:
+				removeRange(0, event.evicted.size(), touched);
+				insertRange(event.index, event.elements.size(), touched);
+				break;
+			default:
+				collect(root, Integer.MIN_VALUE, Integer.MAX_VALUE, touched);
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Method to update the ranges after the addition of elements at an index.
+	 */
+	private void insertRange(int index, int count, List<Node> touched) {
+		if (count == 0) {
+			return;
+		}
+		List<Node> inside = new ArrayList<>();
+		collectStrictlyAround(root, index, inside);
+		for (Node node : inside) {
+			detach(node);
+			node.end += count;
+		}
+		shiftFrom(index, count);
+		for (Node node : inside) {
+			attach(node);
+		}
+		addTouched(inside, touched);
+	}
+
+	/**
+	 * Method to update the ranges after the removal of elements from an
+	 * index.
+	 */
+	private void removeRange(int index, int count, List<Node> touched) {
+		if (count == 0) {
+			return;
+		}
+		List<Node> overlapping = new ArrayList<>();
+		collect(root, index, index + count, overlapping);
+		for (Node node : overlapping) {
+			detach(node);
+			node.start = removedPosition(node.start, index, count);
+			node.end = removedPosition(node.end, index, count);
+		}
+		shiftFrom(index + count, -count);
+		for (Node node : overlapping) {
+			attach(node);
+		}
+		addTouched(overlapping, touched);
+	}
+
+	/**
+	 * Method to collect the nodes whose range contains one of the indexes of
+	 * an update, the contiguous indexes being looked up together.
+	 */
+	private void collectUpdated(int[] indices, List<Node> touched) {
+		int start = 0;
+		while (start < indices.length) {
+			int end = start + 1;
+			while (end < indices.length && indices[end] == indices[end - 1] + 1) {
+				end++;
+			}
+			List<Node> overlapping = new ArrayList<>();
+			collect(root, indices[start], indices[end - 1] + 1, overlapping);
+			addTouched(overlapping, touched);
+			start = end;
+		}
+	}
+
+	/**
+	 * @return the position of a bound of a range once elements have been
+	 *         removed from an index
+	 */
+	private static int removedPosition(int position, int index, int count) {
+		if (position <= index) {
+			return position;
+		}
+		return position <= index + count ? index : position - count;
+	}
+
+	private static void addTouched(List<Node> nodes, List<Node> touched) {
+		for (Node node : nodes) {
+			if (!node.touched) {
+				node.touched = true;
+				touched.add(node);
+			}
+		}
+	}
+
+	/**
+	 * Method to shift the ranges starting at or after an index.
+	 */
+	private void shiftFrom(int index, int shift) {
+		Node[] parts = split(root, index);
+		applyShift(parts[1], shift);
+		root = merge(parts[0], parts[1]);
+		setParent(root, null);
+	}
+
+	/**
+	 * Method to collect, in order, the nodes whose range overlaps the interval
+	 * [from, to). An empty range overlaps the interval if it is strictly
+	 * inside.
+	 */
+	private static void collect(Node node, int from, int to, List<Node> result) {
+		if (node == null || node.maxEnd <= from) {
+			return;
+		}
+		push(node);
+		collect(node.left, from, to, result);
+		if (node.start < to) {
+			if (node.end > from) {
+				result.add(node);
+			}
+			collect(node.right, from, to, result);
+		}
+	}
+
+	/**
+	 * Method to collect, in order, the nodes whose range contains an index
+	 * other than at its start.
+	 */
+	private static void collectStrictlyAround(Node node, int index, List<Node> result) {
+		if (node == null || node.maxEnd <= index) {
+			return;
+		}
+		push(node);
+		collectStrictlyAround(node.left, index, result);
+		if (node.start < index) {
+			if (node.end > index) {
+				result.add(node);
+			}
+			collectStrictlyAround(node.right, index, result);
+		}
+	}
+
+	private void attach(Node node) {
+		node.left = null;
+		node.right = null;
+		node.shift = 0;
+		node.maxEnd = node.end;
+		Node[] parts = split(root, node.start);
+		root = merge(merge(parts[0], node), parts[1]);
+		setParent(root, null);
+	}
+
+	/**
+	 * Method to remove a node from the tree, its children taking its place.
+	 */
+	private void detach(Node node) {
+		resolve(node);
+		push(node);
+		Node children = merge(node.left, node.right);
+		Node parent = node.parent;
+		if (parent == null) {
+			root = children;
+			setParent(root, null);
+		} else {
+			if (parent.left == node) {
+				setLeft(parent, children);
+			} else {
+				setRight(parent, children);
+			}
+			for (Node current = parent; current != null; current = current.parent) {
+				update(current);
+			}
+		}
+		node.left = null;
+		node.right = null;
+		node.parent = null;
+	}
+
+	/**
+	 * Method to push down to a node the shifts pending on its ancestors.
+	 */
+	private static void resolve(Node node) {
+		List<Node> ancestors = new ArrayList<>();
+		for (Node current = node.parent; current != null; current = current.parent) {
+			ancestors.add(current);
+		}
+		for (int ind = ancestors.size() - 1; ind >= 0; ind--) {
+			push(ancestors.get(ind));
+		}
+	}
+
+	/**
+	 * Method to split a subtree in the nodes starting before an index and the
+	 * other ones.
+	 */
+	private static Node[] split(Node node, int start) {
+		if (node == null) {
+			return new Node[2];
+		}
+		push(node);
+		if (node.start < start) {
+			Node[] parts = split(node.right, start);
+			setRight(node, parts[0]);
+			update(node);
+			parts[0] = node;
+			return parts;
+		}
+		Node[] parts = split(node.left, start);
+		setLeft(node, parts[1]);
+		update(node);
+		parts[1] = node;
+		return parts;
+	}
+
+	/**
+	 * Method to merge two subtrees, the nodes of the first one being ordered
+	 * before the nodes of the second one.
+	 */
+	private static Node merge(Node first, Node second) {
+		if (first == null) {
+			return second;
+		}
+		if (second == null) {
+			return first;
+		}
+		if (first.priority > second.priority) {
+			push(first);
+			setRight(first, merge(first.right, second));
+			update(first);
+			return first;
+		}
+		push(second);
+		setLeft(second, merge(first, second.left));
+		update(second);
+		return second;
+	}
+
+	private static void push(Node node) {
+		if (node.shift != 0) {
+			applyShift(node.left, node.shift);
+			applyShift(node.right, node.shift);
+			node.shift = 0;
+		}
+	}
+
+	private static void applyShift(Node node, int shift) {
+		if (node != null) {
+			node.start += shift;
+			node.end += shift;
+			node.maxEnd += shift;
+			node.shift += shift;
+		}
+	}
+
+	private static void update(Node node) {
+		int maxEnd = node.end;
+		if (node.left != null) {
+			maxEnd = Math.max(maxEnd, node.left.maxEnd);
+		}
+		if (node.right != null) {
+			maxEnd = Math.max(maxEnd, node.right.maxEnd);
+		}
+		node.maxEnd = maxEnd;
+	}
+
+	private static void setLeft(Node node, Node child) {
+		node.left = child;
+		setParent(child, node);
+	}
+
+	private static void setRight(Node node, Node child) {
+		node.right = child;
+		setParent(child, node);
+	}
+
+	private static void setParent(Node node, Node parent) {
+		if (node != null) {
+			node.parent = parent;
+		}
+	}
+
+	private static void checkRange(int fromIndex, int toIndex) {
+		if (fromIndex < 0 || fromIndex > toIndex) {
+			throw new IllegalArgumentException(INVALID_RANGE_EXCEPTION + fromIndex + ", " + toIndex);
+		}
+	}
+}
@@ -0,0 +1,171 @@
+package com.observable.list;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import com.observable.list.intf.ListListener;
+import com.observable.list.intf.Observable;
+import com.observable.list.intf.Subscription;
+import com.observable.list.intf.ThreadConfinedListener;
+
+/**
+ * Registration, replay and notification methods of the observable collections
+ * holding their listeners in a {@link ListenerRegistry}. They are shared by
+ * {@link AbstractObservableList} and {@link ObservableSet}, which extend
+ * different base classes: both only give their registry and the list sent to
+ * the listeners along with the events.
+ */
+interface RegistryObservable extends Observable<ModifiedListEvent> {
+
+	/**
+	 * @return the registry of the listeners of the collection
+	 */
+	ListenerRegistry listenerRegistry();
+
+	/**
+	 * @return the list given to the listeners along with the events
+	 */
+	List<?> eventSource();
+
+	/**
+	 * Simple method to register a listener
+	 * 
+	 * @param listener
+	 *            to be added to the collection
+	 */
+	@Override
+	default void register(ListListener<ModifiedListEvent> listener) {
+		subscribe(listener);
+	}
+
+	/**
+	 * Method to register a listener and get a handle on the registration.
+	 * 
+	 * @param listener
+	 *            to be added to the collection
+	 * @return the subscription handle of the listener
+	 * @see ObservableList#subscribe(ListListener)
+	 */
+	default Subscription subscribe(ListListener<ModifiedListEvent> listener) {
+		return listenerRegistry().add(listener);
+	}
+
+	/**
+	 * Method to register a listener that is only weakly referenced by the
+	 * collection.
+	 * 
+	 * @param listener
+	 *            to be added to the collection
+	 * @return the subscription handle of the listener
+	 * @see ObservableList#registerWeak(ListListener)
+	 */
+	default Subscription registerWeak(ListListener<ModifiedListEvent> listener) {
+		return listenerRegistry().addWeak(listener);
+	}
+
+	/**
+	 * Method to register a listener after having replayed the events it has
+	 * missed since a given sequence number.
+	 * 
+	 * @param sequence
+	 *            sequence number of the last event known by the listener
+	 * @param listener
+	 *            to be added to the collection
+	 * @return the subscription handle of the listener
+	 * @see ObservableList#subscribeFrom(long, ListListener)
+	 */
+	default Subscription subscribeFrom(long sequence, ListListener<ModifiedListEvent> listener) {
+		return listenerRegistry().addFrom(sequence, listener, eventSource());
+	}
+
+	/**
+	 * Simple method to unregister a listener
+	 * 
+	 * @param listener
+	 *            to be removed from the collection
+	 */
+	@Override
+	default void unregister(ListListener<ModifiedListEvent> listener) {
+		listenerRegistry().remove(listener);
+	}
+
+	/**
+	 * @return the number of listeners currently registered in the collection
+	 */
+	default int getNumberListeners() {
+		return listenerRegistry().size();
+	}
+
+	/**
+	 * Method to notify the listeners in parallel when the collection has a
+	 * large number of listeners. Listeners implementing
+	 * {@link ThreadConfinedListener} are always notified in order on the thread
+	 * modifying the collection.
+	 * 
+	 * @param pool
+	 *            pool in which the listeners will be notified
+	 * @param threshold
+	 *            minimum number of listeners for the dispatch to be parallel
+	 * @see ObservableList#enableParallelDispatch(ForkJoinPool, int)
+	 */
+	default void enableParallelDispatch(ForkJoinPool pool, int threshold) {
+		listenerRegistry().enableParallelDispatch(pool, threshold);
+	}
+
+	/**
+	 * Method to go back to a sequential notification of the listeners.
+	 */
+	default void disableParallelDispatch() {
+		listenerRegistry().disableParallelDispatch();
+	}
+
+	/**
+	 * @return the sequence number of the last event dispatched by the
+	 *         collection, 0 if no event has been dispatched yet
+	 */
+	default long getSequence() {
+		return listenerRegistry().getLastSequence();
+	}
+
+	/**
+	 * Method to keep the last events dispatched by the collection in a bounded
+	 * buffer, so that they can be replayed to a listener registering late.
+	 * 
+	 * @param capacity
+	 *            maximum number of events kept
+	 */
+	default void enableReplay(int capacity) {
+		listenerRegistry().enableReplay(capacity);
+	}
+
+	/**
+	 * Method to stop keeping the last events dispatched by the collection.
+	 */
+	default void disableReplay() {
+		listenerRegistry().disableReplay();
+	}
+
+	/**
+	 * @param sequence
+	 *            sequence number of the last event already known
+	 * @return the events dispatched after the given sequence number, in order
+	 * @throws IllegalStateException
+	 *             if some of these events are not available anymore
+	 */
+	default List<ModifiedListEvent> getEventsAfter(long sequence) {
+		return listenerRegistry().eventsAfter(sequence);
+	}
+
+	/**
+	 * Method to notify all the listeners that an action has been performed on
+	 * the collection.
+	 * 
+	 * @param event
+	 *            event holds the details of the action that has been performed
+	 *            on the collection.
+	 */
+	@Override
+	default void notifyAllListeners(ModifiedListEvent event) {
+		listenerRegistry().dispatch(eventSource(), event);
+	}
+}
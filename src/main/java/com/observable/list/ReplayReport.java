@@ -0,0 +1,97 @@
+package com.observable.list;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.observable.list.enums.ActionType;
+
+/**
+ * Result of the replay of a trace by a {@link TraceReplayer}: the number of
+ * modifications replayed, the time taken by the whole replay and the latency
+ * of each modification, the notification of the listeners included.
+ */
+public final class ReplayReport {
+
+	private final static String INVALID_PERCENTILE_EXCEPTION = "Invalid percentile: ";
+
+	/**
+	 * latencies of the modifications in nanoseconds, sorted
+	 */
+	private final long[] latencies;
+	private final long elapsedNanos;
+	private final Map<ActionType, Integer> counts;
+
+	ReplayReport(long[] latencies, long elapsedNanos, Map<ActionType, Integer> counts) {
+		this.latencies = latencies.clone();
+		Arrays.sort(this.latencies);
+		this.elapsedNanos = elapsedNanos;
+		this.counts = Collections.unmodifiableMap(new EnumMap<>(counts));
+	}
+
+	/**
+	 * @return the number of modifications replayed
+	 */
+	public int getOperationCount() {
+		return latencies.length;
+	}
+
+	/**
+	 * @param type
+	 *            type of the events
+	 * @return the number of modifications replayed for the events of the
+	 *         given type
+	 */
+	public int getOperationCount(ActionType type) {
+		return counts.getOrDefault(type, 0);
+	}
+
+	/**
+	 * @return the time taken by the replay in nanoseconds, the waits between
+	 *         the modifications included
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * @return the number of modifications replayed per second
+	 */
+	public double getThroughput() {
+		return elapsedNanos == 0 ? 0 : latencies.length * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+	}
+
+	/**
+	 * @param percentile
+	 *            percentile between 0 and 100
+	 * @return the latency in nanoseconds below which the given percentage of
+	 *         the modifications have completed, 0 if nothing was replayed
+	 */
+	public long getLatencyPercentile(double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException(INVALID_PERCENTILE_EXCEPTION + percentile);
+		}
+		if (latencies.length == 0) {
+			return 0;
+		}
+		int rank = (int) Math.ceil(percentile / 100 * latencies.length);
+		return latencies[Math.max(rank - 1, 0)];
+	}
+
+	/**
+	 * @return the highest latency in nanoseconds, 0 if nothing was replayed
+	 */
+	public long getMaxLatency() {
+		return latencies.length == 0 ? 0 : latencies[latencies.length - 1];
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d operations %s in %.3f ms, %.0f ops/s, "
+				+ "latency p50=%dns p90=%dns p99=%dns p99.9=%dns max=%dns", latencies.length, counts,
+				elapsedNanos / 1e6, getThroughput(), getLatencyPercentile(50), getLatencyPercentile(90),
+				getLatencyPercentile(99), getLatencyPercentile(99.9), getMaxLatency());
+	}
+}
@@ -0,0 +1,212 @@
+package com.observable.list;
+
+import static com.observable.list.enums.ActionType.ADD;
+import static com.observable.list.enums.ActionType.REMOVE;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+import com.observable.list.enums.ActionType;
+
+/**
+ * Observable list with a fixed capacity, stored in a circular buffer. Adding
+ * elements at the end of a full list evicts its oldest elements, so the list
+ * always holds the last elements added: adding an element and evicting the
+ * oldest one take a constant time, and the listeners receive a single
+ * {@link ActionType#ROLL} event holding both the elements added and the
+ * elements evicted. As long as the list is not full, the listeners receive
+ * plain add events.
+ * 
+ * The elements can only be added at the end of the list. Removing elements at
+ * the beginning of the list takes a constant time per element removed.
+ * 
+ * @param <T>
+ *            type of the objects contained in the list
+ */
+public class RingObservableList<T> extends AbstractObservableList<T> implements RandomAccess {
+
+	private final static String INVALID_CAPACITY_EXCEPTION = "Invalid capacity: ";
+
+	/**
+	 * circular buffer holding the elements
+	 */
+	private final Object[] buffer;
+
+	/**
+	 * index in the buffer of the first element of the list
+	 */
+	private int head;
+
+	/**
+	 * number of elements in the list
+	 */
+	private int size;
+
+	/**
+	 * Constructor of an empty list
+	 * 
+	 * @param capacity
+	 *            maximum number of elements kept by the list
+	 */
+	public RingObservableList(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException(INVALID_CAPACITY_EXCEPTION + capacity);
+		}
+		buffer = new Object[capacity];
+	}
+
+	/**
+	 * @return the maximum number of elements kept by the list
+	 */
+	public int getCapacity() {
+		return buffer.length;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T get(int index) {
+		checkIndex(index);
+		return (T) buffer[physicalIndex(index)];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Method to add an element at the end of the list. If the list is full,
+	 * its oldest element is evicted and the listeners receive a roll event.
+	 */
+	@Override
+	public boolean add(T element) {
+		modCount++;
+		if (size < buffer.length) {
+			buffer[physicalIndex(size++)] = element;
+			notifyAllListeners(new ModifiedListEvent(ADD, size - 1, element));
+			return true;
+		}
+		Object evicted = buffer[head];
+		buffer[head] = element;
+		head = physicalIndex(1);
+		notifyAllListeners(new ModifiedListEvent(size - 1, Collections.singletonList(element),
+				Collections.singletonList(evicted)));
+		return true;
+	}
+
+	/**
+	 * Method to add several elements at the end of the list, evicting the
+	 * oldest elements if needed. The listeners receive a single event, which
+	 * only holds the elements added that are still in the list: if more
+	 * elements than the capacity are added, the first ones are never visible.
+	 */
+	@Override
+	public boolean addAll(Collection<? extends T> elements) {
+		if (elements.isEmpty()) {
+			return false;
+		}
+		Object[] added = elements.toArray();
+		int kept = Math.min(added.length, buffer.length);
+		int evictedCount = Math.max(0, size + kept - buffer.length);
+		List<Object> evicted = new ArrayList<>(evictedCount);
+		for (int ind = 0; ind < evictedCount; ind++) {
+			evicted.add(buffer[physicalIndex(ind)]);
+			buffer[physicalIndex(ind)] = null;
+		}
+		head = physicalIndex(evictedCount);
+		size -= evictedCount;
+		int index = size;
+		for (int ind = added.length - kept; ind < added.length; ind++) {
+			buffer[physicalIndex(size++)] = added[ind];
+		}
+		modCount++;
+
+		List<Object> addedElements = Arrays.asList(added).subList(added.length - kept, added.length);
+		if (evicted.isEmpty()) {
+			notifyAllListeners(new ModifiedListEvent(ADD, index, addedElements));
+		} else {
+			notifyAllListeners(new ModifiedListEvent(index, addedElements, evicted));
+		}
+		return true;
+	}
+
+	/**
+	 * This method replaces an element in the list, so a remove event and an add
+	 * event are sent to the listeners.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public T set(int index, T element) {
+		checkIndex(index);
+		T oldValue = (T) buffer[physicalIndex(index)];
+		buffer[physicalIndex(index)] = element;
+		notifyAllListeners(new ModifiedListEvent(REMOVE, index, oldValue));
+		notifyAllListeners(new ModifiedListEvent(ADD, index, element));
+		return oldValue;
+	}
+
+	/**
+	 * Method to remove the element at the given index. It notifies the
+	 * listeners accordingly.
+	 */
+	@Override
+	public T remove(int index) {
+		T oldValue = get(index);
+		removeRange(index, index + 1);
+		return oldValue;
+	}
+
+	/**
+	 * Method to remove all the elements between two indexes. The elements
+	 * following the range are moved, unless the range is at the beginning of
+	 * the list. It notifies the listeners accordingly, the method clear()
+	 * relies on it.
+	 */
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		ObservableList.checkSubListRange(fromIndex, toIndex, size);
+		if (fromIndex == toIndex) {
+			return;
+		}
+		int count = toIndex - fromIndex;
+		List<Object> removed = new ArrayList<>(count);
+		for (int ind = fromIndex; ind < toIndex; ind++) {
+			removed.add(buffer[physicalIndex(ind)]);
+		}
+		if (fromIndex == 0) {
+			for (int ind = 0; ind < count; ind++) {
+				buffer[physicalIndex(ind)] = null;
+			}
+			head = physicalIndex(count);
+		} else {
+			for (int ind = toIndex; ind < size; ind++) {
+				buffer[physicalIndex(ind - count)] = buffer[physicalIndex(ind)];
+			}
+			for (int ind = size - count; ind < size; ind++) {
+				buffer[physicalIndex(ind)] = null;
+			}
+		}
+		size -= count;
+		modCount++;
+		notifyAllListeners(new ModifiedListEvent(REMOVE, fromIndex, removed));
+	}
+
+	/**
+	 * @return the index in the buffer of the element at the given index in
+	 *         the list
+	 */
+	private int physicalIndex(int index) {
+		int physicalIndex = head + index;
+		return physicalIndex < buffer.length ? physicalIndex : physicalIndex - buffer.length;
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+}
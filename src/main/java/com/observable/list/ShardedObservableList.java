@@ -0,0 +1,322 @@
+package com.observable.list;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import com.observable.list.intf.ListListener;
+import com.observable.list.intf.Subscription;
+
+/**
+ * Thread-safe observable collection whose elements are partitioned across
+ * several shards, each shard being an {@link ObservableList} with its own lock
+ * and its own listeners. The elements added by a thread always go to the same
+ * shard, so threads appending concurrently mostly lock different shards and
+ * the throughput of the appends scales with the number of shards. The shards
+ * are given to the threads in turn, the first time each thread adds an
+ * element, so that as many threads as shards never share a shard, whatever
+ * their identifiers.
+ * 
+ * The order of the elements and of the events is only defined within a shard:
+ * the listeners registered on the collection are registered on every shard,
+ * they receive the events along with the shard that dispatched them, the
+ * indexes of the events being indexes in this shard. Since the shards are
+ * modified concurrently, these listeners must be thread-safe. When the global
+ * sequence is enabled, the events of all the shards are also stamped with a
+ * {@link ModifiedListEvent#getGlobalSequence() global sequence number},
+ * increasing within each shard and unique across shards.
+ * 
+ * @param <T>
+ *            type of the objects contained in the collection
+ */
+public class ShardedObservableList<T> extends AbstractCollection<T> {
+
+	private final static String INVALID_SHARD_COUNT_EXCEPTION = "Invalid shard count: ";
+
+	/**
+	 * Shard of the collection, stamping its events with the global sequence
+	 */
+	private static final class Shard<T> extends ObservableList<T> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient AtomicLong globalSequence;
+
+		private Shard(AtomicLong globalSequence) {
+			this.globalSequence = globalSequence;
+		}
+
+		@Override
+		public void notifyAllListeners(ModifiedListEvent event) {
+			// the pending events of an iterator were applied first, they must
+			// be stamped first
+			flushPendingIterator();
+			if (globalSequence != null) {
+				event.setGlobalSequence(globalSequence.incrementAndGet());
+			}
+			super.notifyAllListeners(event);
+		}
+	}
+
+	private final List<Shard<T>> shards;
+
+	/**
+	 * number of threads that have been given a shard, the next thread getting
+	 * the following shard
+	 */
+	private final AtomicInteger assignedThreads = new AtomicInteger();
+
+	/**
+	 * turn of each thread adding elements, its shard being the turn modulo
+	 * the number of shards. The thread only holds a number, so a collection
+	 * no longer used doesn't stay reachable from the threads that filled it.
+	 */
+	private final ThreadLocal<Integer> threadTurn = ThreadLocal.withInitial(assignedThreads::getAndIncrement);
+
+	/**
+	 * last global sequence number given, null if the global sequence is
+	 * disabled
+	 */
+	private final AtomicLong globalSequence;
+
+	/**
+	 * Constructor of an empty collection
+	 * 
+	 * @param shardCount
+	 *            number of shards, typically the number of threads adding
+	 *            elements concurrently
+	 * @param globalSequence
+	 *            true to stamp the events of all the shards with a global
+	 *            sequence number
+	 */
+	public ShardedObservableList(int shardCount, boolean globalSequence) {
+		if (shardCount < 1) {
+			throw new IllegalArgumentException(INVALID_SHARD_COUNT_EXCEPTION + shardCount);
+		}
+		this.globalSequence = globalSequence ? new AtomicLong() : null;
+		List<Shard<T>> shardList = new ArrayList<>(shardCount);
+		for (int ind = 0; ind < shardCount; ind++) {
+			shardList.add(new Shard<>(this.globalSequence));
+		}
+		this.shards = Collections.unmodifiableList(shardList);
+	}
+
+	/**
+	 * @return the number of shards
+	 */
+	public int getShardCount() {
+		return shards.size();
+	}
+
+	/**
+	 * Method to get a shard of the collection. The shard must be synchronized
+	 * on while it is read or modified directly.
+	 * 
+	 * @param index
+	 *            index of the shard
+	 * @return the shard
+	 */
+	public ObservableList<T> getShard(int index) {
+		return shards.get(index);
+	}
+
+	/**
+	 * @return the last global sequence number given to an event, or 0 if the
+	 *         global sequence is disabled
+	 */
+	public long getGlobalSequence() {
+		return globalSequence != null ? globalSequence.get() : 0;
+	}
+
+	/**
+	 * Method to register a listener on every shard.
+	 * 
+	 * @param listener
+	 *            to be added to the shards
+	 * @return the subscription handle of the listener, closing it unregisters
+	 *         the listener from every shard
+	 */
+	public Subscription subscribe(ListListener<ModifiedListEvent> listener) {
+		List<Subscription> subscriptions = new ArrayList<>(shards.size());
+		for (Shard<T> shard : shards) {
+			subscriptions.add(shard.subscribe(listener));
+		}
+		return new Subscription() {
+
+			@Override
+			public boolean isActive() {
+				return subscriptions.get(0).isActive();
+			}
+
+			@Override
+			public void close() {
+				for (Subscription subscription : subscriptions) {
+					subscription.close();
+				}
+			}
+		};
+	}
+
+	/**
+	 * Simple method to register a listener on every shard
+	 * 
+	 * @param listener
+	 *            to be added to the shards
+	 */
+	public void register(ListListener<ModifiedListEvent> listener) {
+		subscribe(listener);
+	}
+
+	/**
+	 * Simple method to unregister a listener from every shard
+	 * 
+	 * @param listener
+	 *            to be removed from the shards
+	 */
+	public void unregister(ListListener<ModifiedListEvent> listener) {
+		for (Shard<T> shard : shards) {
+			shard.unregister(listener);
+		}
+	}
+
+	/**
+	 * Method to add an element at the end of the shard of the current thread.
+	 * It notifies the listeners of the shard.
+	 */
+	@Override
+	public boolean add(T element) {
+		Shard<T> shard = currentShard();
+		synchronized (shard) {
+			return shard.add(element);
+		}
+	}
+
+	/**
+	 * Method to add several elements at the end of the shard of the current
+	 * thread. The listeners of the shard receive a single event.
+	 */
+	@Override
+	public boolean addAll(Collection<? extends T> elements) {
+		Shard<T> shard = currentShard();
+		synchronized (shard) {
+			return shard.addAll(elements);
+		}
+	}
+
+	/**
+	 * Method to remove the first occurrence of an element, the shards being
+	 * searched in order.
+	 */
+	@Override
+	public boolean remove(Object element) {
+		for (Shard<T> shard : shards) {
+			synchronized (shard) {
+				if (shard.remove(element)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Method to remove the elements matching the predicate, each shard sending
+	 * at most one event.
+	 */
+	@Override
+	public boolean removeIf(Predicate<? super T> filter) {
+		Objects.requireNonNull(filter);
+		boolean removed = false;
+		for (Shard<T> shard : shards) {
+			synchronized (shard) {
+				removed |= shard.removeIf(filter);
+			}
+		}
+		return removed;
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> elements) {
+		Objects.requireNonNull(elements);
+		return removeIf(elements::contains);
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> elements) {
+		Objects.requireNonNull(elements);
+		return removeIf(element -> !elements.contains(element));
+	}
+
+	@Override
+	public void clear() {
+		for (Shard<T> shard : shards) {
+			synchronized (shard) {
+				shard.clear();
+			}
+		}
+	}
+
+	@Override
+	public boolean contains(Object element) {
+		for (Shard<T> shard : shards) {
+			synchronized (shard) {
+				if (shard.contains(element)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public int size() {
+		int size = 0;
+		for (Shard<T> shard : shards) {
+			synchronized (shard) {
+				size += shard.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Method to get a copy of the collection: the elements of the shards are
+	 * concatenated in the order of the shards. Each shard is copied at once,
+	 * but the shards are copied one after the other, so the copy may include
+	 * modifications of a shard performed after another shard has been copied.
+	 * 
+	 * @return a read-only copy of the elements of the collection
+	 */
+	public List<T> snapshot() {
+		List<T> elements = new ArrayList<>();
+		for (Shard<T> shard : shards) {
+			synchronized (shard) {
+				elements.addAll(shard);
+			}
+		}
+		return Collections.unmodifiableList(elements);
+	}
+
+	/**
+	 * @return an iterator on a {@link #snapshot()} of the collection, it
+	 *         doesn't support the removal of elements
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return snapshot().iterator();
+	}
+
+	/**
+	 * @return the shard receiving the elements added by the current thread
+	 */
+	private Shard<T> currentShard() {
+		return shards.get(Math.floorMod(threadTurn.get(), shards.size()));
+	}
+}
@@ -0,0 +1,473 @@
+package com.observable.list;
+
+import static com.observable.list.enums.ActionType.ADD;
+import static com.observable.list.enums.ActionType.REMOVE;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Observable list keeping its elements sorted by a {@link Comparator}: the
+ * elements are inserted at their position, after the elements comparing
+ * equal to them, so the list doesn't need to be sorted again. The elements
+ * are stored in chunks of bounded size, so inserting or removing an element
+ * only moves the elements of its chunk, and the position of an element is
+ * found by a binary search over the chunks then within its chunk: contains,
+ * indexOf and the range queries take a logarithmic time.
+ * 
+ * Since the list decides where the elements go, the methods inserting or
+ * replacing an element at a given index are not supported. The listeners
+ * receive the index of each element added or removed.
+ * 
+ * @param <T>
+ *            type of the objects contained in the list
+ */
+public class SortedObservableList<T> extends AbstractObservableList<T> implements RandomAccess {
+
+	private final static String INVALID_RANGE_EXCEPTION = "Invalid range, fromElement > toElement: ";
+
+	/**
+	 * maximum number of elements in a chunk, a chunk reaching it is split in
+	 * two
+	 */
+	private static final int MAX_CHUNK_SIZE = 512;
+
+	/**
+	 * size under which a chunk is merged with its next chunk if they fit in
+	 * one chunk
+	 */
+	private static final int MIN_CHUNK_SIZE = MAX_CHUNK_SIZE / 4;
+
+	private final Comparator<? super T> comparator;
+
+	/**
+	 * chunks holding the elements in order, none of them is empty
+	 */
+	private final List<ArrayList<T>> chunks = new ArrayList<>();
+
+	/**
+	 * index in the list of the first element of each chunk
+	 */
+	private int[] starts = new int[0];
+
+	private int size;
+
+	/**
+	 * Constructor of an empty list sorted by the natural ordering of its
+	 * elements, which must be {@link Comparable}
+	 */
+	public SortedObservableList() {
+		this(null);
+	}
+
+	/**
+	 * Constructor of an empty list
+	 * 
+	 * @param comparator
+	 *            comparator ordering the elements, null for their natural
+	 *            ordering
+	 */
+	@SuppressWarnings("unchecked")
+	public SortedObservableList(Comparator<? super T> comparator) {
+		this.comparator = comparator != null ? comparator : (Comparator<? super T>) Comparator.naturalOrder();
+	}
+
+	/**
+	 * @return the comparator ordering the elements
+	 */
+	public Comparator<? super T> comparator() {
+		return comparator;
+	}
+
+	@Override
+	public T get(int index) {
+		checkIndex(index);
+		int chunk = chunkOf(index);
+		return chunks.get(chunk).get(index - starts[chunk]);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Method to insert an element at its position, after the elements
+	 * comparing equal to it. It notifies the listeners with the index of the
+	 * element.
+	 */
+	@Override
+	public boolean add(T element) {
+		int index = insert(element);
+		modCount++;
+		notifyAllListeners(new ModifiedListEvent(ADD, index, element));
+		return true;
+	}
+
+	/**
+	 * Method to insert several elements at their positions. The listeners
+	 * receive an event per group of elements ending up next to each other, in
+	 * the order of the list.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean addAll(Collection<? extends T> elements) {
+		if (elements.isEmpty()) {
+			return false;
+		}
+		T[] sorted = (T[]) elements.toArray();
+		Arrays.sort(sorted, comparator);
+		// each element is inserted after the previous one, so the indexes
+		// of the elements already inserted don't change
+		int[] indexes = new int[sorted.length];
+		for (int ind = 0; ind < sorted.length; ind++) {
+			indexes[ind] = insert(sorted[ind]);
+		}
+		modCount++;
+		int start = 0;
+		while (start < sorted.length) {
+			int end = start + 1;
+			while (end < sorted.length && indexes[end] == indexes[end - 1] + 1) {
+				end++;
+			}
+			notifyAllListeners(new ModifiedListEvent(ADD, indexes[start],
+					Arrays.asList(sorted).subList(start, end)));
+			start = end;
+		}
+		return true;
+	}
+
+	/**
+	 * Method to remove the element at the given index. It notifies the
+	 * listeners accordingly.
+	 */
+	@Override
+	public T remove(int index) {
+		checkIndex(index);
+		int chunk = chunkOf(index);
+		T element = chunks.get(chunk).remove(index - starts[chunk]);
+		size--;
+		chunkShrunk(chunk, 1);
+		modCount++;
+		notifyAllListeners(new ModifiedListEvent(REMOVE, index, element));
+		return element;
+	}
+
+	/**
+	 * Method to remove the first occurrence of an element, found by a binary
+	 * search. It notifies the listeners accordingly.
+	 */
+	@Override
+	public boolean remove(Object element) {
+		int index = indexOf(element);
+		if (index < 0) {
+			return false;
+		}
+		remove(index);
+		return true;
+	}
+
+	/**
+	 * Method to remove all the elements between two indexes. It notifies the
+	 * listeners with a single event, the method clear() relies on it.
+	 */
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		ObservableList.checkSubListRange(fromIndex, toIndex, size);
+		if (fromIndex == toIndex) {
+			return;
+		}
+		List<T> removed = new ArrayList<>(toIndex - fromIndex);
+		int chunk = chunkOf(fromIndex);
+		int remaining = toIndex - fromIndex;
+		int offset = fromIndex - starts[chunk];
+		while (remaining > 0) {
+			ArrayList<T> current = chunks.get(chunk);
+			List<T> range = current.subList(offset, Math.min(offset + remaining, current.size()));
+			removed.addAll(range);
+			remaining -= range.size();
+			range.clear();
+			if (current.isEmpty()) {
+				chunks.remove(chunk);
+			} else {
+				chunk++;
+			}
+			offset = 0;
+		}
+		size -= removed.size();
+		rebuildStarts();
+		modCount++;
+		notifyAllListeners(new ModifiedListEvent(REMOVE, fromIndex, removed));
+	}
+
+	/**
+	 * Method to find an element by a binary search.
+	 */
+	@Override
+	public boolean contains(Object element) {
+		return indexOf(element) >= 0;
+	}
+
+	/**
+	 * Method to find the first occurrence of an element by a binary search:
+	 * only the elements comparing equal to it are compared with equals().
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public int indexOf(Object element) {
+		if (!isComparable(element)) {
+			return -1;
+		}
+		T key = (T) element;
+		for (int index = lowerBound(key); index < size; index++) {
+			T candidate = get(index);
+			if (comparator.compare(candidate, key) != 0) {
+				break;
+			}
+			if (candidate == null ? element == null : candidate.equals(element)) {
+				return index;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Method to find the last occurrence of an element by a binary search.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public int lastIndexOf(Object element) {
+		if (!isComparable(element)) {
+			return -1;
+		}
+		T key = (T) element;
+		for (int index = upperBound(key) - 1; index >= 0; index--) {
+			T candidate = get(index);
+			if (comparator.compare(candidate, key) != 0) {
+				break;
+			}
+			if (candidate == null ? element == null : candidate.equals(element)) {
+				return index;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param toElement
+	 *            upper bound of the range, exclusive
+	 * @return a view of the elements strictly lower than the given element,
+	 *         removing elements through it notifies the listeners
+	 */
+	public List<T> headList(T toElement) {
+		return subList(0, lowerBound(toElement));
+	}
+
+	/**
+	 * @param fromElement
+	 *            lower bound of the range, inclusive
+	 * @return a view of the elements greater than or equal to the given
+	 *         element, removing elements through it notifies the listeners
+	 */
+	public List<T> tailList(T fromElement) {
+		return subList(lowerBound(fromElement), size);
+	}
+
+	/**
+	 * @param fromElement
+	 *            lower bound of the range, inclusive
+	 * @param toElement
+	 *            upper bound of the range, exclusive
+	 * @return a view of the elements between the given elements, removing
+	 *         elements through it notifies the listeners
+	 * @throws IllegalArgumentException
+	 *             if the lower bound is greater than the upper bound
+	 */
+	public List<T> subRange(T fromElement, T toElement) {
+		if (comparator.compare(fromElement, toElement) > 0) {
+			throw new IllegalArgumentException(INVALID_RANGE_EXCEPTION + fromElement + " > " + toElement);
+		}
+		return subList(lowerBound(fromElement), lowerBound(toElement));
+	}
+
+	/**
+	 * @return the index of the first element greater than or equal to the
+	 *         given one, the size of the list if there is none
+	 */
+	private int lowerBound(T element) {
+		int low = 0;
+		int high = chunks.size();
+		// first chunk whose last element is greater than or equal to the
+		// element
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			ArrayList<T> chunk = chunks.get(middle);
+			if (comparator.compare(chunk.get(chunk.size() - 1), element) < 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		if (low == chunks.size()) {
+			return size;
+		}
+		ArrayList<T> chunk = chunks.get(low);
+		int first = 0;
+		int last = chunk.size();
+		while (first < last) {
+			int middle = (first + last) >>> 1;
+			if (comparator.compare(chunk.get(middle), element) < 0) {
+				first = middle + 1;
+			} else {
+				last = middle;
+			}
+		}
+		return starts[low] + first;
+	}
+
+	/**
+	 * @return the index of the first element strictly greater than the given
+	 *         one, the size of the list if there is none
+	 */
+	private int upperBound(T element) {
+		int chunkIndex = upperChunk(element);
+		if (chunkIndex == chunks.size()) {
+			return size;
+		}
+		return starts[chunkIndex] + upperBound(chunks.get(chunkIndex), element);
+	}
+
+	/**
+	 * @return the index of the first chunk whose last element is strictly
+	 *         greater than the given one, the number of chunks if there is
+	 *         none
+	 */
+	private int upperChunk(T element) {
+		int low = 0;
+		int high = chunks.size();
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			ArrayList<T> chunk = chunks.get(middle);
+			if (comparator.compare(chunk.get(chunk.size() - 1), element) <= 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private int upperBound(ArrayList<T> chunk, T element) {
+		int first = 0;
+		int last = chunk.size();
+		while (first < last) {
+			int middle = (first + last) >>> 1;
+			if (comparator.compare(chunk.get(middle), element) <= 0) {
+				first = middle + 1;
+			} else {
+				last = middle;
+			}
+		}
+		return first;
+	}
+
+	/**
+	 * Method inserting an element after the elements comparing equal to it,
+	 * without notifying the listeners.
+	 * 
+	 * @return the index of the element
+	 */
+	private int insert(T element) {
+		if (chunks.isEmpty()) {
+			ArrayList<T> chunk = new ArrayList<>();
+			chunk.add(element);
+			chunks.add(chunk);
+			size = 1;
+			rebuildStarts();
+			return 0;
+		}
+		// an element greater than all the others goes to the last chunk
+		int chunkIndex = Math.min(upperChunk(element), chunks.size() - 1);
+		ArrayList<T> chunk = chunks.get(chunkIndex);
+		int offset = upperBound(chunk, element);
+		chunk.add(offset, element);
+		int index = starts[chunkIndex] + offset;
+		size++;
+		if (chunk.size() >= MAX_CHUNK_SIZE) {
+			List<T> secondHalf = chunk.subList(chunk.size() / 2, chunk.size());
+			chunks.add(chunkIndex + 1, new ArrayList<>(secondHalf));
+			secondHalf.clear();
+			rebuildStarts();
+		} else {
+			for (int ind = chunkIndex + 1; ind < starts.length; ind++) {
+				starts[ind]++;
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Method updating the chunks after elements have been removed from one of
+	 * them: an empty chunk is removed and a small chunk is merged with the
+	 * next one if they fit in one chunk.
+	 */
+	private void chunkShrunk(int chunkIndex, int removedCount) {
+		ArrayList<T> chunk = chunks.get(chunkIndex);
+		if (chunk.isEmpty()) {
+			chunks.remove(chunkIndex);
+			rebuildStarts();
+		} else if (chunk.size() < MIN_CHUNK_SIZE && chunkIndex + 1 < chunks.size()
+				&& chunk.size() + chunks.get(chunkIndex + 1).size() < MAX_CHUNK_SIZE) {
+			chunk.addAll(chunks.remove(chunkIndex + 1));
+			rebuildStarts();
+		} else {
+			for (int ind = chunkIndex + 1; ind < starts.length; ind++) {
+				starts[ind] -= removedCount;
+			}
+		}
+	}
+
+	private void rebuildStarts() {
+		starts = new int[chunks.size()];
+		int start = 0;
+		for (int ind = 0; ind < starts.length; ind++) {
+			starts[ind] = start;
+			start += chunks.get(ind).size();
+		}
+	}
+
+	/**
+	 * @return the index of the chunk holding the element at the given index
+	 */
+	private int chunkOf(int index) {
+		int position = Arrays.binarySearch(starts, index);
+		return position >= 0 ? position : -position - 2;
+	}
+
+	/**
+	 * @return true if the element can be compared with the elements of the
+	 *         list, false if the list is empty
+	 */
+	@SuppressWarnings("unchecked")
+	private boolean isComparable(Object element) {
+		if (size == 0) {
+			return false;
+		}
+		try {
+			comparator.compare(get(0), (T) element);
+			return true;
+		} catch (ClassCastException | NullPointerException e) {
+			return false;
+		}
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+}
@@ -0,0 +1,224 @@
+package com.observable.list;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timer wheel tracking the expiry of the entries of an
+ * {@link ExpiringObservableList}. Time is divided in ticks, and each level of
+ * the wheel has 64 slots: the first level holds the entries expiring in the
+ * next 64 ticks, one slot per tick, the second level the entries expiring in
+ * the next 64 * 64 ticks, one slot per 64 ticks, and so on. When the first
+ * level has done a full turn, the entries of the next slot of the second level
+ * are moved to the first level, and so on for the upper levels. The entries
+ * expiring after the last level are kept in an overflow slot, which is
+ * redistributed each time the last level has done a full turn.
+ * 
+ * Scheduling and cancelling an entry take a constant time, and each entry is
+ * moved at most once per level before it expires. Each level keeps a bitmap
+ * of its non-empty slots, so that moving the wheel forward jumps directly to
+ * the next tick at which a slot expires or is cascaded: the ticks without
+ * any entry to move cost nothing, however long the wait.
+ */
+final class TimerWheel {
+
+	private static final int BITS = 6;
+	private static final int WIDTH = 1 << BITS;
+	private static final int MASK = WIDTH - 1;
+	private static final int LEVELS = 4;
+
+	/**
+	 * Entry scheduled in the wheel, the slots being doubly linked lists of
+	 * entries
+	 */
+	static class Node {
+		// tick at which the entry expires
+		long deadline;
+		// level and slot holding the entry, level is -1 if it is not scheduled
+		private int level = -1;
+		private int slot;
+		private Node previous;
+		private Node next;
+
+		boolean isScheduled() {
+			return level >= 0;
+		}
+	}
+
+	/**
+	 * first entry of each slot of each level, the last level being the
+	 * overflow slot
+	 */
+	private final Node[][] slots = new Node[LEVELS + 1][WIDTH];
+
+	/**
+	 * bitmap of the non-empty slots of each level, except the overflow slot
+	 */
+	private final long[] occupied = new long[LEVELS];
+
+	/**
+	 * last tick reached by the wheel
+	 */
+	private long currentTick;
+
+	/**
+	 * number of entries scheduled
+	 */
+	private int size;
+
+	/**
+	 * @return the last tick reached by the wheel
+	 */
+	long getCurrentTick() {
+		return currentTick;
+	}
+
+	/**
+	 * @return the number of entries scheduled
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Method to schedule an entry, its deadline being after the current tick.
+	 * 
+	 * @param node
+	 *            entry to schedule
+	 */
+	void schedule(Node node) {
+		long delay = node.deadline - currentTick;
+		int level = 0;
+		while (level < LEVELS && delay >= 1L << (BITS * (level + 1))) {
+			level++;
+		}
+		int slot = level < LEVELS ? (int) (node.deadline >>> (BITS * level)) & MASK : 0;
+		link(node, level, slot);
+		size++;
+	}
+
+	/**
+	 * Method to remove an entry from the wheel, it does nothing if the entry
+	 * is not scheduled.
+	 * 
+	 * @param node
+	 *            entry to remove
+	 */
+	void cancel(Node node) {
+		if (node.isScheduled()) {
+			unlink(node);
+			size--;
+		}
+	}
+
+	/**
+	 * Method to move the wheel forward to the given tick. The wheel jumps
+	 * from a tick with entries to move to the next one, the other ticks being
+	 * skipped.
+	 * 
+	 * @param tick
+	 *            tick to reach
+	 * @param expired
+	 *            callback receiving the entries expiring, they are not
+	 *            scheduled anymore when it is called
+	 */
+	void advanceTo(long tick, Consumer<Node> expired) {
+		while (currentTick < tick) {
+			long nextTick = nextEventTick();
+			if (nextTick > tick) {
+				// nothing to move until the tick: the wheel can jump to it
+				currentTick = tick;
+				return;
+			}
+			currentTick = nextTick;
+			// the upper levels are cascaded first, so that their entries
+			// expiring at this tick reach the first level
+			for (int level = LEVELS; level > 0; level--) {
+				if ((currentTick & ((1L << (BITS * level)) - 1)) == 0) {
+					int slot = level < LEVELS ? (int) (currentTick >>> (BITS * level)) & MASK : 0;
+					cascade(level, slot, expired);
+				}
+			}
+			Node node = slots[0][(int) currentTick & MASK];
+			while (node != null) {
+				Node next = node.next;
+				unlink(node);
+				size--;
+				expired.accept(node);
+				node = next;
+			}
+		}
+	}
+
+	/**
+	 * @return the next tick at which a non-empty slot expires or is cascaded,
+	 *         Long.MAX_VALUE if no entry is scheduled
+	 */
+	private long nextEventTick() {
+		long nextTick = Long.MAX_VALUE;
+		for (int level = 0; level < LEVELS; level++) {
+			if (occupied[level] != 0) {
+				// the slots of the level are reached in turn, from the one
+				// following the current tick, each one at the start of its
+				// period
+				long period = (currentTick >>> (BITS * level)) + 1;
+				int offset = Long.numberOfTrailingZeros(Long.rotateRight(occupied[level], (int) period & MASK));
+				nextTick = Math.min(nextTick, (period + offset) << (BITS * level));
+			}
+		}
+		if (slots[LEVELS][0] != null) {
+			nextTick = Math.min(nextTick, ((currentTick >>> (BITS * LEVELS)) + 1) << (BITS * LEVELS));
+		}
+		return nextTick;
+	}
+
+	/**
+	 * Method to move the entries of a slot to the lower levels, or to expire
+	 * them if their deadline is reached.
+	 */
+	private void cascade(int level, int slot, Consumer<Node> expired) {
+		Node node = slots[level][slot];
+		while (node != null) {
+			Node next = node.next;
+			unlink(node);
+			size--;
+			if (node.deadline <= currentTick) {
+				expired.accept(node);
+			} else {
+				schedule(node);
+			}
+			node = next;
+		}
+	}
+
+	private void link(Node node, int level, int slot) {
+		Node head = slots[level][slot];
+		node.level = level;
+		node.slot = slot;
+		node.previous = null;
+		node.next = head;
+		if (head != null) {
+			head.previous = node;
+		}
+		slots[level][slot] = node;
+		if (level < LEVELS) {
+			occupied[level] |= 1L << slot;
+		}
+	}
+
+	private void unlink(Node node) {
+		if (node.previous != null) {
+			node.previous.next = node.next;
+		} else {
+			slots[node.level][node.slot] = node.next;
+			if (node.next == null && node.level < LEVELS) {
+				occupied[node.level] &= ~(1L << node.slot);
+			}
+		}
+		if (node.next != null) {
+			node.next.previous = node.previous;
+		}
+		node.previous = null;
+		node.next = null;
+		node.level = -1;
+	}
+}
@@ -0,0 +1,57 @@
+package com.observable.list;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Binary format of the traces written by a {@link TraceRecorder} and read by
+ * a {@link TraceReplayer}. A trace starts with a magic number and a version,
+ * followed by one record per event. The numbers are written as variable
+ * length integers, 7 bits per byte, so that the small values which are the
+ * most common take a single byte.
+ * 
+ * A record holds the type of the event, the nanoseconds elapsed since the
+ * previous event, the index of the event plus one (0 for no index), the size
+ * of the list after the event, the number of elements of the event followed
+ * by their sizes, the number of evicted elements, and the length of the
+ * permutation followed by its content. For an update, the indexes of the
+ * elements updated take the place of the permutation.
+ */
+final class TraceFormat {
+
+	static final int MAGIC = 0x4f4c5454;
+	static final int VERSION = 1;
+
+	/**
+	 * type written after the last record
+	 */
+	static final int END = 0xff;
+
+	private TraceFormat() {
+	}
+
+	static void writeVarLong(DataOutput out, long value) throws IOException {
+		while ((value & ~0x7fL) != 0) {
+			out.writeByte((int) (value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+
+	static long readVarLong(DataInput in) throws IOException {
+		long value = 0;
+		int shift = 0;
+		int current;
+		do {
+			current = in.readUnsignedByte();
+			value |= (long) (current & 0x7f) << shift;
+			shift += 7;
+		} while ((current & 0x80) != 0);
+		return value;
+	}
+
+	static int readVarInt(DataInput in) throws IOException {
+		return (int) readVarLong(in);
+	}
+}
@@ -0,0 +1,106 @@
+package com.observable.list;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+
+import com.observable.list.intf.ListListener;
+
+/**
+ * Listener recording the events of a list in a compact binary trace, to be
+ * replayed later against another list by a {@link TraceReplayer}. The trace
+ * keeps the shape of the workload rather than its content: for each event, its
+ * type and index, the size of each element, the size of the list, and the
+ * time elapsed since the previous event. The permutations are kept as they
+ * are, as well as the indexes of the updates.
+ * 
+ * The modifications are recorded as the events they produce, so a method
+ * sending several events, as set() does, is replayed as several
+ * modifications.
+ */
+public class TraceRecorder implements ListListener<ModifiedListEvent>, AutoCloseable {
+
+	private final DataOutputStream out;
+	private final ToIntFunction<Object> elementSize;
+
+	/**
+	 * time of the previous event, in nanoseconds
+	 */
+	private long previousNanos;
+
+	private long recordCount;
+
+	/**
+	 * Constructor of a recorder writing the header of the trace
+	 * 
+	 * @param out
+	 *            stream receiving the trace, it is closed with the recorder
+	 * @param elementSize
+	 *            size in bytes of an element, as recorded in the trace
+	 * @throws IOException
+	 *             if the header can't be written
+	 */
+	public TraceRecorder(OutputStream out, ToIntFunction<Object> elementSize) throws IOException {
+		Objects.requireNonNull(out);
+		Objects.requireNonNull(elementSize);
+		this.out = new DataOutputStream(new BufferedOutputStream(out));
+		this.elementSize = elementSize;
+		this.out.writeInt(TraceFormat.MAGIC);
+		this.out.writeByte(TraceFormat.VERSION);
+	}
+
+	/**
+	 * @return the number of events recorded
+	 */
+	public synchronized long getRecordCount() {
+		return recordCount;
+	}
+
+	/**
+	 * Method recording the event.
+	 * 
+	 * @throws UncheckedIOException
+	 *             if the trace can't be written
+	 */
+	@Override
+	public synchronized void update(List<?> list, ModifiedListEvent event) {
+		long now = System.nanoTime();
+		try {
+			out.writeByte(event.type.ordinal());
+			TraceFormat.writeVarLong(out, recordCount == 0 ? 0 : now - previousNanos);
+			TraceFormat.writeVarLong(out, event.index + 1L);
+			TraceFormat.writeVarLong(out, list.size());
+			TraceFormat.writeVarLong(out, event.elements.size());
+			for (Object element : event.elements) {
+				TraceFormat.writeVarLong(out, elementSize.applyAsInt(element));
+			}
+			TraceFormat.writeVarLong(out, event.evicted.size());
+			// the indexes of an update are recorded as a permutation
+			int[] permutation = event.permutation != null ? event.permutation
+					: event.indices != null ? event.indices : new int[0];
+			TraceFormat.writeVarLong(out, permutation.length);
+			for (int newIndex : permutation) {
+				TraceFormat.writeVarLong(out, newIndex);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		previousNanos = now;
+		recordCount++;
+	}
+
+	/**
+	 * Method to write the end of the trace and close the stream. The
+	 * recorder must be unregistered from the list before.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		out.writeByte(TraceFormat.END);
+		out.close();
+	}
+}
@@ -0,0 +1,277 @@
+package com.observable.list;
+
+import static com.observable.list.ModifiedListEvent.NO_INDEX;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+import com.observable.list.enums.ActionType;
+
+/**
+ * Harness replaying a trace written by a {@link TraceRecorder} against a list,
+ * typically an observable list with the listeners to compare, and measuring
+ * the time taken by each modification, the notification of the listeners
+ * included. The elements are created from their recorded sizes by a factory,
+ * before the modification is timed.
+ * 
+ * The trace is loaded in memory before the replay, and the list is first
+ * filled to the size it had when the recording started. Each event is then
+ * replayed by the modification producing it: the events with an index are
+ * replayed at their index, the removals without an index remove elements
+ * spread over the list in a single removeIf(), the additions without an
+ * index add their elements at the end, the rolls add their elements at the
+ * end then remove the oldest elements of the list if it has not evicted them
+ * itself, and the updates mark the elements at their indexes dirty before
+ * flushing them. The indexes are bounded by the size of the list, so a trace
+ * can be replayed against a list that doesn't behave exactly as the recorded
+ * one.
+ * 
+ * @param <T>
+ *            type of the objects contained in the list
+ */
+public class TraceReplayer<T> {
+
+	private final static String INVALID_TRACE_EXCEPTION = "Invalid trace";
+
+	/**
+	 * Event read from the trace
+	 */
+	private static final class Operation {
+		private ActionType type;
+		private long delayNanos;
+		private int index;
+		private int sizeAfter;
+		private int[] elementSizes;
+		private int evictedCount;
+		private int[] permutation;
+	}
+
+	private final IntFunction<? extends T> elementFactory;
+	private final boolean honorTiming;
+
+	/**
+	 * Constructor of a replayer
+	 * 
+	 * @param elementFactory
+	 *            factory creating an element of the given size in bytes
+	 * @param honorTiming
+	 *            true to wait between two modifications as long as between
+	 *            the recorded events, false to replay the trace as fast as
+	 *            possible
+	 */
+	public TraceReplayer(IntFunction<? extends T> elementFactory, boolean honorTiming) {
+		this.elementFactory = Objects.requireNonNull(elementFactory);
+		this.honorTiming = honorTiming;
+	}
+
+	/**
+	 * Method to replay a trace against a list.
+	 * 
+	 * @param trace
+	 *            stream of the trace, it is read until the end of the trace
+	 * @param target
+	 *            list modified by the replay
+	 * @return the throughput and latencies of the modifications
+	 * @throws IOException
+	 *             if the trace can't be read or is not a valid trace
+	 */
+	public ReplayReport replay(InputStream trace, List<T> target) throws IOException {
+		Objects.requireNonNull(target);
+		List<Operation> operations = load(trace);
+		if (!operations.isEmpty()) {
+			int initialSize = initialSize(operations.get(0));
+			List<T> filling = new ArrayList<>();
+			for (int ind = target.size(); ind < initialSize; ind++) {
+				filling.add(elementFactory.apply(0));
+			}
+			target.addAll(filling);
+		}
+
+		long[] latencies = new long[operations.size()];
+		Map<ActionType, Integer> counts = new EnumMap<>(ActionType.class);
+		long start = System.nanoTime();
+		long scheduled = start;
+		for (int ind = 0; ind < operations.size(); ind++) {
+			Operation operation = operations.get(ind);
+			List<T> elements = new ArrayList<>(operation.elementSizes.length);
+			for (int size : operation.elementSizes) {
+				elements.add(elementFactory.apply(size));
+			}
+			if (honorTiming) {
+				scheduled += operation.delayNanos;
+				long remaining;
+				while ((remaining = scheduled - System.nanoTime()) > 0) {
+					LockSupport.parkNanos(remaining);
+				}
+			}
+			long before = System.nanoTime();
+			apply(operation, elements, target);
+			latencies[ind] = System.nanoTime() - before;
+			counts.merge(operation.type, 1, Integer::sum);
+		}
+		return new ReplayReport(latencies, System.nanoTime() - start, counts);
+	}
+
+	/**
+	 * Method to perform the modification producing the event of an operation.
+	 */
+	private void apply(Operation operation, List<T> elements, List<T> target) {
+		int size = target.size();
+		int index = operation.index == NO_INDEX ? NO_INDEX : Math.min(operation.index, size);
+		switch (operation.type) {
+		case ADD:
+			if (index == NO_INDEX) {
+				index = size;
+			}
+			if (elements.size() == 1) {
+				target.add(index, elements.get(0));
+			} else {
+				target.addAll(index, elements);
+			}
+			break;
+		case REMOVE:
+			int count = Math.min(operation.elementSizes.length, size - Math.max(index, 0));
+			if (count == 0) {
+				break;
+			}
+			if (index == NO_INDEX) {
+				removeSpread(target, count);
+			} else if (count == 1) {
+				target.remove(index);
+			} else {
+				target.subList(index, index + count).clear();
+			}
+			break;
+		case PERMUTATION:
+			if (index + operation.permutation.length <= size) {
+				permute(target, index, operation.permutation);
+			}
+			break;
+		case ROLL:
+			target.addAll(elements);
+			if (target.size() > operation.sizeAfter) {
+				target.subList(0, target.size() - operation.sizeAfter).clear();
+			}
+			break;
+		case UPDATE:
+			update(target, operation.permutation);
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Method removing elements spread evenly over the list in one pass.
+	 */
+	private static <T> void removeSpread(List<T> target, int count) {
+		int stride = Math.max(1, target.size() / count);
+		int[] position = new int[1];
+		int[] removed = new int[1];
+		target.removeIf(element -> {
+			boolean remove = removed[0] < count && position[0]++ % stride == 0;
+			if (remove) {
+				removed[0]++;
+			}
+			return remove;
+		});
+	}
+
+	/**
+	 * Method moving the elements of a range of the list, in a single
+	 * permutation for an {@link ObservableList}.
+	 */
+	private static <T> void permute(List<T> target, int index, int[] permutation) {
+		if (target instanceof ObservableList) {
+			int[] fullPermutation = new int[target.size()];
+			for (int ind = 0; ind < fullPermutation.length; ind++) {
+				fullPermutation[ind] = ind;
+			}
+			for (int ind = 0; ind < permutation.length; ind++) {
+				fullPermutation[index + ind] = index + permutation[ind];
+			}
+			((ObservableList<T>) target).reorder(fullPermutation);
+			return;
+		}
+		List<T> range = target.subList(index, index + permutation.length);
+		List<T> elements = new ArrayList<>(range);
+		for (int ind = 0; ind < permutation.length; ind++) {
+			range.set(permutation[ind], elements.get(ind));
+		}
+	}
+
+	/**
+	 * Method updating the elements at some indexes, in a single update event
+	 * for an {@link ObservableList}, by replacing them with themselves for
+	 * the other lists.
+	 */
+	private static <T> void update(List<T> target, int[] indices) {
+		for (int index : indices) {
+			if (index < target.size()) {
+				if (target instanceof ObservableList) {
+					((ObservableList<T>) target).markDirtyAt(index);
+				} else {
+					target.set(index, target.get(index));
+				}
+			}
+		}
+		if (target instanceof ObservableList) {
+			((ObservableList<T>) target).flushUpdates();
+		}
+	}
+
+	/**
+	 * @return the size of the list before the event of the operation
+	 */
+	private static int initialSize(Operation operation) {
+		switch (operation.type) {
+		case ADD:
+			return operation.sizeAfter - operation.elementSizes.length;
+		case REMOVE:
+			return operation.sizeAfter + operation.elementSizes.length;
+		case ROLL:
+			return operation.sizeAfter - operation.elementSizes.length + operation.evictedCount;
+		default:
+			return operation.sizeAfter;
+		}
+	}
+
+	private static List<Operation> load(InputStream trace) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(trace));
+		if (in.readInt() != TraceFormat.MAGIC || in.readUnsignedByte() != TraceFormat.VERSION) {
+			throw new IOException(INVALID_TRACE_EXCEPTION);
+		}
+		List<Operation> operations = new ArrayList<>();
+		int type;
+		while ((type = in.readUnsignedByte()) != TraceFormat.END) {
+			if (type >= ActionType.values().length) {
+				throw new IOException(INVALID_TRACE_EXCEPTION);
+			}
+			Operation operation = new Operation();
+			operation.type = ActionType.values()[type];
+			operation.delayNanos = TraceFormat.readVarLong(in);
+			operation.index = TraceFormat.readVarInt(in) - 1;
+			operation.sizeAfter = TraceFormat.readVarInt(in);
+			operation.elementSizes = new int[TraceFormat.readVarInt(in)];
+			for (int ind = 0; ind < operation.elementSizes.length; ind++) {
+				operation.elementSizes[ind] = TraceFormat.readVarInt(in);
+			}
+			operation.evictedCount = TraceFormat.readVarInt(in);
+			operation.permutation = new int[TraceFormat.readVarInt(in)];
+			for (int ind = 0; ind < operation.permutation.length; ind++) {
+				operation.permutation[ind] = TraceFormat.readVarInt(in);
+			}
+			operations.add(operation);
+		}
+		return operations;
+	}
+}
@@ -1,9 +1,12 @@
 package com.observable.list.enums;
 
 /**
- * Simple enumeration for the possible actions performed on a list: add and
- * remove
+ * Simple enumeration for the possible actions performed on a list: add,
+ * remove, permutation (the elements have been reordered, none has been added
+ * or removed) and roll (elements have been added at the end of a bounded list
+ * and its oldest elements have been evicted to make room for them) and update
+ * (elements have been modified in place, they are still at the same index)
  */
 public enum ActionType {
-	ADD, REMOVE
+	ADD, REMOVE, PERMUTATION, ROLL, UPDATE
 }
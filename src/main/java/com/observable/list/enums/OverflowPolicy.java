@@ -0,0 +1,12 @@
+package com.observable.list.enums;
+
+/**
+ * Simple enumeration for what a queued listener does with an event that
+ * doesn't fit in its memory budget: block (the thread modifying the list
+ * waits until enough events have been processed) or spill to disk (the event
+ * is encoded and written to a temporary file, from which it is read back in
+ * order)
+ */
+public enum OverflowPolicy {
+	BLOCK, SPILL_TO_DISK
+}
@@ -0,0 +1,34 @@
+package com.observable.list.enums;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simple enumeration for the ways a consumer can wait for new events: busy
+ * spin (lowest latency, a core is kept busy), yield (the core is given to the
+ * other threads between two checks) and park (the thread sleeps for a few
+ * microseconds between two checks, the cheapest for the processor)
+ */
+public enum WaitStrategy {
+	BUSY_SPIN, YIELD, PARK;
+
+	/**
+	 * duration of a park between two checks, in nanoseconds
+	 */
+	private static final long PARK_NANOS = 1000;
+
+	/**
+	 * Method called by a consumer each time it has found no new event.
+	 */
+	public void idle() {
+		switch (this) {
+		case YIELD:
+			Thread.yield();
+			break;
+		case PARK:
+			LockSupport.parkNanos(PARK_NANOS);
+			break;
+		default:
+			break;
+		}
+	}
+}
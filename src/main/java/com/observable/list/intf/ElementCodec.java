@@ -0,0 +1,26 @@
+package com.observable.list.intf;
+
+/**
+ * Interface converting the elements of a list to bytes and back, used by the
+ * lists storing their elements outside of the heap
+ */
+public interface ElementCodec<T> {
+
+	/**
+	 * Method converting an element to bytes
+	 * 
+	 * @param element
+	 *            element to convert
+	 * @return the bytes representing the element
+	 */
+	byte[] encode(T element);
+
+	/**
+	 * Method converting bytes back to an element
+	 * 
+	 * @param bytes
+	 *            bytes given by {@link #encode(Object)}
+	 * @return the element represented by the bytes
+	 */
+	T decode(byte[] bytes);
+}
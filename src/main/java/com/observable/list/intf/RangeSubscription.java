@@ -0,0 +1,36 @@
+package com.observable.list.intf;
+
+/**
+ * Handle returned when a listener is registered for a range of indexes of a
+ * list. The range follows the elements it covers: it is shifted when elements
+ * are added or removed before it, and it grows or shrinks when elements are
+ * added or removed inside it. The range can also be moved by the listener, for
+ * instance when a viewport scrolls.
+ */
+public interface RangeSubscription extends Subscription {
+
+	/**
+	 * @return the index of the first element of the range, inclusive
+	 */
+	int getFromIndex();
+
+	/**
+	 * @return the index following the last element of the range, exclusive
+	 */
+	int getToIndex();
+
+	/**
+	 * Method to move the range of the listener, the listener being notified
+	 * of the modifications touching the new range from now on.
+	 * 
+	 * @param fromIndex
+	 *            index of the first element of the range, inclusive
+	 * @param toIndex
+	 *            index following the last element of the range, exclusive
+	 * @throws IllegalArgumentException
+	 *             if fromIndex is negative or greater than toIndex
+	 * @throws IllegalStateException
+	 *             if the subscription has been closed
+	 */
+	void moveTo(int fromIndex, int toIndex);
+}
@@ -0,0 +1,23 @@
+package com.observable.list.intf;
+
+/**
+ * Handle returned when a listener is registered to an Observable. Closing the
+ * handle unregisters the listener, so a registration can be scoped with a
+ * try-with-resources block.
+ */
+public interface Subscription extends AutoCloseable {
+
+	/**
+	 * @return true if the listener is still registered and reachable, false
+	 *         once the subscription has been closed or the weakly referenced
+	 *         listener has been garbage collected
+	 */
+	boolean isActive();
+
+	/**
+	 * Method to unregister the listener attached to this subscription. Closing
+	 * an already closed subscription does nothing.
+	 */
+	@Override
+	void close();
+}
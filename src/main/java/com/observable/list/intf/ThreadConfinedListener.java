@@ -0,0 +1,10 @@
+package com.observable.list.intf;
+
+/**
+ * Tagging interface for the listeners that must always be notified on the
+ * thread that performs the modification of the list. When the notifications
+ * are dispatched in parallel, these listeners are not handed to other threads
+ * and still receive the events in order, one after the other.
+ */
+public interface ThreadConfinedListener<T extends CustomEvent> extends ListListener<T> {
+}
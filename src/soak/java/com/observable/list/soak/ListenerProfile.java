@@ -0,0 +1,75 @@
+package com.observable.list.soak;
+
+/**
+ * Cost of the notification of a listener of the soak harness, parsed from a
+ * profile of the form "kind:amount":
+ * <ul>
+ * <li>"noop": the listener only measures the latency of the notification;</li>
+ * <li>"spin:nanos": the listener busy spins for the given time;</li>
+ * <li>"alloc:bytes": the listener allocates the given number of bytes.</li>
+ * </ul>
+ */
+final class ListenerProfile {
+
+	private final static String INVALID_PROFILE_EXCEPTION = "Invalid listener profile: ";
+
+	/**
+	 * written by the allocating listeners so that the allocations are not
+	 * removed by the compiler
+	 */
+	static volatile Object sink;
+
+	private final String kind;
+	private final long amount;
+
+	private ListenerProfile(String kind, long amount) {
+		this.kind = kind;
+		this.amount = amount;
+	}
+
+	/**
+	 * Method to parse a profile
+	 * 
+	 * @param profile
+	 *            profile of the form "kind:amount", or "noop"
+	 * @return the profile parsed
+	 * @throws IllegalArgumentException
+	 *             if the profile is not valid
+	 */
+	static ListenerProfile parse(String profile) {
+		String[] parts = profile.split(":");
+		try {
+			if (parts.length == 1 && "noop".equals(parts[0])) {
+				return new ListenerProfile(parts[0], 0);
+			}
+			if (parts.length == 2 && ("spin".equals(parts[0]) || "alloc".equals(parts[0]))) {
+				long amount = Long.parseLong(parts[1]);
+				if (amount >= 0 && amount <= Integer.MAX_VALUE) {
+					return new ListenerProfile(parts[0], amount);
+				}
+			}
+		} catch (NumberFormatException e) {
+			// reported below
+		}
+		throw new IllegalArgumentException(INVALID_PROFILE_EXCEPTION + profile);
+	}
+
+	/**
+	 * Method simulating the work of a listener notified of an event
+	 */
+	void work() {
+		if ("spin".equals(kind)) {
+			long end = System.nanoTime() + amount;
+			while (System.nanoTime() < end) {
+				// busy spin
+			}
+		} else if ("alloc".equals(kind)) {
+			sink = new byte[(int) amount];
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "noop".equals(kind) ? kind : kind + ":" + amount;
+	}
+}
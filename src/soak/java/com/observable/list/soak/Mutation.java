@@ -0,0 +1,110 @@
+package com.observable.list.soak;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Modification performed by the producers of the soak harness. The elements
+ * added are the time at which the modification was requested, in
+ * nanoseconds, so that the listeners can measure the end-to-end latency of the
+ * notification.
+ */
+enum Mutation {
+
+	/**
+	 * addition of an element at the end of the list
+	 */
+	ADD {
+		@Override
+		void apply(List<Long> list, Long element, ThreadLocalRandom random) {
+			list.add(element);
+		}
+	},
+
+	/**
+	 * addition of an element at a random index
+	 */
+	INSERT {
+		@Override
+		void apply(List<Long> list, Long element, ThreadLocalRandom random) {
+			list.add(random.nextInt(list.size() + 1), element);
+		}
+	},
+
+	/**
+	 * removal of the element at a random index
+	 */
+	REMOVE {
+		@Override
+		void apply(List<Long> list, Long element, ThreadLocalRandom random) {
+			list.remove(random.nextInt(list.size()));
+		}
+	},
+
+	/**
+	 * replacement of the element at a random index
+	 */
+	SET {
+		@Override
+		void apply(List<Long> list, Long element, ThreadLocalRandom random) {
+			list.set(random.nextInt(list.size()), element);
+		}
+	},
+
+	/**
+	 * addition of a batch of elements at the end of the list
+	 */
+	ADD_ALL {
+		@Override
+		void apply(List<Long> list, Long element, ThreadLocalRandom random) {
+			Long[] batch = new Long[BATCH_SIZE];
+			Arrays.fill(batch, element);
+			list.addAll(Arrays.asList(batch));
+		}
+	},
+
+	/**
+	 * removal of a batch of contiguous elements at a random index
+	 */
+	REMOVE_RANGE {
+		@Override
+		void apply(List<Long> list, Long element, ThreadLocalRandom random) {
+			int count = Math.min(BATCH_SIZE, list.size());
+			int from = random.nextInt(list.size() - count + 1);
+			list.subList(from, from + count).clear();
+		}
+	};
+
+	/**
+	 * number of elements added or removed by the batch modifications
+	 */
+	static final int BATCH_SIZE = 16;
+
+	/**
+	 * Method to perform the modification on the list
+	 * 
+	 * @param list
+	 *            list to modify, it is not empty for the removals and
+	 *            replacements
+	 * @param element
+	 *            element to add
+	 * @param random
+	 *            random generator of the producer
+	 */
+	abstract void apply(List<Long> list, Long element, ThreadLocalRandom random);
+
+	/**
+	 * @return true if the modification needs elements in the list
+	 */
+	boolean needsElements() {
+		return this == REMOVE || this == SET || this == REMOVE_RANGE;
+	}
+
+	/**
+	 * @return true if the modification grows the list
+	 */
+	boolean grows() {
+		return this == ADD || this == INSERT || this == ADD_ALL;
+	}
+}
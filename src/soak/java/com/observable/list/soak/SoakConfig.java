@@ -0,0 +1,161 @@
+package com.observable.list.soak;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration of a soak run, parsed from arguments of the form
+ * "name=value". The options and their default values are:
+ * <ul>
+ * <li>duration=60: duration of the measured run, in seconds;</li>
+ * <li>warmup=10: duration of the run before the measures start, in
+ * seconds;</li>
+ * <li>interval=10: period of the progress lines, in seconds;</li>
+ * <li>producers=4: number of threads modifying the list;</li>
+ * <li>listeners=8: number of listeners registered to the list;</li>
+ * <li>listenerProfile=spin:1000: cost of a notification, see
+ * {@link ListenerProfile};</li>
+ * <li>mix=ADD:30,INSERT:10,REMOVE:30,SET:20,ADD_ALL:5,REMOVE_RANGE:5: weights
+ * of the modifications, see {@link Mutation};</li>
+ * <li>initialSize=10000: size of the list when the run starts;</li>
+ * <li>maxSize=100000: size above which the modifications growing the list
+ * are replaced by removals;</li>
+ * <li>async=false: true to notify the listeners in a pool of
+ * asyncThreads=2 threads;</li>
+ * <li>report=build/soak/report.json: file receiving the report;</li>
+ * <li>maxP999Nanos=0: if positive, the run fails when the 99.9th percentile
+ * of the latency of a modification or of the notifications is above it.</li>
+ * </ul>
+ */
+final class SoakConfig {
+
+	private final static String INVALID_ARGUMENT_EXCEPTION = "Invalid argument: ";
+
+	long durationSeconds = 60;
+	long warmupSeconds = 10;
+	long intervalSeconds = 10;
+	int producers = 4;
+	int listeners = 8;
+	ListenerProfile listenerProfile = ListenerProfile.parse("spin:1000");
+	Map<Mutation, Integer> mix = parseMix("ADD:30,INSERT:10,REMOVE:30,SET:20,ADD_ALL:5,REMOVE_RANGE:5");
+	int initialSize = 10000;
+	int maxSize = 100000;
+	boolean async;
+	int asyncThreads = 2;
+	String report = "build/soak/report.json";
+	long maxP999Nanos;
+
+	/**
+	 * Method to parse the arguments of the harness
+	 * 
+	 * @param args
+	 *            arguments of the form "name=value"
+	 * @return the configuration, with the default values for the options
+	 *         not given
+	 * @throws IllegalArgumentException
+	 *             if an argument is not valid
+	 */
+	static SoakConfig parse(String[] args) {
+		SoakConfig config = new SoakConfig();
+		for (String arg : args) {
+			int separator = arg.indexOf('=');
+			if (separator < 0) {
+				throw new IllegalArgumentException(INVALID_ARGUMENT_EXCEPTION + arg);
+			}
+			String value = arg.substring(separator + 1);
+			try {
+				switch (arg.substring(0, separator)) {
+				case "duration":
+					config.durationSeconds = Long.parseLong(value);
+					break;
+				case "warmup":
+					config.warmupSeconds = Long.parseLong(value);
+					break;
+				case "interval":
+					config.intervalSeconds = Long.parseLong(value);
+					break;
+				case "producers":
+					config.producers = Integer.parseInt(value);
+					break;
+				case "listeners":
+					config.listeners = Integer.parseInt(value);
+					break;
+				case "listenerProfile":
+					config.listenerProfile = ListenerProfile.parse(value);
+					break;
+				case "mix":
+					config.mix = parseMix(value);
+					break;
+				case "initialSize":
+					config.initialSize = Integer.parseInt(value);
+					break;
+				case "maxSize":
+					config.maxSize = Integer.parseInt(value);
+					break;
+				case "async":
+					config.async = Boolean.parseBoolean(value);
+					break;
+				case "asyncThreads":
+					config.asyncThreads = Integer.parseInt(value);
+					break;
+				case "report":
+					config.report = value;
+					break;
+				case "maxP999Nanos":
+					config.maxP999Nanos = Long.parseLong(value);
+					break;
+				default:
+					throw new IllegalArgumentException(INVALID_ARGUMENT_EXCEPTION + arg);
+				}
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException(INVALID_ARGUMENT_EXCEPTION + arg, e);
+			}
+		}
+		if (config.durationSeconds < 1 || config.warmupSeconds < 0 || config.intervalSeconds < 1
+				|| config.producers < 1 || config.listeners < 0 || config.initialSize < 0
+				|| config.maxSize < config.initialSize || config.asyncThreads < 1) {
+			throw new IllegalArgumentException(INVALID_ARGUMENT_EXCEPTION + String.join(" ", args));
+		}
+		return config;
+	}
+
+	/**
+	 * @return the weights of the modifications, parsed from a list of
+	 *         "MUTATION:weight"
+	 */
+	private static Map<Mutation, Integer> parseMix(String mix) {
+		Map<Mutation, Integer> weights = new EnumMap<>(Mutation.class);
+		for (String entry : mix.split(",")) {
+			String[] parts = entry.split(":");
+			int weight = parts.length == 2 ? Integer.parseInt(parts[1]) : -1;
+			if (weight < 0) {
+				throw new IllegalArgumentException(INVALID_ARGUMENT_EXCEPTION + mix);
+			}
+			weights.put(Mutation.valueOf(parts[0]), weight);
+		}
+		if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+			throw new IllegalArgumentException(INVALID_ARGUMENT_EXCEPTION + mix);
+		}
+		return weights;
+	}
+
+	/**
+	 * @return the options of the run, written in the report
+	 */
+	Map<String, Object> toMap() {
+		Map<String, Object> options = new LinkedHashMap<>();
+		options.put("durationSeconds", durationSeconds);
+		options.put("warmupSeconds", warmupSeconds);
+		options.put("producers", producers);
+		options.put("listeners", listeners);
+		options.put("listenerProfile", listenerProfile.toString());
+		options.put("mix", mix.toString());
+		options.put("initialSize", initialSize);
+		options.put("maxSize", maxSize);
+		options.put("async", async);
+		options.put("asyncThreads", asyncThreads);
+		options.put("maxP999Nanos", maxP999Nanos);
+		return options;
+	}
+}
@@ -0,0 +1,397 @@
+package com.observable.list.soak;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import com.observable.list.ModifiedListEvent;
+import com.observable.list.ObservableList;
+import com.observable.list.enums.ActionType;
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+/**
+ * Harness driving an {@link ObservableList} for minutes with several producer
+ * threads, to catch the tail latency regressions that the unit tests and
+ * microbenchmarks don't show. The producers perform a configurable mix of
+ * modifications on a list observed by listeners of a configurable cost, see
+ * {@link SoakConfig} for the options.
+ * 
+ * The harness records in HdrHistogram recorders the latency of each type of
+ * modification, the notification of the listeners included when they are
+ * notified synchronously, and the end-to-end latency of the notifications,
+ * from the request of a modification to the reception of the event by a
+ * listener. It also measures the allocation rate of the producer threads and
+ * the garbage collections. A progress line is printed at each interval, and
+ * a JSON report is written at the end of the run.
+ * 
+ * The list is not thread safe, so the producers modify it while holding its
+ * lock: the latency of a modification includes the time spent waiting for
+ * the other producers.
+ */
+public final class SoakHarness {
+
+	/**
+	 * highest latency recorded, in nanoseconds, the higher values being
+	 * bounded
+	 */
+	private final static long HIGHEST_LATENCY = TimeUnit.MINUTES.toNanos(10);
+
+	private final static int SIGNIFICANT_DIGITS = 3;
+
+	/**
+	 * exit status of a run whose latencies are above the threshold
+	 */
+	private final static int LATENCY_FAILURE_STATUS = 2;
+
+	/**
+	 * number of modifications between two readings of the allocations of a
+	 * producer
+	 */
+	private final static int ALLOCATION_PERIOD = 256;
+
+	private final SoakConfig config;
+	private final ObservableList<Long> list = new ObservableList<>();
+	private final Map<Mutation, Recorder> mutationRecorders = new EnumMap<>(Mutation.class);
+	private final Map<Mutation, Histogram> mutationLatencies = new EnumMap<>(Mutation.class);
+	private final Recorder notificationRecorder = newRecorder();
+	private final Histogram notificationLatencies = newHistogram();
+	private final Recorder gcPauseRecorder = newRecorder();
+	private final Histogram gcPauses = newHistogram();
+	private final AtomicLong allocatedBytes = new AtomicLong();
+	private final Mutation[] mutations;
+	private final int[] cumulativeWeights;
+
+	private volatile boolean running = true;
+
+	/**
+	 * false if the latencies of the run are above the threshold
+	 */
+	private boolean passed;
+
+	/**
+	 * Constructor of a harness
+	 * 
+	 * @param config
+	 *            configuration of the run
+	 */
+	SoakHarness(SoakConfig config) {
+		this.config = config;
+		mutations = config.mix.keySet().toArray(new Mutation[config.mix.size()]);
+		cumulativeWeights = new int[mutations.length];
+		int total = 0;
+		for (int ind = 0; ind < mutations.length; ind++) {
+			total += config.mix.get(mutations[ind]);
+			cumulativeWeights[ind] = total;
+		}
+		for (Mutation mutation : Mutation.values()) {
+			mutationRecorders.put(mutation, newRecorder());
+			mutationLatencies.put(mutation, newHistogram());
+		}
+	}
+
+	/**
+	 * Entry point of the harness
+	 * 
+	 * @param args
+	 *            options of the form "name=value", see {@link SoakConfig}
+	 * @throws IOException
+	 *             if the report can't be written
+	 * @throws InterruptedException
+	 *             if the run is interrupted
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		SoakConfig config = SoakConfig.parse(args);
+		SoakHarness harness = new SoakHarness(config);
+		SoakReport report = harness.run();
+		report.write(Paths.get(config.report));
+		System.out.println("Report written to " + config.report);
+		if (!harness.passed) {
+			System.exit(LATENCY_FAILURE_STATUS);
+		}
+	}
+
+	/**
+	 * Method to perform the run
+	 * 
+	 * @return the report of the run
+	 * @throws InterruptedException
+	 *             if the run is interrupted
+	 */
+	SoakReport run() throws InterruptedException {
+		Long now = System.nanoTime();
+		for (int ind = 0; ind < config.initialSize; ind++) {
+			list.add(now);
+		}
+		ExecutorService asyncPool = null;
+		if (config.async) {
+			asyncPool = Executors.newFixedThreadPool(config.asyncThreads, runnable -> {
+				Thread thread = new Thread(runnable, "soak-listeners");
+				thread.setDaemon(true);
+				return thread;
+			});
+			list.setAsyncExecutor(asyncPool);
+		}
+		for (int ind = 0; ind < config.listeners; ind++) {
+			list.register(this::onEvent);
+		}
+		List<Runnable> gcSubscriptions = watchGarbageCollections();
+
+		List<Thread> producers = new ArrayList<>();
+		for (int ind = 0; ind < config.producers; ind++) {
+			Thread producer = new Thread(this::produce, "soak-producer-" + ind);
+			producer.setDaemon(true);
+			producers.add(producer);
+			producer.start();
+		}
+
+		if (config.warmupSeconds > 0) {
+			System.out.println("Warming up for " + config.warmupSeconds + " s");
+			TimeUnit.SECONDS.sleep(config.warmupSeconds);
+		}
+		// the values recorded during the warmup are discarded
+		collect(false);
+		long allocatedBefore = allocatedBytes.get();
+		long start = System.nanoTime();
+		long end = start + TimeUnit.SECONDS.toNanos(config.durationSeconds);
+		long remaining;
+		while ((remaining = end - System.nanoTime()) > 0) {
+			TimeUnit.NANOSECONDS.sleep(Math.min(remaining, TimeUnit.SECONDS.toNanos(config.intervalSeconds)));
+			printProgress(collect(true), System.nanoTime() - start);
+		}
+		running = false;
+		for (Thread producer : producers) {
+			producer.join();
+		}
+		long elapsed = System.nanoTime() - start;
+		if (asyncPool != null) {
+			asyncPool.shutdown();
+			asyncPool.awaitTermination(1, TimeUnit.MINUTES);
+		}
+		collect(true);
+		gcSubscriptions.forEach(Runnable::run);
+		return report(elapsed, allocatedBytes.get() - allocatedBefore);
+	}
+
+	/**
+	 * Loop of a producer thread, modifying the list until the end of the run
+	 */
+	private void produce() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		com.sun.management.ThreadMXBean threads = allocationBean();
+		long threadId = Thread.currentThread().getId();
+		long allocated = threads != null ? threads.getThreadAllocatedBytes(threadId) : 0;
+		long operations = 0;
+		while (running) {
+			Mutation mutation = pickMutation(random);
+			long start = System.nanoTime();
+			Long element = start;
+			synchronized (list) {
+				if (mutation.needsElements() && list.isEmpty()) {
+					mutation = Mutation.ADD;
+				} else if (mutation.grows() && list.size() >= config.maxSize) {
+					mutation = Mutation.REMOVE;
+				}
+				if (config.async) {
+					Mutation performed = mutation;
+					list.batchAsync(modified -> performed.apply(modified, element, random));
+				} else {
+					mutation.apply(list, element, random);
+				}
+			}
+			mutationRecorders.get(mutation).recordValue(bound(System.nanoTime() - start));
+			// the allocations are read periodically, as reading them is not free
+			if (threads != null && (++operations % ALLOCATION_PERIOD == 0 || !running)) {
+				long current = threads.getThreadAllocatedBytes(threadId);
+				allocatedBytes.addAndGet(current - allocated);
+				allocated = current;
+			}
+		}
+	}
+
+	/**
+	 * Method called by the listeners for each event, recording the end-to-end
+	 * latency of the additions
+	 */
+	private void onEvent(List<?> source, ModifiedListEvent event) {
+		config.listenerProfile.work();
+		if (event.type == ActionType.ADD && !event.elements.isEmpty()) {
+			Object requested = event.elements.iterator().next();
+			notificationRecorder.recordValue(bound(System.nanoTime() - (Long) requested));
+		}
+	}
+
+	private Mutation pickMutation(ThreadLocalRandom random) {
+		int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+		for (int ind = 0; ind < mutations.length; ind++) {
+			if (draw < cumulativeWeights[ind]) {
+				return mutations[ind];
+			}
+		}
+		return mutations[mutations.length - 1];
+	}
+
+	/**
+	 * Method to move the values recorded since the previous call to the
+	 * histograms of the run
+	 * 
+	 * @param keep
+	 *            false to discard the values
+	 * @return the number of modifications recorded since the previous call
+	 */
+	private long collect(boolean keep) {
+		long count = 0;
+		for (Mutation mutation : Mutation.values()) {
+			Histogram interval = mutationRecorders.get(mutation).getIntervalHistogram();
+			count += interval.getTotalCount();
+			if (keep) {
+				mutationLatencies.get(mutation).add(interval);
+			}
+		}
+		Histogram notifications = notificationRecorder.getIntervalHistogram();
+		Histogram pauses = gcPauseRecorder.getIntervalHistogram();
+		if (keep) {
+			notificationLatencies.add(notifications);
+			gcPauses.add(pauses);
+		}
+		return count;
+	}
+
+	private void printProgress(long intervalCount, long elapsed) {
+		Histogram all = newHistogram();
+		mutationLatencies.values().forEach(all::add);
+		System.out.printf("%6.0f s  %9d ops in interval  p99=%dns p99.9=%dns max=%dns  notification p99.9=%dns"
+				+ "  gc pauses=%d  size=%d%n", elapsed / 1e9, intervalCount, all.getValueAtPercentile(99),
+				all.getValueAtPercentile(99.9), all.getMaxValue(), notificationLatencies.getValueAtPercentile(99.9),
+				gcPauses.getTotalCount(), currentSize());
+	}
+
+	private int currentSize() {
+		synchronized (list) {
+			return list.size();
+		}
+	}
+
+	/**
+	 * @return the report of the run
+	 */
+	private SoakReport report(long elapsed, long allocated) {
+		SoakReport report = new SoakReport();
+		report.put("config", config.toMap());
+		report.put("elapsedSeconds", elapsed / 1e9);
+
+		Map<String, Object> operations = new LinkedHashMap<>();
+		long total = 0;
+		long worstP999 = notificationLatencies.getValueAtPercentile(99.9);
+		for (Mutation mutation : Mutation.values()) {
+			Histogram latencies = mutationLatencies.get(mutation);
+			if (latencies.getTotalCount() == 0) {
+				continue;
+			}
+			Map<String, Object> operation = new LinkedHashMap<>();
+			operation.put("throughputPerSecond", latencies.getTotalCount() * 1e9 / elapsed);
+			operation.put("latencyNanos", SoakReport.latencies(latencies));
+			operations.put(mutation.name(), operation);
+			total += latencies.getTotalCount();
+			worstP999 = Math.max(worstP999, latencies.getValueAtPercentile(99.9));
+		}
+		report.put("operations", operations);
+		report.put("throughputPerSecond", total * 1e9 / elapsed);
+		report.put("notificationLatencyNanos", SoakReport.latencies(notificationLatencies));
+
+		Map<String, Object> allocation = new LinkedHashMap<>();
+		allocation.put("supported", allocationBean() != null);
+		allocation.put("producerBytes", allocated);
+		allocation.put("producerBytesPerSecond", allocated * 1e9 / elapsed);
+		report.put("allocation", allocation);
+
+		Map<String, Object> gc = new LinkedHashMap<>();
+		gc.put("count", gcPauses.getTotalCount());
+		gc.put("totalPauseMillis", gcPauses.getMean() * gcPauses.getTotalCount() / 1e6);
+		gc.put("pauseNanos", SoakReport.latencies(gcPauses));
+		report.put("gc", gc);
+		report.put("finalSize", currentSize());
+
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("worstP999Nanos", worstP999);
+		passed = config.maxP999Nanos <= 0 || worstP999 <= config.maxP999Nanos;
+		result.put("passed", passed);
+		report.put("result", result);
+		return report;
+	}
+
+	/**
+	 * Method to record the duration of the garbage collections, as reported
+	 * by the notifications of the collectors. For the concurrent collectors,
+	 * the duration of a collection is longer than the pauses it causes.
+	 * 
+	 * @return the actions removing the listeners of the collectors
+	 */
+	private List<Runnable> watchGarbageCollections() {
+		List<Runnable> subscriptions = new ArrayList<>();
+		NotificationListener listener = (notification, handback) -> {
+			if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+				GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo
+						.from((CompositeData) notification.getUserData());
+				gcPauseRecorder.recordValue(bound(TimeUnit.MILLISECONDS.toNanos(info.getGcInfo().getDuration())));
+			}
+		};
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			if (collector instanceof NotificationEmitter) {
+				NotificationEmitter emitter = (NotificationEmitter) collector;
+				emitter.addNotificationListener(listener, null, null);
+				subscriptions.add(() -> {
+					try {
+						emitter.removeNotificationListener(listener);
+					} catch (ListenerNotFoundException e) {
+						// already removed
+					}
+				});
+			}
+		}
+		return subscriptions;
+	}
+
+	/**
+	 * @return the bean measuring the allocations of the threads, null if the
+	 *         JVM doesn't support it
+	 */
+	private static com.sun.management.ThreadMXBean allocationBean() {
+		java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads instanceof com.sun.management.ThreadMXBean
+				&& ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()) {
+			return (com.sun.management.ThreadMXBean) threads;
+		}
+		return null;
+	}
+
+	private static long bound(long latency) {
+		return Math.max(0, Math.min(latency, HIGHEST_LATENCY));
+	}
+
+	private static Recorder newRecorder() {
+		return new Recorder(HIGHEST_LATENCY, SIGNIFICANT_DIGITS);
+	}
+
+	private static Histogram newHistogram() {
+		return new Histogram(HIGHEST_LATENCY, SIGNIFICANT_DIGITS);
+	}
+}
@@ -0,0 +1,118 @@
+package com.observable.list.soak;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Machine readable report of a soak run, written as a JSON document. The
+ * report is a tree of maps whose leaves are numbers, booleans and strings, so
+ * it is written without any JSON library.
+ */
+final class SoakReport {
+
+	private final Map<String, Object> content = new LinkedHashMap<>();
+
+	/**
+	 * Method to add an entry at the root of the report
+	 * 
+	 * @param name
+	 *            name of the entry
+	 * @param value
+	 *            number, boolean, string or map of entries
+	 */
+	void put(String name, Object value) {
+		content.put(name, value);
+	}
+
+	/**
+	 * @param histogram
+	 *            latencies in nanoseconds
+	 * @return the number of values and the main percentiles of a histogram
+	 */
+	static Map<String, Object> latencies(Histogram histogram) {
+		Map<String, Object> latencies = new LinkedHashMap<>();
+		latencies.put("count", histogram.getTotalCount());
+		latencies.put("p50", histogram.getValueAtPercentile(50));
+		latencies.put("p99", histogram.getValueAtPercentile(99));
+		latencies.put("p999", histogram.getValueAtPercentile(99.9));
+		latencies.put("max", histogram.getMaxValue());
+		return latencies;
+	}
+
+	/**
+	 * Method to write the report to a file, its parent directories being
+	 * created if needed
+	 * 
+	 * @param file
+	 *            file receiving the report
+	 * @throws IOException
+	 *             if the file can't be written
+	 */
+	void write(Path file) throws IOException {
+		if (file.getParent() != null) {
+			Files.createDirectories(file.getParent());
+		}
+		try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			out.write(toJson());
+			out.write('\n');
+		}
+	}
+
+	/**
+	 * @return the report as a JSON document
+	 */
+	String toJson() {
+		StringBuilder json = new StringBuilder();
+		append(json, content, "");
+		return json.toString();
+	}
+
+	private static void append(StringBuilder json, Object value, String indent) {
+		if (value instanceof Map) {
+			json.append('{');
+			Iterator<? extends Map.Entry<?, ?>> entries = ((Map<?, ?>) value).entrySet().iterator();
+			while (entries.hasNext()) {
+				Map.Entry<?, ?> entry = entries.next();
+				json.append('\n').append(indent).append("  ");
+				appendString(json, entry.getKey().toString());
+				json.append(": ");
+				append(json, entry.getValue(), indent + "  ");
+				if (entries.hasNext()) {
+					json.append(',');
+				}
+			}
+			json.append('\n').append(indent).append('}');
+		} else if (value instanceof Double) {
+			double number = (Double) value;
+			json.append(Double.isFinite(number) ? String.format(Locale.ROOT, "%.3f", number) : "null");
+		} else if (value instanceof Number || value instanceof Boolean) {
+			json.append(value);
+		} else {
+			appendString(json, String.valueOf(value));
+		}
+	}
+
+	private static void appendString(StringBuilder json, String value) {
+		json.append('"');
+		for (int ind = 0; ind < value.length(); ind++) {
+			char current = value.charAt(ind);
+			if (current == '"' || current == '\\') {
+				json.append('\\').append(current);
+			} else if (current < 0x20) {
+				json.append(String.format("\\u%04x", (int) current));
+			} else {
+				json.append(current);
+			}
+		}
+		json.append('"');
+	}
+}
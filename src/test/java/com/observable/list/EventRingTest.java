@@ -0,0 +1,204 @@
+package com.observable.list;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.observable.list.enums.ActionType;
+import com.observable.list.enums.WaitStrategy;
+import com.observable.list.intf.ElementCodec;
+
+/**
+ * Test class to unit test the EventRingPublisher and EventRingConsumer
+ * classes.
+ */
+public class EventRingTest {
+
+	private static final ElementCodec<String> STRING_CODEC = new ElementCodec<String>() {
+
+		@Override
+		public byte[] encode(String element) {
+			return element.getBytes(StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public String decode(byte[] bytes) {
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	};
+
+	private Path file;
+	private ObservableList<String> master;
+	private ObservableList<String> copy;
+	private EventRingPublisher<String> publisher;
+	private EventRingConsumer<String> consumer;
+
+	/**
+	 * Method called before each test, it initializes the objects needed in the
+	 * tests
+	 */
+	@Before
+	public void beforeTestInit() throws IOException {
+		file = Files.createTempFile("ring", ".bin");
+		master = new ObservableList<>();
+		copy = new ObservableList<>();
+		publisher = new EventRingPublisher<>(file, 1024, STRING_CODEC);
+		master.register(publisher);
+		consumer = new EventRingConsumer<>(file, STRING_CODEC, copy);
+	}
+
+	@After
+	public void afterTest() throws IOException {
+		consumer.close();
+		publisher.close();
+		Files.deleteIfExists(file);
+	}
+
+	@Test
+	public void testApplyEvents() {
+		master.add("a");
+		master.addAll(Arrays.asList("b", "c", "d"));
+		master.add(1, "e");
+		master.remove("c");
+		master.set(0, "f");
+		master.sort(null);
+		master.subList(1, 3).clear();
+		assertEquals(8, consumer.poll());
+		assertEquals(master, copy);
+		assertEquals(master.getSequence(), consumer.getSequence());
+		assertEquals(0, consumer.poll());
+	}
+
+	@Test
+	public void testApplyUpdates() {
+		master.addAll(Arrays.asList("a", "b", "c", "d"));
+		master.markDirtyAt(1);
+		master.markDirty(master.get(3));
+		master.flushUpdates();
+		List<ModifiedListEvent> events = new ArrayList<>();
+		copy.register((source, event) -> events.add(event));
+		assertEquals(2, consumer.poll());
+		assertEquals(master, copy);
+		assertEquals(2, events.size());
+		assertEquals(ActionType.UPDATE, events.get(1).type);
+		assertArrayEquals(new int[] { 1, 3 }, events.get(1).indices);
+	}
+
+	@Test
+	public void testApplyBulkOperations() {
+		master.addAll(Arrays.asList("a", "b", "a", "c", "b"));
+		master.replaceAll(element -> element.equals("b") ? "x" : element);
+		master.removeIf(element -> element.equals("a"));
+		master.add(null);
+		consumer.poll();
+		assertEquals(master, copy);
+
+		// every occurrence removed is located, whatever the duplicates
+		master.clear();
+		master.addAll(Arrays.asList("a", "a", "b", "a"));
+		master.removeAll(Collections.singletonList("a"));
+		consumer.poll();
+		assertEquals(Collections.singletonList("b"), copy);
+	}
+
+	@Test
+	public void testEventWithoutIndex() {
+		master.addAll(Arrays.asList("a", "b", "a"));
+		master.notifyAllListeners(new ModifiedListEvent(ActionType.REMOVE, "a"));
+		try {
+			consumer.poll();
+			fail("an event without index should not be applied");
+		} catch (IllegalStateException e) {
+			assertEquals(Arrays.asList("a", "b", "a"), copy);
+		}
+	}
+
+	@Test
+	public void testWrap() {
+		Random random = new Random(7);
+		for (int ind = 0; ind < 500; ind++) {
+			if (master.isEmpty() || random.nextBoolean()) {
+				master.add(random.nextInt(master.size() + 1), "element" + ind);
+			} else {
+				master.remove(random.nextInt(master.size()));
+			}
+			if (random.nextInt(4) == 0) {
+				consumer.poll();
+				assertEquals(master, copy);
+			}
+		}
+		consumer.poll();
+		assertEquals(master, copy);
+		assertTrue(publisher.getPosition() > publisher.getCapacity());
+	}
+
+	@Test
+	public void testLapped() {
+		for (int ind = 0; ind < 100; ind++) {
+			master.add("element" + ind);
+		}
+		try {
+			consumer.poll();
+			fail("the consumer should have been lapped");
+		} catch (IllegalStateException e) {
+			assertTrue(copy.isEmpty());
+		}
+	}
+
+	@Test
+	public void testLateConsumer() throws IOException {
+		master.addAll(Arrays.asList("a", "b"));
+		ObservableList<String> lateCopy = ObservableList.of(master.stream());
+		try (EventRingConsumer<String> lateConsumer = new EventRingConsumer<>(file, STRING_CODEC, lateCopy)) {
+			master.add("c");
+			assertEquals(1, lateConsumer.poll());
+			assertEquals(master, lateCopy);
+		}
+	}
+
+	@Test
+	public void testPollWithTimeout() throws InterruptedException {
+		Thread writer = new Thread(() -> master.add("a"));
+		writer.start();
+		assertEquals(1, consumer.poll(WaitStrategy.PARK, 5, TimeUnit.SECONDS));
+		writer.join();
+		assertEquals(Collections.singletonList("a"), copy);
+		assertEquals(0, consumer.poll(WaitStrategy.BUSY_SPIN, 1, TimeUnit.MILLISECONDS));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEventTooLarge() {
+		master.add(String.join("", Collections.nCopies(2000, "x")));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidCapacity() throws IOException {
+		new EventRingPublisher<>(file, 100, STRING_CODEC);
+	}
+
+	@Test(expected = IOException.class)
+	public void testNotARing() throws IOException {
+		Path other = Files.createTempFile("ring", ".bin");
+		try {
+			new EventRingConsumer<>(other, STRING_CODEC, copy);
+		} finally {
+			Files.delete(other);
+		}
+	}
+}
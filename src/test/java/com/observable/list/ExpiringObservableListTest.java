@@ -0,0 +1,209 @@
+package com.observable.list;
+
+import static com.observable.list.enums.ActionType.REMOVE;
+import static org.junit.Assert.assertEquals;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class to unit test the ExpiringObservableList class.
+ */
+public class ExpiringObservableListTest {
+
+	private MutableClock clock;
+	private ExpiringObservableList<String> list;
+	private TestListListener listener;
+
+	/**
+	 * Method called before each test, it initializes the objects needed in the
+	 * tests
+	 */
+	@Before
+	public void beforeTestInit() {
+		clock = new MutableClock();
+		list = new ExpiringObservableList<>(Duration.ofSeconds(10), Duration.ofSeconds(1), clock);
+		listener = new TestListListener("expiring");
+		list.register(listener);
+	}
+
+	/**
+	 * Test the expiry of the elements: they should be removed at the first
+	 * tick following their time to live, with a single event per run of
+	 * contiguous elements.
+	 */
+	@Test
+	public void testExpiry() {
+		list.add("elem1");
+		clock.advance(3000);
+		list.add("elem2");
+		list.add("elem3", Duration.ofSeconds(2));
+		list.add("elem4");
+
+		clock.advance(4000);
+		assertEquals(1, list.tick());
+		assertEquals(REMOVE, listener.getLastEventReceived().type);
+		assertEquals(2, listener.getLastEventReceived().index);
+		assertEquals(Arrays.asList("elem3"), new ArrayList<>(listener.getLastEventReceived().elements));
+		assertEquals(Arrays.asList("elem1", "elem2", "elem4"), list);
+
+		clock.advance(2999);
+		assertEquals(0, list.tick());
+		clock.advance(1);
+		assertEquals(1, list.tick());
+		assertEquals(Arrays.asList("elem2", "elem4"), list);
+
+		clock.advance(3000);
+		assertEquals(2, list.tick());
+		assertEquals(0, listener.getLastEventReceived().index);
+		assertEquals(Arrays.asList("elem2", "elem4"), new ArrayList<>(listener.getLastEventReceived().elements));
+		assertEquals(0, list.size());
+	}
+
+	/**
+	 * Test the events of elements expiring at the same tick in several runs:
+	 * each run should be notified at its index once the previous runs have
+	 * been removed.
+	 */
+	@Test
+	public void testExpiryRuns() {
+		List<ModifiedListEvent> events = new ArrayList<>();
+		list.register((source, event) -> events.add(event));
+		list.add("elem0", Duration.ofSeconds(2));
+		list.add("elem1", Duration.ofSeconds(2));
+		list.add("elem2");
+		list.add("elem3", Duration.ofSeconds(2));
+		list.add("elem4", Duration.ofSeconds(2));
+		list.add("elem5");
+		events.clear();
+
+		clock.advance(2000);
+		assertEquals(4, list.tick());
+		assertEquals(Arrays.asList("elem2", "elem5"), list);
+		assertEquals(2, events.size());
+		assertEquals(REMOVE, events.get(0).type);
+		assertEquals(0, events.get(0).index);
+		assertEquals(Arrays.asList("elem0", "elem1"), new ArrayList<>(events.get(0).elements));
+		assertEquals(1, events.get(1).index);
+		assertEquals(Arrays.asList("elem3", "elem4"), new ArrayList<>(events.get(1).elements));
+	}
+
+	/**
+	 * Test a tick after a long time without expiry: the wheel should jump over
+	 * the idle ticks and still expire the elements at the right tick.
+	 */
+	@Test
+	public void testLongIdleTime() {
+		ExpiringObservableList<String> expiring = new ExpiringObservableList<>(Duration.ofDays(400),
+				Duration.ofMillis(1), clock);
+		expiring.add("elem1");
+		expiring.add("elem2", Duration.ofDays(1));
+		clock.advance(Duration.ofDays(1).toMillis() - 1);
+		assertEquals(0, expiring.tick());
+		clock.advance(1);
+		assertEquals(1, expiring.tick());
+		clock.advance(Duration.ofDays(399).toMillis() - 1);
+		assertEquals(0, expiring.tick());
+		assertEquals(Arrays.asList("elem1"), expiring);
+		clock.advance(1);
+		assertEquals(1, expiring.tick());
+		assertEquals(0, expiring.size());
+	}
+
+	/**
+	 * Test that the elements removed from the list don't expire anymore.
+	 */
+	@Test
+	public void testRemovedElementsDontExpire() {
+		list.add("elem1");
+		list.add("elem2");
+		list.remove(0);
+		list.set(0, "elem3");
+		long sequence = list.getSequence();
+
+		clock.advance(10000);
+		assertEquals(1, list.tick());
+		assertEquals(sequence + 1, list.getSequence());
+		assertEquals(Arrays.asList("elem3"), new ArrayList<>(listener.getLastEventReceived().elements));
+	}
+
+	/**
+	 * Test random time to live values, some of them long enough to go through
+	 * the upper levels of the wheel, against the expected expiry of each
+	 * element.
+	 */
+	@Test
+	public void testRandomTimeToLive() {
+		ExpiringObservableList<Integer> expiring = new ExpiringObservableList<>(Duration.ofMillis(1),
+				Duration.ofMillis(1), clock);
+		List<Integer> expected = new ArrayList<>();
+		List<Long> expiries = new ArrayList<>();
+		Random random = new Random(42);
+		for (int ind = 0; ind < 2000; ind++) {
+			long timeToLive = 1 + (random.nextBoolean() ? random.nextInt(100) : random.nextInt(300000));
+			expiring.add(ind, Duration.ofMillis(timeToLive));
+			expected.add(ind);
+			expiries.add(clock.millis() + timeToLive);
+
+			clock.advance(random.nextInt(500));
+			expiring.tick();
+			for (int elem = expected.size() - 1; elem >= 0; elem--) {
+				if (expiries.get(elem) <= clock.millis()) {
+					expected.remove(elem);
+					expiries.remove(elem);
+				}
+			}
+			assertEquals(expected, expiring);
+		}
+	}
+
+	/**
+	 * Test the creation of a list with an invalid time to live.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidTimeToLive() {
+		new ExpiringObservableList<String>(Duration.ZERO, Duration.ofSeconds(1), clock);
+	}
+
+	/**
+	 * Clock whose time is moved forward by the tests
+	 */
+	private static class MutableClock extends Clock {
+
+		private long millis = 1000000;
+
+		void advance(long duration) {
+			millis += duration;
+		}
+
+		@Override
+		public long millis() {
+			return millis;
+		}
+
+		@Override
+		public Instant instant() {
+			return Instant.ofEpochMilli(millis);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package com.observable.list;
+
+import static com.observable.list.enums.ActionType.ADD;
+import static com.observable.list.enums.ActionType.PERMUTATION;
+import static com.observable.list.enums.ActionType.REMOVE;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class to unit test the MergedObservableList class.
+ */
+public class MergedObservableListTest {
+
+	private ObservableList<String> list1;
+	private PersistentObservableList<String> list2;
+	private MergedObservableList<String> merged;
+	private TestListListener listener;
+
+	/**
+	 * Method called before each test, it initializes the objects needed in the
+	 * tests
+	 */
+	@Before
+	public void beforeTestInit() {
+		list1 = new ObservableList<>();
+		list1.addAll(Arrays.asList("elem1", "elem2"));
+		list2 = new PersistentObservableList<>(Arrays.asList("elem3", "elem4"));
+		merged = new MergedObservableList<>(Arrays.asList(list1, list2));
+		listener = new TestListListener("merged");
+		merged.register(listener);
+	}
+
+	/**
+	 * Test the content of the view: it should follow the source lists.
+	 */
+	@Test
+	public void testContent() {
+		assertEquals(Arrays.asList("elem1", "elem2", "elem3", "elem4"), merged);
+		list1.remove(0);
+		list2.add("elem5");
+		assertEquals(Arrays.asList("elem2", "elem3", "elem4", "elem5"), merged);
+		assertEquals("elem3", merged.get(1));
+	}
+
+	/**
+	 * Test the translation of the indexes of the events of the source lists.
+	 */
+	@Test
+	public void testEventTranslation() {
+		list2.add(1, "elem5");
+		assertEquals(ADD, listener.getLastEventReceived().type);
+		assertEquals(3, listener.getLastEventReceived().index);
+
+		list1.add("elem6");
+		assertEquals(2, listener.getLastEventReceived().index);
+
+		list2.remove("elem3");
+		assertEquals(REMOVE, listener.getLastEventReceived().type);
+		assertEquals(3, listener.getLastEventReceived().index);
+
+		list2.sort(null);
+		assertEquals(PERMUTATION, listener.getLastEventReceived().type);
+		assertEquals(3, listener.getLastEventReceived().index);
+		assertArrayEquals(new int[] { 1, 0 }, listener.getLastEventReceived().permutation);
+		assertEquals(Arrays.asList("elem1", "elem2", "elem6", "elem4", "elem5"), merged);
+	}
+
+	/**
+	 * Test the translation of a roll event of a bounded source list: it should
+	 * be split into a remove event and an add event.
+	 */
+	@Test
+	public void testRollTranslation() {
+		RingObservableList<String> ring = new RingObservableList<>(2);
+		ring.addAll(Arrays.asList("elem3", "elem4"));
+		MergedObservableList<String> view = new MergedObservableList<>(Arrays.asList(list1, ring));
+		List<ModifiedListEvent> events = new ArrayList<>();
+		view.register((list, event) -> events.add(event));
+
+		ring.add("elem5");
+		assertEquals(2, events.size());
+		assertEquals(REMOVE, events.get(0).type);
+		assertEquals(2, events.get(0).index);
+		assertEquals(Arrays.asList("elem3"), new ArrayList<>(events.get(0).elements));
+		assertEquals(ADD, events.get(1).type);
+		assertEquals(3, events.get(1).index);
+		assertEquals(Arrays.asList("elem1", "elem2", "elem4", "elem5"), view);
+		view.close();
+	}
+
+	/**
+	 * Test the translation of the events while an iterator of the first
+	 * source list has removed an element without notifying it yet: the events
+	 * of the second source list should be shifted by the size notified by the
+	 * first one, so that a list following the events stays equal to the view.
+	 */
+	@Test
+	public void testPendingIteratorRun() {
+		ObservableList<String> first = new ObservableList<>();
+		first.addAll(Arrays.asList("a0", "a1"));
+		ObservableList<String> second = new ObservableList<>();
+		second.add("b0");
+		MergedObservableList<String> view = new MergedObservableList<>(Arrays.asList(first, second));
+		List<Object> mirror = new ArrayList<>(view);
+		view.register((list, event) -> {
+			if (event.type == ADD) {
+				mirror.addAll(event.index, event.elements);
+			} else if (event.type == REMOVE) {
+				mirror.subList(event.index, event.index + event.elements.size()).clear();
+			}
+		});
+
+		Iterator<String> iterator = first.iterator();
+		iterator.next();
+		iterator.remove();
+		second.add("b1");
+		first.add("a2");
+		assertEquals(Arrays.asList("a1", "a2", "b0", "b1"), view);
+		assertEquals(view, mirror);
+		view.close();
+	}
+
+	/**
+	 * Test the sequence numbers given by the view: they should be common to
+	 * all the source lists.
+	 */
+	@Test
+	public void testSequence() {
+		List<Long> sequences = new ArrayList<>();
+		merged.register((list, event) -> sequences.add(event.getSequence()));
+		list1.add("elem5");
+		list2.add("elem6");
+		list1.add("elem7");
+		assertEquals(Arrays.asList(1L, 2L, 3L), sequences);
+	}
+
+	/**
+	 * Test that the listeners of the view are not notified once it is closed.
+	 */
+	@Test
+	public void testClose() {
+		merged.close();
+		list1.add("elem5");
+		assertNull(listener.getLastEventReceived());
+		assertEquals(0, list1.getNumberListeners());
+	}
+
+	/**
+	 * Test the creation of a view on a list that is not observable.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testNotObservableSource() {
+		new MergedObservableList<>(Arrays.asList(list1, new ArrayList<String>()));
+	}
+}
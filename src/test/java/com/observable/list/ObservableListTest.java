@@ -1,21 +1,42 @@
 package com.observable.list;
 
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.observable.list.enums.ActionType;
+import com.observable.list.intf.ListListener;
+import com.observable.list.intf.RangeSubscription;
+import com.observable.list.intf.Subscription;
+import com.observable.list.intf.ThreadConfinedListener;
 import com.observable.list.utils.DummyListListener;
 
 /**
@@ -104,6 +125,124 @@ public class ObservableListTest {
 		list.unregister(null);
 	}
 	
+	/**
+	 * Test the subscribe method: closing the subscription handle, here with a
+	 * try-with-resources block, should unregister the listener.
+	 */
+	@Test
+	public void testSubscribeClose() {
+		Subscription subscription;
+		try (Subscription scoped = list.subscribe(dummyListener)) {
+			subscription = scoped;
+			assertListNumberListenersEquals(1);
+			assertTrue(subscription.isActive());
+			list.add("elem1");
+			assertAddActionHappened();
+		}
+		assertListNumberListenersEquals(0);
+		assertFalse(subscription.isActive());
+
+		// closing twice should not do anything
+		subscription.close();
+		assertListNumberListenersEquals(0);
+	}
+
+	/**
+	 * Test the registerWeak method: the listener should be notified as long as
+	 * it is reachable, and can be unregistered like a strongly held listener.
+	 */
+	@Test
+	public void testRegisterWeak() {
+		Subscription subscription = list.registerWeak(dummyListener);
+		list.register(dummyListener2);
+		assertListNumberListenersEquals(2);
+		assertTrue(subscription.isActive());
+
+		list.add("elem1");
+		assertAddActionHappened();
+		assertTrue(dummyListener2.hasBeenNotified());
+
+		list.unregister(dummyListener);
+		assertListNumberListenersEquals(1);
+		assertFalse(subscription.isActive());
+	}
+
+	/**
+	 * Test that a weakly registered listener that is not reachable anymore is
+	 * removed from the list once it has been garbage collected.
+	 */
+	@Test
+	public void testRegisterWeakCollected() throws InterruptedException {
+		Subscription subscription = list.registerWeak(new DummyListListener());
+		list.register(dummyListener);
+		assertListNumberListenersEquals(2);
+
+		for (int iter = 0; iter < 50 && subscription.isActive(); iter++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertFalse(subscription.isActive());
+
+		// the collected listener is removed during the notification
+		list.add("elem1");
+		assertAddActionHappened();
+		assertListNumberListenersEquals(1);
+	}
+
+	/**
+	 * Register a null weak listener: an exception should be thrown
+	 */
+	@Test(expected = NullPointerException.class)
+	public void testRegisterWeakNullListener() {
+		list.registerWeak(null);
+	}
+
+	/**
+	 * Test the parallel dispatch: all the listeners should have been notified
+	 * when the modification returns, and the thread confined listeners should
+	 * be notified on the thread modifying the list.
+	 */
+	@Test
+	public void testParallelDispatch() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			list.enableParallelDispatch(pool, 10);
+			AtomicInteger notifications = new AtomicInteger();
+			for (int iter = 0; iter < 200; iter++) {
+				list.register((source, event) -> notifications.incrementAndGet());
+			}
+			List<Thread> confinedThreads = new ArrayList<>();
+			list.register(new ThreadConfinedListener<ModifiedListEvent>() {
+				@Override
+				public void update(List<?> source, ModifiedListEvent event) {
+					confinedThreads.add(Thread.currentThread());
+				}
+			});
+
+			list.add("elem1");
+			list.addAll(threeElemList);
+
+			assertEquals(400, notifications.get());
+			assertEquals(Arrays.asList(Thread.currentThread(), Thread.currentThread()), confinedThreads);
+
+			// under the threshold the dispatch is sequential
+			list.disableParallelDispatch();
+			list.remove("elem1");
+			assertEquals(600, notifications.get());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Enable the parallel dispatch with an invalid threshold: an exception
+	 * should be thrown
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testParallelDispatchInvalidThreshold() {
+		list.enableParallelDispatch(ForkJoinPool.commonPool(), 0);
+	}
+
 	/**
 	 * Test the add(T) method, it should:
 	 * <ul>
@@ -513,6 +652,1096 @@ public class ObservableListTest {
 		assertListEqualsTo(emptyList);
 	}
 	
+	/**
+	 * Test the sort(Comparator) method, it should:
+	 * <ul>
+	 * <li>sort the list</li>
+	 * <li>notify the listeners of a single permutation giving the new index of
+	 * each element</li>
+	 * </ul>
+	 */
+	@Test
+	public void testSort() {
+		list.addAll(Arrays.asList("elem3", "elem1", "elem2"));
+		TestListListener listener = new TestListListener("sort");
+		list.register(listener);
+		list.sort(null);
+
+		assertListEqualsTo(threeElemList);
+		assertEquals(ActionType.PERMUTATION, listener.getLastEventReceived().type);
+		assertTrue(listener.getLastEventReceived().elements.isEmpty());
+		assertArrayEquals(new int[] { 2, 0, 1 }, listener.getLastEventReceived().permutation);
+	}
+
+	/**
+	 * Test the sort of a sub list: only its range should be sorted, and the
+	 * permutation should be relative to the start of the range.
+	 */
+	@Test
+	public void testSubListSort() {
+		list.addAll(Arrays.asList("elem9", "elem3", "elem1", "elem2", "elem0"));
+		TestListListener listener = new TestListListener("sort");
+		list.register(listener);
+		list.subList(1, 4).sort(null);
+
+		assertListEqualsTo(Arrays.asList("elem9", "elem1", "elem2", "elem3", "elem0"));
+		assertEquals(ActionType.PERMUTATION, listener.getLastEventReceived().type);
+		assertEquals(1, listener.getLastEventReceived().index);
+		assertArrayEquals(new int[] { 2, 0, 1 }, listener.getLastEventReceived().permutation);
+	}
+
+	/**
+	 * Test the sort(Comparator) method on a list that is already sorted: no
+	 * notification should be sent.
+	 */
+	@Test
+	public void testSortAlreadySorted() {
+		list.addAll(threeElemList);
+		list.register(dummyListener);
+		list.sort(null);
+
+		assertNothingHappened(threeElemList);
+	}
+
+	/**
+	 * Test the reorder(int[]) method, it should:
+	 * <ul>
+	 * <li>move each element to its new index</li>
+	 * <li>notify the listeners of a single permutation</li>
+	 * </ul>
+	 */
+	@Test
+	public void testReorder() {
+		list.addAll(threeElemList);
+		TestListListener listener = new TestListListener("reorder");
+		list.register(listener);
+		list.reorder(new int[] { 1, 2, 0 });
+
+		assertListEqualsTo(Arrays.asList("elem3", "elem1", "elem2"));
+		assertEquals(ActionType.PERMUTATION, listener.getLastEventReceived().type);
+		assertArrayEquals(new int[] { 1, 2, 0 }, listener.getLastEventReceived().permutation);
+	}
+
+	/**
+	 * Test the reorder(int[]) method with an array that is not a permutation:
+	 * an exception should be thrown and the list should not be modified.
+	 */
+	@Test
+	public void testReorderInvalidPermutation() {
+		list.addAll(threeElemList);
+		list.register(dummyListener);
+		try {
+			list.reorder(new int[] { 1, 1, 0 });
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertNothingHappened(threeElemList);
+		}
+	}
+
+	/**
+	 * Test the removal of elements through the iterator, it should:
+	 * <ul>
+	 * <li>remove the elements from the list immediately</li>
+	 * <li>notify the listeners with a single remove event, giving the index
+	 * of each element since they are not contiguous</li>
+	 * </ul>
+	 */
+	@Test
+	public void testIteratorRemove() {
+		list.addAll(fiveElemList);
+		CountingListener counter = new CountingListener();
+		list.register(counter);
+		list.register(dummyListener);
+		List<ModifiedListEvent> events = new ArrayList<>();
+		list.register((source, event) -> events.add(event));
+
+		Iterator<Object> iter = list.iterator();
+		int size = list.size();
+		while (iter.hasNext()) {
+			Object elem = iter.next();
+			if (!"elem3".equals(elem)) {
+				iter.remove();
+				assertEquals(--size, list.size());
+				assertFalse(list.contains(elem));
+			}
+		}
+
+		assertEquals(1, counter.getNumberEvents());
+		assertEquals(ModifiedListEvent.NO_INDEX, events.get(0).index);
+		assertArrayEquals(new int[] { 0, 1, 3, 4 }, events.get(0).indices);
+		assertEquals(Arrays.asList("elem1", "elem2", "elem4", "elem5"), events.get(0).elements);
+		assertRemoveActionHappened();
+		assertRemovedListEqualsTo(Arrays.asList("elem1", "elem2", "elem4", "elem5"));
+		assertListEqualsTo(Collections.singletonList("elem3"));
+	}
+
+	/**
+	 * Test the modification of elements through the list iterator, the list
+	 * should be updated and the listeners notified with a single remove event
+	 * and a single add event.
+	 */
+	@Test
+	public void testListIteratorSetAdd() {
+		list.addAll(threeElemList);
+		CountingListener counter = new CountingListener();
+		list.register(counter);
+		list.register(dummyListener);
+
+		ListIterator<Object> iter = list.listIterator();
+		while (iter.hasNext()) {
+			Object elem = iter.next();
+			if ("elem2".equals(elem)) {
+				iter.set("elem2New");
+				iter.add("elem2Bis");
+			}
+		}
+
+		assertEquals(2, counter.getNumberEvents());
+		assertBothActionsHappened();
+		assertRemovedListEqualsTo(Collections.singletonList("elem2"));
+		assertAddedListEqualsTo(Arrays.asList("elem2New", "elem2Bis"));
+		assertListEqualsTo(Arrays.asList("elem1", "elem2New", "elem2Bis", "elem3"));
+	}
+
+	/**
+	 * Test an iteration stopped before the end of the list: the modifications
+	 * should be applied when the iterator is closed.
+	 */
+	@Test
+	public void testIteratorClose() {
+		list.addAll(fiveElemList);
+		list.register(dummyListener);
+
+		try (ObservableListIterator<Object> iter = list.iterator()) {
+			iter.next();
+			iter.remove();
+			iter.next();
+			iter.remove();
+		}
+
+		assertRemoveActionHappened();
+		assertRemovedListEqualsTo(Arrays.asList("elem1", "elem2"));
+		assertListEqualsTo(Arrays.asList("elem3", "elem4", "elem5"));
+	}
+
+	/**
+	 * Test an iteration stopped right after a modification without closing
+	 * the iterator: the list should already be modified, and the modification
+	 * should be notified before the next event of the list.
+	 */
+	@Test
+	public void testIteratorNotClosed() {
+		list.addAll(threeElemList);
+		List<ModifiedListEvent> events = new ArrayList<>();
+		list.register((source, event) -> events.add(event));
+
+		for (Iterator<Object> iter = list.iterator(); iter.hasNext();) {
+			if ("elem1".equals(iter.next())) {
+				iter.remove();
+				break;
+			}
+		}
+		assertListEqualsTo(Arrays.asList("elem2", "elem3"));
+		assertEquals(2, list.size());
+
+		list.add("elem4");
+		assertEquals(2, events.size());
+		assertEquals(ActionType.REMOVE, events.get(0).type);
+		assertEquals(0, events.get(0).index);
+		assertEquals(ActionType.ADD, events.get(1).type);
+		assertEquals(2, events.get(1).index);
+
+		// the sequence number accounts for the modifications of the iterator
+		ListIterator<Object> iter = list.subList(1, 3).listIterator();
+		iter.next();
+		iter.set("elem3New");
+		assertEquals(Arrays.asList("elem2", "elem3New", "elem4"), list);
+		assertEquals(5, list.getSequence());
+		assertEquals(1, events.get(2).index);
+		assertEquals(Collections.singletonList("elem3"), events.get(2).elements);
+		assertEquals(1, events.get(3).index);
+		assertEquals(Collections.singletonList("elem3New"), events.get(3).elements);
+	}
+
+	/**
+	 * Test the modification of the list during an iteration through the
+	 * iterator: a ConcurrentModificationException should be thrown.
+	 */
+	@Test(expected = ConcurrentModificationException.class)
+	public void testIteratorConcurrentModification() {
+		list.addAll(threeElemList);
+		for (Object elem : list) {
+			list.remove(elem);
+		}
+	}
+
+	/**
+	 * Test a filtering loop removing every other element: the removals should
+	 * be visible to the reads of the list during the iteration, and notified
+	 * in a single remove event giving the index of each element, so that a
+	 * copy of the list following the events stays equal to it.
+	 */
+	@Test
+	public void testIteratorCompaction() {
+		for (int ind = 0; ind < 1000; ind++) {
+			list.add(ind);
+		}
+		List<ModifiedListEvent> events = new ArrayList<>();
+		List<Object> copy = new ArrayList<>(list);
+		list.register((source, event) -> {
+			events.add(event);
+			for (ModifiedListEvent run : event.runs()) {
+				copy.subList(run.index, run.index + run.elements.size()).clear();
+			}
+		});
+
+		for (Iterator<Object> iter = list.iterator(); iter.hasNext();) {
+			int element = (Integer) iter.next();
+			if (element % 2 == 0) {
+				iter.remove();
+			}
+			if (element == 500) {
+				assertEquals(749, list.size());
+				assertEquals(499, list.get(249));
+				assertEquals(501, list.get(250));
+			}
+		}
+
+		assertEquals(1, events.size());
+		assertEquals(ActionType.REMOVE, events.get(0).type);
+		assertEquals(ModifiedListEvent.NO_INDEX, events.get(0).index);
+		assertEquals(500, events.get(0).indices.length);
+		assertEquals(998, events.get(0).indices[499]);
+		assertEquals(500, list.size());
+		assertEquals(1, list.get(0));
+		assertEquals(list, copy);
+	}
+
+	/**
+	 * Test random moves and modifications of list iterators, on the list and
+	 * on sub lists, with reads of the list in between: the list should stay
+	 * equal to an ArrayList modified the same way, and a copy of the list
+	 * following the events too.
+	 */
+	@Test
+	public void testListIteratorRandomOperations() {
+		java.util.Random random = new java.util.Random(29);
+		List<Object> expected = new ArrayList<>();
+		for (int ind = 0; ind < 30; ind++) {
+			list.add(ind);
+			expected.add(ind);
+		}
+		List<Object> copy = new ArrayList<>(list);
+		list.register((source, event) -> {
+			for (ModifiedListEvent run : event.runs()) {
+				if (run.type == ActionType.ADD) {
+					copy.addAll(run.index, run.elements);
+				} else {
+					copy.subList(run.index, run.index + run.elements.size()).clear();
+				}
+			}
+		});
+
+		int added = 100;
+		for (int round = 0; round < 200; round++) {
+			int fromIndex = random.nextInt(expected.size() + 1);
+			int toIndex = fromIndex + random.nextInt(expected.size() - fromIndex + 1);
+			ListIterator<Object> iter = list.subList(fromIndex, toIndex).listIterator();
+			ListIterator<Object> expectedIter = expected.subList(fromIndex, toIndex).listIterator();
+			boolean returned = false;
+			for (int step = 0; step < 20; step++) {
+				int operation = random.nextInt(6);
+				if (operation == 0 && expectedIter.hasNext()) {
+					assertEquals(expectedIter.next(), iter.next());
+					returned = true;
+				} else if (operation == 1 && expectedIter.hasPrevious()) {
+					assertEquals(expectedIter.previous(), iter.previous());
+					returned = true;
+				} else if (operation == 2 && returned) {
+					iter.remove();
+					expectedIter.remove();
+					returned = false;
+				} else if (operation == 3 && returned) {
+					iter.set(added);
+					expectedIter.set(added++);
+				} else if (operation == 4) {
+					iter.add(added);
+					expectedIter.add(added++);
+					returned = false;
+				} else if (operation == 5) {
+					assertEquals(expected, list);
+				}
+				assertEquals(expectedIter.nextIndex(), iter.nextIndex());
+			}
+			list.getSequence();
+			assertEquals(expected, list);
+			assertEquals(expected, copy);
+		}
+	}
+
+	/**
+	 * Test the bulk operations of a sub list, each run of contiguous elements
+	 * modified should be notified in a single event.
+	 */
+	@Test
+	public void testSubListBulkOperations() {
+		list.addAll(fiveElemList);
+		CountingListener counter = new CountingListener();
+		list.register(counter);
+		list.register(dummyListener);
+
+		List<Object> subList = list.subList(1, 4);
+		subList.removeIf(elem -> !"elem3".equals(elem));
+		assertEquals(2, counter.getNumberEvents());
+		assertEquals(Collections.singletonList("elem3"), subList);
+
+		subList.clear();
+		assertEquals(3, counter.getNumberEvents());
+		assertTrue(subList.isEmpty());
+
+		assertRemoveActionHappened();
+		assertRemovedListEqualsTo(Arrays.asList("elem2", "elem4", "elem3"));
+		assertListEqualsTo(Arrays.asList("elem1", "elem5"));
+	}
+
+	/**
+	 * Test the modification of single elements of a sub list, the listeners
+	 * of the list should be notified.
+	 */
+	@Test
+	public void testSubListSetAdd() {
+		list.addAll(threeElemList);
+		list.register(dummyListener);
+
+		List<Object> subList = list.subList(1, 3);
+		subList.set(0, "elem2New");
+		subList.add("elem4");
+
+		assertBothActionsHappened();
+		assertRemovedListEqualsTo(Collections.singletonList("elem2"));
+		assertAddedListEqualsTo(Arrays.asList("elem2New", "elem4"));
+		assertEquals(Arrays.asList("elem2New", "elem3", "elem4"), subList);
+		assertListEqualsTo(Arrays.asList("elem1", "elem2New", "elem3", "elem4"));
+	}
+
+	/**
+	 * Test the sequence numbers of the events: they should start at 1 and
+	 * increase by one for each event dispatched.
+	 */
+	@Test
+	public void testEventSequence() {
+		TestListListener listener = new TestListListener("sequence");
+		list.register(listener);
+		assertEquals(0, list.getSequence());
+
+		list.add("elem1");
+		assertEquals(1, listener.getLastEventReceived().getSequence());
+		list.set(0, "elem2");
+		assertEquals(3, listener.getLastEventReceived().getSequence());
+		assertEquals(3, list.getSequence());
+	}
+
+	/**
+	 * Test a listener starting from a snapshot: the events dispatched after
+	 * the snapshot should be replayed before the listener is registered.
+	 */
+	@Test
+	public void testSubscribeFromSnapshot() {
+		list.enableReplay(10);
+		list.add("elem1");
+		ListSnapshot<Object> snapshot = list.snapshot();
+		assertEquals(1, snapshot.sequence);
+		assertEquals(Collections.singletonList("elem1"), snapshot.elements);
+
+		list.add("elem2");
+		list.remove("elem1");
+		list.subscribeFrom(snapshot.sequence, dummyListener);
+		assertBothActionsHappened();
+		assertAddedListEqualsTo(Collections.singletonList("elem2"));
+		assertRemovedListEqualsTo(Collections.singletonList("elem1"));
+
+		list.add("elem3");
+		assertAddedListEqualsTo(Arrays.asList("elem2", "elem3"));
+		assertEquals(3, list.getEventsAfter(1).size());
+	}
+
+	/**
+	 * Test the request of events that are not kept anymore in the replay
+	 * buffer: an exception should be thrown.
+	 */
+	@Test(expected = IllegalStateException.class)
+	public void testEventsAfterOverwritten() {
+		list.enableReplay(2);
+		list.addAll(threeElemList);
+		list.add("elem4");
+		list.add("elem5");
+		list.getEventsAfter(0);
+	}
+
+	/**
+	 * Test the replacement of the content of the list: only the modified
+	 * ranges should be notified, with their index.
+	 */
+	@Test
+	public void testSetAll() {
+		list.addAll(fiveElemList);
+		List<ModifiedListEvent> events = new ArrayList<>();
+		list.register((source, event) -> events.add(event));
+
+		assertTrue(list.setAll(Arrays.asList("elem1", "elem3", "elem4", "elem4b", "elem5")));
+		assertListEqualsTo(Arrays.asList("elem1", "elem3", "elem4", "elem4b", "elem5"));
+		assertEquals(2, events.size());
+		assertEquals(ActionType.REMOVE, events.get(0).type);
+		assertEquals(1, events.get(0).index);
+		assertEquals(Collections.singletonList("elem2"), events.get(0).elements);
+		assertEquals(ActionType.ADD, events.get(1).type);
+		assertEquals(3, events.get(1).index);
+		assertEquals(Collections.singletonList("elem4b"), events.get(1).elements);
+
+		events.clear();
+		assertFalse(list.setAll(new ArrayList<>(list)));
+		assertTrue(events.isEmpty());
+	}
+
+	/**
+	 * Test the replacement of the content of the list with elements matched by
+	 * key: an element with the same key but a different value should be
+	 * notified as replaced at its index.
+	 */
+	@Test
+	public void testSetAllWithKey() {
+		list.addAll(Arrays.asList("a1", "b1", "c1"));
+		List<ModifiedListEvent> events = new ArrayList<>();
+		list.register((source, event) -> events.add(event));
+
+		list.setAll(Arrays.asList("a1", "b2", "c1", "d1"), element -> ((String) element).charAt(0));
+		assertListEqualsTo(Arrays.asList("a1", "b2", "c1", "d1"));
+		assertEquals(3, events.size());
+		assertEquals(ActionType.REMOVE, events.get(0).type);
+		assertEquals(1, events.get(0).index);
+		assertEquals(Collections.singletonList("b1"), events.get(0).elements);
+		assertEquals(ActionType.ADD, events.get(1).type);
+		assertEquals(1, events.get(1).index);
+		assertEquals(Collections.singletonList("b2"), events.get(1).elements);
+		assertEquals(ActionType.ADD, events.get(2).type);
+		assertEquals(3, events.get(2).index);
+		assertEquals(Collections.singletonList("d1"), events.get(2).elements);
+	}
+
+	/**
+	 * Test the index given in the events of the simple modifications.
+	 */
+	@Test
+	public void testEventIndex() {
+		TestListListener listener = new TestListListener("index");
+		list.register(listener);
+		list.addAll(threeElemList);
+		assertEquals(0, listener.getLastEventReceived().index);
+		list.add(1, "elem4");
+		assertEquals(1, listener.getLastEventReceived().index);
+		list.remove("elem2");
+		assertEquals(2, listener.getLastEventReceived().index);
+		list.removeIf("elem1"::equals);
+		assertEquals(0, listener.getLastEventReceived().index);
+		list.addAll(Arrays.asList("elem1", "elem4"));
+		// each run is notified at its index once the previous runs are removed
+		list.removeAll(Collections.singletonList("elem4"));
+		assertEquals(2, listener.getLastEventReceived().index);
+		assertEquals(Arrays.asList("elem3", "elem1"), list);
+	}
+
+	/**
+	 * Test the loading of a stream: a single add event should be sent.
+	 */
+	@Test
+	public void testLoadAll() {
+		list.add("elem0");
+		list.register(dummyListener);
+		assertTrue(list.loadAll(threeElemList.stream()));
+		assertAddActionHappened();
+		assertAddedListEqualsTo(threeElemList);
+		assertEquals(2, list.getSequence());
+
+		List<ModifiedListEvent> events = new ArrayList<>();
+		list.register((source, event) -> events.add(event));
+		assertTrue(list.loadAll(IntStream.range(0, 10000).boxed().parallel()));
+		assertEquals(1, events.size());
+		assertEquals(4, events.get(0).index);
+		assertEquals(10004, list.size());
+		assertEquals(9999, list.get(10003));
+		assertFalse(list.loadAll(Stream.empty()));
+	}
+
+	/**
+	 * Test the silent loading of a stream: no event should be sent.
+	 */
+	@Test
+	public void testSilentLoad() {
+		list.register(dummyListener);
+		assertTrue(list.loadAll(threeElemList.stream(), false));
+		assertNothingHappened(threeElemList);
+		assertEquals(0, list.getSequence());
+
+		ObservableList<Object> loaded = ObservableList.of(fiveElemList.stream().parallel());
+		assertEquals(fiveElemList, loaded);
+	}
+
+	/**
+	 * Test the parallel bulk operations: the predicates and operators should
+	 * be evaluated once per element and the events should be the same as with
+	 * a sequential evaluation.
+	 */
+	@Test
+	public void testParallelBulkOperations() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			list.enableParallelBulkOperations(pool, 100);
+			list.loadAll(IntStream.range(0, 10000).boxed(), false);
+			List<ModifiedListEvent> events = new ArrayList<>();
+			list.register((source, event) -> events.add(event));
+
+			AtomicInteger evaluations = new AtomicInteger();
+			assertTrue(list.removeIf(element -> evaluations.incrementAndGet() > 0 && (Integer) element % 2 == 1));
+			assertEquals(10000, evaluations.get());
+			assertEquals(5000, list.size());
+			// each element removed is a run of its own
+			assertEquals(5000, events.size());
+			assertEquals(1, events.get(0).index);
+			assertEquals(Collections.singletonList(1), events.get(0).elements);
+			assertEquals(5000, events.get(4999).index);
+			assertEquals(Collections.singletonList(9999), events.get(4999).elements);
+
+			evaluations.set(0);
+			list.replaceAll(element -> evaluations.incrementAndGet() > 0 && (Integer) element < 10
+					? (Integer) element + 1 : element);
+			assertEquals(5000, evaluations.get());
+			assertEquals(5002, events.size());
+			assertEquals(0, events.get(5000).index);
+			assertEquals(Arrays.asList(0, 2, 4, 6, 8), new ArrayList<>(events.get(5000).elements));
+			assertEquals(0, events.get(5001).index);
+			assertEquals(Arrays.asList(1, 3, 5, 7, 9), new ArrayList<>(events.get(5001).elements));
+			assertEquals(1, list.get(0));
+			assertEquals(10, list.get(5));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Test that retainAll notifies the listeners once the list is modified.
+	 */
+	@Test
+	public void testRetainAllNotifiesAfterModification() {
+		list.addAll(fiveElemList);
+		List<Integer> sizes = new ArrayList<>();
+		list.register((source, event) -> sizes.add(source.size()));
+		list.retainAll(threeElemList);
+		assertEquals(Collections.singletonList(3), sizes);
+	}
+
+	/**
+	 * Test the asynchronous modifications: the future should complete once
+	 * every listener has received the events, in order.
+	 */
+	@Test
+	public void testAsyncModifications() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			list.setAsyncExecutor(executor);
+			CountDownLatch release = new CountDownLatch(1);
+			List<Object> received = Collections.synchronizedList(new ArrayList<>());
+			list.register((source, event) -> {
+				awaitQuietly(release);
+				received.add(event.type + ":" + event.elements);
+			});
+
+			CompletableFuture<Void> added = list.addAsync("elem1");
+			CompletableFuture<Void> batch = list.batchAsync(batchList -> {
+				batchList.add("elem2");
+				batchList.remove("elem1");
+			});
+			assertEquals(Collections.singletonList("elem2"), list);
+			assertEquals(3, list.getSequence());
+			assertFalse(added.isDone());
+			release.countDown();
+			batch.get(5, TimeUnit.SECONDS);
+			assertTrue(added.isDone());
+			assertEquals(Arrays.asList("ADD:[elem1]", "ADD:[elem2]", "REMOVE:[elem1]"), received);
+
+			// the synchronous notifications follow the asynchronous ones
+			list.removeAsync("elem2");
+			list.add("elem3");
+			assertEquals("ADD:[elem3]", received.get(received.size() - 1));
+			assertEquals(5, received.size());
+			assertTrue(list.removeAsync("elem4").isDone());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Test a synchronous modification waiting for an asynchronous delivery
+	 * whose listener reads the sequence of the list: the wait should not hold
+	 * the lock of the registry, which the listener needs.
+	 */
+	@Test
+	public void testAsyncDeliveryCallingBack() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			list.setAsyncExecutor(executor);
+			CountDownLatch release = new CountDownLatch(1);
+			List<Long> sequences = Collections.synchronizedList(new ArrayList<>());
+			list.register((source, event) -> {
+				awaitQuietly(release);
+				sequences.add(list.getSequence());
+			});
+
+			CompletableFuture<Void> added = list.addAsync("elem1");
+			Thread adder = new Thread(() -> list.add("elem2"));
+			adder.setDaemon(true);
+			adder.start();
+			// the synchronous modification waits for the delivery
+			while (adder.getState() != Thread.State.WAITING && adder.isAlive()) {
+				Thread.sleep(1);
+			}
+			release.countDown();
+			adder.join(5000);
+			assertFalse(adder.isAlive());
+			assertTrue(added.isDone());
+			assertEquals(Arrays.asList(1L, 2L), sequences);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Test a listener performing an asynchronous modification then a
+	 * synchronous one while an asynchronous delivery needs the lock of the
+	 * registry: the nested dispatch should not wait for the delivery, which
+	 * would deadlock.
+	 */
+	@Test
+	public void testNestedDispatchWithPendingDelivery() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			list.setAsyncExecutor(executor);
+			List<Long> sequences = Collections.synchronizedList(new ArrayList<>());
+			List<CompletableFuture<Void>> asyncAdds = new ArrayList<>();
+			list.register((source, event) -> sequences.add(list.getSequence()));
+			list.register((source, event) -> {
+				if (event.elements.contains("trigger")) {
+					asyncAdds.add(list.addAsync("elem1"));
+					list.add("elem2");
+				}
+			});
+
+			Thread adder = new Thread(() -> list.add("trigger"));
+			adder.setDaemon(true);
+			adder.start();
+			adder.join(5000);
+			assertFalse(adder.isAlive());
+			asyncAdds.get(0).get(5, TimeUnit.SECONDS);
+			assertEquals(Arrays.asList("trigger", "elem1", "elem2"), list);
+			assertEquals(Arrays.asList(1L, 3L, 3L), sequences);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Test that the failures of the listeners are reported by the future of
+	 * an asynchronous modification.
+	 */
+	@Test
+	public void testAsyncFailures() throws Exception {
+		list.setAsyncExecutor(Runnable::run);
+		list.register((source, event) -> {
+			throw new IllegalStateException("first");
+		});
+		list.register(dummyListener);
+		list.register((source, event) -> {
+			throw new IllegalArgumentException("second");
+		});
+		CompletableFuture<Void> added = list.addAsync("elem1");
+		try {
+			added.get();
+			fail("the future should have failed");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+			assertEquals(1, e.getCause().getSuppressed().length);
+			assertTrue(e.getCause().getSuppressed()[0] instanceof IllegalArgumentException);
+		}
+		assertAddActionHappened();
+	}
+
+	/**
+	 * Test that the listeners registered for a range are only notified of
+	 * the modifications touching their range, and that the ranges follow the
+	 * elements they cover.
+	 */
+	@Test
+	public void testRangeListeners() {
+		list.addAll(IntStream.range(0, 100).boxed().collect(java.util.stream.Collectors.toList()));
+		CountingListener top = new CountingListener();
+		CountingListener middle = new CountingListener();
+		RangeSubscription topRange = list.register(0, 10, top);
+		RangeSubscription middleRange = list.register(40, 50, middle);
+		assertListNumberListenersEquals(2);
+
+		list.set(45, "elem");
+		assertEquals(0, top.getNumberEvents());
+		assertEquals(2, middle.getNumberEvents());
+
+		// an addition before a range shifts it without notifying it
+		list.add(20, "elem");
+		assertEquals(41, middleRange.getFromIndex());
+		assertEquals(51, middleRange.getToIndex());
+		assertEquals(2, middle.getNumberEvents());
+
+		// an addition inside a range grows it
+		list.addAll(5, Arrays.asList("elem1", "elem2"));
+		assertEquals(1, top.getNumberEvents());
+		assertEquals(0, topRange.getFromIndex());
+		assertEquals(12, topRange.getToIndex());
+		assertEquals(43, middleRange.getFromIndex());
+
+		// a removal overlapping a range shrinks it
+		list.subList(40, 45).clear();
+		assertEquals(3, middle.getNumberEvents());
+		assertEquals(40, middleRange.getFromIndex());
+		assertEquals(48, middleRange.getToIndex());
+
+		list.sortRange(10, 12, (first, second) -> ((Integer) second).compareTo((Integer) first));
+		assertEquals(2, top.getNumberEvents());
+		assertEquals(3, middle.getNumberEvents());
+
+		// the bulk removals are located like the other ones
+		list.removeAll(Arrays.asList(99));
+		assertEquals(2, top.getNumberEvents());
+		assertEquals(3, middle.getNumberEvents());
+
+		middleRange.moveTo(90, 95);
+		list.remove(45);
+		assertEquals(3, middle.getNumberEvents());
+		assertEquals(89, middleRange.getFromIndex());
+
+		middleRange.close();
+		assertFalse(middleRange.isActive());
+		assertListNumberListenersEquals(1);
+		list.remove(89);
+		assertEquals(3, middle.getNumberEvents());
+		try {
+			middleRange.moveTo(0, 1);
+			fail("a closed range can't be moved");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		try {
+			list.register(5, 4, top);
+			fail("the range is invalid");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Test that the bulk operations and the iterators shift the ranges like
+	 * the other modifications, and only notify the ranges they touch.
+	 */
+	@Test
+	public void testRangeListenersBulkOperations() {
+		list.addAll(IntStream.range(0, 6).boxed().collect(java.util.stream.Collectors.toList()));
+		CountingListener tail = new CountingListener();
+		RangeSubscription tailRange = list.register(4, 6, tail);
+
+		list.removeIf(element -> (Integer) element < 2);
+		assertEquals(2, tailRange.getFromIndex());
+		assertEquals(4, tailRange.getToIndex());
+		assertEquals(0, tail.getNumberEvents());
+
+		list.replaceAll(element -> (Integer) element == 2 ? 20 : element);
+		assertEquals(0, tail.getNumberEvents());
+		list.subList(0, 3).removeAll(Arrays.asList(20, 4));
+		assertEquals(Arrays.asList(3, 5), list);
+		assertEquals(1, tailRange.getFromIndex());
+		assertEquals(2, tailRange.getToIndex());
+		assertEquals(1, tail.getNumberEvents());
+
+		for (Iterator<Object> iter = list.iterator(); iter.hasNext();) {
+			iter.next();
+			iter.remove();
+		}
+		assertTrue(list.isEmpty());
+		assertEquals(0, tailRange.getFromIndex());
+		assertEquals(0, tailRange.getToIndex());
+		assertEquals(2, tail.getNumberEvents());
+	}
+
+	/**
+	 * Test the ranges and the notifications of many range listeners against
+	 * a naive computation, over random modifications.
+	 */
+	@Test
+	public void testRangeListenersRandom() {
+		java.util.Random random = new java.util.Random(46);
+		list.addAll(IntStream.range(0, 500).boxed().collect(java.util.stream.Collectors.toList()));
+		int count = 300;
+		int[] starts = new int[count];
+		int[] ends = new int[count];
+		int[] expected = new int[count];
+		int[] received = new int[count];
+		RangeSubscription[] ranges = new RangeSubscription[count];
+		for (int ind = 0; ind < count; ind++) {
+			starts[ind] = random.nextInt(500);
+			ends[ind] = starts[ind] + random.nextInt(20);
+			int listener = ind;
+			ranges[ind] = list.register(starts[ind], ends[ind], (source, event) -> received[listener]++);
+		}
+		for (int operation = 0; operation < 2000; operation++) {
+			int index = random.nextInt(list.size() + 1);
+			if (random.nextInt(3) > 0 || list.size() < 10) {
+				int added = 1 + random.nextInt(5);
+				list.addAll(index, Collections.nCopies(added, "elem"));
+				for (int ind = 0; ind < count; ind++) {
+					if (starts[ind] < index && ends[ind] > index) {
+						expected[ind]++;
+						ends[ind] += added;
+					} else if (starts[ind] >= index) {
+						starts[ind] += added;
+						ends[ind] += added;
+					}
+				}
+			} else {
+				int removed = Math.min(1 + random.nextInt(5), list.size() - Math.min(index, list.size() - 1));
+				index = Math.min(index, list.size() - removed);
+				list.subList(index, index + removed).clear();
+				for (int ind = 0; ind < count; ind++) {
+					if (starts[ind] < index + removed && ends[ind] > index) {
+						expected[ind]++;
+					}
+					starts[ind] = starts[ind] <= index ? starts[ind]
+							: Math.max(index, starts[ind] - removed);
+					ends[ind] = ends[ind] <= index ? ends[ind] : Math.max(index, ends[ind] - removed);
+				}
+			}
+		}
+		for (int ind = 0; ind < count; ind++) {
+			assertEquals(starts[ind], ranges[ind].getFromIndex());
+			assertEquals(ends[ind], ranges[ind].getToIndex());
+			assertEquals(expected[ind], received[ind]);
+		}
+	}
+
+	/**
+	 * Test that the listeners registered for a key only receive the events of
+	 * the elements having their key, restricted to these elements.
+	 */
+	@Test
+	public void testKeyListeners() {
+		Function<Object, Object> parity = element -> element instanceof Integer ? (Integer) element % 2 : null;
+		List<ModifiedListEvent> evenEvents = new ArrayList<>();
+		List<ModifiedListEvent> threeEvents = new ArrayList<>();
+		Subscription even = list.registerKey(parity, 0, (source, event) -> evenEvents.add(event));
+		Subscription three = list.registerElement(3, (source, event) -> threeEvents.add(event));
+		list.register(dummyListener);
+		assertListNumberListenersEquals(3);
+
+		list.addAll(Arrays.asList(1, 2, 3, 4, 5));
+		assertEquals(1, evenEvents.size());
+		assertEquals(Arrays.asList(2, 4), new ArrayList<>(evenEvents.get(0).elements));
+		assertEquals(ModifiedListEvent.NO_INDEX, evenEvents.get(0).index);
+		assertEquals(list.getSequence(), evenEvents.get(0).getSequence());
+		assertEquals(1, threeEvents.size());
+		assertEquals(2, threeEvents.get(0).index);
+		assertEquals(Arrays.asList(3), new ArrayList<>(threeEvents.get(0).elements));
+
+		list.add("elem1");
+		list.remove(Integer.valueOf(1));
+		assertEquals(1, evenEvents.size());
+		assertEquals(1, threeEvents.size());
+
+		list.removeAll(Arrays.asList(3, 4));
+		assertEquals(2, evenEvents.size());
+		assertEquals(ActionType.REMOVE, evenEvents.get(1).type);
+		assertEquals(Arrays.asList(4), new ArrayList<>(evenEvents.get(1).elements));
+		assertEquals(2, threeEvents.size());
+
+		list.sort((first, second) -> first.toString().compareTo(second.toString()));
+		assertEquals(2, evenEvents.size());
+
+		three.close();
+		assertFalse(three.isActive());
+		list.add(3);
+		assertEquals(2, threeEvents.size());
+		even.close();
+		assertListNumberListenersEquals(1);
+		list.add(6);
+		assertEquals(2, evenEvents.size());
+	}
+
+	/**
+	 * Test registering and unregistering many listeners, including listeners
+	 * unregistering themselves or other listeners during a notification.
+	 */
+	@Test
+	public void testListenerChurn() {
+		java.util.Random random = new java.util.Random(48);
+		List<CountingListener> registered = new ArrayList<>();
+		List<Subscription> subscriptions = new ArrayList<>();
+		for (int ind = 0; ind < 10000; ind++) {
+			CountingListener listener = new CountingListener();
+			registered.add(listener);
+			subscriptions.add(list.subscribe(listener));
+		}
+		for (int ind = 0; ind < 5000; ind++) {
+			int removed = random.nextInt(registered.size());
+			if (ind % 2 == 0) {
+				subscriptions.remove(removed).close();
+				registered.remove(removed);
+			} else {
+				list.unregister(registered.remove(removed));
+				assertFalse(subscriptions.remove(removed).isActive());
+			}
+		}
+		assertListNumberListenersEquals(5000);
+		list.add("elem1");
+		for (CountingListener listener : registered) {
+			assertEquals(1, listener.getNumberEvents());
+		}
+
+		// listeners removed during a notification don't prevent the other
+		// ones from being notified once
+		Subscription first = subscriptions.get(0);
+		Subscription last = subscriptions.get(subscriptions.size() - 1);
+		list.register(new ListListener<ModifiedListEvent>() {
+			@Override
+			public void update(List<?> source, ModifiedListEvent event) {
+				list.unregister(this);
+				first.close();
+				last.close();
+			}
+		});
+		list.add("elem2");
+		list.add("elem3");
+		assertListNumberListenersEquals(4998);
+		CountingListener firstListener = registered.remove(0);
+		CountingListener lastListener = registered.remove(registered.size() - 1);
+		assertTrue(firstListener.getNumberEvents() <= 2);
+		assertTrue(lastListener.getNumberEvents() <= 2);
+		for (CountingListener listener : registered) {
+			assertEquals(3, listener.getNumberEvents());
+		}
+
+		// the registrations of equal listeners are removed one by one
+		list.register(dummyListener);
+		list.register(dummyListener);
+		list.unregister(dummyListener);
+		assertListNumberListenersEquals(4999);
+		list.unregister(dummyListener);
+		list.unregister(dummyListener);
+		assertListNumberListenersEquals(4998);
+	}
+
+	/**
+	 * Test that the elements marked dirty or passing the dirty check are sent
+	 * in a single update event at each flush, with their indexes.
+	 */
+	@Test
+	public void testUpdates() {
+		List<ModifiedListEvent> events = new ArrayList<>();
+		List<ModifiedListEvent> rangeEvents = new ArrayList<>();
+		List<ModifiedListEvent> keyEvents = new ArrayList<>();
+		StringBuilder first = new StringBuilder("a");
+		StringBuilder second = new StringBuilder("b");
+		StringBuilder third = new StringBuilder("c");
+		list.addAll(Arrays.asList(first, second, third, "d", "e"));
+		list.register((source, event) -> events.add(event));
+		list.register(3, 5, (source, event) -> rangeEvents.add(event));
+		list.registerElement(second, (source, event) -> keyEvents.add(event));
+		assertFalse(list.flushUpdates());
+
+		third.append("1");
+		list.markDirty(third);
+		first.append("1");
+		list.markDirtyAt(0);
+		list.markDirty(third);
+		// an element removed before the flush is ignored
+		list.markDirty("d");
+		list.remove("d");
+		events.clear();
+		rangeEvents.clear();
+		assertTrue(list.flushUpdates());
+		assertEquals(1, events.size());
+		assertEquals(ActionType.UPDATE, events.get(0).type);
+		assertArrayEquals(new int[] { 0, 2 }, events.get(0).indices);
+		assertEquals(Arrays.asList(first, third), new ArrayList<>(events.get(0).elements));
+		assertEquals(0, events.get(0).index);
+		assertEquals(list.getSequence(), events.get(0).getSequence());
+		assertTrue(rangeEvents.isEmpty());
+		assertTrue(keyEvents.isEmpty());
+		assertFalse(list.flushUpdates());
+
+		// the dirty check is applied to every element at each flush
+		List<Object> checked = new ArrayList<>();
+		list.setDirtyCheck(element -> checked.add(element) && element == second);
+		list.markDirty("e");
+		assertTrue(list.flushUpdates());
+		assertEquals(list, checked);
+		assertArrayEquals(new int[] { 1, 3 }, events.get(1).indices);
+		assertEquals(1, rangeEvents.size());
+		assertEquals(1, keyEvents.size());
+		assertArrayEquals(new int[] { 1 }, keyEvents.get(0).indices);
+		assertEquals(Arrays.asList(second), new ArrayList<>(keyEvents.get(0).elements));
+		list.setDirtyCheck(null);
+		assertFalse(list.flushUpdates());
+	}
+
+	/**
+	 * Test that the indexes marked dirty follow the modifications of the list
+	 * performed before the flush.
+	 */
+	@Test
+	public void testUpdatesFollowModifications() {
+		list.addAll(Arrays.asList("a", "b", "c", "d", "e", "f"));
+		List<ModifiedListEvent> events = new ArrayList<>();
+		list.register((source, event) -> events.add(event));
+
+		list.markDirtyAt(1);
+		list.markDirtyAt(3);
+		list.markDirty("e");
+		list.markDirty("f");
+		list.add(0, "z");
+		list.set(6, "f2");
+		list.reorder(new int[] { 0, 1, 2, 4, 3, 5, 6 });
+		for (Iterator<Object> iter = list.iterator(); iter.hasNext();) {
+			if ("c".equals(iter.next())) {
+				iter.remove();
+			}
+		}
+		// b moved by the addition, d by the permutation, f replaced, c removed
+		assertEquals(Arrays.asList("z", "a", "b", "d", "e", "f2"), list);
+		events.clear();
+		assertTrue(list.flushUpdates());
+		assertEquals(1, events.size());
+		assertArrayEquals(new int[] { 2, 3, 4 }, events.get(0).indices);
+		assertEquals(Arrays.asList("b", "d", "e"), new ArrayList<>(events.get(0).elements));
+		assertFalse(list.flushUpdates());
+
+		list.markDirty("absent");
+		assertFalse(list.flushUpdates());
+	}
+
+	/**
+	 * Tool method waiting for a latch, the test failing if it is interrupted.
+	 */
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
 	@After
 	public void afterTest() {
 		list = null;
@@ -520,6 +1749,22 @@ public class ObservableListTest {
 		dummyListener2 = null;
 	}
 
+	/**
+	 * Listener counting the number of events it receives
+	 */
+	private static class CountingListener implements ListListener<ModifiedListEvent> {
+		private int numberEvents = 0;
+
+		@Override
+		public void update(List<?> list, ModifiedListEvent event) {
+			numberEvents++;
+		}
+
+		public int getNumberEvents() {
+			return numberEvents;
+		}
+	}
+
 	/**
 	 * Tool method that will check if the number of listeners for the
 	 * ObservableList is equal to the one given in parameter.
@@ -0,0 +1,133 @@
+package com.observable.list;
+
+import static com.observable.list.enums.ActionType.ADD;
+import static com.observable.list.enums.ActionType.REMOVE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class to unit test the ObservableSet class.
+ */
+public class ObservableSetTest {
+
+	private ObservableSet<String> set;
+	private TestListListener listener;
+	private final List<String> threeElemList = Arrays.asList("elem1", "elem2", "elem3");
+
+	/**
+	 * Method called before each test, it initializes the objects needed in the
+	 * tests
+	 */
+	@Before
+	public void beforeTestInit() {
+		set = new ObservableSet<>();
+		listener = new TestListListener("set");
+		set.register(listener);
+	}
+
+	/**
+	 * Test the add methods: the elements already present should be ignored.
+	 */
+	@Test
+	public void testAdd() {
+		assertTrue(set.add("elem1"));
+		assertEquals(ADD, listener.getLastEventReceived().type);
+		assertEquals(0, listener.getLastEventReceived().index);
+
+		assertFalse(set.add("elem1"));
+		assertEquals(1, set.getSequence());
+
+		assertTrue(set.addAll(threeElemList));
+		assertEquals(1, listener.getLastEventReceived().index);
+		assertEquals(Arrays.asList("elem2", "elem3"), new ArrayList<>(listener.getLastEventReceived().elements));
+		assertEquals(threeElemList, new ArrayList<>(set));
+
+		assertFalse(set.addAll(threeElemList));
+		assertEquals(2, set.getSequence());
+	}
+
+	/**
+	 * Test the remove methods: the elements not present should be ignored.
+	 */
+	@Test
+	public void testRemove() {
+		set.addAll(threeElemList);
+		assertTrue(set.remove("elem2"));
+		assertEquals(REMOVE, listener.getLastEventReceived().type);
+		assertEquals(Arrays.asList("elem2"), new ArrayList<>(listener.getLastEventReceived().elements));
+		assertFalse(set.remove("elem2"));
+
+		assertTrue(set.removeAll(Arrays.asList("elem1", "elem4")));
+		assertEquals(Arrays.asList("elem1"), new ArrayList<>(listener.getLastEventReceived().elements));
+
+		set.addAll(threeElemList);
+		assertTrue(set.retainAll(Arrays.asList("elem2")));
+		assertEquals(Arrays.asList("elem3", "elem1"), new ArrayList<>(listener.getLastEventReceived().elements));
+		assertEquals(Arrays.asList("elem2"), new ArrayList<>(set));
+
+		set.clear();
+		assertEquals(REMOVE, listener.getLastEventReceived().type);
+		assertEquals(0, listener.getLastEventReceived().index);
+		assertTrue(set.isEmpty());
+	}
+
+	/**
+	 * Test the removal of an element through the iterator of the set.
+	 */
+	@Test
+	public void testIteratorRemove() {
+		set.addAll(threeElemList);
+		Iterator<String> iter = set.iterator();
+		iter.next();
+		iter.next();
+		iter.remove();
+		assertEquals(REMOVE, listener.getLastEventReceived().type);
+		assertEquals(Arrays.asList("elem2"), new ArrayList<>(listener.getLastEventReceived().elements));
+		assertEquals(Arrays.asList("elem1", "elem3"), new ArrayList<>(set));
+	}
+
+	/**
+	 * Test the list view given to the listeners: it should follow the
+	 * insertion order and be read-only.
+	 */
+	@Test
+	public void testListView() {
+		List<List<?>> sources = new ArrayList<>();
+		set.register((source, event) -> sources.add(source));
+		set.addAll(threeElemList);
+
+		List<?> view = sources.get(0);
+		assertEquals(threeElemList, view);
+		assertEquals("elem3", view.get(2));
+		assertEquals(1, view.indexOf("elem2"));
+		assertTrue(view.contains("elem1"));
+		try {
+			view.remove(0);
+			fail();
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Test that the listeners are not notified once unregistered.
+	 */
+	@Test
+	public void testUnregister() {
+		set.unregister(listener);
+		set.add("elem1");
+		assertNull(listener.getLastEventReceived());
+		assertEquals(0, set.getNumberListeners());
+	}
+}
@@ -0,0 +1,246 @@
+package com.observable.list;
+
+import static com.observable.list.enums.ActionType.ADD;
+import static com.observable.list.enums.ActionType.REMOVE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.observable.list.intf.ElementCodec;
+
+/**
+ * Test class to unit test the PagedObservableList class.
+ */
+public class PagedObservableListTest {
+
+	private static final ElementCodec<String> STRING_CODEC = new ElementCodec<String>() {
+
+		@Override
+		public byte[] encode(String element) {
+			return element.getBytes(StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public String decode(byte[] bytes) {
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	};
+
+	private Path file;
+	private PagedObservableList<String> list;
+	private TestListListener listener;
+
+	/**
+	 * Method called before each test, it initializes the objects needed in the
+	 * tests
+	 */
+	@Before
+	public void beforeTestInit() throws IOException {
+		file = Files.createTempFile("paged", ".bin");
+		list = new PagedObservableList<>(file, STRING_CODEC, 4, 2);
+		listener = new TestListListener("paged");
+		list.register(listener);
+	}
+
+	@After
+	public void afterTest() throws IOException {
+		list.close();
+	}
+
+	/**
+	 * Test the add and remove methods and their notifications.
+	 */
+	@Test
+	public void testAddRemove() {
+		list.addAll(Arrays.asList("elem1", "elem2", "elem3"));
+		assertEquals(ADD, listener.getLastEventReceived().type);
+		assertEquals(0, listener.getLastEventReceived().index);
+		assertEquals(1, list.getSequence());
+
+		list.add(1, "elem4");
+		assertEquals(1, listener.getLastEventReceived().index);
+		assertEquals(Arrays.asList("elem1", "elem4", "elem2", "elem3"), list);
+
+		assertEquals("elem2", list.remove(2));
+		assertEquals(REMOVE, listener.getLastEventReceived().type);
+		assertEquals(2, listener.getLastEventReceived().index);
+
+		list.clear();
+		assertEquals(Arrays.asList("elem1", "elem4", "elem3"),
+				new ArrayList<>(listener.getLastEventReceived().elements));
+		assertTrue(list.isEmpty());
+	}
+
+	/**
+	 * Test that the pages evicted from the cache are read back from the file.
+	 */
+	@Test
+	public void testPagesReadBack() {
+		List<String> expected = new ArrayList<>();
+		for (int ind = 0; ind < 100; ind++) {
+			expected.add("elem" + ind);
+		}
+		list.addAll(expected);
+		list.set(5, "a much longer element that does not fit in place");
+		expected.set(5, "a much longer element that does not fit in place");
+		assertEquals(expected, list);
+		assertEquals(expected, list);
+		list.flush();
+		assertEquals(expected, list);
+		assertTrue(list.getWastedBytes() >= 0);
+	}
+
+	/**
+	 * Test random operations against an ArrayList.
+	 */
+	@Test
+	public void testRandomOperations() {
+		List<String> expected = new ArrayList<>();
+		Random random = new Random(42);
+		for (int ind = 0; ind < 2000; ind++) {
+			int operation = random.nextInt(6);
+			String element = "elem" + ind;
+			if (operation == 0 && !expected.isEmpty()) {
+				int index = random.nextInt(expected.size());
+				assertEquals(expected.remove(index), list.remove(index));
+			} else if (operation == 1 && !expected.isEmpty()) {
+				int from = random.nextInt(expected.size());
+				int to = from + random.nextInt(Math.min(10, expected.size() - from) + 1);
+				expected.subList(from, to).clear();
+				list.subList(from, to).clear();
+			} else if (operation == 2 && !expected.isEmpty()) {
+				int index = random.nextInt(expected.size());
+				assertEquals(expected.set(index, element + element), list.set(index, element + element));
+			} else if (operation == 3) {
+				int index = random.nextInt(expected.size() + 1);
+				expected.add(index, element);
+				list.add(index, element);
+			} else if (operation == 4) {
+				int index = random.nextInt(expected.size() + 1);
+				List<String> added = new ArrayList<>();
+				for (int elem = random.nextInt(10); elem > 0; elem--) {
+					added.add(element + "_" + elem);
+				}
+				expected.addAll(index, added);
+				list.addAll(index, added);
+			} else {
+				expected.add(element);
+				list.add(element);
+			}
+			assertEquals(expected.size(), list.size());
+			if (!expected.isEmpty()) {
+				int index = random.nextInt(expected.size());
+				assertEquals(expected.get(index), list.get(index));
+			}
+		}
+		assertEquals(expected, list);
+	}
+
+	/**
+	 * Test that the elements added in the middle of the list are inserted at
+	 * once, in full pages.
+	 */
+	@Test
+	public void testAddAllInMiddle() {
+		List<String> expected = new ArrayList<>();
+		for (int ind = 0; ind < 10; ind++) {
+			expected.add("elem" + ind);
+		}
+		list.addAll(expected);
+		List<String> added = new ArrayList<>();
+		for (int ind = 0; ind < 50; ind++) {
+			added.add("added" + ind);
+		}
+		long sequence = list.getSequence();
+		list.addAll(5, added);
+		expected.addAll(5, added);
+		assertEquals(sequence + 1, list.getSequence());
+		assertEquals(5, listener.getLastEventReceived().index);
+		assertEquals(expected, list);
+		assertEquals(15, list.getPageCount());
+	}
+
+	/**
+	 * Test that the pages emptied by the removals are merged with their
+	 * neighbours.
+	 */
+	@Test
+	public void testPagesMerged() {
+		List<String> expected = new ArrayList<>();
+		for (int ind = 0; ind < 100; ind++) {
+			expected.add("elem" + ind);
+		}
+		list.addAll(expected);
+		assertEquals(25, list.getPageCount());
+		for (int ind = expected.size() - 1; ind >= 0; ind--) {
+			if (ind % 4 != 0) {
+				expected.remove(ind);
+				list.remove(ind);
+			}
+		}
+		assertEquals(expected, list);
+		// two adjacent pages never fit in a single one
+		assertTrue(list.getPageCount() <= 2 * expected.size() / 4 + 1);
+	}
+
+	/**
+	 * Test that the space left behind by the pages moved in the file is
+	 * reclaimed once it exceeds the space used.
+	 */
+	@Test
+	public void testWastedBytesReclaimed() {
+		List<String> expected = new ArrayList<>();
+		for (int ind = 0; ind < 100; ind++) {
+			expected.add("elem" + ind);
+		}
+		list.addAll(expected);
+		String suffix = "";
+		for (int round = 0; round < 50; round++) {
+			suffix += "x";
+			for (int ind = 0; ind < expected.size(); ind++) {
+				expected.set(ind, "elem" + ind + suffix);
+				list.set(ind, "elem" + ind + suffix);
+			}
+			list.flush();
+			long usedBytes = 0;
+			for (String element : expected) {
+				usedBytes += Integer.BYTES + element.length();
+			}
+			usedBytes += Integer.BYTES * list.getPageCount();
+			// the pages keep half of their size to grow in place
+			assertTrue(list.getWastedBytes() <= 2 * usedBytes);
+		}
+		assertEquals(expected, list);
+	}
+
+	/**
+	 * Test that the file is deleted when the list is closed.
+	 */
+	@Test
+	public void testClose() throws IOException {
+		list.add("elem1");
+		list.close();
+		assertFalse(Files.exists(file));
+	}
+
+	/**
+	 * Test the creation of a list with an invalid page size.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidPageSize() throws IOException {
+		new PagedObservableList<>(file, STRING_CODEC, 0, 2);
+	}
+}
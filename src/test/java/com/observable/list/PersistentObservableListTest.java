@@ -0,0 +1,158 @@
+package com.observable.list;
+
+import static com.observable.list.enums.ActionType.ADD;
+import static com.observable.list.enums.ActionType.PERMUTATION;
+import static com.observable.list.enums.ActionType.REMOVE;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class to unit test the PersistentObservableList class.
+ */
+public class PersistentObservableListTest {
+
+	private PersistentObservableList<String> list;
+	private TestListListener listener;
+	private final List<String> threeElemList = Arrays.asList("elem1", "elem2", "elem3");
+
+	/**
+	 * Method called before each test, it initializes the objects needed in the
+	 * tests
+	 */
+	@Before
+	public void beforeTestInit() {
+		list = new PersistentObservableList<>();
+		listener = new TestListListener("persistent");
+		list.register(listener);
+	}
+
+	/**
+	 * Test that the listeners receive the immutable version of the list
+	 * produced by each modification.
+	 */
+	@Test
+	public void testListenersReceiveVersions() {
+		List<List<?>> versions = new ArrayList<>();
+		list.register((source, event) -> versions.add(source));
+
+		list.addAll(threeElemList);
+		list.add("elem4");
+		list.remove(0);
+
+		assertEquals(3, versions.size());
+		assertEquals(threeElemList, versions.get(0));
+		assertEquals(Arrays.asList("elem1", "elem2", "elem3", "elem4"), versions.get(1));
+		assertEquals(Arrays.asList("elem2", "elem3", "elem4"), versions.get(2));
+		assertSame(list.getVersion(), versions.get(2));
+		assertTrue(versions.get(2) instanceof PersistentVector);
+	}
+
+	/**
+	 * Test the add and remove methods and their notifications.
+	 */
+	@Test
+	public void testAddRemove() {
+		list.addAll(threeElemList);
+		assertEquals(ADD, listener.getLastEventReceived().type);
+		assertEquals(threeElemList, new ArrayList<>(listener.getLastEventReceived().elements));
+
+		list.add(1, "elem4");
+		assertEquals(Arrays.asList("elem1", "elem4", "elem2", "elem3"), list);
+
+		list.remove("elem2");
+		assertEquals(REMOVE, listener.getLastEventReceived().type);
+		assertEquals(Arrays.asList("elem2"), new ArrayList<>(listener.getLastEventReceived().elements));
+
+		list.clear();
+		assertEquals(REMOVE, listener.getLastEventReceived().type);
+		assertEquals(Arrays.asList("elem1", "elem4", "elem3"),
+				new ArrayList<>(listener.getLastEventReceived().elements));
+		assertTrue(list.isEmpty());
+	}
+
+	/**
+	 * Test the removeIf method: a remove event should be sent for each run of
+	 * contiguous elements removed, at its index once the previous runs have
+	 * been removed.
+	 */
+	@Test
+	public void testRemoveIf() {
+		list.addAll(Arrays.asList("elem1", "elem2", "elem3", "elem4", "elem5"));
+		List<ModifiedListEvent> events = new ArrayList<>();
+		list.register((source, event) -> events.add(event));
+
+		list.removeIf(elem -> !elem.equals("elem2") && !elem.equals("elem5"));
+		assertEquals(Arrays.asList("elem2", "elem5"), list);
+		assertEquals(2, events.size());
+		assertEquals(REMOVE, events.get(0).type);
+		assertEquals(0, events.get(0).index);
+		assertEquals(Arrays.asList("elem1"), new ArrayList<>(events.get(0).elements));
+		assertEquals(1, events.get(1).index);
+		assertEquals(Arrays.asList("elem3", "elem4"), new ArrayList<>(events.get(1).elements));
+	}
+
+	/**
+	 * Test the replaceAll method: a remove event and an add event should be
+	 * sent for each run of contiguous elements replaced, at the index of the
+	 * run.
+	 */
+	@Test
+	public void testReplaceAll() {
+		list.addAll(Arrays.asList("elem1", "elem2", "elem3", "elem4"));
+		List<ModifiedListEvent> events = new ArrayList<>();
+		list.register((source, event) -> events.add(event));
+
+		list.replaceAll(elem -> elem.equals("elem2") ? elem : elem + "New");
+		assertEquals(Arrays.asList("elem1New", "elem2", "elem3New", "elem4New"), list);
+		assertEquals(4, events.size());
+		assertEquals(REMOVE, events.get(0).type);
+		assertEquals(0, events.get(0).index);
+		assertEquals(ADD, events.get(1).type);
+		assertEquals(Arrays.asList("elem1New"), new ArrayList<>(events.get(1).elements));
+		assertEquals(REMOVE, events.get(2).type);
+		assertEquals(2, events.get(2).index);
+		assertEquals(Arrays.asList("elem3", "elem4"), new ArrayList<>(events.get(2).elements));
+		assertEquals(ADD, events.get(3).type);
+		assertEquals(2, events.get(3).index);
+		assertEquals(Arrays.asList("elem3New", "elem4New"), new ArrayList<>(events.get(3).elements));
+	}
+
+	/**
+	 * Test the sort method: a permutation event should be sent.
+	 */
+	@Test
+	public void testSort() {
+		list.addAll(Arrays.asList("elem2", "elem3", "elem1"));
+		list.sort(null);
+
+		assertEquals(threeElemList, list);
+		assertEquals(PERMUTATION, listener.getLastEventReceived().type);
+		assertArrayEquals(new int[] { 1, 2, 0 }, listener.getLastEventReceived().permutation);
+	}
+
+	/**
+	 * Test the snapshot method: no copy should be performed and the snapshot
+	 * should not change with the list.
+	 */
+	@Test
+	public void testSnapshot() {
+		list.addAll(threeElemList);
+		ListSnapshot<String> snapshot = list.snapshot();
+		assertSame(list.getVersion(), snapshot.elements);
+		assertEquals(1, snapshot.sequence);
+
+		list.set(0, "elem0");
+		assertEquals(threeElemList, snapshot.elements);
+		assertNotSame(list.getVersion(), snapshot.elements);
+	}
+}
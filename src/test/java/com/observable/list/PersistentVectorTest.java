@@ -0,0 +1,117 @@
+package com.observable.list;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Test class to unit test the PersistentVector class. The vectors are compared
+ * to ArrayLists on which the same modifications are performed.
+ */
+public class PersistentVectorTest {
+
+	/**
+	 * Number of elements used in the tests, large enough to have three levels
+	 * in the trie
+	 */
+	private static final int NUMBER_ELEMENTS = 40000;
+
+	/**
+	 * Test the plus and get methods, on a vector large enough to have several
+	 * levels.
+	 */
+	@Test
+	public void testPlus() {
+		PersistentVector<Integer> vector = PersistentVector.empty();
+		for (int iter = 0; iter < NUMBER_ELEMENTS; iter++) {
+			vector = vector.plus(iter);
+		}
+		assertEquals(NUMBER_ELEMENTS, vector.size());
+		for (int iter = 0; iter < NUMBER_ELEMENTS; iter++) {
+			assertEquals(Integer.valueOf(iter), vector.get(iter));
+		}
+	}
+
+	/**
+	 * Test that a modification doesn't change the original vector.
+	 */
+	@Test
+	public void testPersistence() {
+		PersistentVector<Integer> original = PersistentVector.of(range(0, NUMBER_ELEMENTS));
+		PersistentVector<Integer> modified = original.with(100, -1).plus(-2).removeAt(0).insert(5000, -3);
+
+		assertEquals(range(0, NUMBER_ELEMENTS), original);
+		List<Integer> expected = range(0, NUMBER_ELEMENTS);
+		expected.set(100, -1);
+		expected.add(-2);
+		expected.remove(0);
+		expected.add(5000, -3);
+		assertEquals(expected, modified);
+	}
+
+	/**
+	 * Test the take method, on the tail and on the trie.
+	 */
+	@Test
+	public void testTake() {
+		PersistentVector<Integer> vector = PersistentVector.of(range(0, NUMBER_ELEMENTS));
+		assertSame(vector, vector.take(NUMBER_ELEMENTS));
+		assertEquals(range(0, NUMBER_ELEMENTS - 3), vector.take(NUMBER_ELEMENTS - 3));
+		assertEquals(range(0, 1057), vector.take(1057));
+		assertEquals(range(0, 31), vector.take(31));
+		assertTrue(vector.take(0).isEmpty());
+
+		// the vector should grow normally after being shortened
+		PersistentVector<Integer> shortened = vector.take(1025).plusAll(range(1025, NUMBER_ELEMENTS));
+		assertEquals(range(0, NUMBER_ELEMENTS), shortened);
+	}
+
+	/**
+	 * Test the removal and insertion of elements in the middle of the vector.
+	 */
+	@Test
+	public void testInsertRemove() {
+		PersistentVector<Integer> vector = PersistentVector.of(range(0, 100));
+		List<Integer> expected = range(0, 100);
+
+		vector = vector.insertAll(40, Arrays.asList(-1, -2, -3));
+		expected.addAll(40, Arrays.asList(-1, -2, -3));
+		assertEquals(expected, vector);
+
+		vector = vector.withoutRange(10, 70);
+		expected.subList(10, 70).clear();
+		assertEquals(expected, vector);
+	}
+
+	/**
+	 * Test that the vector can't be modified through the List interface.
+	 */
+	@Test(expected = UnsupportedOperationException.class)
+	public void testUnmodifiable() {
+		PersistentVector.of(Collections.singletonList(1)).add(2);
+	}
+
+	/**
+	 * Tool method to create a list of consecutive integers
+	 * 
+	 * @param from
+	 *            first integer of the list
+	 * @param to
+	 *            end of the list (exclusive)
+	 * @return the list of integers
+	 */
+	private static List<Integer> range(int from, int to) {
+		List<Integer> result = new ArrayList<>();
+		for (int iter = from; iter < to; iter++) {
+			result.add(iter);
+		}
+		return result;
+	}
+}
@@ -0,0 +1,205 @@
+package com.observable.list;
+
+import static com.observable.list.enums.ActionType.ADD;
+import static com.observable.list.enums.ActionType.REMOVE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.observable.list.enums.OverflowPolicy;
+import com.observable.list.intf.ElementCodec;
+import com.observable.list.intf.ListListener;
+
+/**
+ * Test class to unit test the QueuedListListener class.
+ */
+public class QueuedListListenerTest {
+
+	private static final ElementCodec<String> STRING_CODEC = new ElementCodec<String>() {
+
+		@Override
+		public byte[] encode(String element) {
+			return element.getBytes(StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public String decode(byte[] bytes) {
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	};
+
+	private ObservableList<String> list;
+	private CountDownLatch release;
+	private List<ModifiedListEvent> received;
+	private ListListener<ModifiedListEvent> slowListener;
+	private List<QueuedListListener<String>> queuedListeners;
+
+	/**
+	 * Method called before each test, it initializes the objects needed in the
+	 * tests
+	 */
+	@Before
+	public void beforeTestInit() {
+		list = new ObservableList<>();
+		release = new CountDownLatch(1);
+		received = Collections.synchronizedList(new ArrayList<>());
+		slowListener = (source, event) -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+			received.add(event);
+		};
+		queuedListeners = new ArrayList<>();
+	}
+
+	@After
+	public void afterTest() throws IOException {
+		release.countDown();
+		for (QueuedListListener<String> listener : queuedListeners) {
+			listener.close();
+		}
+	}
+
+	@Test
+	public void testDeliveryInOrder() throws InterruptedException {
+		QueuedListListener<String> listener = register(
+				new QueuedListListener<>(slowListener, 1 << 20, STRING_CODEC));
+		list.add("a");
+		list.addAll(Arrays.asList("b", "c"));
+		list.remove("b");
+		assertEquals(3, listener.getPendingCount());
+		assertTrue(listener.getPendingBytes() > 0);
+		release.countDown();
+		assertTrue(listener.awaitEmpty(5, TimeUnit.SECONDS));
+		assertEquals(3, received.size());
+		assertEquals(ADD, received.get(1).type);
+		assertEquals(Arrays.asList("b", "c"), new ArrayList<>(received.get(1).elements));
+		assertEquals(REMOVE, received.get(2).type);
+		assertEquals(0, listener.getPendingBytes());
+		assertEquals(0, listener.getSpilledCount());
+	}
+
+	@Test
+	public void testSpillToDisk() throws InterruptedException {
+		QueuedListListener<String> listener = register(new QueuedListListener<>(slowListener, 1000, STRING_CODEC));
+		for (int ind = 0; ind < 50; ind++) {
+			list.add("element" + ind);
+			if (ind % 10 == 0) {
+				list.addAll(Collections.nCopies(100, "burst" + ind));
+			}
+		}
+		list.clear();
+		assertTrue(listener.getSpilledCount() > 0);
+		assertTrue(listener.getPendingBytes() <= 1000);
+		release.countDown();
+		assertTrue(listener.awaitEmpty(5, TimeUnit.SECONDS));
+
+		assertEquals(list.getSequence(), received.size());
+		for (int ind = 0; ind < received.size(); ind++) {
+			assertEquals(ind + 1, received.get(ind).getSequence());
+		}
+		ModifiedListEvent burst = received.get(received.size() - 11);
+		assertEquals(ADD, burst.type);
+		assertEquals(441, burst.index);
+		assertEquals(Collections.nCopies(100, "burst40"), new ArrayList<>(burst.elements));
+		ModifiedListEvent clear = received.get(received.size() - 1);
+		assertEquals(REMOVE, clear.type);
+		assertEquals(550, clear.elements.size());
+		assertEquals(0, clear.index);
+
+		// the spill file has been read back, the next events stay in memory
+		long spilled = listener.getSpilledCount();
+		list.add("after");
+		assertTrue(listener.awaitEmpty(5, TimeUnit.SECONDS));
+		assertEquals(spilled, listener.getSpilledCount());
+	}
+
+	@Test
+	public void testSharedBudget() throws InterruptedException {
+		MemoryBudget budget = new MemoryBudget(2000);
+		QueuedListListener<String> first = register(new QueuedListListener<>(slowListener, 1 << 20, budget,
+				OverflowPolicy.SPILL_TO_DISK, STRING_CODEC, element -> 100));
+		QueuedListListener<String> second = register(new QueuedListListener<>(slowListener, 1 << 20, budget,
+				OverflowPolicy.SPILL_TO_DISK, STRING_CODEC, element -> 100));
+		for (int ind = 0; ind < 20; ind++) {
+			list.add("element" + ind);
+		}
+		assertTrue(budget.getUsed() <= 2000);
+		assertTrue(first.getSpilledCount() + second.getSpilledCount() > 0);
+		release.countDown();
+		assertTrue(first.awaitEmpty(5, TimeUnit.SECONDS));
+		assertTrue(second.awaitEmpty(5, TimeUnit.SECONDS));
+		assertEquals(40, received.size());
+		assertEquals(0, budget.getUsed());
+	}
+
+	@Test
+	public void testBlock() throws InterruptedException {
+		QueuedListListener<String> listener = register(new QueuedListListener<>(slowListener, 200, null,
+				OverflowPolicy.BLOCK, null, element -> 50));
+		Thread writer = new Thread(() -> {
+			for (int ind = 0; ind < 5; ind++) {
+				list.add("element" + ind);
+			}
+		});
+		writer.start();
+		writer.join(200);
+		assertTrue(writer.isAlive());
+		assertTrue(listener.getPendingBytes() <= 200);
+		release.countDown();
+		writer.join(5000);
+		assertTrue(listener.awaitEmpty(5, TimeUnit.SECONDS));
+		assertEquals(5, received.size());
+		assertEquals(0, listener.getSpilledCount());
+	}
+
+	@Test
+	public void testFailuresCounted() throws InterruptedException {
+		QueuedListListener<String> listener = register(new QueuedListListener<>((source, event) -> {
+			throw new IllegalStateException("failure");
+		}, 1000, STRING_CODEC));
+		list.add("a");
+		list.add("b");
+		assertTrue(listener.awaitEmpty(5, TimeUnit.SECONDS));
+		assertEquals(2, listener.getFailureCount());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testClosed() throws IOException {
+		QueuedListListener<String> listener = new QueuedListListener<>(slowListener, 1000, STRING_CODEC);
+		release.countDown();
+		listener.close();
+		listener.update(list, new ModifiedListEvent(ADD, "a"));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testSpillWithoutCodec() {
+		new QueuedListListener<String>(slowListener, 1000, null, OverflowPolicy.SPILL_TO_DISK, null,
+				element -> 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidLimit() {
+		new MemoryBudget(0);
+	}
+
+	private QueuedListListener<String> register(QueuedListListener<String> listener) {
+		queuedListeners.add(listener);
+		list.register(listener);
+		return listener;
+	}
+}
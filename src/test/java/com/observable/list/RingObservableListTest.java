@@ -0,0 +1,129 @@
+package com.observable.list;
+
+import static com.observable.list.enums.ActionType.ADD;
+import static com.observable.list.enums.ActionType.REMOVE;
+import static com.observable.list.enums.ActionType.ROLL;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class to unit test the RingObservableList class.
+ */
+public class RingObservableListTest {
+
+	private RingObservableList<String> list;
+	private TestListListener listener;
+
+	/**
+	 * Method called before each test, it initializes the objects needed in the
+	 * tests
+	 */
+	@Before
+	public void beforeTestInit() {
+		list = new RingObservableList<>(3);
+		listener = new TestListListener("ring");
+		list.register(listener);
+	}
+
+	/**
+	 * Test the add method: once the list is full, the oldest element should
+	 * be evicted with a single roll event.
+	 */
+	@Test
+	public void testAddEvicts() {
+		list.add("elem1");
+		list.add("elem2");
+		list.add("elem3");
+		assertEquals(ADD, listener.getLastEventReceived().type);
+		assertEquals(2, listener.getLastEventReceived().index);
+
+		list.add("elem4");
+		ModifiedListEvent event = listener.getLastEventReceived();
+		assertEquals(ROLL, event.type);
+		assertEquals(2, event.index);
+		assertEquals(Arrays.asList("elem4"), new ArrayList<>(event.elements));
+		assertEquals(Arrays.asList("elem1"), new ArrayList<>(event.evicted));
+		assertEquals(Arrays.asList("elem2", "elem3", "elem4"), list);
+		assertEquals(4, list.getSequence());
+	}
+
+	/**
+	 * Test the addAll method with more elements than the capacity: only the
+	 * last elements should be kept and notified.
+	 */
+	@Test
+	public void testAddAllEvicts() {
+		list.addAll(Arrays.asList("elem1", "elem2"));
+		list.addAll(Arrays.asList("elem3", "elem4", "elem5", "elem6"));
+		ModifiedListEvent event = listener.getLastEventReceived();
+		assertEquals(ROLL, event.type);
+		assertEquals(0, event.index);
+		assertEquals(Arrays.asList("elem4", "elem5", "elem6"), new ArrayList<>(event.elements));
+		assertEquals(Arrays.asList("elem1", "elem2"), new ArrayList<>(event.evicted));
+		assertEquals(Arrays.asList("elem4", "elem5", "elem6"), list);
+	}
+
+	/**
+	 * Test the removal of elements at the beginning and in the middle of a
+	 * list that has wrapped around its buffer.
+	 */
+	@Test
+	public void testRemove() {
+		list.addAll(Arrays.asList("elem1", "elem2", "elem3", "elem4"));
+		assertEquals("elem2", list.remove(0));
+		assertEquals(REMOVE, listener.getLastEventReceived().type);
+		assertEquals(0, listener.getLastEventReceived().index);
+
+		list.add("elem5");
+		assertEquals("elem4", list.remove(1));
+		assertEquals(1, listener.getLastEventReceived().index);
+		assertEquals(Arrays.asList("elem3", "elem5"), list);
+
+		list.clear();
+		assertEquals(Arrays.asList("elem3", "elem5"), new ArrayList<>(listener.getLastEventReceived().elements));
+		assertEquals(0, list.size());
+	}
+
+	/**
+	 * Test random operations against a list holding the last elements added.
+	 */
+	@Test
+	public void testRandomOperations() {
+		RingObservableList<Integer> ring = new RingObservableList<>(5);
+		List<Integer> expected = new ArrayList<>();
+		Random random = new Random(42);
+		for (int ind = 0; ind < 1000; ind++) {
+			int operation = random.nextInt(4);
+			if (operation == 0 && !expected.isEmpty()) {
+				int index = random.nextInt(expected.size());
+				assertEquals(expected.remove(index), ring.remove(index));
+			} else if (operation == 1) {
+				List<Integer> added = Arrays.asList(ind, ind + 1, ind + 2);
+				expected.addAll(added);
+				ring.addAll(added);
+			} else {
+				expected.add(ind);
+				ring.add(ind);
+			}
+			while (expected.size() > 5) {
+				expected.remove(0);
+			}
+			assertEquals(expected, ring);
+		}
+	}
+
+	/**
+	 * Test the creation of a list with an invalid capacity.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidCapacity() {
+		new RingObservableList<String>(0);
+	}
+}
@@ -0,0 +1,144 @@
+package com.observable.list;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import com.observable.list.intf.Subscription;
+
+/**
+ * Test class to unit test the ShardedObservableList class.
+ */
+public class ShardedObservableListTest {
+
+	/**
+	 * Test concurrent appends: every element should be added, and the global
+	 * sequence numbers should be unique and increasing within each shard.
+	 */
+	@Test
+	public void testConcurrentAppends() throws InterruptedException {
+		ShardedObservableList<Integer> list = new ShardedObservableList<>(4, true);
+		Set<Long> globalSequences = ConcurrentHashMap.newKeySet();
+		ConcurrentHashMap<List<?>, Long> lastSequences = new ConcurrentHashMap<>();
+		AtomicBoolean ordered = new AtomicBoolean(true);
+		list.register((shard, event) -> {
+			globalSequences.add(event.getGlobalSequence());
+			Long previous = lastSequences.put(shard, event.getGlobalSequence());
+			if (previous != null && previous > event.getGlobalSequence()) {
+				ordered.set(false);
+			}
+		});
+
+		List<Thread> threads = new ArrayList<>();
+		for (int thread = 0; thread < 4; thread++) {
+			int first = thread * 10000;
+			threads.add(new Thread(() -> {
+				for (int ind = first; ind < first + 10000; ind++) {
+					list.add(ind);
+				}
+			}));
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(40000, list.size());
+		assertEquals(40000, new HashSet<>(list.snapshot()).size());
+		assertEquals(40000, globalSequences.size());
+		assertEquals(40000, list.getGlobalSequence());
+		assertTrue(ordered.get());
+	}
+
+	/**
+	 * Test that the threads are given the shards in turn: as many threads as
+	 * shards should each fill their own shard, whatever their identifiers.
+	 */
+	@Test
+	public void testShardsGivenInTurn() throws InterruptedException {
+		ShardedObservableList<Integer> list = new ShardedObservableList<>(4, false);
+		for (int thread = 0; thread < 4; thread++) {
+			int first = thread * 10;
+			Thread adder = new Thread(() -> {
+				for (int ind = first; ind < first + 10; ind++) {
+					list.add(ind);
+				}
+			});
+			adder.start();
+			adder.join();
+		}
+
+		for (int shard = 0; shard < 4; shard++) {
+			assertEquals(10, list.getShard(shard).size());
+			assertEquals(Integer.valueOf(shard * 10), list.getShard(shard).get(0));
+		}
+	}
+
+	/**
+	 * Test the global sequence of the events of an iterator notified with the
+	 * next event of its shard: they should be stamped before this event, in
+	 * the order of dispatch.
+	 */
+	@Test
+	public void testGlobalSequenceOfIteratorEvents() {
+		ShardedObservableList<String> list = new ShardedObservableList<>(1, true);
+		list.addAll(Arrays.asList("elem1", "elem2"));
+		List<Long> globalSequences = new ArrayList<>();
+		list.register((shard, event) -> globalSequences.add(event.getGlobalSequence()));
+
+		ObservableList<String> shard = list.getShard(0);
+		synchronized (shard) {
+			Iterator<String> iterator = shard.iterator();
+			iterator.next();
+			iterator.remove();
+			shard.notifyAllListeners(new ModifiedListEvent(new int[] { 0 }, Arrays.asList("elem2")));
+		}
+		assertEquals(Arrays.asList(2L, 3L), globalSequences);
+	}
+
+	/**
+	 * Test the removal of elements across the shards and the subscription to
+	 * every shard.
+	 */
+	@Test
+	public void testRemoveAndSubscription() {
+		ShardedObservableList<String> list = new ShardedObservableList<>(2, false);
+		list.addAll(Arrays.asList("elem1", "elem2", "elem3"));
+		List<ModifiedListEvent> events = new ArrayList<>();
+		Subscription subscription = list.subscribe((shard, event) -> events.add(event));
+
+		assertTrue(list.remove("elem2"));
+		assertFalse(list.contains("elem2"));
+		assertTrue(list.retainAll(Arrays.asList("elem3")));
+		assertEquals(Arrays.asList("elem3"), list.snapshot());
+		assertEquals(2, events.size());
+		assertEquals(0, events.get(0).getGlobalSequence());
+
+		subscription.close();
+		assertFalse(subscription.isActive());
+		list.clear();
+		assertEquals(2, events.size());
+		assertTrue(list.isEmpty());
+	}
+
+	/**
+	 * Test the creation of a collection without shard.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidShardCount() {
+		new ShardedObservableList<String>(0, false);
+	}
+}
@@ -0,0 +1,172 @@
+package com.observable.list;
+
+import static com.observable.list.enums.ActionType.ADD;
+import static com.observable.list.enums.ActionType.REMOVE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class to unit test the SortedObservableList class.
+ */
+public class SortedObservableListTest {
+
+	private SortedObservableList<Integer> list;
+	private List<ModifiedListEvent> events;
+
+	/**
+	 * Method called before each test, it initializes the objects needed in the
+	 * tests
+	 */
+	@Before
+	public void beforeTestInit() {
+		list = new SortedObservableList<>();
+		events = new ArrayList<>();
+		list.register((source, event) -> events.add(event));
+	}
+
+	@Test
+	public void testAddKeepsOrder() {
+		list.add(5);
+		list.add(1);
+		list.add(3);
+		list.add(3);
+		assertEquals(Arrays.asList(1, 3, 3, 5), list);
+		assertEquals(ADD, events.get(2).type);
+		assertEquals(1, events.get(2).index);
+		// an element equal to others goes after them
+		assertEquals(2, events.get(3).index);
+	}
+
+	@Test
+	public void testAddAllGroupsEvents() {
+		list.addAll(Arrays.asList(10, 20, 30));
+		events.clear();
+		list.addAll(Arrays.asList(25, 5, 21, 35, 22));
+		assertEquals(Arrays.asList(5, 10, 20, 21, 22, 25, 30, 35), list);
+		assertEquals(3, events.size());
+		assertEquals(0, events.get(0).index);
+		assertEquals(Arrays.asList(21, 22, 25), new ArrayList<>(events.get(1).elements));
+		assertEquals(3, events.get(1).index);
+		assertEquals(7, events.get(2).index);
+	}
+
+	@Test
+	public void testLookups() {
+		list.addAll(Arrays.asList(4, 8, 8, 15, 16, 23, 42));
+		assertTrue(list.contains(15));
+		assertFalse(list.contains(14));
+		assertFalse(list.contains("15"));
+		assertFalse(list.contains(null));
+		assertEquals(1, list.indexOf(8));
+		assertEquals(2, list.lastIndexOf(8));
+		assertEquals(-1, list.indexOf(100));
+		assertEquals(Arrays.asList(4, 8, 8), list.headList(15));
+		assertEquals(Arrays.asList(16, 23, 42), list.tailList(16));
+		assertEquals(Arrays.asList(8, 8, 15), list.subRange(5, 16));
+		assertEquals(Collections.emptyList(), list.subRange(9, 9));
+	}
+
+	@Test
+	public void testRemove() {
+		list.addAll(Arrays.asList(1, 2, 3, 4, 5));
+		events.clear();
+		assertTrue(list.remove(Integer.valueOf(3)));
+		assertFalse(list.remove(Integer.valueOf(3)));
+		assertEquals(REMOVE, events.get(0).type);
+		assertEquals(2, events.get(0).index);
+		list.tailList(4).clear();
+		assertEquals(Arrays.asList(1, 2), list);
+		assertEquals(2, events.get(1).index);
+		assertEquals(Arrays.asList(4, 5), new ArrayList<>(events.get(1).elements));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testAddAtIndex() {
+		list.add(0, 1);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testSet() {
+		list.add(1);
+		list.set(0, 2);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidRange() {
+		list.subRange(5, 1);
+	}
+
+	@Test
+	public void testComparator() {
+		SortedObservableList<String> byLength = new SortedObservableList<>(Comparator.comparingInt(String::length));
+		byLength.addAll(Arrays.asList("ccc", "a", "bb", "dd"));
+		assertEquals(Arrays.asList("a", "bb", "dd", "ccc"), byLength);
+		assertEquals(2, byLength.indexOf("dd"));
+		assertEquals(-1, byLength.indexOf("ee"));
+	}
+
+	/**
+	 * Test random operations on a large list, spanning many chunks: the list
+	 * should stay sorted and the events applied to a copy should give the
+	 * same list.
+	 */
+	@Test
+	public void testRandomOperations() {
+		Random random = new Random(45);
+		List<Integer> model = new ArrayList<>();
+		List<Object> copy = new ArrayList<>();
+		list.register((source, event) -> {
+			if (event.type == ADD) {
+				copy.addAll(event.index, event.elements);
+			} else {
+				copy.subList(event.index, event.index + event.elements.size()).clear();
+			}
+		});
+		for (int ind = 0; ind < 20000; ind++) {
+			int operation = random.nextInt(10);
+			if (operation < 5 || model.isEmpty()) {
+				int value = random.nextInt(5000);
+				list.add(value);
+				model.add(value);
+			} else if (operation < 6) {
+				List<Integer> values = new ArrayList<>();
+				for (int count = random.nextInt(50); count > 0; count--) {
+					values.add(random.nextInt(5000));
+				}
+				list.addAll(values);
+				model.addAll(values);
+			} else if (operation < 9) {
+				int index = random.nextInt(model.size());
+				Collections.sort(model);
+				assertEquals(model.remove(index), list.remove(index));
+			} else {
+				Integer value = random.nextInt(5000);
+				assertEquals(model.remove(value), list.remove(value));
+			}
+			if (ind % 1000 == 0) {
+				Collections.sort(model);
+				assertEquals(model, list);
+				int value = random.nextInt(5000);
+				assertEquals(model.indexOf(value), list.indexOf(value));
+				assertEquals(model.lastIndexOf(value), list.lastIndexOf(value));
+			}
+		}
+		Collections.sort(model);
+		assertEquals(model, list);
+		assertEquals(model, copy);
+		int size = list.size();
+		list.subList(size / 4, size / 2).clear();
+		assertEquals(list, copy);
+	}
+}
@@ -0,0 +1,119 @@
+package com.observable.list;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.observable.list.enums.ActionType;
+
+/**
+ * Test class to unit test the TraceRecorder and TraceReplayer classes.
+ */
+public class TraceReplayerTest {
+
+	private ObservableList<String> list;
+	private ByteArrayOutputStream trace;
+	private TraceRecorder recorder;
+	private List<ModifiedListEvent> recorded;
+
+	/**
+	 * Method called before each test, it initializes the objects needed in the
+	 * tests
+	 */
+	@Before
+	public void beforeTestInit() throws IOException {
+		list = new ObservableList<>();
+		list.addAll(Arrays.asList("initial1", "initial2"));
+		trace = new ByteArrayOutputStream();
+		recorder = new TraceRecorder(trace, element -> ((String) element).length());
+		list.register(recorder);
+		recorded = new ArrayList<>();
+		list.register((source, event) -> recorded.add(event));
+	}
+
+	@Test
+	public void testRecordAndReplay() throws IOException {
+		list.add("a");
+		list.addAll(1, Arrays.asList("bb", "ccc", "dddd"));
+		list.remove(0);
+		list.set(2, "eeeee");
+		list.sort(null);
+		list.removeIf(element -> element.length() > 7);
+		list.subList(0, 2).clear();
+		list.unregister(recorder);
+		recorder.close();
+		assertEquals(recorded.size(), recorder.getRecordCount());
+
+		ObservableList<String> target = new ObservableList<>();
+		List<ModifiedListEvent> replayed = new ArrayList<>();
+		target.register((source, event) -> replayed.add(event));
+		TraceReplayer<String> replayer = new TraceReplayer<>(size -> String.join("", Collections.nCopies(size, "x")),
+				false);
+		ReplayReport report = replayer.replay(new ByteArrayInputStream(trace.toByteArray()), target);
+
+		assertEquals(recorded.size(), report.getOperationCount());
+		assertEquals(4, report.getOperationCount(ActionType.REMOVE));
+		assertEquals(list.size(), target.size());
+		// the initial filling is not part of the replay
+		assertEquals(recorded.size() + 1, replayed.size());
+		for (int ind = 0; ind < recorded.size(); ind++) {
+			assertEquals(recorded.get(ind).type, replayed.get(ind + 1).type);
+			assertEquals(recorded.get(ind).index, replayed.get(ind + 1).index);
+		}
+		assertTrue(report.getLatencyPercentile(50) <= report.getLatencyPercentile(99));
+		assertTrue(report.getLatencyPercentile(99) <= report.getMaxLatency());
+		assertTrue(report.getThroughput() > 0);
+	}
+
+	@Test
+	public void testReplayRollsOnAnotherList() throws IOException {
+		RingObservableList<String> ring = new RingObservableList<>(3);
+		TraceRecorder ringRecorder = new TraceRecorder(trace, element -> 1);
+		ring.register(ringRecorder);
+		for (int ind = 0; ind < 10; ind++) {
+			ring.add("element" + ind);
+		}
+		ringRecorder.close();
+
+		ObservableList<String> target = new ObservableList<>();
+		ReplayReport report = new TraceReplayer<String>(size -> "x", false)
+				.replay(new ByteArrayInputStream(trace.toByteArray()), target);
+		assertEquals(10, report.getOperationCount());
+		assertEquals(7, report.getOperationCount(ActionType.ROLL));
+		assertEquals(3, target.size());
+	}
+
+	@Test
+	public void testHonorTiming() throws IOException, InterruptedException {
+		list.add("a");
+		Thread.sleep(20);
+		list.add("b");
+		recorder.close();
+		ReplayReport report = new TraceReplayer<String>(size -> "x", true)
+				.replay(new ByteArrayInputStream(trace.toByteArray()), new ObservableList<>());
+		assertTrue(report.getElapsedNanos() >= 20_000_000);
+	}
+
+	@Test(expected = IOException.class)
+	public void testInvalidTrace() throws IOException {
+		new TraceReplayer<String>(size -> "x", false).replay(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5 }),
+				new ObservableList<>());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidPercentile() throws IOException {
+		recorder.close();
+		new TraceReplayer<String>(size -> "x", false).replay(new ByteArrayInputStream(trace.toByteArray()),
+				new ObservableList<>()).getLatencyPercentile(101);
+	}
+}